@@ -0,0 +1,193 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.apitest.scenario;
+
+import bisq.core.payment.PaymentAccount;
+
+import bisq.proto.grpc.OfferEvent;
+import bisq.proto.grpc.OfferInfo;
+
+import io.grpc.Context;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import static bisq.apitest.config.ApiTestConfig.BTC;
+import static bisq.core.btc.wallet.Restrictions.getDefaultBuyerSecurityDepositAsPercent;
+import static java.lang.System.currentTimeMillis;
+import static java.lang.System.getenv;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static protobuf.OfferDirection.BUY;
+
+
+
+import bisq.apitest.method.offer.AbstractOfferTest;
+
+/**
+ * Compares how fast Bob learns about Alice's new offers when subscribed to offer
+ * book events, versus polling getoffers, and how many calls each approach costs.
+ * Disabled by default.
+ * Set ENV or IDE-ENV LONG_RUNNING_OFFER_EVENTS_TEST_ENABLED=true to run.
+ */
+@EnabledIf("envLongRunningTestEnabled")
+@Slf4j
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class LongRunningOfferEventsTest extends AbstractOfferTest {
+
+    private static final int NUM_OFFERS = 5;
+    private static final long POLLING_INTERVAL_MS = 1000;
+    private static final long MAX_WAIT_MS = 60_000;
+
+    private static final List<String> createdOfferIds = new ArrayList<>();
+
+    @Test
+    @Order(1)
+    public void testOfferEventLatency() throws Exception {
+        PaymentAccount paymentAcct = createDummyF2FAccount(aliceClient, "US");
+        Map<String, Long> eventTimes = new ConcurrentHashMap<>();
+        AtomicInteger numEvents = new AtomicInteger();
+        CountDownLatch subscribed = new CountDownLatch(1);
+        CountDownLatch allAdded = new CountDownLatch(NUM_OFFERS);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Context.CancellableContext subscription = Context.current().withCancellation();
+        executor.submit(() -> subscription.run(() -> {
+            Iterator<OfferEvent> events = bobClient.subscribeOffers(BUY.name(), "USD");
+            subscribed.countDown();
+            try {
+                while (events.hasNext()) {
+                    OfferEvent event = events.next();
+                    numEvents.incrementAndGet();
+                    if (event.getEventType() == OfferEvent.EventType.ADDED
+                            && eventTimes.putIfAbsent(event.getOffer().getId(), currentTimeMillis()) == null)
+                        allAdded.countDown();
+                }
+            } catch (RuntimeException ex) {
+                if (!subscription.isCancelled())
+                    log.error("Offer subscription failed", ex);
+            }
+        }));
+
+        try {
+            assertTrue(subscribed.await(10, SECONDS));
+            Map<String, Long> creationTimes = new ConcurrentHashMap<>();
+            for (int i = 0; i < NUM_OFFERS; i++) {
+                OfferInfo offer = createOffer(paymentAcct);
+                creationTimes.put(offer.getId(), currentTimeMillis());
+                createdOfferIds.add(offer.getId());
+            }
+            genBtcBlocksThenWait(1, 0);
+
+            assertTrue(allAdded.await(MAX_WAIT_MS, MILLISECONDS),
+                    "did not receive an event for every new offer");
+            long sumLatency = creationTimes.entrySet().stream()
+                    .mapToLong(e -> eventTimes.get(e.getKey()) - e.getValue())
+                    .sum();
+            log.info("Subscription: {} offers seen with avg latency {} ms, 1 call, {} events received.",
+                    NUM_OFFERS,
+                    sumLatency / NUM_OFFERS,
+                    numEvents.get());
+        } finally {
+            subscription.cancel(null);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @Order(2)
+    public void testOfferPollingLatency() {
+        PaymentAccount paymentAcct = createDummyF2FAccount(aliceClient, "US");
+        int numCalls = 0;
+        long sumLatency = 0;
+        for (int i = 0; i < NUM_OFFERS; i++) {
+            OfferInfo offer = createOffer(paymentAcct);
+            long createdAt = currentTimeMillis();
+            createdOfferIds.add(offer.getId());
+            genBtcBlocksThenWait(1, 0);
+
+            boolean found = false;
+            while (!found && currentTimeMillis() - createdAt < MAX_WAIT_MS) {
+                numCalls++;
+                found = bobClient.getOffers(BUY.name(), "USD").stream()
+                        .anyMatch(o -> o.getId().equals(offer.getId()));
+                if (!found)
+                    sleep(POLLING_INTERVAL_MS);
+            }
+            assertTrue(found, "offer " + offer.getId() + " never appeared in polled offer book");
+            sumLatency += currentTimeMillis() - createdAt;
+        }
+        log.info("Polling every {} ms: {} offers seen with avg latency {} ms, {} getoffers calls.",
+                POLLING_INTERVAL_MS,
+                NUM_OFFERS,
+                sumLatency / NUM_OFFERS,
+                numCalls);
+    }
+
+    @Test
+    @Order(3)
+    public void testCancelOffers() {
+        createdOfferIds.forEach(aliceClient::cancelOffer);
+        genBtcBlocksThenWait(1, 2500);
+        assertEquals(0, aliceClient.getMyOffers(BUY.name(), "USD").size());
+    }
+
+    private OfferInfo createOffer(PaymentAccount paymentAcct) {
+        return aliceClient.createMarketBasedPricedOffer(BUY.name(),
+                "USD",
+                1_000_000,
+                1_000_000,
+                0.00,
+                getDefaultBuyerSecurityDepositAsPercent(),
+                paymentAcct.getId(),
+                BTC,
+                NO_TRIGGER_PRICE);
+    }
+
+    protected static boolean envLongRunningTestEnabled() {
+        String envName = "LONG_RUNNING_OFFER_EVENTS_TEST_ENABLED";
+        String envX = getenv(envName);
+        if (envX != null) {
+            log.info("Enabled, found {}.", envName);
+            return true;
+        } else {
+            log.info("Skipped, no environment variable {} defined.", envName);
+            log.info("To enable on Mac OS or Linux:"
+                    + "\tIf running in terminal, export LONG_RUNNING_OFFER_EVENTS_TEST_ENABLED=true in bash shell."
+                    + "\tIf running in Intellij, set LONG_RUNNING_OFFER_EVENTS_TEST_ENABLED=true in launcher's Environment variables field.");
+            return false;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.apitest.scenario;
+
+import bisq.core.payment.PaymentAccount;
+
+import bisq.proto.grpc.GetOffersReply;
+import bisq.proto.grpc.OfferInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import static bisq.apitest.config.ApiTestConfig.BTC;
+import static bisq.core.btc.wallet.Restrictions.getDefaultBuyerSecurityDepositAsPercent;
+import static java.lang.System.getenv;
+import static java.lang.System.nanoTime;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static protobuf.OfferDirection.BUY;
+
+
+
+import bisq.apitest.method.offer.AbstractOfferTest;
+
+/**
+ * Compares response size and latency of a full getoffers call with paged and field
+ * projected getoffers calls, for an offer book of 2000 offers.
+ * Disabled by default.
+ * Set ENV or IDE-ENV LONG_RUNNING_OFFER_QUERY_BENCHMARK_ENABLED=true to run.
+ */
+@EnabledIf("envLongRunningTestEnabled")
+@Slf4j
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class LongRunningOfferQueryBenchmarkTest extends AbstractOfferTest {
+
+    private static final int NUM_OFFERS = 2000;
+    private static final int PAGE_SIZE = 100;
+    private static final int NUM_ITERATIONS = 5;
+    private static final List<String> PROJECTED_FIELDS =
+            Arrays.asList("id", "price", "amount", "minAmount", "direction");
+
+    private static final List<String> createdOfferIds = new ArrayList<>();
+
+    @Test
+    @Order(1)
+    public void testCreateOffers() {
+        PaymentAccount paymentAcct = createDummyF2FAccount(aliceClient, "US");
+        for (int i = 0; i < NUM_OFFERS; i++) {
+            OfferInfo offer = aliceClient.createMarketBasedPricedOffer(BUY.name(),
+                    "USD",
+                    100_000,
+                    100_000,
+                    (i % 100) / 10.00,
+                    getDefaultBuyerSecurityDepositAsPercent(),
+                    paymentAcct.getId(),
+                    BTC,
+                    NO_TRIGGER_PRICE);
+            createdOfferIds.add(offer.getId());
+            if ((i + 1) % 100 == 0) {
+                log.info("Created {} offers.", i + 1);
+                genBtcBlocksThenWait(1, 0);
+            }
+        }
+        genBtcBlocksThenWait(1, 5000);  // Wait for offer book entries.
+        assertEquals(NUM_OFFERS, bobClient.getOffers(BUY.name(), "USD").size());
+    }
+
+    @Test
+    @Order(2)
+    public void testFullQuery() {
+        benchmark("full getoffers", 0, Collections.emptyList());
+    }
+
+    @Test
+    @Order(3)
+    public void testPagedQuery() {
+        benchmark("paged getoffers", PAGE_SIZE, Collections.emptyList());
+    }
+
+    @Test
+    @Order(4)
+    public void testPagedAndProjectedQuery() {
+        benchmark("paged, projected getoffers", PAGE_SIZE, PROJECTED_FIELDS);
+    }
+
+    @Test
+    @Order(5)
+    public void testCancelOffers() {
+        createdOfferIds.forEach(aliceClient::cancelOffer);
+        genBtcBlocksThenWait(1, 2500);
+    }
+
+    private void benchmark(String description, int pageSize, List<String> fields) {
+        long sumFirstPageNanos = 0;
+        long sumAllPagesNanos = 0;
+        long numBytesOfFirstPage = 0;
+        long numBytesOfAllPages = 0;
+        for (int i = 0; i < NUM_ITERATIONS; i++) {
+            Set<String> offerIds = new HashSet<>();
+            String pageToken = "";
+            numBytesOfAllPages = 0;
+            long startTime = nanoTime();
+            do {
+                GetOffersReply reply = bobClient.getOffersPage(BUY.name(), "USD", pageSize, pageToken, fields);
+                if (pageToken.isEmpty()) {
+                    sumFirstPageNanos += nanoTime() - startTime;
+                    numBytesOfFirstPage = reply.getSerializedSize();
+                }
+                numBytesOfAllPages += reply.getSerializedSize();
+                reply.getOffersList().forEach(o -> offerIds.add(o.getId()));
+                pageToken = reply.getNextPageToken();
+            } while (!pageToken.isEmpty());
+            sumAllPagesNanos += nanoTime() - startTime;
+            assertEquals(NUM_OFFERS, offerIds.size());
+        }
+        log.info("{}: first page {} bytes in {} ms, all {} offers {} bytes in {} ms (avg of {} runs).",
+                description,
+                numBytesOfFirstPage,
+                sumFirstPageNanos / NUM_ITERATIONS / 1_000_000,
+                NUM_OFFERS,
+                numBytesOfAllPages,
+                sumAllPagesNanos / NUM_ITERATIONS / 1_000_000,
+                NUM_ITERATIONS);
+    }
+
+    protected static boolean envLongRunningTestEnabled() {
+        String envName = "LONG_RUNNING_OFFER_QUERY_BENCHMARK_ENABLED";
+        String envX = getenv(envName);
+        if (envX != null) {
+            log.info("Enabled, found {}.", envName);
+            return true;
+        } else {
+            log.info("Skipped, no environment variable {} defined.", envName);
+            log.info("To enable on Mac OS or Linux:"
+                    + "\tIf running in terminal, export LONG_RUNNING_OFFER_QUERY_BENCHMARK_ENABLED=true in bash shell."
+                    + "\tIf running in Intellij, set LONG_RUNNING_OFFER_QUERY_BENCHMARK_ENABLED=true in launcher's Environment variables field.");
+            return false;
+        }
+    }
+}
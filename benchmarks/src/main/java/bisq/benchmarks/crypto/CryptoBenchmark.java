@@ -0,0 +1,170 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks.crypto;
+
+import bisq.common.crypto.BatchCrypto;
+import bisq.common.crypto.CryptoException;
+import bisq.common.crypto.Encryption;
+import bisq.common.crypto.Hash;
+import bisq.common.crypto.Sig;
+
+import javax.crypto.SecretKey;
+
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.X509EncodedKeySpec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the bisq.common.crypto primitives on the hot paths, single and batched.  The
+ * *Uncached and *NewEngine benchmarks do what the primitives did before engines were
+ * reused and decoded keys cached, as a baseline.  The batch benchmarks process a batch
+ * of 256 items with the given parallelism; divide by 256 for per item numbers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CryptoBenchmark {
+
+    private static final int BATCH_SIZE = 256;
+
+    private byte[] payload;
+    private KeyPair signatureKeyPair;
+    private byte[] publicKeyBytes;
+    private byte[] signature;
+    private KeyPair encryptionKeyPair;
+    private byte[] encryptedSecretKey;
+    private List<BatchCrypto.SignedData> signedDataBatch;
+    private List<byte[]> encryptedSecretKeyBatch;
+
+    @State(Scope.Benchmark)
+    public static class BatchCryptoState {
+        @Param({"1", "4"})
+        public int parallelism;
+
+        private BatchCrypto batchCrypto;
+
+        @Setup
+        public void setup() {
+            batchCrypto = new BatchCrypto(parallelism);
+        }
+
+        @TearDown
+        public void tearDown() {
+            batchCrypto.shutDown();
+        }
+    }
+
+    @Setup
+    public void setup() throws CryptoException {
+        // About the size of a serialized offer payload.
+        payload = new byte[1500];
+        new Random(42).nextBytes(payload);
+        signatureKeyPair = Sig.generateKeyPair();
+        publicKeyBytes = Sig.getPublicKeyBytes(signatureKeyPair.getPublic());
+        signature = Sig.sign(signatureKeyPair.getPrivate(), Hash.getSha256Hash(payload));
+        encryptionKeyPair = Encryption.generateKeyPair();
+        encryptedSecretKey = Encryption.encryptSecretKey(Encryption.generateSecretKey(256),
+                encryptionKeyPair.getPublic());
+
+        signedDataBatch = new ArrayList<>(BATCH_SIZE);
+        encryptedSecretKeyBatch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            signedDataBatch.add(new BatchCrypto.SignedData(signatureKeyPair.getPublic(), Hash.getSha256Hash(payload),
+                    signature));
+            encryptedSecretKeyBatch.add(encryptedSecretKey);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public byte[] sha256() {
+        return Hash.getSha256Hash(payload);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public byte[] sha256NewEngine() throws NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(payload, 0, payload.length);
+        return digest.digest();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public PublicKey publicKeyFromBytes() {
+        return Sig.getPublicKeyFromBytes(publicKeyBytes);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public PublicKey publicKeyFromBytesUncached() throws NoSuchAlgorithmException, InvalidKeySpecException {
+        return KeyFactory.getInstance(Sig.KEY_ALGO).generatePublic(new X509EncodedKeySpec(publicKeyBytes));
+    }
+
+    @Benchmark
+    public byte[] sign() throws CryptoException {
+        return Sig.sign(signatureKeyPair.getPrivate(), payload);
+    }
+
+    @Benchmark
+    public boolean verify() throws CryptoException {
+        return Sig.verify(signatureKeyPair.getPublic(), Hash.getSha256Hash(payload), signature);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean[] verifyBatch(BatchCryptoState state) {
+        return state.batchCrypto.verify(signedDataBatch);
+    }
+
+    @Benchmark
+    public SecretKey decryptSecretKey() throws CryptoException {
+        return Encryption.decryptSecretKey(encryptedSecretKey, encryptionKeyPair.getPrivate());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<SecretKey> decryptSecretKeyBatch(BatchCryptoState state) {
+        return state.batchCrypto.decryptSecretKeys(encryptedSecretKeyBatch, encryptionKeyPair.getPrivate());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks.dao;
+
+import bisq.benchmarks.data.SyntheticData;
+
+import bisq.core.dao.governance.blindvote.BlindVote;
+import bisq.core.dao.governance.votereveal.VoteRevealConsensus;
+
+import bisq.common.util.PermutationHashSearch;
+import bisq.common.util.PermutationUtil;
+import bisq.common.util.Utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the search for the variation of the local blind vote list which matches the majority hash, for a local
+ * list of numBlindVotes blind votes which contains numMissing blind votes the majority has not seen. The missing
+ * blind votes are at the end of the list, which is the worst case as the variations are checked in the order of
+ * the removed indices.  The permutationUtil benchmark repeats the former search as the baseline.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlindVoteListPermutationBenchmark {
+    private static final int MAX_ITERATIONS = 1000000;
+
+    @Param({"60"})
+    public int numBlindVotes;
+
+    @Param({"1", "2", "3"})
+    public int numMissing;
+
+    private List<BlindVote> blindVotes;
+    private byte[] majorityHash;
+
+    @Setup(Level.Trial)
+    public void createBlindVotes() {
+        Random random = new Random(SyntheticData.DEFAULT_SEED);
+        blindVotes = new ArrayList<>();
+        for (int i = 0; i < numBlindVotes; i++) {
+            // Sizes are about the ones of mainnet blind votes with a few merits
+            byte[] encryptedVotes = new byte[200 + random.nextInt(200)];
+            random.nextBytes(encryptedVotes);
+            byte[] encryptedMeritList = new byte[100 + random.nextInt(300)];
+            random.nextBytes(encryptedMeritList);
+            byte[] txId = new byte[32];
+            random.nextBytes(txId);
+            blindVotes.add(new BlindVote(encryptedVotes,
+                    Utilities.bytesAsHexString(txId),
+                    10000 + random.nextInt(100000),
+                    encryptedMeritList,
+                    1600000000000L + i,
+                    new HashMap<>()));
+        }
+        List<BlindVote> majorityList = new ArrayList<>(blindVotes);
+        for (int i = 0; i < numMissing; i++) {
+            majorityList.remove(majorityList.size() - 1 - i * 7);
+        }
+        majorityHash = VoteRevealConsensus.getHashOfBlindVoteList(majorityList);
+    }
+
+    @Benchmark
+    public List<BlindVote> permutationHashSearch() {
+        return PermutationHashSearch.findMatchingPermutation(majorityHash,
+                blindVotes,
+                VoteRevealConsensus::getBlindVoteDataForHash,
+                MAX_ITERATIONS,
+                null);
+    }
+
+    @Benchmark
+    public List<BlindVote> permutationUtil() {
+        return PermutationUtil.findMatchingPermutation(majorityHash,
+                blindVotes,
+                (hash, list) -> Arrays.equals(hash, VoteRevealConsensus.getHashOfBlindVoteList(list)),
+                MAX_ITERATIONS);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks.dao;
+
+import bisq.benchmarks.data.SyntheticData;
+
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.parser.BlockParser;
+import bisq.core.dao.node.parser.exceptions.BlockHashNotConnectingException;
+import bisq.core.dao.node.parser.exceptions.BlockHeightNotConnectingException;
+import bisq.core.dao.state.model.DaoState;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures BlockParser.parseBlock on a synthetic chain of numBlocks blocks, each with
+ * numTxsPerBlock txs of which numBsqTxsPerBlock are BSQ transfers.  As the parser
+ * writes into the dao state, every invocation parses the whole chain into a fresh dao
+ * state; the score is the time for the whole chain.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlockParserBenchmark {
+
+    @Param({"100"})
+    public int numBlocks;
+
+    @Param({"200", "2000"})
+    public int numTxsPerBlock;
+
+    @Param({"10"})
+    public int numBsqTxsPerBlock;
+
+    private SyntheticData data;
+    private List<RawBlock> rawBlocks;
+    private BlockParser blockParser;
+
+    @Setup(Level.Trial)
+    public void setupChain() {
+        data = new SyntheticData(SyntheticData.DEFAULT_SEED);
+        rawBlocks = data.rawBlocks(numBlocks, numTxsPerBlock, numBsqTxsPerBlock);
+    }
+
+    @Setup(Level.Invocation)
+    public void setupDaoState() {
+        blockParser = data.blockParser(new DaoState());
+    }
+
+    @Benchmark
+    public int parseBlocks() throws BlockHashNotConnectingException, BlockHeightNotConnectingException {
+        int numBsqTxs = 0;
+        for (RawBlock rawBlock : rawBlocks) {
+            numBsqTxs += blockParser.parseBlock(rawBlock).getTxs().size();
+        }
+        return numBsqTxs;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks.dao;
+
+import bisq.benchmarks.data.SyntheticData;
+
+import bisq.core.dao.governance.param.Param;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.governance.Cycle;
+import bisq.core.dao.state.model.governance.DaoPhase;
+import bisq.core.dao.state.model.governance.ParamChange;
+import bisq.core.util.coin.BsqFormatter;
+
+import org.bitcoinj.core.Coin;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the param and cycle lookups by height the parser does per block and tx, over a dao state with numCycles
+ * cycles and numParamChanges param changes.  The listScan benchmarks repeat the former lookups which scanned a copy
+ * of the param change list and streamed the cycles, as a baseline for the indexed lookups of the DaoStateService.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DaoParamLookupBenchmark {
+    private static final int CYCLE_DURATION = 1000;
+
+    @org.openjdk.jmh.annotations.Param({"30"})
+    public int numCycles;
+
+    @org.openjdk.jmh.annotations.Param({"100", "1000"})
+    public int numParamChanges;
+
+    private DaoState daoState;
+    private DaoStateService daoStateService;
+    private BsqFormatter bsqFormatter;
+    private int height;
+
+    @Setup(Level.Trial)
+    public void setupDaoState() {
+        bsqFormatter = new BsqFormatter();
+        GenesisTxInfo genesisTxInfo = new GenesisTxInfo(new SyntheticData(SyntheticData.DEFAULT_SEED).getGenesisTxId(),
+                SyntheticData.GENESIS_BLOCK_HEIGHT, SyntheticData.GENESIS_TOTAL_SUPPLY);
+        daoState = new DaoState();
+        daoStateService = new DaoStateService(daoState, genesisTxInfo, bsqFormatter);
+        daoStateService.start();
+        for (int i = 0; i < numCycles; i++) {
+            daoStateService.addCycle(new Cycle(SyntheticData.GENESIS_BLOCK_HEIGHT + i * CYCLE_DURATION,
+                    ImmutableList.of(new DaoPhase(DaoPhase.Phase.PROPOSAL, CYCLE_DURATION))));
+        }
+        // Spread the changes over the cycles and over the BSQ params
+        Param[] params = {Param.PROPOSAL_FEE, Param.DEFAULT_MAKER_FEE_BSQ, Param.DEFAULT_TAKER_FEE_BSQ,
+                Param.MIN_MAKER_FEE_BSQ, Param.MIN_TAKER_FEE_BSQ};
+        for (int i = 0; i < numParamChanges; i++) {
+            int blockHeight = SyntheticData.GENESIS_BLOCK_HEIGHT + (i % (numCycles - 1)) * CYCLE_DURATION;
+            daoStateService.setNewParam(blockHeight, params[i % params.length], String.valueOf(1 + i % 10));
+        }
+        // Last block of the last cycle, the usual case while parsing
+        height = SyntheticData.GENESIS_BLOCK_HEIGHT + numCycles * CYCLE_DURATION - 1;
+    }
+
+    @Benchmark
+    public Coin indexedParamValueAsCoin() {
+        return daoStateService.getParamValueAsCoin(Param.PROPOSAL_FEE, height);
+    }
+
+    @Benchmark
+    public Coin listScanParamValueAsCoin() {
+        return bsqFormatter.parseParamValueToCoin(Param.PROPOSAL_FEE, listScanParamValue(Param.PROPOSAL_FEE, height));
+    }
+
+    @Benchmark
+    public Optional<Cycle> indexedCycle() {
+        return daoStateService.getCycle(height);
+    }
+
+    @Benchmark
+    public Optional<Cycle> listScanCycle() {
+        return daoStateService.getCycles().stream()
+                .filter(cycle -> cycle.getHeightOfFirstBlock() <= height)
+                .filter(cycle -> cycle.getHeightOfLastBlock() >= height)
+                .findAny();
+    }
+
+    private String listScanParamValue(Param param, int blockHeight) {
+        List<ParamChange> paramChangeList = new ArrayList<>(daoState.getParamChangeList());
+        for (int i = paramChangeList.size() - 1; i >= 0; i--) {
+            ParamChange paramChange = paramChangeList.get(i);
+            if (paramChange.getParamName().equals(param.name()) &&
+                    blockHeight >= paramChange.getActivationHeight()) {
+                return paramChange.getValue();
+            }
+        }
+        return param.getDefaultValue();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks.dao;
+
+import bisq.benchmarks.data.SyntheticData;
+
+import bisq.core.dao.state.UtxoCommitment;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of maintaining the UtxoCommitment for a block which spends and creates numOutputsPerBlock
+ * outputs, over a UTXO set of numUtxos outputs. The rebuild benchmark is the cost of building the commitment from
+ * scratch, which we pay once after a snapshot was applied.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UtxoCommitmentBenchmark {
+    @Param({"100000"})
+    public int numUtxos;
+
+    @Param({"10", "100"})
+    public int numOutputsPerBlock;
+
+    private List<TxOutput> utxos;
+    private List<TxOutput> blockOutputs;
+    private UtxoCommitment utxoCommitment;
+
+    @Setup(Level.Trial)
+    public void setupUtxos() {
+        utxos = new ArrayList<>(numUtxos);
+        for (int i = 0; i < numUtxos; i++) {
+            utxos.add(txOutput("utxo" + i / 2, i % 2, 10_000 + i));
+        }
+        blockOutputs = new ArrayList<>(numOutputsPerBlock);
+        for (int i = 0; i < numOutputsPerBlock; i++) {
+            blockOutputs.add(txOutput("block" + i / 2, i % 2, 20_000 + i));
+        }
+        utxoCommitment = new UtxoCommitment();
+        utxoCommitment.reset(utxos);
+    }
+
+    // Spends the first numOutputsPerBlock utxos and adds the new outputs, then reverts it so the state is unchanged
+    @Benchmark
+    public UtxoCommitment applyAndRevertBlock() {
+        for (int i = 0; i < numOutputsPerBlock; i++) {
+            utxoCommitment.remove(utxos.get(i));
+            utxoCommitment.add(blockOutputs.get(i));
+        }
+        for (int i = 0; i < numOutputsPerBlock; i++) {
+            utxoCommitment.remove(blockOutputs.get(i));
+            utxoCommitment.add(utxos.get(i));
+        }
+        return utxoCommitment;
+    }
+
+    @Benchmark
+    public byte[] packedDigests() {
+        return utxoCommitment.getPackedDigests();
+    }
+
+    @Benchmark
+    public UtxoCommitment rebuild() {
+        UtxoCommitment commitment = new UtxoCommitment();
+        commitment.reset(utxos);
+        return commitment;
+    }
+
+    private static TxOutput txOutput(String txId, int index, long value) {
+        return TxOutput.fromProto(protobuf.BaseTxOutput.newBuilder()
+                .setTxId(txId)
+                .setIndex(index)
+                .setValue(value)
+                .setBlockHeight(SyntheticData.GENESIS_BLOCK_HEIGHT)
+                .setTxOutput(protobuf.TxOutput.newBuilder()
+                        .setTxOutputType(protobuf.TxOutputType.BSQ_OUTPUT)
+                        .setLockTime(-1))
+                .build());
+    }
+}
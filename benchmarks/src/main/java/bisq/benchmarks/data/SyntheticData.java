@@ -0,0 +1,333 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks.data;
+
+import bisq.core.dao.governance.period.PeriodService;
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.full.RawTx;
+import bisq.core.dao.node.full.RawTxOutput;
+import bisq.core.dao.node.parser.BlockParser;
+import bisq.core.dao.node.parser.TxParser;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.TxInput;
+import bisq.core.offer.OfferDirection;
+import bisq.core.offer.bisq_v1.OfferPayload;
+import bisq.core.trade.statistics.TradeStatistics3;
+import bisq.core.util.coin.BsqFormatter;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.app.Version;
+import bisq.common.crypto.Encryption;
+import bisq.common.crypto.PubKeyRing;
+import bisq.common.crypto.Sig;
+import bisq.common.util.Utilities;
+
+import com.google.common.collect.ImmutableList;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import lombok.Value;
+
+/**
+ * Generates the data sets used by the benchmarks.  All data is derived from a seeded
+ * {@link Random}, so no network access, data directory or resource files are needed and
+ * runs with the same seed operate on the same payloads.  Only DSA signatures differ
+ * between runs as their nonce is always random.
+ */
+public final class SyntheticData {
+
+    public static final long DEFAULT_SEED = 42;
+
+    // Fixed wall clock so entries created in the setup never expire during a run.
+    public static final long NOW = 1_640_995_200_000L; // 2022-01-01
+    public static final Clock CLOCK = Clock.fixed(Instant.ofEpochMilli(NOW), ZoneOffset.UTC);
+
+    // Above the mainnet hard fork 1 height so the current tx parsing rules apply.
+    public static final int GENESIS_BLOCK_HEIGHT = 700_000;
+    public static final long GENESIS_TOTAL_SUPPLY = 250_000_000; // 2.5M BSQ
+    private static final int NUM_GENESIS_OUTPUTS = 100;
+
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "CAD", "JPY", "BRL", "CHF", "AUD"};
+    private static final String[] PAYMENT_METHODS = {"SEPA", "SEPA_INSTANT", "FASTER_PAYMENTS", "REVOLUT",
+            "NATIONAL_BANK", "F2F"};
+
+    /**
+     * The keys and address of an offer maker.  Offers of the same maker share them,
+     * as they do on the network.
+     */
+    @Value
+    public static class Maker {
+        KeyPair signatureKeyPair;
+        PubKeyRing pubKeyRing;
+        NodeAddress nodeAddress;
+    }
+
+    private final Random random;
+    private final SecureRandom keyRandom;
+    private final String genesisTxId;
+
+    public SyntheticData(long seed) {
+        random = new Random(seed);
+        try {
+            // SHA1PRNG is deterministic if seeded before first use.
+            keyRandom = SecureRandom.getInstance("SHA1PRNG");
+            keyRandom.setSeed(seed);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        genesisTxId = randomHash();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Offers and trade statistics
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public List<Maker> makers(int numMakers) {
+        List<Maker> makers = new ArrayList<>(numMakers);
+        for (int i = 0; i < numMakers; i++) {
+            // The offer payload owner key has to be the key the storage entry gets signed with.
+            KeyPair signatureKeyPair = generateKeyPair(Sig.KEY_ALGO, 1024);
+            KeyPair encryptionKeyPair = generateKeyPair(Encryption.ASYM_KEY_ALGO, 2048);
+            makers.add(new Maker(signatureKeyPair,
+                    new PubKeyRing(signatureKeyPair.getPublic(), encryptionKeyPair.getPublic()),
+                    new NodeAddress(randomOnionHost(), 9999)));
+        }
+        return makers;
+    }
+
+    public OfferPayload offerPayload(Maker maker) {
+        String currencyCode = pick(CURRENCIES);
+        long amount = 100_000L * (1 + random.nextInt(500));
+        boolean useMarketBasedPrice = random.nextBoolean();
+        String paymentMethodId = pick(PAYMENT_METHODS);
+        boolean isSepa = paymentMethodId.startsWith("SEPA");
+        return new OfferPayload(randomHash().substring(0, 8) + "-" + randomHash().substring(0, 36),
+                NOW - random.nextInt(3_600_000),
+                maker.getNodeAddress(),
+                maker.getPubKeyRing(),
+                random.nextBoolean() ? OfferDirection.BUY : OfferDirection.SELL,
+                useMarketBasedPrice ? 0 : 400_000_000L + random.nextInt(100_000_000),
+                useMarketBasedPrice ? (random.nextInt(200) - 100) / 1000d : 0,
+                useMarketBasedPrice,
+                amount,
+                amount / (1 + random.nextInt(4)),
+                "BTC",
+                currencyCode,
+                Collections.emptyList(),
+                Collections.singletonList(new NodeAddress(randomOnionHost(), 9999)),
+                paymentMethodId,
+                randomHash().substring(0, 36),
+                randomHash(),
+                isSepa ? "DE" : null,
+                isSepa ? List.of("AT", "BE", "DE", "ES", "FR", "IT", "NL") : null,
+                null,
+                null,
+                Version.VERSION,
+                GENESIS_BLOCK_HEIGHT + random.nextInt(10_000),
+                5_000 + random.nextInt(20_000),
+                amount / 100,
+                true,
+                amount * 15 / 100,
+                amount * 15 / 100,
+                100_000_000L,
+                691_200_000L,
+                false,
+                false,
+                0,
+                0,
+                false,
+                null,
+                null,
+                Version.TRADE_PROTOCOL_VERSION);
+    }
+
+    public List<TradeStatistics3> tradeStatistics(int numTradeStatistics) {
+        return IntStream.range(0, numTradeStatistics)
+                .mapToObj(i -> new TradeStatistics3(pick(CURRENCIES),
+                        400_000_000L + random.nextInt(100_000_000),
+                        100_000L * (1 + random.nextInt(500)),
+                        pick(PAYMENT_METHODS),
+                        NOW - (long) random.nextInt(Integer.MAX_VALUE) * 10,
+                        randomOnionHost().substring(0, 4),
+                        randomOnionHost().substring(0, 4),
+                        (Map<String, String>) null))
+                .collect(Collectors.toList());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // DAO
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Creates a connected chain of raw blocks starting with the genesis block.  Each block
+     * after the genesis block contains numTxsPerBlock txs of which numBsqTxsPerBlock are
+     * BSQ transfers splitting the oldest BSQ output into two, the remaining txs are
+     * plain BTC txs which the parser has to look at but ignores.
+     */
+    public List<RawBlock> rawBlocks(int numBlocks, int numTxsPerBlock, int numBsqTxsPerBlock) {
+        List<RawBlock> rawBlocks = new ArrayList<>(numBlocks);
+        Deque<RawTxOutput> bsqOutputs = new ArrayDeque<>();
+        String previousBlockHash = randomHash();
+        for (int height = GENESIS_BLOCK_HEIGHT; height < GENESIS_BLOCK_HEIGHT + numBlocks; height++) {
+            String blockHash = randomHash();
+            long time = NOW / 1000 + (long) (height - GENESIS_BLOCK_HEIGHT) * 600;
+            List<RawTx> rawTxs = new ArrayList<>(numTxsPerBlock);
+            if (height == GENESIS_BLOCK_HEIGHT) {
+                List<Long> values = Collections.nCopies(NUM_GENESIS_OUTPUTS, GENESIS_TOTAL_SUPPLY / NUM_GENESIS_OUTPUTS);
+                RawTx genesisTx = rawTx(genesisTxId, height, blockHash, time, btcInputs(2), values, false);
+                bsqOutputs.addAll(genesisTx.getRawTxOutputs());
+                rawTxs.add(genesisTx);
+            } else {
+                for (int i = 0; i < numBsqTxsPerBlock && !bsqOutputs.isEmpty(); i++) {
+                    RawTxOutput spent = bsqOutputs.poll();
+                    long value = spent.getValue();
+                    List<Long> values = value > 1_000 ? List.of(value / 2, value - value / 2) : List.of(value);
+                    RawTx bsqTx = rawTx(randomHash(), height, blockHash, time,
+                            ImmutableList.<TxInput>builder()
+                                    .add(new TxInput(spent.getTxId(), spent.getIndex(), null))
+                                    .addAll(btcInputs(1))
+                                    .build(),
+                            values,
+                            true);
+                    bsqOutputs.addAll(bsqTx.getRawTxOutputs().subList(0, values.size()));
+                    rawTxs.add(bsqTx);
+                }
+            }
+            while (rawTxs.size() < numTxsPerBlock) {
+                rawTxs.add(rawTx(randomHash(), height, blockHash, time, btcInputs(1 + random.nextInt(3)),
+                        List.of(100_000L + random.nextInt(10_000_000)), true));
+            }
+            rawBlocks.add(RawBlock.fromProto(protobuf.BaseBlock.newBuilder()
+                    .setHeight(height)
+                    .setTime(time)
+                    .setHash(blockHash)
+                    .setPreviousBlockHash(previousBlockHash)
+                    .setRawBlock(protobuf.RawBlock.newBuilder()
+                            .addAllRawTxs(rawTxs.stream().map(RawTx::toProtoMessage).collect(Collectors.toList())))
+                    .build()));
+            previousBlockHash = blockHash;
+        }
+        return rawBlocks;
+    }
+
+    public String getGenesisTxId() {
+        return genesisTxId;
+    }
+
+    /**
+     * Creates a block parser writing into the given dao state, wired the same way as by
+     * the DAO module but without any listeners.
+     */
+    public BlockParser blockParser(DaoState daoState) {
+        GenesisTxInfo genesisTxInfo = new GenesisTxInfo(genesisTxId, GENESIS_BLOCK_HEIGHT, GENESIS_TOTAL_SUPPLY);
+        DaoStateService daoStateService = new DaoStateService(daoState, genesisTxInfo, new BsqFormatter());
+        return new BlockParser(new TxParser(new PeriodService(daoStateService), daoStateService), daoStateService);
+    }
+
+    /**
+     * Creates a dao state by parsing a synthetic chain of numBlocks blocks.
+     */
+    public DaoState daoState(int numBlocks, int numTxsPerBlock, int numBsqTxsPerBlock) {
+        DaoState daoState = new DaoState();
+        BlockParser blockParser = blockParser(daoState);
+        try {
+            for (RawBlock rawBlock : rawBlocks(numBlocks, numTxsPerBlock, numBsqTxsPerBlock)) {
+                blockParser.parseBlock(rawBlock);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Synthetic block chain does not connect", e);
+        }
+        return daoState;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private RawTx rawTx(String txId,
+                        int height,
+                        String blockHash,
+                        long time,
+                        ImmutableList<TxInput> txInputs,
+                        List<Long> values,
+                        boolean addBtcChangeOutput) {
+        List<RawTxOutput> outputs = new ArrayList<>();
+        for (long value : values) {
+            outputs.add(new RawTxOutput(outputs.size(), value, txId, null, null, null, height));
+        }
+        if (addBtcChangeOutput) {
+            // Exceeds any available BSQ input value, so it is always a BTC output.
+            outputs.add(new RawTxOutput(outputs.size(), 10_000_000_000L + random.nextInt(1_000_000), txId,
+                    null, null, null, height));
+        }
+        return new RawTx(txId, height, blockHash, time, txInputs, ImmutableList.copyOf(outputs));
+    }
+
+    private ImmutableList<TxInput> btcInputs(int numInputs) {
+        return IntStream.range(0, numInputs)
+                .mapToObj(i -> new TxInput(randomHash(), random.nextInt(4), null))
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    private KeyPair generateKeyPair(String algorithm, int keySize) {
+        try {
+            KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(algorithm);
+            keyPairGenerator.initialize(keySize, keyRandom);
+            return keyPairGenerator.genKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String randomHash() {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return Utilities.bytesAsHexString(bytes);
+    }
+
+    private String randomOnionHost() {
+        return randomHash().substring(0, 56) + ".onion";
+    }
+
+    private <T> T pick(T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
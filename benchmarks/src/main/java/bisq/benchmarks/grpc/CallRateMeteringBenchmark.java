@@ -0,0 +1,150 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks.grpc;
+
+import bisq.proto.grpc.GetVersionGrpc;
+import bisq.proto.grpc.GetVersionReply;
+import bisq.proto.grpc.GetVersionRequest;
+
+import io.grpc.Attributes;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+
+import bisq.daemon.grpc.interceptor.CallMetricsInterceptor;
+import bisq.daemon.grpc.interceptor.CallRateMeteringInterceptor;
+import bisq.daemon.grpc.interceptor.GrpcCallRateMeter;
+
+/**
+ * Measures the per call overhead of the gRPC call rate metering and call metrics
+ * interceptors, single threaded and with 8 threads calling the same method.  The
+ * rate limit is high enough to not deny calls.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CallRateMeteringBenchmark {
+
+    private static final MethodDescriptor<GetVersionRequest, GetVersionReply> METHOD =
+            GetVersionGrpc.getGetVersionMethod();
+
+    private static final ServerCall.Listener<GetVersionRequest> NOOP_LISTENER = new ServerCall.Listener<>() {
+    };
+    private static final ServerCallHandler<GetVersionRequest, GetVersionReply> NOOP_HANDLER =
+            (call, headers) -> NOOP_LISTENER;
+
+    private GrpcCallRateMeter rateMeter;
+    private CallRateMeteringInterceptor rateMeteringInterceptor;
+    private CallMetricsInterceptor callMetricsInterceptor;
+    private final Metadata headers = new Metadata();
+
+    @Setup
+    public void setup() {
+        rateMeter = new GrpcCallRateMeter(Integer.MAX_VALUE, TimeUnit.SECONDS);
+        Map<String, GrpcCallRateMeter> rateMeters = new HashMap<>();
+        rateMeters.put(METHOD.getFullMethodName(), new GrpcCallRateMeter(Integer.MAX_VALUE, TimeUnit.SECONDS));
+        rateMeteringInterceptor = CallRateMeteringInterceptor.valueOf(rateMeters);
+        callMetricsInterceptor = new CallMetricsInterceptor();
+    }
+
+    @Benchmark
+    public boolean rateMeterCheckAndIncrement() {
+        return rateMeter.checkAndIncrement();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean rateMeterCheckAndIncrementContended() {
+        return rateMeter.checkAndIncrement();
+    }
+
+    @Benchmark
+    public ServerCall.Listener<GetVersionRequest> rateMeteringInterceptor() {
+        return rateMeteringInterceptor.interceptCall(new NoopServerCall(), headers, NOOP_HANDLER);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public ServerCall.Listener<GetVersionRequest> rateMeteringInterceptorContended() {
+        return rateMeteringInterceptor.interceptCall(new NoopServerCall(), headers, NOOP_HANDLER);
+    }
+
+    @Benchmark
+    public ServerCall.Listener<GetVersionRequest> callMetricsInterceptor() {
+        return callMetricsInterceptor.interceptCall(new NoopServerCall(), headers, (call, headers) -> {
+            call.close(Status.OK, headers);
+            return NOOP_LISTENER;
+        });
+    }
+
+    private static class NoopServerCall extends ServerCall<GetVersionRequest, GetVersionReply> {
+        @Override
+        public void request(int numMessages) {
+        }
+
+        @Override
+        public void sendHeaders(Metadata headers) {
+        }
+
+        @Override
+        public void sendMessage(GetVersionReply message) {
+        }
+
+        @Override
+        public void close(Status status, Metadata trailers) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public Attributes getAttributes() {
+            return Attributes.EMPTY;
+        }
+
+        @Override
+        public MethodDescriptor<GetVersionRequest, GetVersionReply> getMethodDescriptor() {
+            return METHOD;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks.p2p;
+
+import bisq.benchmarks.data.SyntheticData;
+
+import bisq.core.offer.bisq_v1.OfferPayload;
+import bisq.core.trade.statistics.TradeStatistics3;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures P2PDataStorage.get32ByteHash, which serializes the payload to protobuf and
+ * hashes the bytes, for the payloads hashed most often: offers (at every add, refresh
+ * and remove) and trade statistics.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Get32ByteHashBenchmark {
+
+    private OfferPayload offerPayload;
+    private P2PDataStorage.DataAndSeqNrPair dataAndSeqNrPair;
+    private TradeStatistics3 tradeStatistics;
+
+    @Setup
+    public void setup() {
+        SyntheticData data = new SyntheticData(SyntheticData.DEFAULT_SEED);
+        offerPayload = data.offerPayload(data.makers(1).get(0));
+        dataAndSeqNrPair = new P2PDataStorage.DataAndSeqNrPair(offerPayload, 1);
+        tradeStatistics = data.tradeStatistics(1).get(0);
+    }
+
+    @Benchmark
+    public byte[] offerPayload() {
+        return P2PDataStorage.get32ByteHash(offerPayload);
+    }
+
+    @Benchmark
+    public byte[] offerPayloadWithSequenceNumber() {
+        return P2PDataStorage.get32ByteHash(dataAndSeqNrPair);
+    }
+
+    @Benchmark
+    public byte[] tradeStatistics() {
+        return P2PDataStorage.get32ByteHash(tradeStatistics);
+    }
+}
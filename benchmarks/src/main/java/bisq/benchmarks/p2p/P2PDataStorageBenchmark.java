@@ -0,0 +1,176 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks.p2p;
+
+import bisq.benchmarks.data.SyntheticData;
+
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.peers.Broadcaster;
+import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
+import bisq.network.p2p.storage.persistence.ProtectedDataStoreService;
+import bisq.network.p2p.storage.persistence.RemovedPayloadsService;
+import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
+
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
+import bisq.common.crypto.CryptoException;
+import bisq.common.persistence.PersistenceManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures adding signed offers to the P2PDataStorage and building the GetDataResponse
+ * a seed node sends to a peer which already knows a share of the stored offers.  The
+ * network, broadcaster and persistence collaborators are stubs, so only the storage
+ * itself (hashing, signature verification, sequence number checks and filtering) is
+ * measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class P2PDataStorageBenchmark {
+
+    // Same as GetDataRequestHandler.MAX_ENTRIES.
+    private static final int MAX_ENTRIES_PER_TYPE = 10_000;
+    // Same as the MAX_SEQUENCE_NUMBER_MAP_SIZE_BEFORE_PURGE binding in P2PModule.
+    private static final int MAX_SEQUENCE_NUMBER_MAP_SIZE_BEFORE_PURGE = 1000;
+    private static final int NUM_MAKERS = 20;
+
+    @Param({"1000", "10000"})
+    public int numEntries;
+
+    // Share of the stored entries the requesting peer already knows.
+    @Param({"0", "90"})
+    public int knownPercent;
+
+    private List<ProtectedStorageEntry> entries;
+    private P2PDataStorage filledStorage;
+    private GetDataRequest getDataRequest;
+    private final Capabilities peerCapabilities = new Capabilities(Arrays.asList(Capability.values()));
+
+    @State(Scope.Thread)
+    public static class EmptyStorage {
+        private P2PDataStorage storage;
+
+        @Setup(Level.Invocation)
+        public void setup() {
+            storage = newP2PDataStorage();
+        }
+    }
+
+    @Setup
+    public void setup() throws CryptoException {
+        SyntheticData data = new SyntheticData(SyntheticData.DEFAULT_SEED);
+        List<SyntheticData.Maker> makers = data.makers(NUM_MAKERS);
+        P2PDataStorage signingStorage = newP2PDataStorage();
+        entries = new ArrayList<>(numEntries);
+        for (int i = 0; i < numEntries; i++) {
+            SyntheticData.Maker maker = makers.get(i % NUM_MAKERS);
+            entries.add(signingStorage.getProtectedStorageEntry(data.offerPayload(maker),
+                    maker.getSignatureKeyPair()));
+        }
+
+        filledStorage = newP2PDataStorage();
+        entries.forEach(entry -> filledStorage.addProtectedStorageEntry(entry, null, null));
+
+        Set<byte[]> excludedKeys = entries.stream()
+                .limit((long) numEntries * knownPercent / 100)
+                .map(entry -> P2PDataStorage.get32ByteHash(entry.getProtectedStoragePayload()))
+                .collect(Collectors.toSet());
+        getDataRequest = new PreliminaryGetDataRequest(1, excludedKeys);
+    }
+
+    /**
+     * Adds all entries to an empty storage; the score is the time for the whole batch.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 10)
+    public int addProtectedStorageEntries(EmptyStorage emptyStorage) {
+        int numAdded = 0;
+        for (ProtectedStorageEntry entry : entries) {
+            if (emptyStorage.storage.addProtectedStorageEntry(entry, null, null)) {
+                numAdded++;
+            }
+        }
+        return numAdded;
+    }
+
+    /**
+     * Re-adds an already stored entry, the common case when the same offer gets flooded
+     * in from several peers.
+     */
+    @Benchmark
+    public boolean addKnownProtectedStorageEntry() {
+        return filledStorage.addProtectedStorageEntry(entries.get(entries.size() / 2), null, null);
+    }
+
+    @Benchmark
+    public GetDataResponse buildGetDataResponse() {
+        return filledStorage.buildGetDataResponse(getDataRequest,
+                MAX_ENTRIES_PER_TYPE,
+                new AtomicBoolean(),
+                new AtomicBoolean(),
+                peerCapabilities);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static P2PDataStorage newP2PDataStorage() {
+        return new P2PDataStorage(mock(NetworkNode.class, withSettings().stubOnly()),
+                mock(Broadcaster.class, withSettings().stubOnly()),
+                new AppendOnlyDataStoreService(),
+                new ProtectedDataStoreService(),
+                mock(ResourceDataStoreService.class, withSettings().stubOnly()),
+                mock(PersistenceManager.class, withSettings().stubOnly()),
+                mock(RemovedPayloadsService.class, withSettings().stubOnly()),
+                SyntheticData.CLOCK,
+                MAX_SEQUENCE_NUMBER_MAP_SIZE_BEFORE_PURGE);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks.p2p;
+
+import bisq.benchmarks.data.SyntheticData;
+
+import bisq.core.offer.bisq_v1.OfferPayload;
+
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.peers.Broadcaster;
+import bisq.network.p2p.storage.P2PDataStorage;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.p2p.storage.persistence.AppendOnlyDataStoreService;
+import bisq.network.p2p.storage.persistence.ProtectedDataStoreService;
+import bisq.network.p2p.storage.persistence.RemovedPayloadsService;
+import bisq.network.p2p.storage.persistence.ResourceDataStoreService;
+
+import bisq.common.persistence.PersistenceManager;
+
+import java.time.Clock;
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures the periodic TTL check of the P2PDataStorage on a storage filled with offers
+ * whose creation dates are spread over the last TTL, like on a seed node.  Before each
+ * invocation the entries which are due get added again, so every sweep removes the same
+ * number of entries.  Entries get added without signatures, the sweep does not verify them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RemoveExpiredEntriesBenchmark {
+
+    // Same as the MAX_SEQUENCE_NUMBER_MAP_SIZE_BEFORE_PURGE binding in P2PModule.
+    private static final int MAX_SEQUENCE_NUMBER_MAP_SIZE_BEFORE_PURGE = 1000;
+    private static final int NUM_MAKERS = 20;
+
+    @Param({"10000", "100000"})
+    public int numEntries;
+
+    // Number of entries which have expired since the previous sweep.
+    @Param({"0", "100"})
+    public int numDue;
+
+    private P2PDataStorage storage;
+    private List<ProtectedStorageEntry> dueEntries;
+
+    @Setup
+    public void setup() {
+        SyntheticData data = new SyntheticData(SyntheticData.DEFAULT_SEED);
+        List<SyntheticData.Maker> makers = data.makers(NUM_MAKERS);
+        Random random = new Random(SyntheticData.DEFAULT_SEED);
+        storage = new P2PDataStorage(mock(NetworkNode.class, withSettings().stubOnly()),
+                mock(Broadcaster.class, withSettings().stubOnly()),
+                new AppendOnlyDataStoreService(),
+                new ProtectedDataStoreService(),
+                mock(ResourceDataStoreService.class, withSettings().stubOnly()),
+                mock(PersistenceManager.class, withSettings().stubOnly()),
+                mock(RemovedPayloadsService.class, withSettings().stubOnly()),
+                SyntheticData.CLOCK,
+                MAX_SEQUENCE_NUMBER_MAP_SIZE_BEFORE_PURGE);
+
+        dueEntries = new ArrayList<>(numDue);
+        for (int i = 0; i < numEntries; i++) {
+            SyntheticData.Maker maker = makers.get(i % NUM_MAKERS);
+            boolean isDue = i < numDue;
+            // Live entries got created within the last TTL, due ones up to a minute before that.
+            long age = isDue ?
+                    OfferPayload.TTL + 1 + random.nextInt(60_000) :
+                    random.nextInt((int) OfferPayload.TTL);
+            ProtectedStorageEntry entry = new ProtectedStorageEntry(data.offerPayload(maker),
+                    maker.getSignatureKeyPair().getPublic(),
+                    1,
+                    new byte[0],
+                    Clock.offset(SyntheticData.CLOCK, Duration.ofMillis(-age)));
+            if (isDue) {
+                dueEntries.add(entry);
+            } else {
+                storage.addProtectedMailboxStorageEntryToMap(entry);
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void addDueEntries() {
+        dueEntries.forEach(storage::addProtectedMailboxStorageEntryToMap);
+    }
+
+    @Benchmark
+    public int removeExpiredEntries() {
+        storage.removeExpiredEntries();
+        return storage.getMap().size();
+    }
+}
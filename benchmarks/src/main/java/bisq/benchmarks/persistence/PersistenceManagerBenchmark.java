@@ -0,0 +1,105 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks.persistence;
+
+import bisq.benchmarks.data.SyntheticData;
+
+import bisq.core.proto.network.CoreNetworkProtoResolver;
+import bisq.core.proto.persistable.CorePersistenceProtoResolver;
+import bisq.core.trade.statistics.TradeStatistics3Store;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import bisq.common.file.CorruptedStorageFileHandler;
+import bisq.common.file.FileUtil;
+import bisq.common.persistence.PersistenceManager;
+
+import java.nio.file.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures writing and reading a trade statistics store, the largest of the network data
+ * stores, with the PersistenceManager.  Writing includes the protobuf serialization done
+ * at persistNow and the fsync; reading includes parsing with the persistence proto
+ * resolver.  The store file lives in a temp directory which gets deleted at tear down.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersistenceManagerBenchmark {
+
+    @Param({"10000", "100000"})
+    public int numEntries;
+
+    private File storageDir;
+    private TradeStatistics3Store store;
+    private PersistenceManager<TradeStatistics3Store> persistenceManager;
+
+    @Setup
+    public void setup() throws IOException {
+        store = new TradeStatistics3Store();
+        new SyntheticData(SyntheticData.DEFAULT_SEED).tradeStatistics(numEntries)
+                .forEach(e -> store.getMap().put(new P2PDataStorage.ByteArray(e.getHash()), e));
+
+        storageDir = Files.createTempDirectory("bisq-benchmarks").toFile();
+        CoreNetworkProtoResolver networkProtoResolver = new CoreNetworkProtoResolver(SyntheticData.CLOCK);
+        persistenceManager = new PersistenceManager<>(storageDir,
+                new CorePersistenceProtoResolver(() -> null, networkProtoResolver),
+                new CorruptedStorageFileHandler());
+        persistenceManager.initialize(store, PersistenceManager.Source.NETWORK);
+        // Writes are only permitted once the application has completed start up.
+        PersistenceManager.onAllServicesInitialized();
+        writeStore();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        persistenceManager.shutdown();
+        FileUtil.deleteDirectory(storageDir);
+    }
+
+    @Benchmark
+    public void writeStore() {
+        persistenceManager.writeToDisk((protobuf.PersistableEnvelope) store.toPersistableMessage(), null);
+    }
+
+    @Benchmark
+    public TradeStatistics3Store readStore() {
+        return persistenceManager.getPersisted();
+    }
+}
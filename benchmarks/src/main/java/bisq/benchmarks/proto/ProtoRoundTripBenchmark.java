@@ -0,0 +1,128 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks.proto;
+
+import bisq.benchmarks.data.SyntheticData;
+
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.storage.DaoStateStore;
+import bisq.core.offer.Offer;
+import bisq.core.offer.bisq_v1.OfferPayload;
+import bisq.core.proto.network.CoreNetworkProtoResolver;
+import bisq.core.proto.persistable.CorePersistenceProtoResolver;
+import bisq.core.trade.statistics.TradeStatistics3;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures serializing to and parsing from protobuf bytes, with the core proto
+ * resolvers, of an offer, a trade statistics object and the dao state.  The dao state
+ * is the result of parsing a synthetic chain of numDaoBlocks blocks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProtoRoundTripBenchmark {
+
+    private static final int NUM_TXS_PER_BLOCK = 20;
+    private static final int NUM_BSQ_TXS_PER_BLOCK = 2;
+
+    @Param({"1000"})
+    public int numDaoBlocks;
+
+    private CoreNetworkProtoResolver networkProtoResolver;
+    private CorePersistenceProtoResolver persistenceProtoResolver;
+
+    private OfferPayload offerPayload;
+    private byte[] offerPayloadBytes;
+    private TradeStatistics3 tradeStatistics;
+    private byte[] tradeStatisticsBytes;
+    private DaoState daoState;
+    private byte[] daoStateStoreBytes;
+
+    @Setup
+    public void setup() {
+        networkProtoResolver = new CoreNetworkProtoResolver(SyntheticData.CLOCK);
+        persistenceProtoResolver = new CorePersistenceProtoResolver(() -> null, networkProtoResolver);
+
+        SyntheticData data = new SyntheticData(SyntheticData.DEFAULT_SEED);
+        offerPayload = data.offerPayload(data.makers(1).get(0));
+        offerPayloadBytes = offerToBytes();
+        tradeStatistics = data.tradeStatistics(1).get(0);
+        tradeStatisticsBytes = tradeStatisticsToBytes();
+        daoState = data.daoState(numDaoBlocks, NUM_TXS_PER_BLOCK, NUM_BSQ_TXS_PER_BLOCK);
+        daoStateStoreBytes = daoStateToBytes();
+    }
+
+    @Benchmark
+    public byte[] offerToBytes() {
+        return offerPayload.toProtoMessage().toByteArray();
+    }
+
+    @Benchmark
+    public Offer offerFromBytes() throws InvalidProtocolBufferException {
+        protobuf.StoragePayload proto = protobuf.StoragePayload.parseFrom(offerPayloadBytes);
+        return new Offer((OfferPayload) networkProtoResolver.fromProto(proto));
+    }
+
+    @Benchmark
+    public byte[] tradeStatisticsToBytes() {
+        return tradeStatistics.toProtoMessage().toByteArray();
+    }
+
+    @Benchmark
+    public TradeStatistics3 tradeStatisticsFromBytes() throws InvalidProtocolBufferException {
+        protobuf.PersistableNetworkPayload proto = protobuf.PersistableNetworkPayload.parseFrom(tradeStatisticsBytes);
+        return (TradeStatistics3) networkProtoResolver.fromProto(proto);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public byte[] daoStateToBytes() {
+        return protobuf.PersistableEnvelope.newBuilder()
+                .setDaoStateStore(protobuf.DaoStateStore.newBuilder()
+                        .setDaoState(daoState.getBsqStateBuilder()))
+                .build()
+                .toByteArray();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public DaoState daoStateFromBytes() throws InvalidProtocolBufferException {
+        protobuf.PersistableEnvelope proto = protobuf.PersistableEnvelope.parseFrom(daoStateStoreBytes);
+        DaoStateStore daoStateStore = (DaoStateStore) persistenceProtoResolver.fromProto(proto);
+        return DaoState.fromProto(daoStateStore.getDaoStateAsProto());
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.benchmarks.startup;
+
+import bisq.core.app.BisqHeadlessAppMain;
+
+import bisq.common.persistence.StartupTimeline;
+
+import java.lang.management.ManagementFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Starts the headless app on an existing data directory up to the point where all persisted data is read and
+ * {@code startApplication} would be called, prints the startup timeline and exits. No network connections are made.
+ * <p/>
+ * Use a copy of a real data directory, as the stores might get written at shut down:
+ * <pre>
+ * ./gradlew :benchmarks:startupLoad -PstartupArgs='--appDataDir=/tmp/bisq-copy --baseCurrencyNetwork=BTC_MAINNET'
+ * </pre>
+ */
+@Slf4j
+public class StartupLoadHarness extends BisqHeadlessAppMain {
+
+    public static void main(String[] args) {
+        Thread.currentThread().setContextClassLoader(StartupLoadHarness.class.getClassLoader());
+        new StartupLoadHarness().execute(args);
+    }
+
+    @Override
+    protected void startApplication() {
+        long timeSinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println(StartupTimeline.getReport());
+        System.out.println("Time from JVM start to startApplication: " + timeSinceJvmStart + " ms");
+        System.exit(EXIT_SUCCESS);
+    }
+}
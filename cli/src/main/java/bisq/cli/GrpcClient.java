@@ -25,13 +25,18 @@ import bisq.proto.grpc.BsqSwapTradeInfo;
 import bisq.proto.grpc.BtcBalanceInfo;
 import bisq.proto.grpc.CreateBsqSwapOfferRequest;
 import bisq.proto.grpc.GetMethodHelpRequest;
+import bisq.proto.grpc.GetMetricsRequest;
+import bisq.proto.grpc.GetOffersReply;
 import bisq.proto.grpc.GetVersionRequest;
+import bisq.proto.grpc.MethodCallMetrics;
+import bisq.proto.grpc.OfferEvent;
 import bisq.proto.grpc.OfferInfo;
 import bisq.proto.grpc.RegisterDisputeAgentRequest;
 import bisq.proto.grpc.StopRequest;
 import bisq.proto.grpc.TakeBsqSwapOfferReply;
 import bisq.proto.grpc.TakeBsqSwapOfferRequest;
 import bisq.proto.grpc.TakeOfferReply;
+import bisq.proto.grpc.TradeEvent;
 import bisq.proto.grpc.TradeInfo;
 import bisq.proto.grpc.TxFeeRateInfo;
 import bisq.proto.grpc.TxInfo;
@@ -39,6 +44,7 @@ import bisq.proto.grpc.TxInfo;
 import protobuf.PaymentAccount;
 import protobuf.PaymentMethod;
 
+import java.util.Iterator;
 import java.util.List;
 
 import lombok.extern.slf4j.Slf4j;
@@ -78,6 +84,11 @@ public final class GrpcClient {
         return grpcStubs.versionService.getVersion(request).getVersion();
     }
 
+    public List<MethodCallMetrics> getMetrics() {
+        var request = GetMetricsRequest.newBuilder().build();
+        return grpcStubs.metricsService.getMetrics(request).getMethodCallMetricsList();
+    }
+
     public BalancesInfo getBalances() {
         return walletsServiceRequest.getBalances();
     }
@@ -94,6 +105,10 @@ public final class GrpcClient {
         return walletsServiceRequest.getBalances(currencyCode);
     }
 
+    public Iterator<BalancesInfo> subscribeBalances(String currencyCode) {
+        return walletsServiceRequest.subscribeBalances(currencyCode);
+    }
+
     public AddressBalanceInfo getAddressBalance(String address) {
         return walletsServiceRequest.getAddressBalance(address);
     }
@@ -287,6 +302,18 @@ public final class GrpcClient {
         return offersServiceRequest.getOffers(direction, currencyCode);
     }
 
+    public GetOffersReply getOffersPage(String direction,
+                                        String currencyCode,
+                                        int pageSize,
+                                        String pageToken,
+                                        List<String> fields) {
+        return offersServiceRequest.getOffersPage(direction, currencyCode, pageSize, pageToken, fields);
+    }
+
+    public Iterator<OfferEvent> subscribeOffers(String direction, String currencyCode) {
+        return offersServiceRequest.subscribeOffers(direction, currencyCode);
+    }
+
     public List<OfferInfo> getCryptoCurrencyOffers(String direction, String currencyCode) {
         return offersServiceRequest.getCryptoCurrencyOffers(direction, currencyCode);
     }
@@ -386,6 +413,14 @@ public final class GrpcClient {
         return tradesServiceRequest.getTrade(tradeId);
     }
 
+    public List<TradeInfo> getTrades(List<String> tradeIds, List<String> fields) {
+        return tradesServiceRequest.getTrades(tradeIds, fields);
+    }
+
+    public Iterator<TradeEvent> subscribeTrades() {
+        return tradesServiceRequest.subscribeTrades();
+    }
+
     public void confirmPaymentStarted(String tradeId) {
         tradesServiceRequest.confirmPaymentStarted(tradeId);
     }
@@ -20,6 +20,7 @@ package bisq.cli;
 import bisq.proto.grpc.DisputeAgentsGrpc;
 import bisq.proto.grpc.GetVersionGrpc;
 import bisq.proto.grpc.HelpGrpc;
+import bisq.proto.grpc.MetricsGrpc;
 import bisq.proto.grpc.OffersGrpc;
 import bisq.proto.grpc.PaymentAccountsGrpc;
 import bisq.proto.grpc.PriceGrpc;
@@ -37,6 +38,7 @@ public final class GrpcStubs {
     public final DisputeAgentsGrpc.DisputeAgentsBlockingStub disputeAgentsService;
     public final HelpGrpc.HelpBlockingStub helpService;
     public final GetVersionGrpc.GetVersionBlockingStub versionService;
+    public final MetricsGrpc.MetricsBlockingStub metricsService;
     public final OffersGrpc.OffersBlockingStub offersService;
     public final PaymentAccountsGrpc.PaymentAccountsBlockingStub paymentAccountsService;
     public final PriceGrpc.PriceBlockingStub priceService;
@@ -59,6 +61,7 @@ public final class GrpcStubs {
         this.disputeAgentsService = DisputeAgentsGrpc.newBlockingStub(channel).withCallCredentials(credentials);
         this.helpService = HelpGrpc.newBlockingStub(channel).withCallCredentials(credentials);
         this.versionService = GetVersionGrpc.newBlockingStub(channel).withCallCredentials(credentials);
+        this.metricsService = MetricsGrpc.newBlockingStub(channel).withCallCredentials(credentials);
         this.offersService = OffersGrpc.newBlockingStub(channel).withCallCredentials(credentials);
         this.paymentAccountsService = PaymentAccountsGrpc.newBlockingStub(channel).withCallCredentials(credentials);
         this.priceService = PriceGrpc.newBlockingStub(channel).withCallCredentials(credentials);
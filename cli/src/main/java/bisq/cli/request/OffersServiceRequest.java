@@ -24,12 +24,16 @@ import bisq.proto.grpc.EditOfferRequest;
 import bisq.proto.grpc.GetMyOfferRequest;
 import bisq.proto.grpc.GetMyOffersRequest;
 import bisq.proto.grpc.GetOfferRequest;
+import bisq.proto.grpc.GetOffersReply;
 import bisq.proto.grpc.GetOffersRequest;
+import bisq.proto.grpc.OfferEvent;
 import bisq.proto.grpc.OfferInfo;
+import bisq.proto.grpc.SubscribeOffersRequest;
 
 import java.math.BigDecimal;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.function.Function;
 
@@ -260,6 +264,33 @@ public class OffersServiceRequest {
         }
     }
 
+    // Returns at most pageSize offers after the pageToken position, with only the given fields set.
+    // Pass the reply's nextPageToken to get the next page, it is empty after the last page.
+    public GetOffersReply getOffersPage(String direction,
+                                        String currencyCode,
+                                        int pageSize,
+                                        String pageToken,
+                                        List<String> fields) {
+        var request = GetOffersRequest.newBuilder()
+                .setDirection(direction)
+                .setCurrencyCode(currencyCode)
+                .setPageSize(pageSize)
+                .setPageToken(pageToken)
+                .addAllFields(fields)
+                .build();
+        return grpcStubs.offersService.getOffers(request);
+    }
+
+    // Blocks on each next() until the server sends the next event.  The call can be
+    // cancelled by running it in a io.grpc.Context.CancellableContext.
+    public Iterator<OfferEvent> subscribeOffers(String direction, String currencyCode) {
+        var request = SubscribeOffersRequest.newBuilder()
+                .setDirection(direction)
+                .setCurrencyCode(currencyCode)
+                .build();
+        return grpcStubs.offersService.subscribeOffers(request);
+    }
+
     public List<OfferInfo> getCryptoCurrencyOffers(String direction, String currencyCode) {
         return getOffers(direction, "BTC").stream()
                 .filter(o -> o.getBaseCurrencyCode().equalsIgnoreCase(currencyCode))
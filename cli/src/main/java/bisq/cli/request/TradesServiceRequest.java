@@ -21,12 +21,18 @@ import bisq.proto.grpc.BsqSwapTradeInfo;
 import bisq.proto.grpc.ConfirmPaymentReceivedRequest;
 import bisq.proto.grpc.ConfirmPaymentStartedRequest;
 import bisq.proto.grpc.GetTradeRequest;
+import bisq.proto.grpc.GetTradesRequest;
 import bisq.proto.grpc.KeepFundsRequest;
+import bisq.proto.grpc.SubscribeTradesRequest;
 import bisq.proto.grpc.TakeOfferReply;
 import bisq.proto.grpc.TakeOfferRequest;
+import bisq.proto.grpc.TradeEvent;
 import bisq.proto.grpc.TradeInfo;
 import bisq.proto.grpc.WithdrawFundsRequest;
 
+import java.util.Iterator;
+import java.util.List;
+
 
 
 import bisq.cli.GrpcStubs;
@@ -70,6 +76,19 @@ public class TradesServiceRequest {
         return grpcStubs.tradesService.getTrade(request).getTrade();
     }
 
+    public List<TradeInfo> getTrades(List<String> tradeIds, List<String> fields) {
+        var request = GetTradesRequest.newBuilder()
+                .addAllTradeIds(tradeIds)
+                .addAllFields(fields)
+                .build();
+        return grpcStubs.tradesService.getTrades(request).getTradesList();
+    }
+
+    public Iterator<TradeEvent> subscribeTrades() {
+        var request = SubscribeTradesRequest.newBuilder().build();
+        return grpcStubs.tradesService.subscribeTrades(request);
+    }
+
     public void confirmPaymentStarted(String tradeId) {
         var request = ConfirmPaymentStartedRequest.newBuilder()
                 .setTradeId(tradeId)
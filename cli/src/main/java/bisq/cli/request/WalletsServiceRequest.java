@@ -34,12 +34,14 @@ import bisq.proto.grpc.SendBsqRequest;
 import bisq.proto.grpc.SendBtcRequest;
 import bisq.proto.grpc.SetTxFeeRatePreferenceRequest;
 import bisq.proto.grpc.SetWalletPasswordRequest;
+import bisq.proto.grpc.SubscribeBalancesRequest;
 import bisq.proto.grpc.TxFeeRateInfo;
 import bisq.proto.grpc.TxInfo;
 import bisq.proto.grpc.UnlockWalletRequest;
 import bisq.proto.grpc.UnsetTxFeeRatePreferenceRequest;
 import bisq.proto.grpc.VerifyBsqSentToAddressRequest;
 
+import java.util.Iterator;
 import java.util.List;
 
 
@@ -73,6 +75,13 @@ public class WalletsServiceRequest {
         return grpcStubs.walletsService.getBalances(request).getBalances();
     }
 
+    public Iterator<BalancesInfo> subscribeBalances(String currencyCode) {
+        var request = SubscribeBalancesRequest.newBuilder()
+                .setCurrencyCode(currencyCode)
+                .build();
+        return grpcStubs.walletsService.subscribeBalances(request);
+    }
+
     public AddressBalanceInfo getAddressBalance(String address) {
         var request = GetAddressBalanceRequest.newBuilder()
                 .setAddress(address).build();
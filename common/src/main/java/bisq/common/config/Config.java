@@ -127,6 +127,9 @@ public class Config {
     public static final String BTC_FEES_TS = "bitcoinFeesTs";
     public static final String BTC_FEE_INFO = "bitcoinFeeInfo";
     public static final String BYPASS_MEMPOOL_VALIDATION = "bypassMempoolValidation";
+    public static final String MAX_CONCURRENT_GET_DATA_RESPONSE_BUILDS = "maxConcurrentGetDataResponseBuilds";
+    public static final String METRICS_PORT = "metricsPort";
+    public static final String DAO_NUM_RESIDENT_BLOCKS = "daoNumResidentBlocks";
 
     // Default values for certain options
     public static final int UNSPECIFIED_PORT = -1;
@@ -217,6 +220,9 @@ public class Config {
     public final boolean preventPeriodicShutdownAtSeedNode;
     public final boolean republishMailboxEntries;
     public final boolean bypassMempoolValidation;
+    public final int maxConcurrentGetDataResponseBuilds;
+    public final int metricsPort;
+    public final int daoNumResidentBlocks;
 
     // Properties derived from options but not exposed as options themselves
     public final File torDir;
@@ -672,6 +678,29 @@ public class Config {
                         .ofType(boolean.class)
                         .defaultsTo(false);
 
+        ArgumentAcceptingOptionSpec<Integer> maxConcurrentGetDataResponseBuildsOpt =
+                parser.accepts(MAX_CONCURRENT_GET_DATA_RESPONSE_BUILDS,
+                        "Max. number of data responses to peers which get built in parallel")
+                        .withRequiredArg()
+                        .ofType(int.class)
+                        .defaultsTo(2);
+
+        ArgumentAcceptingOptionSpec<Integer> metricsPortOpt =
+                parser.accepts(METRICS_PORT,
+                        "Localhost port of the metrics endpoint in Prometheus text format " +
+                                "(seed nodes and daemon only, disabled if not set)")
+                        .withRequiredArg()
+                        .ofType(int.class)
+                        .defaultsTo(UNSPECIFIED_PORT);
+
+        ArgumentAcceptingOptionSpec<Integer> daoNumResidentBlocksOpt =
+                parser.accepts(DAO_NUM_RESIDENT_BLOCKS,
+                        "Number of recent BSQ blocks kept in memory. Older blocks are read from disk on demand. " +
+                                "Use 0 to keep all blocks in memory.")
+                        .withRequiredArg()
+                        .ofType(int.class)
+                        .defaultsTo(5000);
+
         try {
             CompositeOptionSet options = new CompositeOptionSet();
 
@@ -790,6 +819,9 @@ public class Config {
             this.preventPeriodicShutdownAtSeedNode = options.valueOf(preventPeriodicShutdownAtSeedNodeOpt);
             this.republishMailboxEntries = options.valueOf(republishMailboxEntriesOpt);
             this.bypassMempoolValidation = options.valueOf(bypassMempoolValidationOpt);
+            this.maxConcurrentGetDataResponseBuilds = options.valueOf(maxConcurrentGetDataResponseBuildsOpt);
+            this.metricsPort = options.valueOf(metricsPortOpt);
+            this.daoNumResidentBlocks = options.valueOf(daoNumResidentBlocksOpt);
         } catch (OptionException ex) {
             throw new ConfigException("problem parsing option '%s': %s",
                     ex.options().get(0),
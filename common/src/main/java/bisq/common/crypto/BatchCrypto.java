@@ -0,0 +1,158 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.crypto;
+
+import bisq.common.util.Utilities;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+
+import javax.crypto.SecretKey;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Verifies signatures and decrypts secret keys of a batch in parallel.  A batch gets
+ * split into one contiguous chunk per thread and the calling thread processes the
+ * first chunk itself, so a pool of parallelism - 1 threads is used.  Small batches are
+ * processed on the calling thread only.  Results are in the order of the batch.
+ */
+@Slf4j
+public class BatchCrypto {
+    public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    // Below that number of items per chunk the hand over to the pool costs more than it saves.
+    private static final int MIN_CHUNK_SIZE = 8;
+
+    @Value
+    public static class SignedData {
+        PublicKey publicKey;
+        byte[] data;
+        byte[] signature;
+    }
+
+    private final int parallelism;
+    @Nullable
+    private final ListeningExecutorService executor;
+
+    public BatchCrypto() {
+        this(DEFAULT_PARALLELISM);
+    }
+
+    public BatchCrypto(int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be at least 1 but was " + parallelism);
+
+        this.parallelism = parallelism;
+        executor = parallelism > 1 ?
+                Utilities.getListeningExecutorService("BatchCrypto-%d",
+                        parallelism - 1,
+                        parallelism - 1,
+                        60,
+                        new LinkedBlockingQueue<>()) :
+                null;
+    }
+
+    /**
+     * @return For each item whether its signature is valid.  Items for which the
+     * verification failed with an exception are reported as invalid.
+     */
+    public boolean[] verify(List<SignedData> batch) {
+        boolean[] results = new boolean[batch.size()];
+        forEachIndex(batch.size(), index -> {
+            SignedData signedData = batch.get(index);
+            try {
+                results[index] = Sig.verify(signedData.getPublicKey(), signedData.getData(), signedData.getSignature());
+            } catch (CryptoException e) {
+                log.debug("Signature verification failed with {}", e.toString());
+            }
+        });
+        return results;
+    }
+
+    /**
+     * @return The decrypted secret keys, with null for all keys which could not be
+     * decrypted with the given private key.  As with a single decryption this is the
+     * normal case for data addressed to someone else, e.g. mailbox messages.
+     */
+    public List<SecretKey> decryptSecretKeys(List<byte[]> encryptedSecretKeys, PrivateKey privateKey) {
+        SecretKey[] results = new SecretKey[encryptedSecretKeys.size()];
+        forEachIndex(encryptedSecretKeys.size(), index -> {
+            try {
+                results[index] = Encryption.decryptSecretKey(encryptedSecretKeys.get(index), privateKey);
+            } catch (CryptoException ignore) {
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    public void shutDown() {
+        if (executor != null) {
+            Utilities.shutdownAndAwaitTermination(executor, 1, TimeUnit.SECONDS);
+        }
+    }
+
+    private void forEachIndex(int size, IntConsumer task) {
+        int numChunks = Math.min(parallelism, Math.max(1, size / MIN_CHUNK_SIZE));
+        if (numChunks == 1 || executor == null) {
+            processChunk(0, size, task);
+            return;
+        }
+
+        int chunkSize = (size + numChunks - 1) / numChunks;
+        List<Future<?>> futures = new ArrayList<>(numChunks - 1);
+        for (int from = chunkSize; from < size; from += chunkSize) {
+            int start = from;
+            int end = Math.min(size, from + chunkSize);
+            futures.add(executor.submit(() -> processChunk(start, end, task)));
+        }
+        processChunk(0, chunkSize, task);
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                futures.forEach(f -> f.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for batch results", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Batch processing failed", e.getCause());
+            }
+        }
+    }
+
+    private static void processChunk(int from, int to, IntConsumer task) {
+        for (int index = from; index < to; index++) {
+            task.accept(index);
+        }
+    }
+}
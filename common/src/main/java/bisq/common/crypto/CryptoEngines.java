@@ -0,0 +1,101 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.crypto;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.NoSuchPaddingException;
+
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Signature;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per thread instances of the JCA engines used on the hot paths.  The getInstance calls
+ * go through the provider list each time, which is measurable when hashing and
+ * verifying thousands of payloads.  As the engines are not thread safe each thread
+ * gets its own instances, and callers have to (re)initialize an engine at each use,
+ * as they did with a freshly created one.  An engine must not be held while calling
+ * code which might use the same engine.
+ */
+final class CryptoEngines {
+    private static final ThreadLocal<Map<String, MessageDigest>> MESSAGE_DIGESTS = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<String, Signature>> SIGNATURES = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<String, KeyFactory>> KEY_FACTORIES = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<String, Cipher>> CIPHERS = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<String, Mac>> MACS = ThreadLocal.withInitial(HashMap::new);
+
+    private CryptoEngines() {
+    }
+
+    static MessageDigest messageDigest(String algorithm) throws NoSuchAlgorithmException {
+        Map<String, MessageDigest> engines = MESSAGE_DIGESTS.get();
+        MessageDigest engine = engines.get(algorithm);
+        if (engine == null) {
+            engine = MessageDigest.getInstance(algorithm);
+            engines.put(algorithm, engine);
+        } else {
+            engine.reset();
+        }
+        return engine;
+    }
+
+    static Signature signature(String algorithm) throws NoSuchAlgorithmException {
+        Map<String, Signature> engines = SIGNATURES.get();
+        Signature engine = engines.get(algorithm);
+        if (engine == null) {
+            engine = Signature.getInstance(algorithm);
+            engines.put(algorithm, engine);
+        }
+        return engine;
+    }
+
+    static KeyFactory keyFactory(String algorithm) throws NoSuchAlgorithmException {
+        Map<String, KeyFactory> engines = KEY_FACTORIES.get();
+        KeyFactory engine = engines.get(algorithm);
+        if (engine == null) {
+            engine = KeyFactory.getInstance(algorithm);
+            engines.put(algorithm, engine);
+        }
+        return engine;
+    }
+
+    static Cipher cipher(String transformation) throws NoSuchAlgorithmException, NoSuchPaddingException {
+        Map<String, Cipher> engines = CIPHERS.get();
+        Cipher engine = engines.get(transformation);
+        if (engine == null) {
+            engine = Cipher.getInstance(transformation);
+            engines.put(transformation, engine);
+        }
+        return engine;
+    }
+
+    static Mac mac(String algorithm) throws NoSuchAlgorithmException {
+        Map<String, Mac> engines = MACS.get();
+        Mac engine = engines.get(algorithm);
+        if (engine == null) {
+            engine = Mac.getInstance(algorithm);
+            engines.put(algorithm, engine);
+        }
+        return engine;
+    }
+}
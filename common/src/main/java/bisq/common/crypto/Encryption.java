@@ -29,7 +29,6 @@ import javax.crypto.spec.PSource;
 import javax.crypto.spec.SecretKeySpec;
 
 import java.security.InvalidKeyException;
-import java.security.KeyFactory;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
@@ -59,6 +58,8 @@ public class Encryption {
 
     private static final String HMAC = "HmacSHA256";
 
+    private static final PublicKeyCache PUBLIC_KEY_CACHE = new PublicKeyCache(10_000);
+
     public static KeyPair generateKeyPair() {
         long ts = System.currentTimeMillis();
         try {
@@ -78,7 +79,7 @@ public class Encryption {
 
     public static byte[] encrypt(byte[] payload, SecretKey secretKey) throws CryptoException {
         try {
-            Cipher cipher = Cipher.getInstance(SYM_CIPHER);
+            Cipher cipher = CryptoEngines.cipher(SYM_CIPHER);
             cipher.init(Cipher.ENCRYPT_MODE, secretKey);
             return cipher.doFinal(payload);
         } catch (Throwable e) {
@@ -89,7 +90,7 @@ public class Encryption {
 
     public static byte[] decrypt(byte[] encryptedPayload, SecretKey secretKey) throws CryptoException {
         try {
-            Cipher cipher = Cipher.getInstance(SYM_CIPHER);
+            Cipher cipher = CryptoEngines.cipher(SYM_CIPHER);
             cipher.init(Cipher.DECRYPT_MODE, secretKey);
             return cipher.doFinal(encryptedPayload);
         } catch (Throwable e) {
@@ -152,7 +153,7 @@ public class Encryption {
     }
 
     private static byte[] getHmac(byte[] payload, SecretKey secretKey) throws NoSuchAlgorithmException, InvalidKeyException, NoSuchProviderException {
-        Mac mac = Mac.getInstance(HMAC);
+        Mac mac = CryptoEngines.mac(HMAC);
         mac.init(secretKey);
         return mac.doFinal(payload);
     }
@@ -190,7 +191,7 @@ public class Encryption {
 
     public static byte[] encryptSecretKey(SecretKey secretKey, PublicKey publicKey) throws CryptoException {
         try {
-            Cipher cipher = Cipher.getInstance(ASYM_CIPHER);
+            Cipher cipher = CryptoEngines.cipher(ASYM_CIPHER);
             OAEPParameterSpec oaepParameterSpec = new OAEPParameterSpec("SHA-256", "MGF1",
                     MGF1ParameterSpec.SHA256, PSource.PSpecified.DEFAULT);
             cipher.init(Cipher.WRAP_MODE, publicKey, oaepParameterSpec);
@@ -203,7 +204,7 @@ public class Encryption {
 
     public static SecretKey decryptSecretKey(byte[] encryptedSecretKey, PrivateKey privateKey) throws CryptoException {
         try {
-            Cipher cipher = Cipher.getInstance(ASYM_CIPHER);
+            Cipher cipher = CryptoEngines.cipher(ASYM_CIPHER);
             OAEPParameterSpec oaepParameterSpec = new OAEPParameterSpec("SHA-256", "MGF1",
                     MGF1ParameterSpec.SHA256, PSource.PSpecified.DEFAULT);
             cipher.init(Cipher.UNWRAP_MODE, privateKey, oaepParameterSpec);
@@ -239,8 +240,12 @@ public class Encryption {
      * @return
      */
     public static PublicKey getPublicKeyFromBytes(byte[] encryptionPubKeyBytes) {
+        return PUBLIC_KEY_CACHE.get(encryptionPubKeyBytes, Encryption::decodePublicKey);
+    }
+
+    private static PublicKey decodePublicKey(byte[] encryptionPubKeyBytes) {
         try {
-            return KeyFactory.getInstance(Encryption.ASYM_KEY_ALGO).generatePublic(new X509EncodedKeySpec(encryptionPubKeyBytes));
+            return CryptoEngines.keyFactory(Encryption.ASYM_KEY_ALGO).generatePublic(new X509EncodedKeySpec(encryptionPubKeyBytes));
         } catch (InvalidKeySpecException | NoSuchAlgorithmException e) {
             log.error("Error creating sigPublicKey from bytes. sigPublicKeyBytes as hex={}, error={}", Utilities.bytesAsHexString(encryptionPubKeyBytes), e);
             throw new KeyConversionException(e);
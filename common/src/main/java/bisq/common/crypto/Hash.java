@@ -39,7 +39,7 @@ public class Hash {
      */
     public static byte[] getSha256Hash(byte[] data) {
         try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            MessageDigest digest = CryptoEngines.messageDigest("SHA-256");
             digest.update(data, 0, data.length);
             return digest.digest();
         } catch (NoSuchAlgorithmException e) {
@@ -0,0 +1,56 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.crypto;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.security.PublicKey;
+
+import java.nio.ByteBuffer;
+
+import java.util.function.Function;
+
+/**
+ * Bounded cache of decoded public keys keyed by their encoded bytes.  The same keys
+ * arrive over and over with offers, mailbox messages and account witnesses, and
+ * decoding them with a KeyFactory is much more expensive than a lookup.  Public keys
+ * are immutable so the cached instances can be shared.  Failed decodings are not
+ * cached.
+ */
+final class PublicKeyCache {
+    private final Cache<ByteBuffer, PublicKey> cache;
+
+    PublicKeyCache(long maxSize) {
+        cache = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+    }
+
+    PublicKey get(byte[] publicKeyBytes, Function<byte[], PublicKey> decoder) {
+        PublicKey publicKey = cache.getIfPresent(ByteBuffer.wrap(publicKeyBytes));
+        if (publicKey == null) {
+            publicKey = decoder.apply(publicKeyBytes);
+            // We copy the bytes for the key as the caller might reuse the array.
+            cache.put(ByteBuffer.wrap(publicKeyBytes.clone()), publicKey);
+        }
+        return publicKey;
+    }
+
+    long size() {
+        return cache.size();
+    }
+}
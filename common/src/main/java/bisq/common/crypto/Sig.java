@@ -23,7 +23,6 @@ import bisq.common.util.Utilities;
 import com.google.common.base.Charsets;
 
 import java.security.InvalidKeyException;
-import java.security.KeyFactory;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
@@ -51,6 +50,8 @@ public class Sig {
     public static final String KEY_ALGO = "DSA";
     private static final String ALGO = "SHA256withDSA";
 
+    private static final PublicKeyCache PUBLIC_KEY_CACHE = new PublicKeyCache(10_000);
+
 
     /**
      * @return keyPair
@@ -75,7 +76,7 @@ public class Sig {
      */
     public static byte[] sign(PrivateKey privateKey, byte[] data) throws CryptoException {
         try {
-            Signature sig = Signature.getInstance(ALGO);
+            Signature sig = CryptoEngines.signature(ALGO);
             sig.initSign(privateKey);
             sig.update(data);
             return sig.sign();
@@ -102,7 +103,7 @@ public class Sig {
      */
     public static boolean verify(PublicKey publicKey, byte[] data, byte[] signature) throws CryptoException {
         try {
-            Signature sig = Signature.getInstance(ALGO);
+            Signature sig = CryptoEngines.signature(ALGO);
             sig.initVerify(publicKey);
             sig.update(data);
             return sig.verify(signature);
@@ -126,8 +127,12 @@ public class Sig {
      * @return
      */
     public static PublicKey getPublicKeyFromBytes(byte[] sigPublicKeyBytes) {
+        return PUBLIC_KEY_CACHE.get(sigPublicKeyBytes, Sig::decodePublicKey);
+    }
+
+    private static PublicKey decodePublicKey(byte[] sigPublicKeyBytes) {
         try {
-            return KeyFactory.getInstance(Sig.KEY_ALGO).generatePublic(new X509EncodedKeySpec(sigPublicKeyBytes));
+            return CryptoEngines.keyFactory(Sig.KEY_ALGO).generatePublic(new X509EncodedKeySpec(sigPublicKeyBytes));
         } catch (InvalidKeySpecException | NoSuchAlgorithmException e) {
             log.error("Error creating sigPublicKey from bytes. sigPublicKeyBytes as hex={}, error={}", Utilities.bytesAsHexString(sigPublicKeyBytes), e);
             e.printStackTrace();
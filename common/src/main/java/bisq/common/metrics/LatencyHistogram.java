@@ -0,0 +1,81 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of durations with fixed power of two buckets: bucket i counts durations up to 2^i microseconds, so the
+ * buckets cover 1 microsecond to about 67 seconds and the bucket index is found with a single bit operation. The last bucket
+ * counts everything above. All counters are LongAdders, so recording does not lock.
+ */
+public final class LatencyHistogram {
+    static final int NUM_BOUNDED_BUCKETS = 27;
+
+    // One more bucket than upper bounds, for durations above the highest bound.
+    private final LongAdder[] bucketCounts = new LongAdder[NUM_BOUNDED_BUCKETS + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    LatencyHistogram() {
+        for (int i = 0; i < bucketCounts.length; i++) {
+            bucketCounts[i] = new LongAdder();
+        }
+    }
+
+    public void recordNanos(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos));
+        bucketCounts[getBucketIndex(micros)].increment();
+        count.increment();
+        sumNanos.add(nanos);
+    }
+
+    // Records the time passed since startNanos, which was taken from System.nanoTime().
+    public void recordSince(long startNanos) {
+        recordNanos(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSumNanos() {
+        return sumNanos.sum();
+    }
+
+    public long[] getBucketCounts() {
+        long[] counts = new long[bucketCounts.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = bucketCounts[i].sum();
+        }
+        return counts;
+    }
+
+    static long getBucketUpperBoundMicros(int index) {
+        return 1L << index;
+    }
+
+    static int getBucketIndex(long micros) {
+        if (micros <= 1) {
+            return 0;
+        }
+        // Number of bits needed for micros - 1 is the exponent of the next power of two >= micros
+        return Math.min(64 - Long.numberOfLeadingZeros(micros - 1), NUM_BOUNDED_BUCKETS);
+    }
+}
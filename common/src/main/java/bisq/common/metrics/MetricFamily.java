@@ -0,0 +1,145 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+
+/**
+ * All metrics with the same name, one per value of the optional label (e.g. one counter per message type).
+ * A family without label holds a single metric.
+ */
+public final class MetricFamily<T> {
+    enum Type {
+        COUNTER("counter"),
+        GAUGE("gauge"),
+        HISTOGRAM("histogram");
+
+        private final String prometheusName;
+
+        Type(String prometheusName) {
+            this.prometheusName = prometheusName;
+        }
+    }
+
+    private static final String NO_LABEL_VALUE = "";
+
+    @Getter
+    private final String name;
+    private final String help;
+    @Getter
+    private final Type type;
+    @Nullable
+    private final String labelName;
+    private final Supplier<T> metricFactory;
+    private final Map<String, T> metricsByLabelValue = new ConcurrentHashMap<>();
+
+    MetricFamily(String name, String help, Type type, @Nullable String labelName, Supplier<T> metricFactory) {
+        this.name = name;
+        this.help = help;
+        this.type = type;
+        this.labelName = labelName;
+        this.metricFactory = metricFactory;
+    }
+
+    public T labels(String labelValue) {
+        // get first, as computeIfAbsent locks the bin even if the value is present
+        T metric = metricsByLabelValue.get(labelValue);
+        return metric != null ? metric : metricsByLabelValue.computeIfAbsent(labelValue, key -> metricFactory.get());
+    }
+
+    T get() {
+        return labels(NO_LABEL_VALUE);
+    }
+
+    void writePrometheusText(StringBuilder sb) {
+        if (metricsByLabelValue.isEmpty()) {
+            return;
+        }
+
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type.prometheusName).append('\n');
+        new TreeMap<>(metricsByLabelValue).forEach((labelValue, metric) -> {
+            String label = labelName != null ? labelName + "=\"" + escape(labelValue) + "\"" : null;
+            switch (type) {
+                case COUNTER:
+                    appendSample(sb, name, label, null, ((Counter) metric).get());
+                    break;
+                case GAUGE:
+                    appendSample(sb, name, label, null, ((Gauge) metric).get());
+                    break;
+                case HISTOGRAM:
+                    appendHistogram(sb, label, (LatencyHistogram) metric);
+                    break;
+            }
+        });
+    }
+
+    private void appendHistogram(StringBuilder sb, @Nullable String label, LatencyHistogram histogram) {
+        long[] bucketCounts = histogram.getBucketCounts();
+        long cumulativeCount = 0;
+        for (int i = 0; i < LatencyHistogram.NUM_BOUNDED_BUCKETS; i++) {
+            cumulativeCount += bucketCounts[i];
+            String le = "le=\"" + LatencyHistogram.getBucketUpperBoundMicros(i) / 1e6 + "\"";
+            appendSample(sb, name + "_bucket", label, le, cumulativeCount);
+        }
+        cumulativeCount += bucketCounts[LatencyHistogram.NUM_BOUNDED_BUCKETS];
+        appendSample(sb, name + "_bucket", label, "le=\"+Inf\"", cumulativeCount);
+        sb.append(name).append("_sum");
+        appendLabels(sb, label, null);
+        sb.append(' ').append(histogram.getSumNanos() / 1e9).append('\n');
+        appendSample(sb, name + "_count", label, null, cumulativeCount);
+    }
+
+    private static void appendSample(StringBuilder sb,
+                                     String sampleName,
+                                     @Nullable String label,
+                                     @Nullable String extraLabel,
+                                     long value) {
+        sb.append(sampleName);
+        appendLabels(sb, label, extraLabel);
+        sb.append(' ').append(value).append('\n');
+    }
+
+    private static void appendLabels(StringBuilder sb, @Nullable String label, @Nullable String extraLabel) {
+        if (label == null && extraLabel == null) {
+            return;
+        }
+        sb.append('{');
+        if (label != null) {
+            sb.append(label);
+            if (extraLabel != null) {
+                sb.append(',');
+            }
+        }
+        if (extraLabel != null) {
+            sb.append(extraLabel);
+        }
+        sb.append('}');
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * Process wide registry of counters, gauges and latency histograms. Metrics are meant to be held in static fields at
+ * the place where they get recorded. Registering a name again returns the already registered metric, so classes
+ * with multiple instances can do so as well.
+ * <p>
+ * The metrics can be exported in the Prometheus text format, see {@link MetricsHttpServer}.
+ */
+public final class MetricsRegistry {
+    private static final Map<String, MetricFamily<?>> FAMILIES_BY_NAME = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    public static Counter counter(String name, String help) {
+        return counterFamily(name, help, null).get();
+    }
+
+    public static MetricFamily<Counter> counter(String name, String help, String labelName) {
+        return counterFamily(name, help, labelName);
+    }
+
+    public static LatencyHistogram histogram(String name, String help) {
+        return histogramFamily(name, help, null).get();
+    }
+
+    public static MetricFamily<LatencyHistogram> histogram(String name, String help, String labelName) {
+        return histogramFamily(name, help, labelName);
+    }
+
+    // A gauge registered again replaces the supplier, as the supplier usually refers to a specific instance
+    public static Gauge gauge(String name, String help, LongSupplier supplier) {
+        Gauge gauge = new Gauge(supplier);
+        MetricFamily<Gauge> family = new MetricFamily<>(name, help, MetricFamily.Type.GAUGE, null, () -> gauge);
+        FAMILIES_BY_NAME.put(name, family);
+        return family.get();
+    }
+
+    public static String getPrometheusText() {
+        List<MetricFamily<?>> families = new ArrayList<>(FAMILIES_BY_NAME.values());
+        families.sort(Comparator.comparing(MetricFamily::getName));
+        StringBuilder sb = new StringBuilder();
+        families.forEach(family -> family.writePrometheusText(sb));
+        return sb.toString();
+    }
+
+    private static MetricFamily<Counter> counterFamily(String name, String help, @Nullable String labelName) {
+        return getOrRegister(name, help, MetricFamily.Type.COUNTER, labelName, Counter::new);
+    }
+
+    private static MetricFamily<LatencyHistogram> histogramFamily(String name, String help, @Nullable String labelName) {
+        return getOrRegister(name, help, MetricFamily.Type.HISTOGRAM, labelName, LatencyHistogram::new);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> MetricFamily<T> getOrRegister(String name,
+                                                     String help,
+                                                     MetricFamily.Type type,
+                                                     @Nullable String labelName,
+                                                     Supplier<T> metricFactory) {
+        MetricFamily<?> family = FAMILIES_BY_NAME.computeIfAbsent(name,
+                key -> new MetricFamily<>(name, help, type, labelName, metricFactory));
+        if (family.getType() != type) {
+            throw new IllegalStateException("Metric " + name + " is already registered as " + family.getType());
+        }
+        return (MetricFamily<T>) family;
+    }
+}
@@ -24,6 +24,10 @@ import bisq.common.config.Config;
 import bisq.common.file.CorruptedStorageFileHandler;
 import bisq.common.file.FileUtil;
 import bisq.common.handlers.ResultHandler;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.LatencyHistogram;
+import bisq.common.metrics.MetricFamily;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.proto.persistable.PersistableEnvelope;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
 import bisq.common.util.GcUtil;
@@ -44,6 +48,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -84,6 +89,19 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     public static final Map<String, PersistenceManager<?>> ALL_PERSISTENCE_MANAGERS = new HashMap<>();
     private static boolean flushAtShutdownCalled;
     private static final AtomicBoolean allServicesInitialized = new AtomicBoolean(false);
+    // Reading at startup is CPU bound (parsing and converting the protobuf data), so we do not use more threads than
+    // cores. Further read requests are queued.
+    private static final int NUM_READ_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final ExecutorService READ_EXECUTOR = Utilities.getThreadPoolExecutor("PersistenceManager-read-%d",
+            NUM_READ_THREADS, NUM_READ_THREADS, 10, new LinkedBlockingQueue<>());
+
+    // Labeled by the file name
+    private static final MetricFamily<LatencyHistogram> SERIALIZE_DURATION = MetricsRegistry.histogram(
+            "bisq_persistence_serialize_duration_seconds", "Time spent serializing a persistable on the user thread", "file");
+    private static final MetricFamily<LatencyHistogram> WRITE_DURATION = MetricsRegistry.histogram(
+            "bisq_persistence_write_duration_seconds", "Time spent writing a serialized persistable to disk", "file");
+    private static final MetricFamily<Counter> WRITTEN_BYTES = MetricsRegistry.counter(
+            "bisq_persistence_written_bytes_total", "Bytes written to disk", "file");
 
     public static void onAllServicesInitialized() {
         allServicesInitialized.set(true);
@@ -304,7 +322,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     }
 
     /**
-     * Read persisted file in a thread.
+     * Read persisted file on the bounded read pool.
      * We map result handler calls to UserThread, so clients don't need to worry about threading
      *
      * @param fileName          File name of our persisted data.
@@ -317,7 +335,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
             return;
         }
 
-        new Thread(() -> {
+        READ_EXECUTOR.execute(() -> {
             T persisted = getPersisted(fileName);
             if (persisted != null) {
                 UserThread.execute(() -> {
@@ -328,7 +346,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
             } else {
                 UserThread.execute(orElse);
             }
-        }, "PersistenceManager-read-" + fileName).start();
+        });
     }
 
     // API for synchronous reading of data. Not recommended to be used in application code.
@@ -353,11 +371,20 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         }
 
         long ts = System.currentTimeMillis();
+        long usedHeapBefore = getUsedHeap();
         try (FileInputStream fileInputStream = new FileInputStream(storageFile)) {
             protobuf.PersistableEnvelope proto = protobuf.PersistableEnvelope.parseDelimitedFrom(fileInputStream);
+            long parseTime = System.currentTimeMillis() - ts;
             //noinspection unchecked
             T persistableEnvelope = (T) persistenceProtoResolver.fromProto(proto);
-            log.info("Reading {} completed in {} ms", fileName, System.currentTimeMillis() - ts);
+            long conversionTime = System.currentTimeMillis() - ts - parseTime;
+            StartupTimeline.addStoreEntry(new StartupTimeline.StoreEntry(fileName,
+                    storageFile.length(),
+                    parseTime,
+                    conversionTime,
+                    getUsedHeap() - usedHeapBefore));
+            log.info("Reading {} completed in {} ms (parsing {} ms, conversion {} ms)",
+                    fileName, parseTime + conversionTime, parseTime, conversionTime);
             return persistableEnvelope;
         } catch (Throwable t) {
             log.error("Reading {} failed with {}.", fileName, t.getMessage());
@@ -378,6 +405,12 @@ public class PersistenceManager<T extends PersistableEnvelope> {
     }
 
 
+    private static long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Write file to disk
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -415,7 +448,9 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         try {
             // The serialisation is done on the user thread to avoid threading issue with potential mutations of the
             // persistable object. Keeping it on the user thread we are in a synchronize model.
+            long serializeStartTime = System.nanoTime();
             protobuf.PersistableEnvelope serialized = (protobuf.PersistableEnvelope) persistable.toPersistableMessage();
+            SERIALIZE_DURATION.labels(fileName).recordSince(serializeStartTime);
 
             // For the write to disk task we use a thread. We do not have any issues anymore if the persistable objects
             // gets mutated while the thread is running as we have serialized it already and do not operate on the
@@ -441,6 +476,7 @@ public class PersistenceManager<T extends PersistableEnvelope> {
         }
 
         long ts = System.currentTimeMillis();
+        long writeStartTime = System.nanoTime();
         File tempFile = null;
         FileOutputStream fileOutputStream = null;
 
@@ -472,6 +508,8 @@ public class PersistenceManager<T extends PersistableEnvelope> {
 
             FileUtil.renameFile(tempFile, storageFile);
             usedTempFilePath = tempFile.toPath();
+            WRITE_DURATION.labels(fileName).recordSince(writeStartTime);
+            WRITTEN_BYTES.labels(fileName).add(serialized.getSerializedSize());
         } catch (Throwable t) {
             // If an error occurred, don't attempt to reuse this path again, in case temp file cleanup fails.
             usedTempFilePath = null;
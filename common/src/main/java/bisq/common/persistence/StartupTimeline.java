@@ -0,0 +1,106 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.persistence;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import lombok.Value;
+
+/**
+ * Collects how long reading the persisted stores and the PersistedDataHosts took at startup, so we can see which
+ * store dominates the startup time. The store entries are added by {@link PersistenceManager#getPersisted}, the host
+ * entries by {@link bisq.common.proto.persistable.PersistedDataHostLoader}.
+ */
+public final class StartupTimeline {
+
+    @Value
+    public static class StoreEntry {
+        String fileName;
+        long fileSize;
+        // Time for parsing the protobuf file
+        long parseTimeMs;
+        // Time for converting the protobuf objects to our domain objects
+        long conversionTimeMs;
+        // Change of used heap while the store was read. Only a rough indicator as other stores are read in parallel
+        // and a GC might run in between.
+        long heapDeltaBytes;
+    }
+
+    @Value
+    public static class HostEntry {
+        String hostName;
+        // Offset to the start of reading the hosts
+        long startOffsetMs;
+        long durationMs;
+    }
+
+    private static final List<StoreEntry> storeEntries = new CopyOnWriteArrayList<>();
+    private static final List<HostEntry> hostEntries = new CopyOnWriteArrayList<>();
+    private static volatile long totalTimeMs;
+
+    private StartupTimeline() {
+    }
+
+    static void addStoreEntry(StoreEntry storeEntry) {
+        storeEntries.add(storeEntry);
+    }
+
+    public static void addHostEntry(HostEntry hostEntry) {
+        hostEntries.add(hostEntry);
+    }
+
+    public static void setTotalTimeMs(long totalTimeMs) {
+        StartupTimeline.totalTimeMs = totalTimeMs;
+    }
+
+    public static List<StoreEntry> getStoreEntries() {
+        return new ArrayList<>(storeEntries);
+    }
+
+    public static List<HostEntry> getHostEntries() {
+        return new ArrayList<>(hostEntries);
+    }
+
+    public static long getTotalTimeMs() {
+        return totalTimeMs;
+    }
+
+    public static String getReport() {
+        StringBuilder sb = new StringBuilder("Startup timeline: reading all persisted data took ")
+                .append(totalTimeMs).append(" ms");
+        String ls = System.lineSeparator();
+        sb.append(ls).append("Stores (sorted by parse + conversion time):");
+        storeEntries.stream()
+                .sorted(Comparator.comparingLong((StoreEntry e) -> e.getParseTimeMs() + e.getConversionTimeMs())
+                        .reversed())
+                .forEach(e -> sb.append(ls)
+                        .append(String.format("  %-40s size=%,d bytes, parse=%d ms, conversion=%d ms, heap delta=%,d bytes",
+                                e.getFileName(), e.getFileSize(), e.getParseTimeMs(), e.getConversionTimeMs(),
+                                e.getHeapDeltaBytes())));
+        sb.append(ls).append("PersistedDataHosts (sorted by start):");
+        hostEntries.stream()
+                .sorted(Comparator.comparingLong(HostEntry::getStartOffsetMs))
+                .forEach(e -> sb.append(ls)
+                        .append(String.format("  %-40s start=+%d ms, duration=%d ms",
+                                e.getHostName(), e.getStartOffsetMs(), e.getDurationMs())));
+        return sb.toString();
+    }
+}
@@ -17,6 +17,17 @@
 
 package bisq.common.proto.persistable;
 
+import java.util.Collections;
+import java.util.Set;
+
 public interface PersistedDataHost {
     void readPersisted(Runnable completeHandler);
+
+    /**
+     * @return The hosts which need to have completed reading their persisted data before readPersisted gets called
+     * on this host. Used by {@link PersistedDataHostLoader}.
+     */
+    default Set<Class<? extends PersistedDataHost>> getReadPersistedDependencies() {
+        return Collections.emptySet();
+    }
 }
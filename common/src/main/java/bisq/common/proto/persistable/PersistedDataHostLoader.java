@@ -0,0 +1,149 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto.persistable;
+
+import bisq.common.persistence.StartupTimeline;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Calls readPersisted on all hosts and the completeHandler once all hosts have completed. A host is started as soon
+ * as all the hosts it declared in {@link PersistedDataHost#getReadPersistedDependencies()} have completed, all
+ * others are started at once. The actual reading from disk happens on the bounded read pool of the
+ * PersistenceManager. Dependencies on hosts which are not in the list are ignored.
+ * <p/>
+ * The time each host took is added to the {@link StartupTimeline}.
+ */
+@Slf4j
+public class PersistedDataHostLoader {
+    private final List<PersistedDataHost> hosts;
+    private final Runnable completeHandler;
+    private final Map<PersistedDataHost, Set<PersistedDataHost>> dependenciesByHost = new IdentityHashMap<>();
+    private final Set<PersistedDataHost> started = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<PersistedDataHost> completed = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long startTime;
+
+    public static void readAll(List<PersistedDataHost> hosts, Runnable completeHandler) {
+        new PersistedDataHostLoader(hosts, completeHandler).start();
+    }
+
+    private PersistedDataHostLoader(List<PersistedDataHost> hosts, Runnable completeHandler) {
+        // The same host might have been added twice
+        Set<PersistedDataHost> uniqueHosts = Collections.newSetFromMap(new IdentityHashMap<>());
+        this.hosts = hosts.stream().filter(uniqueHosts::add).collect(Collectors.toList());
+        this.completeHandler = completeHandler;
+
+        this.hosts.forEach(host -> dependenciesByHost.put(host, host.getReadPersistedDependencies().stream()
+                .flatMap(dependency -> {
+                    List<PersistedDataHost> matching = this.hosts.stream()
+                            .filter(candidate -> candidate != host && dependency.isInstance(candidate))
+                            .collect(Collectors.toList());
+                    if (matching.isEmpty()) {
+                        log.debug("Dependency {} of {} is not in the list of hosts. We ignore it.",
+                                dependency.getSimpleName(), host.getClass().getSimpleName());
+                    }
+                    return matching.stream();
+                })
+                .collect(Collectors.toCollection(() -> Collections.newSetFromMap(new IdentityHashMap<>())))));
+        checkForCycles();
+    }
+
+    private void start() {
+        startTime = System.currentTimeMillis();
+        if (hosts.isEmpty()) {
+            complete();
+        } else {
+            startReadyHosts();
+        }
+    }
+
+    private void startReadyHosts() {
+        List<PersistedDataHost> readyHosts;
+        synchronized (this) {
+            readyHosts = hosts.stream()
+                    .filter(host -> !started.contains(host))
+                    .filter(host -> completed.containsAll(dependenciesByHost.get(host)))
+                    .collect(Collectors.toList());
+            started.addAll(readyHosts);
+        }
+        readyHosts.forEach(this::readPersisted);
+    }
+
+    private void readPersisted(PersistedDataHost host) {
+        long hostStartTime = System.currentTimeMillis();
+        AtomicBoolean done = new AtomicBoolean();
+        host.readPersisted(() -> {
+            if (!done.compareAndSet(false, true)) {
+                log.warn("readPersisted completeHandler of {} got called more than once", host.getClass().getSimpleName());
+                return;
+            }
+
+            long now = System.currentTimeMillis();
+            StartupTimeline.addHostEntry(new StartupTimeline.HostEntry(host.getClass().getSimpleName(),
+                    hostStartTime - startTime,
+                    now - hostStartTime));
+            boolean allCompleted;
+            synchronized (this) {
+                completed.add(host);
+                allCompleted = completed.size() == hosts.size();
+            }
+            if (allCompleted) {
+                complete();
+            } else {
+                startReadyHosts();
+            }
+        });
+    }
+
+    private void complete() {
+        StartupTimeline.setTotalTimeMs(System.currentTimeMillis() - startTime);
+        completeHandler.run();
+    }
+
+    private void checkForCycles() {
+        Map<PersistedDataHost, Integer> numOpenDependencies = new IdentityHashMap<>();
+        Deque<PersistedDataHost> ready = new ArrayDeque<>();
+        dependenciesByHost.forEach((host, dependencies) -> {
+            numOpenDependencies.put(host, dependencies.size());
+            if (dependencies.isEmpty())
+                ready.add(host);
+        });
+        int numSorted = 0;
+        while (!ready.isEmpty()) {
+            PersistedDataHost host = ready.poll();
+            numSorted++;
+            dependenciesByHost.forEach((dependent, dependencies) -> {
+                if (dependencies.contains(host) && numOpenDependencies.merge(dependent, -1, Integer::sum) == 0)
+                    ready.add(dependent);
+            });
+        }
+        if (numSorted != dependenciesByHost.size()) {
+            throw new IllegalStateException("The readPersisted dependencies of the PersistedDataHosts contain a cycle");
+        }
+    }
+}
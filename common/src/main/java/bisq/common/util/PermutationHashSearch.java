@@ -0,0 +1,317 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.util;
+
+import org.bouncycastle.crypto.digests.RIPEMD160Digest;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleConsumer;
+import java.util.function.Function;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Finds the partial list whose RIPEMD160(SHA256(serialized items)) hash matches a target hash. It returns the same
+ * result as {@link PermutationUtil#findMatchingPermutation} with a predicate comparing that hash: partial lists with
+ * fewer removed items are checked first, partial lists with the same number of removed items in the lexicographic
+ * order of the removed indices, and at most maxIterations partial lists are checked.
+ * <p/>
+ * Instead of creating and serializing each partial list we serialize the items once and hash the byte segments of
+ * the remaining items. The SHA256 state of the common head of the partial lists is reused. The search space of each
+ * number of removed items is split by the first two removed indices and searched in parallel. Once a match is found
+ * the tasks of later partial lists get cancelled.
+ */
+@Slf4j
+public class PermutationHashSearch {
+    private static final int NUM_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    // Tasks add to the shared counter of checked partial lists only in batches
+    private static final int NUM_CHECKED_BATCH_SIZE = 256;
+    private static final long PROGRESS_INTERVAL_MS = 1000;
+
+    public static <T> List<T> findMatchingPermutation(byte[] targetHash,
+                                                      List<T> list,
+                                                      Function<T, byte[]> serializer,
+                                                      int maxIterations,
+                                                      @Nullable DoubleConsumer progressListener) {
+        byte[][] segments = list.stream().map(serializer).toArray(byte[][]::new);
+        PermutationHashSearch search = new PermutationHashSearch(targetHash, segments);
+        if (search.matchesWithoutRemovedItems()) {
+            return list;
+        }
+
+        int[] indicesToRemove = search.find(maxIterations, progressListener);
+        if (indicesToRemove == null) {
+            return new ArrayList<>();
+        }
+        List<T> result = new ArrayList<>(list);
+        for (int i = indicesToRemove.length - 1; i >= 0; i--) {
+            result.remove(indicesToRemove[i]);
+        }
+        return result;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Instance
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private final byte[] targetHash;
+    private final byte[][] segments;
+    private final AtomicLong numChecked = new AtomicLong();
+    // Index of the first task which found a match. Tasks after that one get cancelled.
+    private final AtomicInteger matchingTaskIndex = new AtomicInteger(Integer.MAX_VALUE);
+
+    private PermutationHashSearch(byte[] targetHash, byte[][] segments) {
+        this.targetHash = targetHash;
+        this.segments = segments;
+    }
+
+    private boolean matchesWithoutRemovedItems() {
+        MessageDigest sha256 = newSha256();
+        for (byte[] segment : segments) {
+            sha256.update(segment);
+        }
+        return matches(sha256, new RIPEMD160Digest(), new byte[20]);
+    }
+
+    // Returns the sorted indices to remove or null if no match was found
+    @Nullable
+    private int[] find(int maxIterations, @Nullable DoubleConsumer progressListener) {
+        int n = segments.length;
+        long remaining = maxIterations;
+        long total = 0;
+        for (int numRemoved = 1; numRemoved < n; numRemoved++) {
+            total += binomial(n, numRemoved, maxIterations);
+        }
+        total = Math.min(total, maxIterations);
+
+        ExecutorService executor = Utilities.getThreadPoolExecutor("PermutationHashSearch-%d",
+                NUM_THREADS, NUM_THREADS, 10, new LinkedBlockingQueue<>());
+        long lastProgressTs = System.currentTimeMillis();
+        try {
+            for (int numRemoved = 1; numRemoved < n && remaining > 0; numRemoved++) {
+                List<SearchTask> tasks = createTasks(numRemoved, remaining);
+                List<Future<int[]>> futures = new ArrayList<>();
+                tasks.forEach(task -> futures.add(executor.submit(task)));
+
+                // Tasks are in the order of the partial lists, so the first match is the one of the lowest task
+                for (Future<int[]> future : futures) {
+                    int[] result = null;
+                    boolean done = false;
+                    while (!done) {
+                        try {
+                            result = future.get(PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                            done = true;
+                        } catch (TimeoutException ignore) {
+                        }
+                        if (progressListener != null && System.currentTimeMillis() - lastProgressTs >= PROGRESS_INTERVAL_MS) {
+                            lastProgressTs = System.currentTimeMillis();
+                            progressListener.accept((double) numChecked.get() / total);
+                        }
+                    }
+                    if (result != null) {
+                        log.info("Found matching permutation after checking {} partial lists", numChecked.get());
+                        return result;
+                    }
+                }
+                remaining -= binomial(n, numRemoved, maxIterations);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Permutation search got interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("No matching permutation found after checking {} partial lists", numChecked.get());
+        return null;
+    }
+
+    // Splits the partial lists with numRemoved removed items by the first two removed indices, in lexicographic
+    // order. Only the first maxIterations partial lists get a task.
+    private List<SearchTask> createTasks(int numRemoved, long maxIterations) {
+        int n = segments.length;
+        List<SearchTask> tasks = new ArrayList<>();
+        long offset = 0;
+        for (int first = 0; first <= n - numRemoved && offset < maxIterations; first++) {
+            if (numRemoved == 1) {
+                tasks.add(new SearchTask(tasks.size(), new int[]{first}, 1, 1));
+                offset++;
+                continue;
+            }
+            for (int second = first + 1; second <= n - numRemoved + 1 && offset < maxIterations; second++) {
+                long size = binomial(n - 1 - second, numRemoved - 2, maxIterations);
+                long limit = Math.min(size, maxIterations - offset);
+                tasks.add(new SearchTask(tasks.size(), new int[]{first, second}, numRemoved, limit));
+                offset += size;
+            }
+        }
+        return tasks;
+    }
+
+    private boolean matches(MessageDigest sha256, RIPEMD160Digest ripemd160, byte[] out) {
+        byte[] sha256Out = sha256.digest();
+        ripemd160.reset();
+        ripemd160.update(sha256Out, 0, sha256Out.length);
+        ripemd160.doFinal(out, 0);
+        return Arrays.equals(targetHash, out);
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The SHA256 engines of the JDK providers support cloning
+    private static MessageDigest copy(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Number of combinations of k out of n items, or cap + 1 if it is larger than cap
+    static long binomial(int n, int k, long cap) {
+        if (k < 0 || k > n) {
+            return 0;
+        }
+        k = Math.min(k, n - k);
+        long result = 1;
+        for (int i = 1; i <= k; i++) {
+            // result is C(n - k + i - 1, i - 1) <= cap here, so the multiplication does not overflow for int cap
+            result = result * (n - k + i) / i;
+            if (result > cap) {
+                return cap + 1;
+            }
+        }
+        return result;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // SearchTask
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Checks the partial lists which have the given removed indices as their first removed indices, in lexicographic
+    // order of the removed indices and up to limit partial lists.
+    private class SearchTask implements Callable<int[]> {
+        private final int taskIndex;
+        private final int[] removed;
+        private final int numRemoved;
+        private final long limit;
+        private long numCheckedByTask;
+        private final RIPEMD160Digest ripemd160 = new RIPEMD160Digest();
+        private final byte[] out = new byte[20];
+
+        SearchTask(int taskIndex, int[] prefix, int numRemoved, long limit) {
+            this.taskIndex = taskIndex;
+            this.removed = Arrays.copyOf(prefix, numRemoved);
+            this.numRemoved = numRemoved;
+            this.limit = limit;
+        }
+
+        @Override
+        @Nullable
+        public int[] call() {
+            if (isCancelled()) {
+                return null;
+            }
+
+            // Head of the partial lists up to the last removed index of the prefix
+            int prefixLength = numRemoved == 1 ? 1 : 2;
+            MessageDigest head = newSha256();
+            int position = 0;
+            for (int i = 0; i < prefixLength; i++) {
+                update(head, position, removed[i]);
+                position = removed[i] + 1;
+            }
+
+            boolean found = prefixLength == numRemoved ?
+                    checkLeaf(head, position) :
+                    search(prefixLength, position, head);
+            numChecked.addAndGet(numCheckedByTask % NUM_CHECKED_BATCH_SIZE);
+            if (found) {
+                matchingTaskIndex.accumulateAndGet(taskIndex, Math::min);
+                return removed.clone();
+            }
+            return null;
+        }
+
+        // state contains the segments before position, removed[0..depth-1] are set
+        private boolean search(int depth, int position, MessageDigest state) {
+            int lastPossible = segments.length - (numRemoved - depth);
+            for (int index = position; index <= lastPossible; index++) {
+                if (numCheckedByTask >= limit || isCancelled()) {
+                    return false;
+                }
+                removed[depth] = index;
+                MessageDigest next = copy(state);
+                if (depth + 1 == numRemoved) {
+                    if (checkLeaf(next, index + 1)) {
+                        return true;
+                    }
+                } else if (search(depth + 1, index + 1, next)) {
+                    return true;
+                }
+                // Keep the item at index for the next removed index
+                state.update(segments[index]);
+            }
+            return false;
+        }
+
+        private boolean checkLeaf(MessageDigest state, int position) {
+            update(state, position, segments.length);
+            numCheckedByTask++;
+            if (numCheckedByTask % NUM_CHECKED_BATCH_SIZE == 0) {
+                numChecked.addAndGet(NUM_CHECKED_BATCH_SIZE);
+            }
+            return matches(state, ripemd160, out);
+        }
+
+        private void update(MessageDigest digest, int from, int to) {
+            for (int i = from; i < to; i++) {
+                digest.update(segments[i]);
+            }
+        }
+
+        private boolean isCancelled() {
+            return matchingTaskIndex.get() < taskIndex || Thread.currentThread().isInterrupted();
+        }
+    }
+}
@@ -118,11 +118,11 @@ public class Utilities {
                 new ArrayBlockingQueue<>(maximumPoolSize));
     }
 
-    private static ThreadPoolExecutor getThreadPoolExecutor(String name,
-                                                            int corePoolSize,
-                                                            int maximumPoolSize,
-                                                            long keepAliveTimeInSec,
-                                                            BlockingQueue<Runnable> workQueue) {
+    public static ThreadPoolExecutor getThreadPoolExecutor(String name,
+                                                           int corePoolSize,
+                                                           int maximumPoolSize,
+                                                           long keepAliveTimeInSec,
+                                                           BlockingQueue<Runnable> workQueue) {
         final ThreadFactory threadFactory = new ThreadFactoryBuilder()
                 .setNameFormat(name)
                 .setDaemon(true)
@@ -0,0 +1,116 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.crypto;
+
+import javax.crypto.SecretKey;
+
+import java.security.KeyPair;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class BatchCryptoTest {
+    private static KeyPair signatureKeyPair;
+    private static BatchCrypto batchCrypto;
+
+    @BeforeClass
+    public static void setup() {
+        signatureKeyPair = Sig.generateKeyPair();
+        batchCrypto = new BatchCrypto(4);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        batchCrypto.shutDown();
+    }
+
+    @Test
+    public void testVerifyKeepsOrderOfBatch() throws CryptoException {
+        List<BatchCrypto.SignedData> batch = new ArrayList<>();
+        boolean[] expected = new boolean[100];
+        for (int i = 0; i < expected.length; i++) {
+            byte[] data = ("data" + i).getBytes(StandardCharsets.UTF_8);
+            byte[] signature = Sig.sign(signatureKeyPair.getPrivate(), data);
+            // Every 7th item has data which does not match the signature
+            expected[i] = i % 7 != 0;
+            byte[] signedData = expected[i] ? data : ("other" + i).getBytes(StandardCharsets.UTF_8);
+            batch.add(new BatchCrypto.SignedData(signatureKeyPair.getPublic(), signedData, signature));
+        }
+
+        assertArrayEquals(expected, batchCrypto.verify(batch));
+
+        BatchCrypto singleThreaded = new BatchCrypto(1);
+        assertArrayEquals(expected, singleThreaded.verify(batch));
+        singleThreaded.shutDown();
+    }
+
+    @Test
+    public void testVerifyReportsMalformedSignatureAsInvalid() {
+        byte[] data = "data".getBytes(StandardCharsets.UTF_8);
+        List<BatchCrypto.SignedData> batch = List.of(
+                new BatchCrypto.SignedData(signatureKeyPair.getPublic(), data, new byte[]{1, 2, 3}));
+
+        assertArrayEquals(new boolean[]{false}, batchCrypto.verify(batch));
+    }
+
+    @Test
+    public void testDecryptSecretKeys() throws CryptoException {
+        KeyPair myKeyPair = Encryption.generateKeyPair();
+        KeyPair otherKeyPair = Encryption.generateKeyPair();
+        List<SecretKey> secretKeys = new ArrayList<>();
+        List<byte[]> encryptedSecretKeys = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            SecretKey secretKey = Encryption.generateSecretKey(256);
+            secretKeys.add(secretKey);
+            KeyPair receiver = i % 2 == 0 ? myKeyPair : otherKeyPair;
+            encryptedSecretKeys.add(Encryption.encryptSecretKey(secretKey, receiver.getPublic()));
+        }
+
+        List<SecretKey> decrypted = batchCrypto.decryptSecretKeys(encryptedSecretKeys, myKeyPair.getPrivate());
+
+        assertEquals(secretKeys.size(), decrypted.size());
+        for (int i = 0; i < secretKeys.size(); i++) {
+            if (i % 2 == 0) {
+                assertNotNull(decrypted.get(i));
+                assertArrayEquals(secretKeys.get(i).getEncoded(), decrypted.get(i).getEncoded());
+            } else {
+                assertNull(decrypted.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testDecodedPublicKeysAreCached() {
+        byte[] publicKeyBytes = Sig.getPublicKeyBytes(signatureKeyPair.getPublic());
+
+        assertSame(Sig.getPublicKeyFromBytes(publicKeyBytes), Sig.getPublicKeyFromBytes(publicKeyBytes.clone()));
+        assertEquals(signatureKeyPair.getPublic(), Sig.getPublicKeyFromBytes(publicKeyBytes));
+    }
+}
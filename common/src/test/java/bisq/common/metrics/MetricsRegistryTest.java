@@ -0,0 +1,82 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testBucketIndex() {
+        assertEquals(0, LatencyHistogram.getBucketIndex(0));
+        assertEquals(0, LatencyHistogram.getBucketIndex(1));
+        assertEquals(1, LatencyHistogram.getBucketIndex(2));
+        assertEquals(2, LatencyHistogram.getBucketIndex(3));
+        assertEquals(2, LatencyHistogram.getBucketIndex(4));
+        assertEquals(10, LatencyHistogram.getBucketIndex(1024));
+        assertEquals(11, LatencyHistogram.getBucketIndex(1025));
+        assertEquals(LatencyHistogram.NUM_BOUNDED_BUCKETS - 1,
+                LatencyHistogram.getBucketIndex(LatencyHistogram.getBucketUpperBoundMicros(LatencyHistogram.NUM_BOUNDED_BUCKETS - 1)));
+        assertEquals(LatencyHistogram.NUM_BOUNDED_BUCKETS, LatencyHistogram.getBucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testRegisterTwiceReturnsSameMetric() {
+        Counter counter = MetricsRegistry.counter("test_same_total", "help");
+        assertSame(counter, MetricsRegistry.counter("test_same_total", "help"));
+
+        MetricFamily<Counter> family = MetricsRegistry.counter("test_same_labeled_total", "help", "type");
+        assertSame(family.labels("a"), MetricsRegistry.counter("test_same_labeled_total", "help", "type").labels("a"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRegisterWithOtherTypeFails() {
+        MetricsRegistry.counter("test_type_clash", "help");
+        MetricsRegistry.histogram("test_type_clash", "help");
+    }
+
+    @Test
+    public void testPrometheusText() {
+        MetricFamily<Counter> messages = MetricsRegistry.counter("test_messages_total", "Messages", "type");
+        messages.labels("PING").inc();
+        messages.labels("PING").inc();
+        messages.labels("ADD_DATA").add(5);
+        MetricsRegistry.gauge("test_entries", "Entries", () -> 42);
+        LatencyHistogram histogram = MetricsRegistry.histogram("test_duration_seconds", "Duration");
+        histogram.recordNanos(TimeUnit.MICROSECONDS.toNanos(3));
+        histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(1));
+
+        String text = MetricsRegistry.getPrometheusText();
+
+        assertTrue(text.contains("# TYPE test_messages_total counter\n" +
+                "test_messages_total{type=\"ADD_DATA\"} 5\n" +
+                "test_messages_total{type=\"PING\"} 2\n"));
+        assertTrue(text.contains("# TYPE test_entries gauge\ntest_entries 42\n"));
+        assertTrue(text.contains("test_duration_seconds_bucket{le=\"2.0E-6\"} 0\n"));
+        assertTrue(text.contains("test_duration_seconds_bucket{le=\"4.0E-6\"} 1\n"));
+        assertTrue(text.contains("test_duration_seconds_bucket{le=\"0.001024\"} 2\n"));
+        assertTrue(text.contains("test_duration_seconds_bucket{le=\"+Inf\"} 2\n"));
+        assertTrue(text.contains("test_duration_seconds_count 2\n"));
+    }
+}
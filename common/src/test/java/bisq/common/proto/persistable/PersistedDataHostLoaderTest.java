@@ -0,0 +1,137 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.proto.persistable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PersistedDataHostLoaderTest {
+
+    private static class Host implements PersistedDataHost {
+        final String name;
+        final List<String> events;
+        final Set<Class<? extends PersistedDataHost>> dependencies;
+        Runnable pendingCompleteHandler;
+
+        Host(String name, List<String> events, Set<Class<? extends PersistedDataHost>> dependencies) {
+            this.name = name;
+            this.events = events;
+            this.dependencies = dependencies;
+        }
+
+        @Override
+        public void readPersisted(Runnable completeHandler) {
+            events.add("start " + name);
+            pendingCompleteHandler = completeHandler;
+        }
+
+        @Override
+        public Set<Class<? extends PersistedDataHost>> getReadPersistedDependencies() {
+            return dependencies;
+        }
+
+        void complete() {
+            events.add("complete " + name);
+            pendingCompleteHandler.run();
+        }
+    }
+
+    private static class DependencyHost extends Host {
+        DependencyHost(List<String> events) {
+            super("dependency", events, Collections.emptySet());
+        }
+    }
+
+    private static class DependentHost extends Host {
+        DependentHost(List<String> events) {
+            super("dependent", events, Set.of(DependencyHost.class));
+        }
+    }
+
+    private static class CyclicHost extends Host {
+        CyclicHost(List<String> events) {
+            super("cyclic", events, Set.of(CyclicHost2.class));
+        }
+    }
+
+    private static class CyclicHost2 extends Host {
+        CyclicHost2(List<String> events) {
+            super("cyclic2", events, Set.of(CyclicHost.class));
+        }
+    }
+
+    @Test
+    public void readAll_startsDependentsAfterDependencies() {
+        List<String> events = new ArrayList<>();
+        DependentHost dependentHost = new DependentHost(events);
+        DependencyHost dependencyHost = new DependencyHost(events);
+        Host other = new Host("other", events, Collections.emptySet());
+        AtomicInteger numCompleteCalls = new AtomicInteger();
+
+        PersistedDataHostLoader.readAll(List.of(dependentHost, dependencyHost, other), numCompleteCalls::incrementAndGet);
+        assertEquals(List.of("start dependency", "start other"), events);
+
+        dependencyHost.complete();
+        assertEquals(List.of("start dependency", "start other", "complete dependency", "start dependent"), events);
+        dependentHost.complete();
+        assertEquals(0, numCompleteCalls.get());
+
+        other.complete();
+        assertEquals(1, numCompleteCalls.get());
+    }
+
+    @Test
+    public void readAll_ignoresMissingDependenciesAndDuplicates() {
+        List<String> events = new ArrayList<>();
+        DependentHost dependentHost = new DependentHost(events);
+        AtomicInteger numCompleteCalls = new AtomicInteger();
+
+        PersistedDataHostLoader.readAll(List.of(dependentHost, dependentHost), numCompleteCalls::incrementAndGet);
+        assertEquals(List.of("start dependent"), events);
+
+        dependentHost.complete();
+        dependentHost.pendingCompleteHandler.run();
+        assertEquals(1, numCompleteCalls.get());
+    }
+
+    @Test
+    public void readAll_noHosts() {
+        AtomicInteger numCompleteCalls = new AtomicInteger();
+        PersistedDataHostLoader.readAll(Collections.emptyList(), numCompleteCalls::incrementAndGet);
+        assertEquals(1, numCompleteCalls.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void readAll_cycle() {
+        List<String> events = new ArrayList<>();
+        try {
+            PersistedDataHostLoader.readAll(List.of(new CyclicHost(events), new CyclicHost2(events)), () -> {
+            });
+        } finally {
+            assertTrue(events.isEmpty());
+        }
+    }
+}
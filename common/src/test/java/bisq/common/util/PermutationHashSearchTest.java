@@ -0,0 +1,111 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.common.util;
+
+import bisq.common.crypto.Hash;
+
+import java.io.ByteArrayOutputStream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PermutationHashSearchTest {
+    private static final BiFunction<byte[], List<byte[]>, Boolean> PREDICATE =
+            (targetHash, list) -> Arrays.equals(targetHash, hash(list));
+
+    private static byte[] hash(List<byte[]> list) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        list.forEach(data -> outputStream.write(data, 0, data.length));
+        return Hash.getSha256Ripemd160hash(outputStream.toByteArray());
+    }
+
+    private static List<byte[]> find(byte[] targetHash, List<byte[]> list, int maxIterations) {
+        return PermutationHashSearch.findMatchingPermutation(targetHash, list, data -> data, maxIterations, null);
+    }
+
+    @Test
+    public void testFindMatchingPermutation() {
+        List<byte[]> list = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            list.add(new byte[]{(byte) i});
+        }
+
+        assertSame(list, find(hash(list), list, 1000));
+
+        List<byte[]> expected = new ArrayList<>(list);
+        expected.remove(7);
+        expected.remove(3);
+        expected.remove(0);
+        assertEquals(expected, find(hash(expected), list, 1000));
+
+        // Removing the items at 0, 3 and 7 is the partial list 10 + 45 + 19
+        assertEquals(expected, find(hash(expected), list, 74));
+        assertTrue(find(hash(expected), list, 73).isEmpty());
+
+        assertTrue(find(hash(List.of(new byte[]{42})), list, 1000).isEmpty());
+        assertTrue(find(hash(new ArrayList<>()), list, 1000000).isEmpty());
+    }
+
+    // Items with the same data can be removed in different ways, we need to get the same partial list as
+    // PermutationUtil.findMatchingPermutation in such cases as well as when the limit of iterations is reached.
+    @Test
+    public void testSameResultAsPermutationUtil() {
+        Random random = new Random(1);
+        for (int run = 0; run < 500; run++) {
+            int size = random.nextInt(12);
+            List<byte[]> list = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                byte[] data = new byte[1 + random.nextInt(3)];
+                data[0] = (byte) random.nextInt(3);
+                list.add(data);
+            }
+            List<byte[]> target = new ArrayList<>(list);
+            int numRemoved = size == 0 ? 0 : random.nextInt(Math.min(size, 4));
+            for (int i = 0; i < numRemoved; i++) {
+                target.remove(random.nextInt(target.size()));
+            }
+            int maxIterations = random.nextBoolean() ? 1000000 : random.nextInt(200);
+            byte[] targetHash = hash(target);
+
+            List<byte[]> expected = PermutationUtil.findMatchingPermutation(targetHash, list, PREDICATE, maxIterations);
+            List<byte[]> result = find(targetHash, list, maxIterations);
+            assertEquals(expected.size(), result.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertSame(expected.get(i), result.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testBinomial() {
+        assertEquals(1, PermutationHashSearch.binomial(5, 0, 100));
+        assertEquals(10, PermutationHashSearch.binomial(5, 2, 100));
+        assertEquals(0, PermutationHashSearch.binomial(5, 6, 100));
+        assertEquals(34220, PermutationHashSearch.binomial(60, 3, 1000000));
+        assertEquals(1000001, PermutationHashSearch.binomial(60, 30, 1000000));
+    }
+}
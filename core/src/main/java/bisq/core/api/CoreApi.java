@@ -19,9 +19,11 @@ package bisq.core.api;
 
 import bisq.core.api.model.AddressBalanceInfo;
 import bisq.core.api.model.BalancesInfo;
+import bisq.core.api.model.Page;
 import bisq.core.api.model.TxFeeRateInfo;
 import bisq.core.btc.wallet.TxBroadcaster;
 import bisq.core.offer.Offer;
+import bisq.core.offer.OfferBookService;
 import bisq.core.offer.OpenOffer;
 import bisq.core.payment.PaymentAccount;
 import bisq.core.payment.payload.PaymentMethod;
@@ -217,6 +219,26 @@ public class CoreApi {
         return coreOffersService.isMyOffer(id);
     }
 
+    public Page<Offer> getOffersPage(String direction, String currencyCode, int pageSize, String pageToken) {
+        return coreOffersService.getOffersPage(direction, currencyCode, pageSize, pageToken);
+    }
+
+    public boolean isAvailableOffer(Offer offer, String direction, String currencyCode) {
+        return coreOffersService.isAvailableOffer(offer, direction, currencyCode);
+    }
+
+    public boolean isOfferOfOtherTrader(Offer offer, String direction, String currencyCode) {
+        return coreOffersService.isOfferOfOtherTrader(offer, direction, currencyCode);
+    }
+
+    public void addOfferBookChangedListener(OfferBookService.OfferBookChangedListener listener) {
+        coreOffersService.addOfferBookChangedListener(listener);
+    }
+
+    public void removeOfferBookChangedListener(OfferBookService.OfferBookChangedListener listener) {
+        coreOffersService.removeOfferBookChangedListener(listener);
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PaymentAccounts
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -317,6 +339,30 @@ public class CoreApi {
         return coreTradesService.getTradeRole(tradeId);
     }
 
+    public String getTradeRole(Trade trade) {
+        return coreTradesService.getTradeRole(trade);
+    }
+
+    public List<Trade> getTrades(List<String> tradeIds) {
+        return coreTradesService.getTrades(tradeIds);
+    }
+
+    public Page<Trade> getOpenTradesPage(int pageSize, String pageToken) {
+        return coreTradesService.getOpenTradesPage(pageSize, pageToken);
+    }
+
+    public List<Trade> getOpenTrades() {
+        return coreTradesService.getOpenTrades();
+    }
+
+    public void addTradeListener(TradeListener listener) {
+        coreTradesService.addTradeListener(listener);
+    }
+
+    public void removeTradeListener(TradeListener listener) {
+        coreTradesService.removeTradeListener(listener);
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Wallets
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -325,6 +371,14 @@ public class CoreApi {
         return walletsService.getBalances(currencyCode);
     }
 
+    public void addBalanceListener(Runnable listener) {
+        walletsService.addBalanceListener(listener);
+    }
+
+    public void removeBalanceListener(Runnable listener) {
+        walletsService.removeBalanceListener(listener);
+    }
+
     public long getAddressBalance(String addressString) {
         return walletsService.getAddressBalance(addressString);
     }
@@ -17,6 +17,7 @@
 
 package bisq.core.api;
 
+import bisq.core.api.model.Page;
 import bisq.core.monetary.Altcoin;
 import bisq.core.monetary.Price;
 import bisq.core.offer.Offer;
@@ -167,13 +168,47 @@ class CoreOffersService {
 
     List<Offer> getOffers(String direction, String currencyCode) {
         return offerBookService.getOffers().stream()
-                .filter(o -> !o.isMyOffer(keyRing))
-                .filter(o -> offerMatchesDirectionAndCurrency(o, direction, currencyCode))
-                .filter(o -> offerFilterService.canTakeOffer(o, coreContext.isApiUser()).isValid())
+                .filter(o -> isAvailableOffer(o, direction, currencyCode))
                 .sorted(priceComparator(direction))
                 .collect(Collectors.toList());
     }
 
+    // Returns a page of the offers in getOffers(direction, currencyCode), ordered by price and id.
+    // The price of each offer is only computed once, instead of in every comparison.
+    Page<Offer> getOffersPage(String direction, String currencyCode, int pageSize, String pageToken) {
+        List<Offer> offers = offerBookService.getOffers().stream()
+                .filter(o -> isAvailableOffer(o, direction, currencyCode))
+                .collect(Collectors.toList());
+        return Page.of(offers,
+                o -> o.getPrice() == null ? 0 : o.getPrice().getValue(),
+                Offer::getId,
+                direction.equalsIgnoreCase(BUY.name()),
+                pageSize,
+                pageToken);
+    }
+
+    // Returns true if the offer would be included in getOffers(direction, currencyCode).
+    boolean isAvailableOffer(Offer offer, String direction, String currencyCode) {
+        return !offer.isMyOffer(keyRing)
+                && offerMatchesDirectionAndCurrency(offer, direction, currencyCode)
+                && offerFilterService.canTakeOffer(offer, coreContext.isApiUser()).isValid();
+    }
+
+    // Returns true if the offer is not mine and matches the direction and currency,
+    // without checking if it can be taken.  Used for offers removed from the offer book.
+    boolean isOfferOfOtherTrader(Offer offer, String direction, String currencyCode) {
+        return !offer.isMyOffer(keyRing)
+                && offerMatchesDirectionAndCurrency(offer, direction, currencyCode);
+    }
+
+    void addOfferBookChangedListener(OfferBookService.OfferBookChangedListener listener) {
+        offerBookService.addOfferBookChangedListener(listener);
+    }
+
+    void removeOfferBookChangedListener(OfferBookService.OfferBookChangedListener listener) {
+        offerBookService.removeOfferBookChangedListener(listener);
+    }
+
     List<OpenOffer> getMyOffers(String direction, String currencyCode) {
         return openOfferManager.getObservableList().stream()
                 .filter(o -> o.getOffer().isMyOffer(keyRing))
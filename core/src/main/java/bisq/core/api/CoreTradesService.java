@@ -17,6 +17,7 @@
 
 package bisq.core.api;
 
+import bisq.core.api.model.Page;
 import bisq.core.btc.model.AddressEntry;
 import bisq.core.btc.wallet.BtcWalletService;
 import bisq.core.offer.Offer;
@@ -35,14 +36,26 @@ import bisq.core.trade.protocol.bisq_v1.SellerProtocol;
 import bisq.core.user.User;
 import bisq.core.util.validation.BtcAddressValidator;
 
+import bisq.common.UserThread;
 import bisq.common.handlers.ErrorMessageHandler;
+import bisq.common.util.Tuple2;
 
 import org.bitcoinj.core.Coin;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+import javafx.beans.value.ChangeListener;
+
+import javafx.collections.ListChangeListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.Consumer;
 
 import lombok.extern.slf4j.Slf4j;
@@ -68,6 +81,10 @@ class CoreTradesService {
     private final TradeUtil tradeUtil;
     private final User user;
 
+    private final Set<TradeListener> tradeListeners = new CopyOnWriteArraySet<>();
+    private final Map<String, Tuple2<ChangeListener<Trade.State>, ChangeListener<Trade.DisputeState>>>
+            tradeStateListenersByTradeId = new HashMap<>();
+
     @Inject
     public CoreTradesService(CoreContext coreContext,
                              CoreWalletsService coreWalletsService,
@@ -89,6 +106,9 @@ class CoreTradesService {
         this.tradeManager = tradeManager;
         this.tradeUtil = tradeUtil;
         this.user = user;
+
+        // The trades are JavaFX observables, so we observe them on the user thread.
+        UserThread.execute(this::observeTrades);
     }
 
     // todo we need to pass the intended trade amount
@@ -245,6 +265,20 @@ class CoreTradesService {
         return tradeUtil.getRole(getTrade(tradeId));
     }
 
+    // Unlike getTradeRole(tradeId) the trade is not looked up, so this also works for a
+    // trade which failed or got closed.  Returns an empty role if it cannot be determined.
+    String getTradeRole(Trade trade) {
+        if (trade.getContract() == null || trade.getOffer() == null)
+            return "";
+
+        try {
+            return tradeUtil.getRole(trade);
+        } catch (RuntimeException ex) {
+            log.warn("Could not get role of trade {}: {}", trade.getShortId(), ex.toString());
+            return "";
+        }
+    }
+
     Trade getTrade(String tradeId) {
         coreWalletsService.verifyWalletsAreAvailable();
         coreWalletsService.verifyEncryptedWalletIsUnlocked();
@@ -254,6 +288,92 @@ class CoreTradesService {
                 ));
     }
 
+    // Returns the trades in the requested order, checking wallet availability only once.
+    List<Trade> getTrades(List<String> tradeIds) {
+        coreWalletsService.verifyWalletsAreAvailable();
+        coreWalletsService.verifyEncryptedWalletIsUnlocked();
+        List<Trade> trades = new ArrayList<>(tradeIds.size());
+        for (String tradeId : tradeIds) {
+            trades.add(getOpenTrade(tradeId).orElseGet(() ->
+                    getClosedTrade(tradeId).orElseThrow(() ->
+                            new IllegalArgumentException(format("trade with id '%s' not found", tradeId))
+                    )));
+        }
+        return trades;
+    }
+
+    // Returns a page of the open trades, oldest first.
+    Page<Trade> getOpenTradesPage(int pageSize, String pageToken) {
+        return Page.of(getOpenTrades(),
+                t -> t.getDate().getTime(),
+                Trade::getId,
+                false,
+                pageSize,
+                pageToken);
+    }
+
+    List<Trade> getOpenTrades() {
+        coreWalletsService.verifyWalletsAreAvailable();
+        coreWalletsService.verifyEncryptedWalletIsUnlocked();
+        return new ArrayList<>(tradeManager.getObservableList());
+    }
+
+    void addTradeListener(TradeListener listener) {
+        tradeListeners.add(listener);
+    }
+
+    void removeTradeListener(TradeListener listener) {
+        tradeListeners.remove(listener);
+    }
+
+    private void observeTrades() {
+        tradeManager.getObservableList().forEach(this::addTradeStateListeners);
+        tradeManager.getObservableList().addListener((ListChangeListener<Trade>) c -> {
+            while (c.next()) {
+                if (c.wasRemoved()) {
+                    c.getRemoved().forEach(trade -> {
+                        removeTradeStateListeners(trade);
+                        tradeListeners.forEach(listener -> listener.onRemoved(trade));
+                    });
+                }
+                if (c.wasAdded()) {
+                    c.getAddedSubList().forEach(trade -> {
+                        addTradeStateListeners(trade);
+                        tradeListeners.forEach(listener -> listener.onAdded(trade));
+                    });
+                }
+            }
+        });
+    }
+
+    // A failed trade gets added again by TradeManager.unFailTrade, so we must not add the listeners twice.
+    private void addTradeStateListeners(Trade trade) {
+        if (tradeStateListenersByTradeId.containsKey(trade.getId()))
+            return;
+
+        ChangeListener<Trade.State> stateListener = (observable, oldValue, newValue) -> notifyTradeChanged(trade);
+        ChangeListener<Trade.DisputeState> disputeStateListener = (observable, oldValue, newValue) ->
+                notifyTradeChanged(trade);
+        trade.stateProperty().addListener(stateListener);
+        trade.disputeStateProperty().addListener(disputeStateListener);
+        tradeStateListenersByTradeId.put(trade.getId(), new Tuple2<>(stateListener, disputeStateListener));
+    }
+
+    private void removeTradeStateListeners(Trade trade) {
+        Tuple2<ChangeListener<Trade.State>, ChangeListener<Trade.DisputeState>> listeners =
+                tradeStateListenersByTradeId.remove(trade.getId());
+        if (listeners != null) {
+            trade.stateProperty().removeListener(listeners.first);
+            trade.disputeStateProperty().removeListener(listeners.second);
+        }
+    }
+
+    private void notifyTradeChanged(Trade trade) {
+        // A trade which failed or got closed is not observed anymore.
+        if (tradeManager.getTradeById(trade.getId()).isPresent())
+            tradeListeners.forEach(listener -> listener.onChanged(trade));
+    }
+
     private Optional<Trade> getOpenTrade(String tradeId) {
         return tradeManager.getTradeById(tradeId);
     }
@@ -74,6 +74,7 @@ import org.bouncycastle.crypto.params.KeyParameter;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -111,6 +112,8 @@ class CoreWalletsService {
 
     private final ListeningExecutorService executor = Utilities.getSingleThreadListeningExecutor("CoreWalletsService");
 
+    private final Set<Runnable> balanceListeners = new CopyOnWriteArraySet<>();
+
     @Inject
     public CoreWalletsService(AppStartupState appStartupState,
                               CoreContext coreContext,
@@ -134,6 +137,9 @@ class CoreWalletsService {
         this.btcFormatter = btcFormatter;
         this.feeService = feeService;
         this.preferences = preferences;
+
+        // The balances are JavaFX observables, so we observe them on the user thread.
+        UserThread.execute(this::observeBalances);
     }
 
     @Nullable
@@ -146,6 +152,32 @@ class CoreWalletsService {
         return btcWalletService.getWallet().getContext().getParams();
     }
 
+    // The listener is called when the BTC or BSQ wallet balances have changed.
+    void addBalanceListener(Runnable listener) {
+        balanceListeners.add(listener);
+    }
+
+    void removeBalanceListener(Runnable listener) {
+        balanceListeners.remove(listener);
+    }
+
+    private void observeBalances() {
+        balances.getAvailableBalance().addListener((observable, oldValue, newValue) -> notifyBalanceListeners());
+        balances.getReservedBalance().addListener((observable, oldValue, newValue) -> notifyBalanceListeners());
+        balances.getLockedBalance().addListener((observable, oldValue, newValue) -> notifyBalanceListeners());
+        bsqWalletService.addBsqBalanceListener((availableBalance,
+                                                availableNonBsqBalance,
+                                                unverifiedBalance,
+                                                unconfirmedChangeBalance,
+                                                lockedForVotingBalance,
+                                                lockedInBondsBalance,
+                                                unlockingBondsBalance) -> notifyBalanceListeners());
+    }
+
+    private void notifyBalanceListeners() {
+        balanceListeners.forEach(Runnable::run);
+    }
+
     BalancesInfo getBalances(String currencyCode) {
         verifyWalletCurrencyCodeIsValid(currencyCode);
         verifyWalletsAreAvailable();
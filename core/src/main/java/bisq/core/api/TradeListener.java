@@ -0,0 +1,36 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.api;
+
+import bisq.core.trade.model.bisq_v1.Trade;
+
+/**
+ * Observes the open trades, see CoreApi.addTradeListener.  The methods are called on
+ * the user thread.
+ */
+public interface TradeListener {
+
+    // A trade was added to the open trades.
+    void onAdded(Trade trade);
+
+    // The state or dispute state of an open trade has changed.
+    void onChanged(Trade trade);
+
+    // A trade was removed from the open trades, because it got closed or failed.
+    void onRemoved(Trade trade);
+}
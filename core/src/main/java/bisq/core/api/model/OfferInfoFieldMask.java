@@ -0,0 +1,101 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.api.model;
+
+import bisq.core.offer.Offer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static java.lang.String.format;
+
+/**
+ * Builds OfferInfo proto messages containing only the requested fields, read directly
+ * from the Offer without building the complete OfferInfo model first.  The field names
+ * are the OfferInfo proto field names.
+ */
+public class OfferInfoFieldMask {
+
+    private static final Map<String, BiConsumer<Offer, bisq.proto.grpc.OfferInfo.Builder>> FIELD_SETTERS =
+            new HashMap<>();
+
+    static {
+        FIELD_SETTERS.put("id", (o, b) -> b.setId(o.getId()));
+        FIELD_SETTERS.put("direction", (o, b) -> b.setDirection(o.getDirection().name()));
+        FIELD_SETTERS.put("price", (o, b) -> b.setPrice(o.getPrice() == null ? 0 : o.getPrice().getValue()));
+        FIELD_SETTERS.put("useMarketBasedPrice", (o, b) -> b.setUseMarketBasedPrice(o.isUseMarketBasedPrice()));
+        FIELD_SETTERS.put("marketPriceMargin", (o, b) -> b.setMarketPriceMargin(o.getMarketPriceMargin()));
+        FIELD_SETTERS.put("amount", (o, b) -> b.setAmount(o.getAmount().value));
+        FIELD_SETTERS.put("minAmount", (o, b) -> b.setMinAmount(o.getMinAmount().value));
+        FIELD_SETTERS.put("volume", (o, b) -> b.setVolume(o.getVolume() == null ? 0 : o.getVolume().getValue()));
+        FIELD_SETTERS.put("minVolume", (o, b) -> b.setMinVolume(o.getMinVolume() == null ? 0 : o.getMinVolume().getValue()));
+        FIELD_SETTERS.put("buyerSecurityDeposit", (o, b) -> b.setBuyerSecurityDeposit(o.getBuyerSecurityDeposit().value));
+        FIELD_SETTERS.put("sellerSecurityDeposit", (o, b) -> b.setSellerSecurityDeposit(o.getSellerSecurityDeposit().value));
+        FIELD_SETTERS.put("isCurrencyForMakerFeeBtc", (o, b) -> b.setIsCurrencyForMakerFeeBtc(o.isCurrencyForMakerFeeBtc()));
+        FIELD_SETTERS.put("paymentAccountId", (o, b) -> b.setPaymentAccountId(o.getMakerPaymentAccountId()));
+        FIELD_SETTERS.put("paymentMethodId", (o, b) -> b.setPaymentMethodId(o.getPaymentMethod().getId()));
+        FIELD_SETTERS.put("paymentMethodShortName", (o, b) -> b.setPaymentMethodShortName(o.getPaymentMethod().getShortName()));
+        FIELD_SETTERS.put("baseCurrencyCode", (o, b) -> b.setBaseCurrencyCode(o.getBaseCurrencyCode()));
+        FIELD_SETTERS.put("counterCurrencyCode", (o, b) -> b.setCounterCurrencyCode(o.getCounterCurrencyCode()));
+        FIELD_SETTERS.put("date", (o, b) -> b.setDate(o.getDate().getTime()));
+        FIELD_SETTERS.put("state", (o, b) -> b.setState(o.getState().name()));
+        FIELD_SETTERS.put("offerFeePaymentTxId", (o, b) -> b.setOfferFeePaymentTxId(o.getOfferFeePaymentTxId()));
+        FIELD_SETTERS.put("txFee", (o, b) -> b.setTxFee(o.getTxFee().value));
+        FIELD_SETTERS.put("makerFee", (o, b) -> b.setMakerFee(o.getMakerFee().value));
+    }
+
+    private final List<BiConsumer<Offer, bisq.proto.grpc.OfferInfo.Builder>> fieldSetters;
+
+    private OfferInfoFieldMask(List<BiConsumer<Offer, bisq.proto.grpc.OfferInfo.Builder>> fieldSetters) {
+        this.fieldSetters = fieldSetters;
+    }
+
+    /**
+     * Returns a mask setting the given fields, or all fields if fieldNames is empty.
+     * Only fields derived from the Offer itself can be requested; fields describing
+     * my own open offers (triggerPrice, isActivated, isMyOffer, isMyPendingOffer) are
+     * always unset in offers of other traders.
+     */
+    public static OfferInfoFieldMask of(List<String> fieldNames) {
+        List<BiConsumer<Offer, bisq.proto.grpc.OfferInfo.Builder>> fieldSetters = new ArrayList<>();
+        for (String fieldName : fieldNames) {
+            var fieldSetter = FIELD_SETTERS.get(fieldName);
+            if (fieldSetter == null)
+                throw new IllegalArgumentException(format("unsupported offer field '%s'", fieldName));
+
+            fieldSetters.add(fieldSetter);
+        }
+        return new OfferInfoFieldMask(fieldSetters);
+    }
+
+    public boolean isEmpty() {
+        return fieldSetters.isEmpty();
+    }
+
+    public bisq.proto.grpc.OfferInfo toProtoMessage(Offer offer) {
+        if (isEmpty())
+            return OfferInfo.toOfferInfo(offer).toProtoMessage();
+
+        var builder = bisq.proto.grpc.OfferInfo.newBuilder();
+        fieldSetters.forEach(fieldSetter -> fieldSetter.accept(offer, builder));
+        return builder.build();
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.api.model;
+
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import lombok.Getter;
+
+import static java.lang.String.format;
+
+/**
+ * A page of items and the token for requesting the next page.
+ *
+ * Items are ordered by a numeric sort key (e.g., price or date), and by id if the
+ * sort keys are equal.  The page token is an opaque cursor encoding the sort key
+ * and id of the last item on a page, so the next page starts after that position
+ * even if items were added or removed between the requests.  An item whose sort key
+ * changed between requests (e.g., the price of a market price based offer) may be
+ * skipped or returned twice.
+ */
+@Getter
+public class Page<T> {
+
+    private final List<T> items;
+    // Empty if there are no more items.
+    private final String nextPageToken;
+
+    private Page(List<T> items, String nextPageToken) {
+        this.items = items;
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * Returns the page of at most pageSize items following the position encoded in
+     * pageToken, or all items if pageSize is 0.  The sort key of each item is only
+     * computed once.
+     */
+    public static <T> Page<T> of(List<T> items,
+                                 ToLongFunction<T> sortKeyFunction,
+                                 Function<T, String> idFunction,
+                                 boolean descending,
+                                 int pageSize,
+                                 String pageToken) {
+        if (pageSize < 0)
+            throw new IllegalArgumentException(format("invalid page size %d", pageSize));
+
+        Comparator<Entry<T>> bySortKey = Comparator.comparingLong(e -> e.sortKey);
+        Comparator<Entry<T>> comparator = (descending ? bySortKey.reversed() : bySortKey)
+                .thenComparing(e -> e.id);
+        List<Entry<T>> entries = new ArrayList<>(items.size());
+        for (T item : items) {
+            entries.add(new Entry<>(sortKeyFunction.applyAsLong(item), idFunction.apply(item), item));
+        }
+        entries.sort(comparator);
+
+        int fromIndex = 0;
+        if (pageToken != null && !pageToken.isEmpty()) {
+            Entry<T> cursor = decodeToken(pageToken);
+            while (fromIndex < entries.size() && comparator.compare(entries.get(fromIndex), cursor) <= 0)
+                fromIndex++;
+        }
+        int toIndex = pageSize == 0 ? entries.size() : Math.min(entries.size(), fromIndex + pageSize);
+
+        List<T> pageItems = entries.subList(fromIndex, toIndex).stream()
+                .map(e -> e.item)
+                .collect(Collectors.toList());
+        String nextPageToken = toIndex < entries.size() ? encodeToken(entries.get(toIndex - 1)) : "";
+        return new Page<>(pageItems, nextPageToken);
+    }
+
+    private static String encodeToken(Entry<?> entry) {
+        String cursor = entry.sortKey + ":" + entry.id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static <T> Entry<T> decodeToken(String pageToken) {
+        try {
+            String cursor = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+            int separatorIndex = cursor.indexOf(':');
+            long sortKey = Long.parseLong(cursor.substring(0, separatorIndex));
+            return new Entry<>(sortKey, cursor.substring(separatorIndex + 1), null);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException(format("invalid page token '%s'", pageToken));
+        }
+    }
+
+    private static class Entry<T> {
+        private final long sortKey;
+        private final String id;
+        private final T item;
+
+        Entry(long sortKey, String id, T item) {
+            this.sortKey = sortKey;
+            this.id = id;
+            this.item = item;
+        }
+    }
+}
@@ -99,25 +99,7 @@ public class TradeInfo implements Payload {
     }
 
     public static TradeInfo toTradeInfo(Trade trade, String role, boolean isMyOffer) {
-        ContractInfo contractInfo;
-        if (trade.getContract() != null) {
-            Contract contract = trade.getContract();
-            contractInfo = new ContractInfo(contract.getBuyerPayoutAddressString(),
-                    contract.getSellerPayoutAddressString(),
-                    contract.getMediatorNodeAddress().getFullAddress(),
-                    contract.getRefundAgentNodeAddress().getFullAddress(),
-                    contract.isBuyerMakerAndSellerTaker(),
-                    contract.getMakerAccountId(),
-                    contract.getTakerAccountId(),
-                    toPaymentAccountPayloadInfo(contract.getMakerPaymentAccountPayload()),
-                    toPaymentAccountPayloadInfo(contract.getTakerPaymentAccountPayload()),
-                    contract.getMakerPayoutAddressString(),
-                    contract.getTakerPayoutAddressString(),
-                    contract.getLockTime());
-        } else {
-            contractInfo = ContractInfo.emptyContract.get();
-        }
-
+        ContractInfo contractInfo = toContractInfo(trade);
         OfferInfo offerInfo = toOfferInfo(trade.getOffer());
         offerInfo.setIsMyOffer(isMyOffer);
         return new TradeInfoBuilder()
@@ -152,6 +134,26 @@ public class TradeInfo implements Payload {
                 .build();
     }
 
+    static ContractInfo toContractInfo(Trade trade) {
+        if (trade.getContract() != null) {
+            Contract contract = trade.getContract();
+            return new ContractInfo(contract.getBuyerPayoutAddressString(),
+                    contract.getSellerPayoutAddressString(),
+                    contract.getMediatorNodeAddress().getFullAddress(),
+                    contract.getRefundAgentNodeAddress().getFullAddress(),
+                    contract.isBuyerMakerAndSellerTaker(),
+                    contract.getMakerAccountId(),
+                    contract.getTakerAccountId(),
+                    toPaymentAccountPayloadInfo(contract.getMakerPaymentAccountPayload()),
+                    toPaymentAccountPayloadInfo(contract.getTakerPaymentAccountPayload()),
+                    contract.getMakerPayoutAddressString(),
+                    contract.getTakerPayoutAddressString(),
+                    contract.getLockTime());
+        } else {
+            return ContractInfo.emptyContract.get();
+        }
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
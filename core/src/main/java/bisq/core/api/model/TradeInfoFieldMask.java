@@ -0,0 +1,126 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.api.model;
+
+import bisq.core.trade.model.bisq_v1.Trade;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static bisq.core.api.model.OfferInfo.toOfferInfo;
+import static bisq.core.api.model.TradeInfo.toContractInfo;
+import static java.lang.String.format;
+
+/**
+ * Builds TradeInfo proto messages containing only the requested fields, read directly
+ * from the Trade without building the complete TradeInfo model first.  In particular,
+ * the contract and its payment account payloads are only converted if the contract
+ * field is requested.  The field names are the TradeInfo proto field names.
+ */
+public class TradeInfoFieldMask {
+
+    private interface FieldSetter {
+        void set(TradeInfoFieldMask mask, Trade trade, bisq.proto.grpc.TradeInfo.Builder builder);
+    }
+
+    private static final Map<String, FieldSetter> FIELD_SETTERS = new HashMap<>();
+
+    static {
+        FIELD_SETTERS.put("offer", (m, t, b) -> {
+            OfferInfo offerInfo = toOfferInfo(t.getOffer());
+            offerInfo.setIsMyOffer(m.isMyOfferPredicate.test(t));
+            b.setOffer(offerInfo.toProtoMessage());
+        });
+        FIELD_SETTERS.put("tradeId", (m, t, b) -> b.setTradeId(t.getId()));
+        FIELD_SETTERS.put("shortId", (m, t, b) -> b.setShortId(t.getShortId()));
+        FIELD_SETTERS.put("date", (m, t, b) -> b.setDate(t.getDate().getTime()));
+        FIELD_SETTERS.put("role", (m, t, b) -> b.setRole(Objects.toString(m.roleFunction.apply(t), "")));
+        FIELD_SETTERS.put("isCurrencyForTakerFeeBtc", (m, t, b) -> b.setIsCurrencyForTakerFeeBtc(t.isCurrencyForTakerFeeBtc()));
+        FIELD_SETTERS.put("txFeeAsLong", (m, t, b) -> b.setTxFeeAsLong(t.getTradeTxFeeAsLong()));
+        FIELD_SETTERS.put("takerFeeAsLong", (m, t, b) -> b.setTakerFeeAsLong(t.getTakerFeeAsLong()));
+        FIELD_SETTERS.put("takerFeeTxId", (m, t, b) -> b.setTakerFeeTxId(Objects.toString(t.getTakerFeeTxId(), "")));
+        FIELD_SETTERS.put("depositTxId", (m, t, b) -> b.setDepositTxId(Objects.toString(t.getDepositTxId(), "")));
+        FIELD_SETTERS.put("payoutTxId", (m, t, b) -> b.setPayoutTxId(Objects.toString(t.getPayoutTxId(), "")));
+        FIELD_SETTERS.put("tradeAmountAsLong", (m, t, b) -> b.setTradeAmountAsLong(t.getAmountAsLong()));
+        FIELD_SETTERS.put("tradePrice", (m, t, b) -> b.setTradePrice(t.getPrice().getValue()));
+        FIELD_SETTERS.put("tradeVolume", (m, t, b) -> b.setTradeVolume(t.getVolume() == null ? 0 : t.getVolume().getValue()));
+        FIELD_SETTERS.put("tradingPeerNodeAddress", (m, t, b) -> b.setTradingPeerNodeAddress(
+                Objects.requireNonNull(t.getTradingPeerNodeAddress()).getHostNameWithoutPostFix()));
+        FIELD_SETTERS.put("state", (m, t, b) -> b.setState(t.getTradeState().name()));
+        FIELD_SETTERS.put("phase", (m, t, b) -> b.setPhase(t.getTradePhase().name()));
+        FIELD_SETTERS.put("tradePeriodState", (m, t, b) -> b.setTradePeriodState(t.getTradePeriodState().name()));
+        FIELD_SETTERS.put("isDepositPublished", (m, t, b) -> b.setIsDepositPublished(t.isDepositPublished()));
+        FIELD_SETTERS.put("isDepositConfirmed", (m, t, b) -> b.setIsDepositConfirmed(t.isDepositConfirmed()));
+        FIELD_SETTERS.put("isFiatSent", (m, t, b) -> b.setIsFiatSent(t.isFiatSent()));
+        FIELD_SETTERS.put("isFiatReceived", (m, t, b) -> b.setIsFiatReceived(t.isFiatReceived()));
+        FIELD_SETTERS.put("isPayoutPublished", (m, t, b) -> b.setIsPayoutPublished(t.isPayoutPublished()));
+        FIELD_SETTERS.put("isWithdrawn", (m, t, b) -> b.setIsWithdrawn(t.isWithdrawn()));
+        FIELD_SETTERS.put("contractAsJson", (m, t, b) -> b.setContractAsJson(Objects.toString(t.getContractAsJson(), "")));
+        FIELD_SETTERS.put("contract", (m, t, b) -> b.setContract(toContractInfo(t).toProtoMessage()));
+    }
+
+    private final List<FieldSetter> fieldSetters;
+    private final Function<Trade, String> roleFunction;
+    private final Predicate<Trade> isMyOfferPredicate;
+
+    private TradeInfoFieldMask(List<FieldSetter> fieldSetters,
+                               Function<Trade, String> roleFunction,
+                               Predicate<Trade> isMyOfferPredicate) {
+        this.fieldSetters = fieldSetters;
+        this.roleFunction = roleFunction;
+        this.isMyOfferPredicate = isMyOfferPredicate;
+    }
+
+    /**
+     * Returns a mask setting the given fields, or all fields if fieldNames is empty.
+     * The role and isMyOffer functions are only called if the role or offer fields
+     * are requested.
+     */
+    public static TradeInfoFieldMask of(List<String> fieldNames,
+                                        Function<Trade, String> roleFunction,
+                                        Predicate<Trade> isMyOfferPredicate) {
+        List<FieldSetter> fieldSetters = new ArrayList<>();
+        for (String fieldName : fieldNames) {
+            var fieldSetter = FIELD_SETTERS.get(fieldName);
+            if (fieldSetter == null)
+                throw new IllegalArgumentException(format("unsupported trade field '%s'", fieldName));
+
+            fieldSetters.add(fieldSetter);
+        }
+        return new TradeInfoFieldMask(fieldSetters, roleFunction, isMyOfferPredicate);
+    }
+
+    public boolean isEmpty() {
+        return fieldSetters.isEmpty();
+    }
+
+    public bisq.proto.grpc.TradeInfo toProtoMessage(Trade trade) {
+        if (isEmpty())
+            return TradeInfo.toTradeInfo(trade, roleFunction.apply(trade), isMyOfferPredicate.test(trade))
+                    .toProtoMessage();
+
+        var builder = bisq.proto.grpc.TradeInfo.newBuilder();
+        fieldSetters.forEach(fieldSetter -> fieldSetter.set(this, trade, builder));
+        return builder.build();
+    }
+}
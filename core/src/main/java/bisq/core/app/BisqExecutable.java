@@ -41,7 +41,9 @@ import bisq.common.config.Config;
 import bisq.common.config.ConfigException;
 import bisq.common.handlers.ResultHandler;
 import bisq.common.persistence.PersistenceManager;
+import bisq.common.persistence.StartupTimeline;
 import bisq.common.proto.persistable.PersistedDataHost;
+import bisq.common.proto.persistable.PersistedDataHostLoader;
 import bisq.common.setup.CommonSetup;
 import bisq.common.setup.GracefulShutDownHandler;
 import bisq.common.setup.UncaughtExceptionHandler;
@@ -51,7 +53,6 @@ import com.google.inject.Guice;
 import com.google.inject.Injector;
 
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -184,13 +185,9 @@ public abstract class BisqExecutable implements GracefulShutDownHandler, BisqSet
             hosts.addAll(additionalHosts);
         }
 
-        AtomicInteger remaining = new AtomicInteger(hosts.size());
-        hosts.forEach(host -> {
-            host.readPersisted(() -> {
-                if (remaining.decrementAndGet() == 0) {
-                    UserThread.execute(completeHandler);
-                }
-            });
+        PersistedDataHostLoader.readAll(hosts, () -> {
+            log.info(StartupTimeline.getReport());
+            UserThread.execute(completeHandler);
         });
     }
 
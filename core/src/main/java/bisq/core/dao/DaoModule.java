@@ -66,9 +66,11 @@ import bisq.core.dao.governance.votereveal.VoteRevealService;
 import bisq.core.dao.monitoring.BlindVoteStateMonitoringService;
 import bisq.core.dao.monitoring.DaoStateMonitoringService;
 import bisq.core.dao.monitoring.ProposalStateMonitoringService;
+import bisq.core.dao.monitoring.UtxoDiffService;
 import bisq.core.dao.monitoring.network.BlindVoteStateNetworkService;
 import bisq.core.dao.monitoring.network.DaoStateNetworkService;
 import bisq.core.dao.monitoring.network.ProposalStateNetworkService;
+import bisq.core.dao.monitoring.network.UtxoBucketsNetworkService;
 import bisq.core.dao.node.BsqNodeProvider;
 import bisq.core.dao.node.explorer.ExportJsonFilesService;
 import bisq.core.dao.node.full.FullNode;
@@ -125,6 +127,8 @@ public class DaoModule extends AppModule {
         bind(ProposalStateNetworkService.class).in(Singleton.class);
         bind(BlindVoteStateMonitoringService.class).in(Singleton.class);
         bind(BlindVoteStateNetworkService.class).in(Singleton.class);
+        bind(UtxoDiffService.class).in(Singleton.class);
+        bind(UtxoBucketsNetworkService.class).in(Singleton.class);
         bind(UnconfirmedBsqChangeOutputListService.class).in(Singleton.class);
 
         bind(ExportJsonFilesService.class).in(Singleton.class);
@@ -35,6 +35,7 @@ import bisq.core.dao.governance.votereveal.VoteRevealService;
 import bisq.core.dao.monitoring.BlindVoteStateMonitoringService;
 import bisq.core.dao.monitoring.DaoStateMonitoringService;
 import bisq.core.dao.monitoring.ProposalStateMonitoringService;
+import bisq.core.dao.monitoring.UtxoDiffService;
 import bisq.core.dao.node.BsqNode;
 import bisq.core.dao.node.BsqNodeProvider;
 import bisq.core.dao.node.explorer.ExportJsonFilesService;
@@ -79,6 +80,7 @@ public class DaoSetup {
                     DaoStateMonitoringService daoStateMonitoringService,
                     ProposalStateMonitoringService proposalStateMonitoringService,
                     BlindVoteStateMonitoringService blindVoteStateMonitoringService,
+                    UtxoDiffService utxoDiffService,
                     DaoStateSnapshotService daoStateSnapshotService) {
 
         bsqNode = bsqNodeProvider.getBsqNode();
@@ -106,6 +108,7 @@ public class DaoSetup {
         daoSetupServices.add(daoStateMonitoringService);
         daoSetupServices.add(proposalStateMonitoringService);
         daoSetupServices.add(blindVoteStateMonitoringService);
+        daoSetupServices.add(utxoDiffService);
         daoSetupServices.add(daoStateSnapshotService);
 
         daoSetupServices.add(bsqNodeProvider.getBsqNode());
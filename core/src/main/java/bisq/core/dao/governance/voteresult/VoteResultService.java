@@ -57,7 +57,7 @@ import bisq.core.locale.CurrencyUtil;
 import bisq.network.p2p.storage.P2PDataStorage;
 
 import bisq.common.util.MathUtils;
-import bisq.common.util.PermutationUtil;
+import bisq.common.util.PermutationHashSearch;
 import bisq.common.util.Utilities;
 
 import javax.inject.Inject;
@@ -77,7 +77,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -488,10 +487,12 @@ public class VoteResultService implements DaoStateListener, DaoSetupService {
         List<BlindVote> list = BlindVoteConsensus.getSortedBlindVoteListOfCycle(blindVoteListService);
         long ts = System.currentTimeMillis();
 
-        BiFunction<byte[], List<BlindVote>, Boolean> predicate = (hash, variation) ->
-                isListMatchingMajority(hash, variation, false);
-
-        List<BlindVote> result = PermutationUtil.findMatchingPermutation(majorityVoteListHash, list, predicate, 1000000);
+        List<BlindVote> result = PermutationHashSearch.findMatchingPermutation(majorityVoteListHash,
+                list,
+                VoteRevealConsensus::getBlindVoteDataForHash,
+                1000000,
+                progress -> log.info("findPermutatedListMatchingMajority: {}% of the variations checked",
+                        Math.round(progress * 100)));
         log.info("findPermutatedListMatchingMajority for {} items took {} ms.",
                 list.size(), (System.currentTimeMillis() - ts));
         if (result.isEmpty()) {
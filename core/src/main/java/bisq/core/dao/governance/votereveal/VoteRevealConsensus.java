@@ -41,7 +41,7 @@ public class VoteRevealConsensus {
     public static byte[] getHashOfBlindVoteList(List<BlindVote> blindVotes) {
         ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         blindVotes.forEach(blindVote -> {
-            byte[] data = blindVote.toProtoMessage().toByteArray();
+            byte[] data = getBlindVoteDataForHash(blindVote);
             try {
                 outputStream.write(data);
             } catch (IOException e) {
@@ -51,6 +51,11 @@ public class VoteRevealConsensus {
         return Hash.getSha256Ripemd160hash(outputStream.toByteArray());
     }
 
+    // The hash of the blind vote list is the hash of the concatenated data of the blind votes
+    public static byte[] getBlindVoteDataForHash(BlindVote blindVote) {
+        return blindVote.toProtoMessage().toByteArray();
+    }
+
     public static byte[] getOpReturnData(byte[] hashOfBlindVoteList, SecretKey secretKey) throws IOException {
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
             outputStream.write(OpReturnType.VOTE_REVEAL.getType());
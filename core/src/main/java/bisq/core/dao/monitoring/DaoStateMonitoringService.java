@@ -20,6 +20,7 @@ package bisq.core.dao.monitoring;
 import bisq.core.dao.DaoSetupService;
 import bisq.core.dao.monitoring.model.DaoStateBlock;
 import bisq.core.dao.monitoring.model.DaoStateHash;
+import bisq.core.dao.monitoring.model.DaoStateHashChain;
 import bisq.core.dao.monitoring.model.UtxoMismatch;
 import bisq.core.dao.monitoring.network.Checkpoint;
 import bisq.core.dao.monitoring.network.DaoStateNetworkService;
@@ -41,6 +42,8 @@ import bisq.common.UserThread;
 import bisq.common.config.Config;
 import bisq.common.crypto.Hash;
 import bisq.common.file.FileUtil;
+import bisq.common.metrics.LatencyHistogram;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.util.Utilities;
 
 import javax.inject.Inject;
@@ -55,7 +58,6 @@ import java.io.File;
 
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -83,10 +85,15 @@ import javax.annotation.Nullable;
  * state to the peers to not get ignored it in case they have not received the block yet.
  *
  * We do persist that chain of hashes with the snapshot.
+ *
+ * The hashes are kept in a packed DaoStateHashChain. DaoStateBlocks are only created for heights where we got
+ * hashes from peers, as only those need the peers and conflict maps.
  */
 @Slf4j
 public class DaoStateMonitoringService implements DaoSetupService, DaoStateListener,
         DaoStateNetworkService.Listener<NewDaoStateHashMessage, GetDaoStateHashesRequest, DaoStateHash> {
+    private static final LatencyHistogram STATE_HASH_DURATION = MetricsRegistry.histogram(
+            "bisq_dao_state_hash_duration_seconds", "Time spent serializing the DAO state and hashing it for a new block");
 
     public interface Listener {
         void onDaoStateHashesChanged();
@@ -100,9 +107,7 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
     private final Set<String> seedNodeAddresses;
 
     @Getter
-    private final LinkedList<DaoStateBlock> daoStateBlockChain = new LinkedList<>();
-    @Getter
-    private final LinkedList<DaoStateHash> daoStateHashChain = new LinkedList<>();
+    private final DaoStateHashChain daoStateHashChain = new DaoStateHashChain();
     private final List<Listener> listeners = new CopyOnWriteArrayList<>();
     private boolean parseBlockChainComplete;
     @Getter
@@ -126,8 +131,8 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
     private final File storageDir;
     @Nullable
     private Runnable createSnapshotHandler;
-    // Lookup map
-    private Map<Integer, DaoStateBlock> daoStateBlockByHeight = new HashMap<>();
+    // DaoStateBlocks of the heights we got peers hashes for
+    private final Map<Integer, DaoStateBlock> daoStateBlockByHeight = new HashMap<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -181,9 +186,9 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
         daoStateNetworkService.addListeners();
 
         // We take either the height of the previous hashBlock we have or 10 blocks below the chain tip.
-        int nextBlockHeight = daoStateBlockChain.isEmpty() ?
+        int nextBlockHeight = daoStateHashChain.isEmpty() ?
                 genesisTxInfo.getGenesisBlockHeight() :
-                daoStateBlockChain.getLast().getHeight() + 1;
+                daoStateHashChain.getLastHeight() + 1;
         int past10 = daoStateService.getChainHeight() - 10;
         int fromHeight = Math.min(nextBlockHeight, past10);
         daoStateNetworkService.requestHashesFromAllConnectedSeedNodes(fromHeight);
@@ -237,10 +242,8 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
 
     @Override
     public void onGetStateHashRequest(Connection connection, GetDaoStateHashesRequest getStateHashRequest) {
-        int fromHeight = getStateHashRequest.getHeight();
-        List<DaoStateHash> daoStateHashes = daoStateHashChain.stream()
-                .filter(e -> e.getHeight() >= fromHeight)
-                .collect(Collectors.toList());
+        // The sub chain is a read only view on our packed hashes which gets serialized without copying them
+        DaoStateHashChain daoStateHashes = daoStateHashChain.getSubChain(getStateHashRequest.getHeight());
         daoStateNetworkService.sendGetStateHashesResponse(connection, getStateHashRequest.getNonce(), daoStateHashes);
     }
 
@@ -250,7 +253,7 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void createHashFromBlock(Block block) {
-        createDaoStateBlock(block);
+        createDaoStateHash(block);
         if (parseBlockChainComplete) {
             // We notify listeners only after batch processing to avoid performance issues at UI code
             listeners.forEach(Listener::onDaoStateHashesChanged);
@@ -261,10 +264,9 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
         daoStateNetworkService.requestHashes(genesisTxInfo.getGenesisBlockHeight(), peersAddress);
     }
 
-    public void applySnapshot(LinkedList<DaoStateHash> persistedDaoStateHashChain) {
+    public void applySnapshot(DaoStateHashChain persistedDaoStateHashChain) {
         // We could get a reset from a reorg, so we clear all and start over from the genesis block.
         daoStateHashChain.clear();
-        daoStateBlockChain.clear();
         daoStateBlockByHeight.clear();
         daoStateNetworkService.reset();
 
@@ -272,12 +274,17 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
             log.info("Apply snapshot with {} daoStateHashes. Last daoStateHash={}",
                     persistedDaoStateHashChain.size(), persistedDaoStateHashChain.getLast());
         }
-        daoStateHashChain.addAll(persistedDaoStateHashChain);
-        daoStateHashChain.forEach(daoStateHash -> {
-            DaoStateBlock daoStateBlock = new DaoStateBlock(daoStateHash);
-            daoStateBlockChain.add(daoStateBlock);
-            daoStateBlockByHeight.put(daoStateHash.getHeight(), daoStateBlock);
-        });
+        daoStateHashChain.setAll(persistedDaoStateHashChain);
+    }
+
+    // Heights without peers hashes get a new DaoStateBlock which is not kept.
+    public List<DaoStateBlock> getDaoStateBlockChain() {
+        return daoStateHashChain.stream()
+                .map(daoStateHash -> {
+                    DaoStateBlock daoStateBlock = daoStateBlockByHeight.get(daoStateHash.getHeight());
+                    return daoStateBlock != null ? daoStateBlock : new DaoStateBlock(daoStateHash);
+                })
+                .collect(Collectors.toList());
     }
 
     public void setCreateSnapshotHandler(Runnable handler) {
@@ -302,11 +309,11 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private Optional<DaoStateBlock> createDaoStateBlock(Block block) {
+    private void createDaoStateHash(Block block) {
         long ts = System.currentTimeMillis();
         byte[] prevHash;
         int height = block.getHeight();
-        if (daoStateBlockChain.isEmpty()) {
+        if (daoStateHashChain.isEmpty()) {
             // Only at genesis we allow an empty prevHash
             if (height == genesisTxInfo.getGenesisBlockHeight()) {
                 prevHash = new byte[0];
@@ -315,34 +322,32 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
                         "We stop execution here.");
                 daoStateBlockChainNotConnecting = true;
                 listeners.forEach(Listener::onDaoStateHashesChanged);
-                return Optional.empty();
+                return;
             }
         } else {
-            DaoStateBlock last = daoStateBlockChain.getLast();
-            int heightOfLastBlock = last.getHeight();
+            int heightOfLastBlock = daoStateHashChain.getLastHeight();
             if (height == heightOfLastBlock + 1) {
-                prevHash = last.getHash();
+                prevHash = daoStateHashChain.getHash(heightOfLastBlock);
             } else {
                 log.warn("New block must be 1 block above previous block. height={}, " +
-                                "daoStateBlockChain.getLast().getHeight()={}",
+                                "daoStateHashChain.getLastHeight()={}",
                         height, heightOfLastBlock);
                 daoStateBlockChainNotConnecting = true;
                 listeners.forEach(Listener::onDaoStateHashesChanged);
-                return Optional.empty();
+                return;
             }
         }
 
+        long hashStartTime = System.nanoTime();
         byte[] stateAsBytes = daoStateService.getSerializedStateForHashChain();
         // We include the prev. hash in our new hash so we can be sure that if one hash is matching all the past would
         // match as well.
         byte[] combined = ArrayUtils.addAll(prevHash, stateAsBytes);
         byte[] hash = Hash.getSha256Ripemd160hash(combined);
+        STATE_HASH_DURATION.recordSince(hashStartTime);
 
         DaoStateHash myDaoStateHash = new DaoStateHash(height, hash, true);
-        DaoStateBlock daoStateBlock = new DaoStateBlock(myDaoStateHash);
-        daoStateBlockChain.add(daoStateBlock);
-        daoStateBlockByHeight.put(height, daoStateBlock);
-        daoStateHashChain.add(myDaoStateHash);
+        daoStateHashChain.append(myDaoStateHash);
 
         // We only broadcast after parsing of blockchain is complete
         if (parseBlockChainComplete) {
@@ -361,38 +366,28 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
                 duration);
         accumulatedDuration += duration;
         numCalls++;
-        return Optional.of(daoStateBlock);
     }
 
     private void processPeersDaoStateHashes(List<DaoStateHash> stateHashes, Optional<NodeAddress> peersNodeAddress) {
         boolean useDaoMonitor = preferences.isUseFullModeDaoMonitor();
         stateHashes.forEach(peersHash -> {
-            Optional<DaoStateBlock> optionalDaoStateBlock;
             // If we do not add own hashes during initial parsing we fill the missing hashes from the peer and create
             // at the last block our own hash.
             int height = peersHash.getHeight();
             if (!useDaoMonitor &&
-                    !findDaoStateBlock(height).isPresent()) {
+                    !daoStateHashChain.containsHeight(height)) {
                 if (daoStateService.getChainHeight() == height) {
                     // At the most recent block we create our own hash
-                    optionalDaoStateBlock = daoStateService.getLastBlock()
-                            .map(this::createDaoStateBlock)
-                            .orElse(findDaoStateBlock(height));
-                } else {
-                    // Otherwise we create a block from the peers daoStateHash
-                    DaoStateHash daoStateHash = new DaoStateHash(height, peersHash.getHash(), false);
-                    DaoStateBlock daoStateBlock = new DaoStateBlock(daoStateHash);
-                    daoStateBlockChain.add(daoStateBlock);
-                    daoStateBlockByHeight.put(height, daoStateBlock);
-                    daoStateHashChain.add(daoStateHash);
-                    optionalDaoStateBlock = Optional.of(daoStateBlock);
+                    daoStateService.getLastBlock().ifPresent(this::createDaoStateHash);
+                } else if (!daoStateHashChain.append(height, peersHash.getHash(), false)) {
+                    // Otherwise we add the peers daoStateHash
+                    log.warn("Peers daoStateHash at height {} does not connect to our chain with last height {}",
+                            height, daoStateHashChain.getLastHeight());
                 }
-            } else {
-                optionalDaoStateBlock = findDaoStateBlock(height);
             }
 
             // In any case we add the peer to our peersMap and check for conflicts on the relevant daoStateBlock
-            putInPeersMapAndCheckForConflicts(optionalDaoStateBlock, getPeersAddress(peersNodeAddress), peersHash);
+            putInPeersMapAndCheckForConflicts(findDaoStateBlock(height), getPeersAddress(peersNodeAddress), peersHash);
         });
     }
 
@@ -452,11 +447,9 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
 
     private void verifyCheckpoints() {
         // Checkpoint
-        checkpoints.forEach(checkpoint -> daoStateHashChain.stream()
-                .filter(daoStateHash -> daoStateHash.getHeight() == checkpoint.getHeight())
-                .findAny()
-                .ifPresent(daoStateHash -> {
-                    if (Arrays.equals(daoStateHash.getHash(), checkpoint.getHash())) {
+        checkpoints.forEach(checkpoint -> Optional.ofNullable(daoStateHashChain.getHash(checkpoint.getHeight()))
+                .ifPresent(hash -> {
+                    if (Arrays.equals(hash, checkpoint.getHash())) {
                         log.info("Passed checkpoint {}", checkpoint.toString());
                     } else {
                         if (checkpointFailed) {
@@ -504,7 +497,17 @@ public class DaoStateMonitoringService implements DaoSetupService, DaoStateListe
                 .orElseGet(() -> "Unknown peer " + new Random().nextInt(10000));
     }
 
+    // We create the DaoStateBlock at the first access as we need it only for heights with peers hashes
     private Optional<DaoStateBlock> findDaoStateBlock(int height) {
-        return Optional.ofNullable(daoStateBlockByHeight.get(height));
+        DaoStateBlock daoStateBlock = daoStateBlockByHeight.get(height);
+        if (daoStateBlock == null) {
+            DaoStateHash myDaoStateHash = daoStateHashChain.getByHeight(height);
+            if (myDaoStateHash == null) {
+                return Optional.empty();
+            }
+            daoStateBlock = new DaoStateBlock(myDaoStateHash);
+            daoStateBlockByHeight.put(height, daoStateBlock);
+        }
+        return Optional.of(daoStateBlock);
     }
 }
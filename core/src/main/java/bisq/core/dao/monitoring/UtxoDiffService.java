@@ -0,0 +1,197 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.monitoring;
+
+import bisq.core.dao.DaoSetupService;
+import bisq.core.dao.monitoring.model.UtxoDiff;
+import bisq.core.dao.monitoring.network.UtxoBucketsNetworkService;
+import bisq.core.dao.monitoring.network.messages.GetUtxoBucketsResponse;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.UtxoCommitment;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.handlers.ErrorMessageHandler;
+
+import javax.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Finds the unspent tx outputs which differ between us and a peer. We compare the digests of the UTXO buckets first
+ * and then only request the outputs of the differing buckets, so the cost depends on the number of differences and
+ * not on the size of the UTXO set. Optionally the differing buckets get repaired with the data of the peer on a detached
+ * copy of our UTXO commitment, see DaoStateService.getRepairedUtxoCommitment. Our own DAO state is never changed.
+ */
+@Slf4j
+public class UtxoDiffService implements DaoSetupService {
+    private final DaoStateService daoStateService;
+    private final UtxoBucketsNetworkService utxoBucketsNetworkService;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public UtxoDiffService(DaoStateService daoStateService, UtxoBucketsNetworkService utxoBucketsNetworkService) {
+        this.daoStateService = daoStateService;
+        this.utxoBucketsNetworkService = utxoBucketsNetworkService;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // DaoSetupService
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void addListeners() {
+        utxoBucketsNetworkService.addListeners();
+    }
+
+    @Override
+    public void start() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void requestUtxoDiff(String peersAddress,
+                                boolean repair,
+                                Consumer<UtxoDiff> resultHandler,
+                                ErrorMessageHandler errorMessageHandler) {
+        if (!daoStateService.isParseBlockChainComplete()) {
+            errorMessageHandler.handleErrorMessage("We have not completed parsing the BSQ blocks yet.");
+            return;
+        }
+
+        NodeAddress peersNodeAddress = new NodeAddress(peersAddress);
+        utxoBucketsNetworkService.requestBuckets(peersNodeAddress, List.of(), response -> {
+            if (!isAtOurHeight(response, errorMessageHandler)) {
+                return;
+            }
+
+            byte[] packedDigests = daoStateService.getUtxoCommitment().getPackedDigests();
+            byte[] peersPackedDigests = response.getPackedDigests();
+            List<Integer> differingBuckets = UtxoCommitment.getDifferingBuckets(packedDigests, peersPackedDigests);
+            log.info("{} of {} UTXO buckets differ from the ones of peer {}",
+                    differingBuckets.size(), UtxoCommitment.NUM_BUCKETS, peersNodeAddress);
+            requestDifferingBuckets(peersNodeAddress, peersPackedDigests, differingBuckets, 0, new ArrayList<>(),
+                    repair, resultHandler, errorMessageHandler);
+        }, errorMessageHandler);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // We request the outputs of the differing buckets in batches to keep the responses small
+    private void requestDifferingBuckets(NodeAddress peersNodeAddress,
+                                         byte[] peersPackedDigests,
+                                         List<Integer> differingBuckets,
+                                         int fromIndex,
+                                         List<TxOutput> peersTxOutputs,
+                                         boolean repair,
+                                         Consumer<UtxoDiff> resultHandler,
+                                         ErrorMessageHandler errorMessageHandler) {
+        if (fromIndex >= differingBuckets.size()) {
+            resultHandler.accept(getUtxoDiff(peersPackedDigests, differingBuckets, peersTxOutputs, repair));
+            return;
+        }
+
+        int toIndex = Math.min(fromIndex + UtxoBucketsNetworkService.MAX_BUCKETS_PER_REQUEST, differingBuckets.size());
+        List<Integer> buckets = new ArrayList<>(differingBuckets.subList(fromIndex, toIndex));
+        utxoBucketsNetworkService.requestBuckets(peersNodeAddress, buckets, response -> {
+            if (!isAtOurHeight(response, errorMessageHandler)) {
+                return;
+            }
+
+            peersTxOutputs.addAll(response.getTxOutputs());
+            requestDifferingBuckets(peersNodeAddress, peersPackedDigests, differingBuckets, toIndex, peersTxOutputs,
+                    repair, resultHandler, errorMessageHandler);
+        }, errorMessageHandler);
+    }
+
+    private boolean isAtOurHeight(GetUtxoBucketsResponse response, ErrorMessageHandler errorMessageHandler) {
+        int chainHeight = daoStateService.getChainHeight();
+        if (response.getChainHeight() != chainHeight) {
+            errorMessageHandler.handleErrorMessage("The chain height of the peer (" + response.getChainHeight() +
+                    ") is different to ours (" + chainHeight + "). Please try again later.");
+            return false;
+        }
+        return true;
+    }
+
+    private UtxoDiff getUtxoDiff(byte[] peersPackedDigests,
+                                 List<Integer> differingBuckets,
+                                 List<TxOutput> peersTxOutputs,
+                                 boolean repair) {
+        Map<TxOutputKey, TxOutput> ours = daoStateService.getUnspentTxOutputsOfBuckets(differingBuckets).stream()
+                .collect(Collectors.toMap(TxOutput::getKey, Function.identity()));
+        Map<TxOutputKey, TxOutput> peers = peersTxOutputs.stream()
+                .collect(Collectors.toMap(TxOutput::getKey, Function.identity(), (first, second) -> first));
+
+        List<TxOutput> missingTxOutputs = peers.values().stream()
+                .filter(txOutput -> !ours.containsKey(txOutput.getKey()))
+                .collect(Collectors.toList());
+        List<TxOutput> unexpectedTxOutputs = ours.values().stream()
+                .filter(txOutput -> !peers.containsKey(txOutput.getKey()))
+                .collect(Collectors.toList());
+        List<TxOutputKey> changedTxOutputKeys = ours.values().stream()
+                .filter(txOutput -> peers.containsKey(txOutput.getKey()))
+                .filter(txOutput -> !Arrays.equals(txOutput.toProtoMessage().toByteArray(),
+                        peers.get(txOutput.getKey()).toProtoMessage().toByteArray()))
+                .map(TxOutput::getKey)
+                .collect(Collectors.toList());
+        log.info("UTXO diff at height {}: {} missing, {} unexpected and {} changed outputs in buckets {}",
+                daoStateService.getChainHeight(), missingTxOutputs.size(), unexpectedTxOutputs.size(),
+                changedTxOutputKeys.size(), differingBuckets);
+
+        boolean repaired = repair && !differingBuckets.isEmpty();
+        boolean repairResolvesConflict = false;
+        if (repaired) {
+            UtxoCommitment repairedUtxoCommitment = daoStateService.getRepairedUtxoCommitment(differingBuckets,
+                    peersTxOutputs);
+            List<Integer> remainingBuckets = UtxoCommitment.getDifferingBuckets(
+                    repairedUtxoCommitment.getPackedDigests(), peersPackedDigests);
+            repairResolvesConflict = remainingBuckets.isEmpty();
+            log.info("After repairing a copy of our UTXO commitment with the outputs of the peer {} buckets differ",
+                    remainingBuckets.size());
+        }
+        return new UtxoDiff(daoStateService.getChainHeight(),
+                differingBuckets,
+                missingTxOutputs,
+                unexpectedTxOutputs,
+                changedTxOutputKeys,
+                repaired,
+                repairResolvesConflict);
+    }
+}
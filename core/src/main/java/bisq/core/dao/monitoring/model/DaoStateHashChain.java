@@ -0,0 +1,271 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.monitoring.model;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Chain of DaoStateHashes for consecutive block heights. The hashes are packed into one byte array with
+ * HASH_LENGTH bytes per height and the isSelfCreated flags into a second array with one byte per height, so a
+ * height is looked up by its index and a range is a slice of the arrays.
+ *
+ * Slots are written once when appended and never changed afterwards (clear replaces the arrays). Snapshots and
+ * sub chains are read only views on the same arrays which are limited to the size at creation, so they are
+ * created in constant time and can be serialized on another thread while we keep appending. For the same reason
+ * the proto messages wrap the hashes without copying them.
+ *
+ * As list of DaoStateHash it can be passed where the former LinkedList was used. The elements are created on
+ * access.
+ */
+@Slf4j
+public final class DaoStateHashChain extends AbstractList<DaoStateHash> implements RandomAccess {
+    public static final int HASH_LENGTH = 20;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private byte[] hashes;
+    private byte[] selfCreatedFlags;
+    // Index of the first entry in the arrays, only used by sub chains
+    private int offset;
+    private int firstHeight;
+    private int size;
+    private final boolean readOnly;
+
+    public DaoStateHashChain() {
+        this(new byte[INITIAL_CAPACITY * HASH_LENGTH], new byte[INITIAL_CAPACITY], 0, 0, 0, false);
+    }
+
+    private DaoStateHashChain(byte[] hashes,
+                              byte[] selfCreatedFlags,
+                              int offset,
+                              int firstHeight,
+                              int size,
+                              boolean readOnly) {
+        this.hashes = hashes;
+        this.selfCreatedFlags = selfCreatedFlags;
+        this.offset = offset;
+        this.firstHeight = firstHeight;
+        this.size = size;
+        this.readOnly = readOnly;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public static DaoStateHashChain fromPacked(int firstHeight, ByteString packedHashes, ByteString selfCreatedFlags) {
+        checkArgument(packedHashes.size() % HASH_LENGTH == 0,
+                "packedHashes must be a multiple of " + HASH_LENGTH + " bytes");
+        int size = packedHashes.size() / HASH_LENGTH;
+        checkArgument(selfCreatedFlags.size() == size, "selfCreatedFlags must have one byte per hash");
+        return new DaoStateHashChain(packedHashes.toByteArray(), selfCreatedFlags.toByteArray(), 0,
+                firstHeight, size, false);
+    }
+
+    public static DaoStateHashChain fromProto(List<protobuf.DaoStateHash> protoList) {
+        DaoStateHashChain daoStateHashChain = new DaoStateHashChain();
+        protoList.forEach(proto -> {
+            if (!daoStateHashChain.append(proto.getHeight(), proto.getHash().toByteArray(), proto.getIsSelfCreated())) {
+                log.warn("Ignoring persisted daoStateHash at height {} which does not connect to the chain. " +
+                        "Last height of chain={}", proto.getHeight(), daoStateHashChain.getLastHeight());
+            }
+        });
+        return daoStateHashChain;
+    }
+
+    public int getFirstHeight() {
+        return firstHeight;
+    }
+
+    public ByteString getPackedHashes() {
+        return UnsafeByteOperations.unsafeWrap(hashes, offset * HASH_LENGTH, size * HASH_LENGTH);
+    }
+
+    public ByteString getPackedSelfCreatedFlags() {
+        return UnsafeByteOperations.unsafeWrap(selfCreatedFlags, offset, size);
+    }
+
+    public List<protobuf.DaoStateHash> toProtoMessages() {
+        List<protobuf.DaoStateHash> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(protobuf.DaoStateHash.newBuilder()
+                    .setHeight(firstHeight + i)
+                    .setHash(UnsafeByteOperations.unsafeWrap(hashes, (offset + i) * HASH_LENGTH, HASH_LENGTH))
+                    .setIsSelfCreated(selfCreatedFlags[offset + i] != 0)
+                    .build());
+        }
+        return list;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Appends the hash if its height is the next height of the chain. The first hash sets the first height.
+     *
+     * @return false if the hash does not connect to the chain or has not HASH_LENGTH bytes
+     */
+    public boolean append(int height, byte[] hash, boolean isSelfCreated) {
+        checkState(!readOnly, "Snapshots of the DaoStateHashChain are read only");
+        if (hash.length != HASH_LENGTH || (size > 0 && height != getLastHeight() + 1)) {
+            return false;
+        }
+        if (size == 0) {
+            firstHeight = height;
+        }
+        ensureCapacity(size + 1);
+        int index = offset + size;
+        System.arraycopy(hash, 0, hashes, index * HASH_LENGTH, HASH_LENGTH);
+        selfCreatedFlags[index] = (byte) (isSelfCreated ? 1 : 0);
+        size++;
+        return true;
+    }
+
+    public boolean append(DaoStateHash daoStateHash) {
+        return append(daoStateHash.getHeight(), daoStateHash.getHash(), daoStateHash.isSelfCreated());
+    }
+
+    /**
+     * Replaces our entries with a copy of the entries of the given chain.
+     */
+    public void setAll(DaoStateHashChain daoStateHashChain) {
+        checkState(!readOnly, "Snapshots of the DaoStateHashChain are read only");
+        int capacity = Math.max(INITIAL_CAPACITY, daoStateHashChain.size + INITIAL_CAPACITY);
+        byte[] newHashes = new byte[capacity * HASH_LENGTH];
+        byte[] newSelfCreatedFlags = new byte[capacity];
+        System.arraycopy(daoStateHashChain.hashes, daoStateHashChain.offset * HASH_LENGTH,
+                newHashes, 0, daoStateHashChain.size * HASH_LENGTH);
+        System.arraycopy(daoStateHashChain.selfCreatedFlags, daoStateHashChain.offset,
+                newSelfCreatedFlags, 0, daoStateHashChain.size);
+        hashes = newHashes;
+        selfCreatedFlags = newSelfCreatedFlags;
+        offset = 0;
+        firstHeight = daoStateHashChain.firstHeight;
+        size = daoStateHashChain.size;
+    }
+
+    /**
+     * @return a read only view of the current entries. Later appends are not visible in the snapshot.
+     */
+    public DaoStateHashChain getSnapshot() {
+        return new DaoStateHashChain(hashes, selfCreatedFlags, offset, firstHeight, size, true);
+    }
+
+    /**
+     * @return a read only view of the entries from the given height on. Later appends are not visible in it.
+     */
+    public DaoStateHashChain getSubChain(int fromHeight) {
+        int fromIndex = Math.max(0, Math.min(size, fromHeight - firstHeight));
+        return new DaoStateHashChain(hashes, selfCreatedFlags, offset + fromIndex, firstHeight + fromIndex,
+                size - fromIndex, true);
+    }
+
+    public boolean containsHeight(int height) {
+        return size > 0 && height >= firstHeight && height <= getLastHeight();
+    }
+
+    @Nullable
+    public DaoStateHash getByHeight(int height) {
+        return containsHeight(height) ? get(height - firstHeight) : null;
+    }
+
+    @Nullable
+    public byte[] getHash(int height) {
+        if (!containsHeight(height)) {
+            return null;
+        }
+        int from = (offset + height - firstHeight) * HASH_LENGTH;
+        return Arrays.copyOfRange(hashes, from, from + HASH_LENGTH);
+    }
+
+    public int getLastHeight() {
+        return firstHeight + size - 1;
+    }
+
+    public DaoStateHash getLast() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return get(size - 1);
+    }
+
+    @Override
+    public DaoStateHash get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index=" + index + ", size=" + size);
+        }
+        int from = (offset + index) * HASH_LENGTH;
+        return new DaoStateHash(firstHeight + index,
+                Arrays.copyOfRange(hashes, from, from + HASH_LENGTH),
+                selfCreatedFlags[offset + index] != 0);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        checkState(!readOnly, "Snapshots of the DaoStateHashChain are read only");
+        // We must not overwrite the arrays as snapshots might still read them
+        hashes = new byte[INITIAL_CAPACITY * HASH_LENGTH];
+        selfCreatedFlags = new byte[INITIAL_CAPACITY];
+        offset = 0;
+        firstHeight = 0;
+        size = 0;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void ensureCapacity(int minSize) {
+        int capacity = selfCreatedFlags.length - offset;
+        if (minSize <= capacity) {
+            return;
+        }
+        int newCapacity = Math.max(minSize, capacity + (capacity >> 1));
+        // Snapshots keep the old arrays
+        byte[] newHashes = new byte[newCapacity * HASH_LENGTH];
+        byte[] newSelfCreatedFlags = new byte[newCapacity];
+        System.arraycopy(hashes, offset * HASH_LENGTH, newHashes, 0, size * HASH_LENGTH);
+        System.arraycopy(selfCreatedFlags, offset, newSelfCreatedFlags, 0, size);
+        hashes = newHashes;
+        selfCreatedFlags = newSelfCreatedFlags;
+        offset = 0;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.monitoring.model;
+
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Result of comparing our unspent tx outputs with the ones of a peer at the same chain height.
+ */
+@Value
+public class UtxoDiff {
+    int height;
+    List<Integer> differingBuckets;
+    // Unspent outputs the peer has but we don't
+    List<TxOutput> missingTxOutputs;
+    // Unspent outputs we have but the peer doesn't
+    List<TxOutput> unexpectedTxOutputs;
+    // Unspent outputs we both have but with different data
+    List<TxOutputKey> changedTxOutputKeys;
+    // Whether the peers outputs got applied to a detached copy of our UTXO commitment
+    boolean repaired;
+    // Whether the digests of that copy match all digests of the peer
+    boolean repairResolvesConflict;
+
+    public boolean isEmpty() {
+        return differingBuckets.isEmpty();
+    }
+}
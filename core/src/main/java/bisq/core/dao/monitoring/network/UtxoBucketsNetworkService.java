@@ -0,0 +1,296 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.monitoring.network;
+
+import bisq.core.dao.monitoring.network.messages.GetUtxoBucketsRequest;
+import bisq.core.dao.monitoring.network.messages.GetUtxoBucketsResponse;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.UtxoCommitment;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.network.CloseConnectionReason;
+import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.network.ConnectionListener;
+import bisq.network.p2p.network.MessageListener;
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.peers.PeerManager;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
+import bisq.common.handlers.ErrorMessageHandler;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+import javax.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Delivers our UTXO bucket digests and the unspent tx outputs of requested buckets to peers and requests them from
+ * peers. Only used for diagnosing DAO state conflicts. We only serve requests if we announce the DAO_UTXO_BUCKETS
+ * capability and limit the number of requests per connection.
+ */
+@Slf4j
+public class UtxoBucketsNetworkService implements MessageListener, ConnectionListener {
+    private static final long TIMEOUT = 120;
+    // Limits the size of a response. The UTXO set is split into UtxoCommitment.NUM_BUCKETS buckets.
+    public static final int MAX_BUCKETS_PER_REQUEST = 16;
+    // A full diff needs one request for the digests and at most NUM_BUCKETS / MAX_BUCKETS_PER_REQUEST for the outputs
+    private static final int MAX_REQUESTS_PER_CONNECTION =
+            1 + UtxoCommitment.NUM_BUCKETS / MAX_BUCKETS_PER_REQUEST;
+    private static final long REQUEST_LIMIT_PERIOD_MS = TimeUnit.MINUTES.toMillis(10);
+
+    private final NetworkNode networkNode;
+    private final PeerManager peerManager;
+    private final DaoStateService daoStateService;
+
+    private final Map<Integer, PendingRequest> pendingRequestByNonce = new HashMap<>();
+    // Key is connection UID, value are the times of the requests we served in the last REQUEST_LIMIT_PERIOD_MS
+    private final Map<String, List<Long>> requestTimesByConnectionUid = new HashMap<>();
+    private boolean messageListenerAdded;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public UtxoBucketsNetworkService(NetworkNode networkNode,
+                                     PeerManager peerManager,
+                                     DaoStateService daoStateService) {
+        this.networkNode = networkNode;
+        this.peerManager = peerManager;
+        this.daoStateService = daoStateService;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // MessageListener implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+        if (networkEnvelope instanceof GetUtxoBucketsRequest) {
+            onGetUtxoBucketsRequest((GetUtxoBucketsRequest) networkEnvelope, connection);
+        } else if (networkEnvelope instanceof GetUtxoBucketsResponse) {
+            onGetUtxoBucketsResponse((GetUtxoBucketsResponse) networkEnvelope, connection);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // ConnectionListener implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onConnection(Connection connection) {
+    }
+
+    @Override
+    public void onDisconnect(CloseConnectionReason closeConnectionReason, Connection connection) {
+        requestTimesByConnectionUid.remove(connection.getUid());
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void addListeners() {
+        if (!messageListenerAdded) {
+            networkNode.addMessageListener(this);
+            networkNode.addConnectionListener(this);
+            messageListenerAdded = true;
+        }
+    }
+
+    // If bucketIndices is empty we only get the digests of the peer
+    public void requestBuckets(NodeAddress peersNodeAddress,
+                               List<Integer> bucketIndices,
+                               Consumer<GetUtxoBucketsResponse> resultHandler,
+                               ErrorMessageHandler errorMessageHandler) {
+        if (bucketIndices.size() > MAX_BUCKETS_PER_REQUEST) {
+            errorMessageHandler.handleErrorMessage("We must not request more than " + MAX_BUCKETS_PER_REQUEST +
+                    " buckets at once");
+            return;
+        }
+        // Peers which do not serve UTXO buckets would just ignore the request and let it time out
+        Optional<Capabilities> peersCapabilities = networkNode.findPeersCapabilities(peersNodeAddress);
+        if (!peersCapabilities.isPresent() || !peersCapabilities.get().containsAll(Capability.DAO_UTXO_BUCKETS)) {
+            errorMessageHandler.handleErrorMessage("We are not connected to peer " + peersNodeAddress +
+                    " or the peer does not support the DAO_UTXO_BUCKETS capability");
+            return;
+        }
+
+        int nonce = new Random().nextInt();
+        GetUtxoBucketsRequest request = new GetUtxoBucketsRequest(nonce, bucketIndices);
+        PendingRequest pendingRequest = new PendingRequest(peersNodeAddress, resultHandler, errorMessageHandler);
+        pendingRequestByNonce.put(nonce, pendingRequest);
+        // Setup before sending to avoid race conditions
+        // A slow response to this diagnostic request is not a fault of the connection, so we do not report it to the
+        // peerManager
+        pendingRequest.timeoutTimer = UserThread.runAfter(() ->
+                        handleFault(nonce, "A timeout occurred at sending " + request + " to " + peersNodeAddress,
+                                false),
+                TIMEOUT);
+
+        log.info("We request from peer {} the UTXO buckets {}", peersNodeAddress, bucketIndices);
+        SettableFuture<Connection> future = networkNode.sendMessage(peersNodeAddress, request);
+        Futures.addCallback(future, new FutureCallback<>() {
+            @Override
+            public void onSuccess(Connection connection) {
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                UserThread.execute(() -> handleFault(nonce, "Sending " + request + " to " + peersNodeAddress +
+                        " failed. Exception=" + throwable.getMessage(), true));
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void onGetUtxoBucketsRequest(GetUtxoBucketsRequest request, Connection connection) {
+        if (!Capabilities.app.containsAll(Capability.DAO_UTXO_BUCKETS)) {
+            log.info("We received a GetUtxoBucketsRequest but do not serve UTXO buckets. We ignore it.");
+            return;
+        }
+        if (!daoStateService.isParseBlockChainComplete()) {
+            log.info("We received a GetUtxoBucketsRequest but have not completed parsing. We ignore it.");
+            return;
+        }
+        if (!tryAddRequest(connection.getUid())) {
+            log.warn("Peer {} exceeded the limit of {} GetUtxoBucketsRequests in {} min. We ignore the request.",
+                    connection.getPeersNodeAddressOptional(), MAX_REQUESTS_PER_CONNECTION,
+                    TimeUnit.MILLISECONDS.toMinutes(REQUEST_LIMIT_PERIOD_MS));
+            return;
+        }
+
+        List<Integer> bucketIndices = request.getBucketIndices().stream()
+                .filter(index -> index >= 0 && index < UtxoCommitment.NUM_BUCKETS)
+                .distinct()
+                .limit(MAX_BUCKETS_PER_REQUEST)
+                .collect(Collectors.toList());
+        byte[] packedDigests = daoStateService.getUtxoCommitment().getPackedDigests();
+        List<TxOutput> txOutputs = bucketIndices.isEmpty() ?
+                List.of() :
+                daoStateService.getUnspentTxOutputsOfBuckets(bucketIndices);
+        GetUtxoBucketsResponse response = new GetUtxoBucketsResponse(request.getNonce(),
+                daoStateService.getChainHeight(),
+                packedDigests,
+                txOutputs);
+        log.info("Send GetUtxoBucketsResponse with {} tx outputs of buckets {} to peer {}",
+                txOutputs.size(), bucketIndices, connection.getPeersNodeAddressOptional());
+        networkNode.sendMessage(connection, response);
+    }
+
+    private void onGetUtxoBucketsResponse(GetUtxoBucketsResponse response, Connection connection) {
+        PendingRequest pendingRequest = pendingRequestByNonce.get(response.getRequestNonce());
+        if (pendingRequest == null) {
+            log.warn("We received a GetUtxoBucketsResponse we have not requested or which timed out already. " +
+                    "We ignore it.");
+            return;
+        }
+        Optional<NodeAddress> peersNodeAddress = connection.getPeersNodeAddressOptional();
+        if (!peersNodeAddress.isPresent() || !peersNodeAddress.get().equals(pendingRequest.peersNodeAddress)) {
+            log.warn("We received a GetUtxoBucketsResponse from another peer than we requested it from. " +
+                    "We ignore it.");
+            return;
+        }
+
+        pendingRequestByNonce.remove(response.getRequestNonce());
+        pendingRequest.stopTimeoutTimer();
+        pendingRequest.resultHandler.accept(response);
+    }
+
+    private boolean tryAddRequest(String connectionUid) {
+        long now = System.currentTimeMillis();
+        List<Long> requestTimes = requestTimesByConnectionUid.computeIfAbsent(connectionUid, k -> new ArrayList<>());
+        requestTimes.removeIf(time -> now - time > REQUEST_LIMIT_PERIOD_MS);
+        if (requestTimes.size() >= MAX_REQUESTS_PER_CONNECTION) {
+            return false;
+        }
+        requestTimes.add(now);
+        return true;
+    }
+
+    private void handleFault(int nonce, String errorMessage, boolean isConnectionFault) {
+        PendingRequest pendingRequest = pendingRequestByNonce.remove(nonce);
+        if (pendingRequest != null) {
+            log.warn(errorMessage);
+            pendingRequest.stopTimeoutTimer();
+            if (isConnectionFault)
+                peerManager.handleConnectionFault(pendingRequest.peersNodeAddress);
+            pendingRequest.errorMessageHandler.handleErrorMessage(errorMessage);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PendingRequest
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class PendingRequest {
+        private final NodeAddress peersNodeAddress;
+        private final Consumer<GetUtxoBucketsResponse> resultHandler;
+        private final ErrorMessageHandler errorMessageHandler;
+        private Timer timeoutTimer;
+
+        PendingRequest(NodeAddress peersNodeAddress,
+                       Consumer<GetUtxoBucketsResponse> resultHandler,
+                       ErrorMessageHandler errorMessageHandler) {
+            this.peersNodeAddress = peersNodeAddress;
+            this.resultHandler = resultHandler;
+            this.errorMessageHandler = errorMessageHandler;
+        }
+
+        void stopTimeoutTimer() {
+            if (timeoutTimer != null) {
+                timeoutTimer.stop();
+                timeoutTimer = null;
+            }
+        }
+    }
+}
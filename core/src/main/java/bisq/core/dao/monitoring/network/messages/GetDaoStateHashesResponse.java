@@ -18,6 +18,7 @@
 package bisq.core.dao.monitoring.network.messages;
 
 import bisq.core.dao.monitoring.model.DaoStateHash;
+import bisq.core.dao.monitoring.model.DaoStateHashChain;
 
 import bisq.network.p2p.InitialDataRequest;
 
@@ -51,11 +52,15 @@ public final class GetDaoStateHashesResponse extends GetStateHashesResponse<DaoS
 
     @Override
     public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        // Our own hashes come as DaoStateHashChain which wraps its packed hashes without creating DaoStateHash objects
+        List<protobuf.DaoStateHash> stateHashesAsProto = stateHashes instanceof DaoStateHashChain ?
+                ((DaoStateHashChain) stateHashes).toProtoMessages() :
+                stateHashes.stream()
+                        .map(DaoStateHash::toProtoMessage)
+                        .collect(Collectors.toList());
         return getNetworkEnvelopeBuilder()
                 .setGetDaoStateHashesResponse(protobuf.GetDaoStateHashesResponse.newBuilder()
-                        .addAllStateHashes(stateHashes.stream()
-                                .map(DaoStateHash::toProtoMessage)
-                                .collect(Collectors.toList()))
+                        .addAllStateHashes(stateHashesAsProto)
                         .setRequestNonce(requestNonce))
                 .build();
     }
@@ -0,0 +1,87 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.monitoring.network.messages;
+
+import bisq.network.p2p.DirectMessage;
+import bisq.network.p2p.storage.payload.CapabilityRequiringPayload;
+
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
+import bisq.common.app.Version;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Requests the UTXO bucket digests of a peer and the unspent tx outputs of the given buckets. Used for diagnosing
+ * DAO state conflicts.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Getter
+public final class GetUtxoBucketsRequest extends NetworkEnvelope implements DirectMessage, CapabilityRequiringPayload {
+    private final int nonce;
+    // If empty only the digests are requested
+    private final List<Integer> bucketIndices;
+
+    public GetUtxoBucketsRequest(int nonce, List<Integer> bucketIndices) {
+        this(nonce, bucketIndices, Version.getP2PMessageVersion());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private GetUtxoBucketsRequest(int nonce, List<Integer> bucketIndices, int messageVersion) {
+        super(messageVersion);
+        this.nonce = nonce;
+        this.bucketIndices = bucketIndices;
+    }
+
+    @Override
+    public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        return getNetworkEnvelopeBuilder()
+                .setGetUtxoBucketsRequest(protobuf.GetUtxoBucketsRequest.newBuilder()
+                        .setNonce(nonce)
+                        .addAllBucketIndices(bucketIndices))
+                .build();
+    }
+
+    public static NetworkEnvelope fromProto(protobuf.GetUtxoBucketsRequest proto, int messageVersion) {
+        return new GetUtxoBucketsRequest(proto.getNonce(),
+                new ArrayList<>(proto.getBucketIndicesList()),
+                messageVersion);
+    }
+
+    @Override
+    public Capabilities getRequiredCapabilities() {
+        return new Capabilities(Capability.DAO_UTXO_BUCKETS);
+    }
+
+    @Override
+    public String toString() {
+        return "GetUtxoBucketsRequest{" +
+                "\n     nonce=" + nonce +
+                ",\n     bucketIndices=" + bucketIndices +
+                "\n} " + super.toString();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.monitoring.network.messages;
+
+import bisq.core.dao.state.model.blockchain.TxOutput;
+
+import bisq.network.p2p.DirectMessage;
+import bisq.network.p2p.ExtendedDataSizePermission;
+
+import bisq.common.app.Version;
+import bisq.common.proto.network.NetworkEnvelope;
+
+import com.google.protobuf.ByteString;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+@EqualsAndHashCode(callSuper = true)
+@Getter
+public final class GetUtxoBucketsResponse extends NetworkEnvelope implements DirectMessage,
+        ExtendedDataSizePermission {
+    private final int requestNonce;
+    private final int chainHeight;
+    // The digests of all buckets, UtxoCommitment.DIGEST_LENGTH bytes per bucket
+    private final byte[] packedDigests;
+    // The unspent tx outputs of the requested buckets
+    private final List<TxOutput> txOutputs;
+
+    public GetUtxoBucketsResponse(int requestNonce, int chainHeight, byte[] packedDigests, List<TxOutput> txOutputs) {
+        this(requestNonce, chainHeight, packedDigests, txOutputs, Version.getP2PMessageVersion());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private GetUtxoBucketsResponse(int requestNonce,
+                                   int chainHeight,
+                                   byte[] packedDigests,
+                                   List<TxOutput> txOutputs,
+                                   int messageVersion) {
+        super(messageVersion);
+        this.requestNonce = requestNonce;
+        this.chainHeight = chainHeight;
+        this.packedDigests = packedDigests;
+        this.txOutputs = txOutputs;
+    }
+
+    @Override
+    public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        return getNetworkEnvelopeBuilder()
+                .setGetUtxoBucketsResponse(protobuf.GetUtxoBucketsResponse.newBuilder()
+                        .setRequestNonce(requestNonce)
+                        .setChainHeight(chainHeight)
+                        .setPackedDigests(ByteString.copyFrom(packedDigests))
+                        .addAllTxOutputs(txOutputs.stream()
+                                .map(TxOutput::toProtoMessage)
+                                .collect(Collectors.toList())))
+                .build();
+    }
+
+    public static NetworkEnvelope fromProto(protobuf.GetUtxoBucketsResponse proto, int messageVersion) {
+        return new GetUtxoBucketsResponse(proto.getRequestNonce(),
+                proto.getChainHeight(),
+                proto.getPackedDigests().toByteArray(),
+                proto.getTxOutputsList().stream()
+                        .map(TxOutput::fromProto)
+                        .collect(Collectors.toList()),
+                messageVersion);
+    }
+
+    @Override
+    public String toString() {
+        return "GetUtxoBucketsResponse{" +
+                "\n     requestNonce=" + requestNonce +
+                ",\n     chainHeight=" + chainHeight +
+                ",\n     txOutputs.size=" + txOutputs.size() +
+                "\n} " + super.toString();
+    }
+}
@@ -50,6 +50,7 @@ import org.jetbrains.annotations.NotNull;
 @Slf4j
 class GetBlocksRequestHandler {
     private static final long TIMEOUT_MIN = 3;
+    private static final int MAX_BLOCKS = 6000;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -92,7 +93,13 @@ class GetBlocksRequestHandler {
     public void onGetBlocksRequest(GetBlocksRequest getBlocksRequest, Connection connection) {
         long ts = System.currentTimeMillis();
         // We limit number of blocks to 6000 which is about 1.5 month.
-        List<Block> blocks = new LinkedList<>(daoStateService.getBlocksFromBlockHeight(getBlocksRequest.getFromBlockHeight(), 6000));
+        int numMaxBlocks = MAX_BLOCKS;
+        if (getBlocksRequest.getToBlockHeight() > 0) {
+            // Range request from a lite node which downloads from several full nodes in parallel
+            numMaxBlocks = Math.max(0, Math.min(MAX_BLOCKS,
+                    getBlocksRequest.getToBlockHeight() - getBlocksRequest.getFromBlockHeight() + 1));
+        }
+        List<Block> blocks = new LinkedList<>(daoStateService.getBlocksFromBlockHeight(getBlocksRequest.getFromBlockHeight(), numMaxBlocks));
         List<RawBlock> rawBlocks = blocks.stream().map(RawBlock::fromBlock).collect(Collectors.toList());
         GetBlocksResponse getBlocksResponse = new GetBlocksResponse(rawBlocks, getBlocksRequest.getNonce());
         log.info("Received GetBlocksRequest from {} for blocks from height {}. " +
@@ -179,10 +179,15 @@ public class LiteNode extends BsqNode {
             startParseBlocks();
     }
 
-    // First we request the blocks from a full node
+    // First we request the blocks from a full node. If the wallet is synced we know up to which height we need
+    // blocks and can request them in ranges from several full nodes.
     @Override
     protected void startParseBlocks() {
-        liteNodeNetworkService.requestBlocks(getStartBlockHeight());
+        if (walletsSetup.isDownloadComplete()) {
+            liteNodeNetworkService.requestBlocks(getStartBlockHeight(), bsqWalletService.getBestChainHeight());
+        } else {
+            liteNodeNetworkService.requestBlocks(getStartBlockHeight());
+        }
     }
 
 
@@ -221,9 +226,11 @@ public class LiteNode extends BsqNode {
                             MathUtils.roundDouble(duration / blockList.size(), 2));
                     // We only request again if wallet is synced, otherwise we would get repeated calls we want to avoid.
                     // We deal with that case at the setupWalletBestBlockListener method above.
+                    // If we got the blocks in ranges that call continues with the next range.
                     if (walletsSetup.isDownloadComplete() &&
                             daoStateService.getChainHeight() < bsqWalletService.getBestChainHeight()) {
-                        liteNodeNetworkService.requestBlocks(getStartBlockHeight());
+                        liteNodeNetworkService.requestBlocks(getStartBlockHeight(),
+                                bsqWalletService.getBestChainHeight());
                     } else {
                         onParsingComplete.run();
                         onParseBlockChainComplete();
@@ -0,0 +1,427 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.lite.network;
+
+import bisq.core.dao.node.full.RawBlock;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.Timer;
+import bisq.common.UserThread;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+
+/**
+ * Downloads the BSQ blocks from startBlockHeight to targetBlockHeight in height ranges from several full nodes
+ * concurrently. Each peer has at most one open request. The ranges are passed to the listener in order of height,
+ * the next one only after onRangeApplied got called. Before we pass a range we check that its first block connects
+ * to the last block of the previous range.
+ *
+ * If a range is outstanding for longer than slowRangeMillis we request it in addition from an idle peer and use
+ * the first response. The other request gets terminated and only if it was outstanding for longer than
+ * slowRangeMillis its peer does not get further ranges. Peers which fail or deliver invalid ranges are dropped as
+ * well. If no peer is left or a range failed too often the listener gets onFailed with the height from
+ * where the blocks need to be requested the old way.
+ *
+ * The last range has no upper bound so we get all blocks up to the chain tip of the peer.
+ * All methods are expected to be called on the user thread.
+ */
+@Slf4j
+class BlockRangeDownloader {
+    @VisibleForTesting
+    static final int MIN_RANGE_SIZE = 100;
+    // Full nodes deliver max. 6000 blocks per request
+    @VisibleForTesting
+    static final int MAX_RANGE_SIZE = 2000;
+    // We use smaller ranges than numBlocks / numPeers so faster peers get more of them
+    private static final int RANGES_PER_PEER = 4;
+    // Number of ranges per peer we request ahead of the range we need to apply next
+    private static final int LOOKAHEAD_PER_PEER = 2;
+    private static final int MAX_ATTEMPTS_PER_RANGE = 3;
+    private static final long CHECK_INTERVAL_MS = 500;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Interfaces
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    interface Requester {
+        /**
+         * Requests the blocks from fromBlockHeight to toBlockHeight (0 for all up to the chain tip) from the peer.
+         * The response handler must be called on the user thread after that method has returned.
+         *
+         * @return Terminates the request. The response handler must not be called after that.
+         */
+        Runnable requestBlocks(NodeAddress peer, int fromBlockHeight, int toBlockHeight, ResponseHandler responseHandler);
+    }
+
+    interface ResponseHandler {
+        void onBlocks(List<RawBlock> blocks);
+
+        void onFault(String errorMessage);
+    }
+
+    interface Listener {
+        void onRangeReceived(List<RawBlock> blocks);
+
+        void onFailed(int nextBlockHeight);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Range
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class Range {
+        private final int fromBlockHeight;
+        // 0 for the last range
+        private final int toBlockHeight;
+        // Open requests with their terminate handlers
+        private final Map<NodeAddress, Runnable> requests = new HashMap<>();
+        // Time when the open requests were sent
+        private final Map<NodeAddress, Long> requestTimes = new HashMap<>();
+        @Nullable
+        private List<RawBlock> blocks;
+        @Nullable
+        private NodeAddress deliveredBy;
+        private int numFailures;
+
+        private Range(int fromBlockHeight, int toBlockHeight) {
+            this.fromBlockHeight = fromBlockHeight;
+            this.toBlockHeight = toBlockHeight;
+        }
+
+        @Override
+        public String toString() {
+            return fromBlockHeight + "-" + (toBlockHeight > 0 ? toBlockHeight : "tip");
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Class fields
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private final Requester requester;
+    private final Listener listener;
+    private final long slowRangeMillis;
+
+    private final List<Range> ranges = new ArrayList<>();
+    private final List<NodeAddress> peers = new ArrayList<>();
+    private final Map<NodeAddress, Range> rangeByPeer = new HashMap<>();
+    // Index of the range we pass next to the listener
+    private int nextRangeIndex;
+    private boolean applying;
+    private boolean stopped;
+    @Nullable
+    private String lastAppliedBlockHash;
+    @Nullable
+    private Timer checkTimer;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    BlockRangeDownloader(Requester requester, Listener listener, long slowRangeMillis) {
+        this.requester = requester;
+        this.listener = listener;
+        this.slowRangeMillis = slowRangeMillis;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void start(List<NodeAddress> peers, int startBlockHeight, int targetBlockHeight) {
+        this.peers.addAll(peers);
+        int rangeSize = getRangeSize(targetBlockHeight - startBlockHeight + 1, peers.size());
+        for (int from = startBlockHeight; from <= targetBlockHeight; from += rangeSize) {
+            int to = Math.min(from + rangeSize - 1, targetBlockHeight);
+            ranges.add(new Range(from, to == targetBlockHeight ? 0 : to));
+        }
+        log.info("We request blocks from height {} to {} in {} ranges of {} blocks from {} peers",
+                startBlockHeight, targetBlockHeight, ranges.size(), rangeSize, peers.size());
+
+        checkTimer = UserThread.runPeriodically(this::requestRanges, CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        requestRanges();
+    }
+
+    // Called once the blocks of the last range got parsed
+    void onRangeApplied() {
+        applying = false;
+        maybeApplyNextRange();
+    }
+
+    void onPeerDisconnected(NodeAddress peer) {
+        Range range = rangeByPeer.get(peer);
+        if (range != null) {
+            onFault(peer, range, "Peer disconnected");
+        } else if (peers.remove(peer)) {
+            maybeFail(null);
+        }
+    }
+
+    void shutDown() {
+        stopped = true;
+        if (checkTimer != null) {
+            checkTimer.stop();
+            checkTimer = null;
+        }
+        ranges.forEach(range -> {
+            range.requests.values().forEach(Runnable::run);
+            range.requests.clear();
+            range.requestTimes.clear();
+            range.blocks = null;
+        });
+        rangeByPeer.clear();
+    }
+
+    boolean isActive() {
+        return !stopped && nextRangeIndex < ranges.size();
+    }
+
+    int getNextBlockHeight() {
+        return ranges.get(Math.min(nextRangeIndex, ranges.size() - 1)).fromBlockHeight;
+    }
+
+    @VisibleForTesting
+    static int getRangeSize(int numBlocks, int numPeers) {
+        int rangeSize = (numBlocks + numPeers * RANGES_PER_PEER - 1) / (numPeers * RANGES_PER_PEER);
+        return Math.max(MIN_RANGE_SIZE, Math.min(MAX_RANGE_SIZE, rangeSize));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void requestRanges() {
+        if (stopped) {
+            return;
+        }
+        for (NodeAddress peer : new ArrayList<>(peers)) {
+            if (rangeByPeer.containsKey(peer)) {
+                continue;
+            }
+            Range range = findRangeToRequest();
+            if (range == null) {
+                return;
+            }
+            requestRange(peer, range);
+        }
+    }
+
+    // The next range nobody has requested yet or a range a slow peer did not deliver yet
+    @Nullable
+    private Range findRangeToRequest() {
+        int maxIndex = Math.min(ranges.size(), nextRangeIndex + Math.max(1, peers.size() * LOOKAHEAD_PER_PEER));
+        for (int i = nextRangeIndex; i < maxIndex; i++) {
+            Range range = ranges.get(i);
+            if (range.blocks == null && range.requests.isEmpty()) {
+                return range;
+            }
+        }
+        long now = System.currentTimeMillis();
+        for (int i = nextRangeIndex; i < maxIndex; i++) {
+            Range range = ranges.get(i);
+            if (range.blocks == null && range.requests.size() == 1) {
+                long requestTime = range.requestTimes.values().iterator().next();
+                if (now - requestTime > slowRangeMillis) {
+                    log.info("Range {} is outstanding since {} ms. We request it from another peer as well.",
+                            range, now - requestTime);
+                    return range;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void requestRange(NodeAddress peer, Range range) {
+        range.requestTimes.put(peer, System.currentTimeMillis());
+        rangeByPeer.put(peer, range);
+        Runnable terminateHandler = requester.requestBlocks(peer, range.fromBlockHeight, range.toBlockHeight,
+                new ResponseHandler() {
+                    @Override
+                    public void onBlocks(List<RawBlock> blocks) {
+                        onResponse(peer, range, blocks);
+                    }
+
+                    @Override
+                    public void onFault(String errorMessage) {
+                        BlockRangeDownloader.this.onFault(peer, range, errorMessage);
+                    }
+                });
+        range.requests.put(peer, terminateHandler);
+    }
+
+    private void onResponse(NodeAddress peer, Range range, List<RawBlock> blocks) {
+        if (stopped || rangeByPeer.get(peer) != range) {
+            return;
+        }
+        List<RawBlock> blocksOfRange = getBlocksOfRange(range, blocks);
+        String errorMessage = validate(range, blocksOfRange);
+        if (errorMessage != null) {
+            onFault(peer, range, errorMessage);
+            return;
+        }
+
+        rangeByPeer.remove(peer);
+        range.requests.remove(peer);
+        range.requestTimes.remove(peer);
+
+        range.blocks = blocksOfRange;
+        range.deliveredBy = peer;
+        // If we had requested the range from another peer as well we terminate that request. We only drop that peer
+        // if it was the slow one, not if it got the additional request and the slow peer answered first.
+        long now = System.currentTimeMillis();
+        range.requests.forEach((otherPeer, terminateHandler) -> {
+            terminateHandler.run();
+            rangeByPeer.remove(otherPeer);
+            if (now - range.requestTimes.get(otherPeer) > slowRangeMillis) {
+                log.info("Peer {} was slower than {} for range {}. We do not request more ranges from it.",
+                        otherPeer, peer, range);
+                peers.remove(otherPeer);
+            } else {
+                log.info("Peer {} delivered range {} before {}. We terminate the request to {}.",
+                        peer, range, otherPeer, otherPeer);
+            }
+        });
+        range.requests.clear();
+        range.requestTimes.clear();
+
+        maybeApplyNextRange();
+        requestRanges();
+    }
+
+    private void onFault(NodeAddress peer, Range range, String errorMessage) {
+        if (stopped || rangeByPeer.get(peer) != range) {
+            return;
+        }
+        log.warn("Request of range {} from peer {} failed. We do not request more ranges from it. {}",
+                range, peer, errorMessage);
+        rangeByPeer.remove(peer);
+        range.requests.remove(peer);
+        range.requestTimes.remove(peer);
+        peers.remove(peer);
+        range.numFailures++;
+        maybeFail(range);
+        requestRanges();
+    }
+
+    private void maybeApplyNextRange() {
+        if (stopped || applying || nextRangeIndex >= ranges.size()) {
+            return;
+        }
+        Range range = ranges.get(nextRangeIndex);
+        List<RawBlock> blocks = range.blocks;
+        if (blocks == null) {
+            return;
+        }
+
+        if (!blocks.isEmpty() && lastAppliedBlockHash != null &&
+                !lastAppliedBlockHash.equals(blocks.get(0).getPreviousBlockHash())) {
+            log.warn("First block of range {} from peer {} does not connect to the previous range. " +
+                    "We request the range again from another peer.", range, range.deliveredBy);
+            range.blocks = null;
+            peers.remove(range.deliveredBy);
+            range.numFailures++;
+            maybeFail(range);
+            requestRanges();
+            return;
+        }
+
+        nextRangeIndex++;
+        applying = true;
+        // We do not keep the blocks once they are passed
+        range.blocks = null;
+        if (!blocks.isEmpty()) {
+            lastAppliedBlockHash = blocks.get(blocks.size() - 1).getHash();
+        }
+        if (nextRangeIndex == ranges.size()) {
+            shutDown();
+        }
+        listener.onRangeReceived(blocks);
+    }
+
+    private void maybeFail(@Nullable Range range) {
+        if (stopped) {
+            return;
+        }
+        boolean hasMissingRanges = ranges.subList(nextRangeIndex, ranges.size()).stream()
+                .anyMatch(e -> e.blocks == null);
+        if ((peers.isEmpty() && hasMissingRanges) ||
+                (range != null && range.numFailures >= MAX_ATTEMPTS_PER_RANGE)) {
+            log.warn("We stop the range download at range {}. Peers left: {}", range, peers.size());
+            shutDown();
+            // If the listener is still applying a range, it continues from the next block height once done
+            if (!applying) {
+                listener.onFailed(getNextBlockHeight());
+            }
+        }
+    }
+
+    // Peers without range support would deliver all blocks up to their chain tip
+    private static List<RawBlock> getBlocksOfRange(Range range, List<RawBlock> blocks) {
+        if (range.toBlockHeight == 0 || blocks.isEmpty() ||
+                blocks.get(blocks.size() - 1).getHeight() <= range.toBlockHeight) {
+            return blocks;
+        }
+        List<RawBlock> blocksOfRange = new ArrayList<>();
+        for (RawBlock block : blocks) {
+            if (block.getHeight() <= range.toBlockHeight) {
+                blocksOfRange.add(block);
+            }
+        }
+        return blocksOfRange;
+    }
+
+    @Nullable
+    private static String validate(Range range, List<RawBlock> blocks) {
+        if (blocks.isEmpty()) {
+            // The last range is empty if there are no more blocks
+            return range.toBlockHeight == 0 ? null : "No blocks received";
+        }
+        if (blocks.get(0).getHeight() != range.fromBlockHeight) {
+            return "First block has height " + blocks.get(0).getHeight();
+        }
+        for (int i = 1; i < blocks.size(); i++) {
+            RawBlock block = blocks.get(i);
+            RawBlock previous = blocks.get(i - 1);
+            if (block.getHeight() != previous.getHeight() + 1 ||
+                    !previous.getHash().equals(block.getPreviousBlockHash())) {
+                return "Block at height " + block.getHeight() + " does not connect to its previous block";
+            }
+        }
+        if (range.toBlockHeight > 0 && blocks.get(blocks.size() - 1).getHeight() != range.toBlockHeight) {
+            return "Last block has height " + blocks.get(blocks.size() - 1).getHeight();
+        }
+        return null;
+    }
+}
@@ -17,6 +17,7 @@
 
 package bisq.core.dao.node.lite.network;
 
+import bisq.core.dao.node.full.RawBlock;
 import bisq.core.dao.node.messages.GetBlocksResponse;
 import bisq.core.dao.node.messages.NewBlockBroadcastMessage;
 import bisq.core.dao.state.model.blockchain.BaseTx;
@@ -33,6 +34,7 @@ import bisq.network.p2p.seed.SeedNodeRepository;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.app.Capability;
 import bisq.common.app.DevEnv;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.util.Tuple2;
@@ -56,6 +58,8 @@ import org.jetbrains.annotations.Nullable;
 
 /**
  * Responsible for requesting BSQ blocks from a full node and for listening to new blocks broadcasted by full nodes.
+ * If we are behind many blocks and connected to several seed nodes supporting range requests we request the blocks
+ * in ranges from all of them with the BlockRangeDownloader.
  */
 @Slf4j
 public class LiteNodeNetworkService implements MessageListener, ConnectionListener, PeerManager.Listener {
@@ -63,6 +67,10 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
     private static final long RETRY_DELAY_SEC = 10;
     private static final long CLEANUP_TIMER = 120;
     private static final int MAX_RETRY = 3;
+    // Below that we request all blocks from one seed node
+    private static final int MIN_BLOCKS_FOR_RANGES = 2 * BlockRangeDownloader.MIN_RANGE_SIZE;
+    private static final int MIN_PEERS_FOR_RANGES = 2;
+    private static final long SLOW_RANGE_SEC = 30;
 
     private int retryCounter = 0;
     private int lastRequestedBlockHeight;
@@ -100,6 +108,8 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
     private Timer retryTimer;
     private boolean stopped;
     private final Set<String> receivedBlocks = new HashSet<>();
+    @Nullable
+    private BlockRangeDownloader blockRangeDownloader;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -132,6 +142,7 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
     public void shutDown() {
         stopped = true;
         stopRetryTimer();
+        shutDownBlockRangeDownloader();
         networkNode.removeMessageListener(this);
         networkNode.removeConnectionListener(this);
         peerManager.removeListener(this);
@@ -147,6 +158,7 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
      * @param startBlockHeight      Block height from where we expect new blocks (current block height in bsqState + 1)
      */
     public void requestBlocks(int startBlockHeight) {
+        shutDownBlockRangeDownloader();
         lastRequestedBlockHeight = startBlockHeight;
         Optional<Connection> connectionToSeedNodeOptional = networkNode.getConfirmedConnections().stream()
                 .filter(peerManager::isSeedNode)
@@ -161,7 +173,59 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
                 });
     }
 
+    /**
+     * Requests the blocks in ranges from several seed nodes if there are enough blocks missing and we are connected
+     * to seed nodes supporting it. Otherwise we request them from one seed node. Each range is passed to the listeners
+     * as GetBlocksResponse. The next range is passed once we get called again with the height following the last
+     * range, after it was parsed.
+     *
+     * @param startBlockHeight      Block height from where we expect new blocks (current block height in bsqState + 1)
+     * @param targetBlockHeight     Chain height we expect the full nodes to have, e.g. from the BTC wallet
+     */
+    public void requestBlocks(int startBlockHeight, int targetBlockHeight) {
+        if (blockRangeDownloader != null && blockRangeDownloader.isActive() &&
+                blockRangeDownloader.getNextBlockHeight() == startBlockHeight) {
+            blockRangeDownloader.onRangeApplied();
+            return;
+        }
+
+        List<NodeAddress> peers = getSeedNodesSupportingBlockRanges();
+        if (stopped ||
+                peers.size() < MIN_PEERS_FOR_RANGES ||
+                targetBlockHeight - startBlockHeight + 1 < MIN_BLOCKS_FOR_RANGES) {
+            requestBlocks(startBlockHeight);
+            return;
+        }
+
+        shutDownBlockRangeDownloader();
+        lastRequestedBlockHeight = startBlockHeight;
+        blockRangeDownloader = new BlockRangeDownloader(this::requestBlockRange,
+                new BlockRangeDownloader.Listener() {
+                    @Override
+                    public void onRangeReceived(List<RawBlock> blocks) {
+                        if (!blocks.isEmpty()) {
+                            lastRequestedBlockHeight = blocks.get(0).getHeight();
+                            lastReceivedBlockHeight = lastRequestedBlockHeight;
+                        }
+                        GetBlocksResponse getBlocksResponse = new GetBlocksResponse(blocks, 0);
+                        listeners.forEach(listener -> listener.onRequestedBlocksReceived(getBlocksResponse,
+                                () -> {
+                                }));
+                    }
+
+                    @Override
+                    public void onFailed(int nextBlockHeight) {
+                        log.warn("Requesting blocks in ranges failed. We request the blocks from height {} " +
+                                "from one seed node.", nextBlockHeight);
+                        requestBlocks(nextBlockHeight);
+                    }
+                },
+                SLOW_RANGE_SEC * 1000);
+        blockRangeDownloader.start(peers, startBlockHeight, targetBlockHeight);
+    }
+
     public void reset() {
+        shutDownBlockRangeDownloader();
         lastRequestedBlockHeight = 0;
         lastReceivedBlockHeight = 0;
         retryCounter = 0;
@@ -180,6 +244,9 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
     @Override
     public void onDisconnect(CloseConnectionReason closeConnectionReason, Connection connection) {
         closeHandler(connection);
+        if (blockRangeDownloader != null) {
+            connection.getPeersNodeAddressOptional().ifPresent(blockRangeDownloader::onPeerDisconnected);
+        }
 
         if (peerManager.isPeerBanned(closeConnectionReason, connection)) {
             connection.getPeersNodeAddressOptional().ifPresent(nodeAddress -> {
@@ -201,6 +268,7 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
     @Override
     public void onAllConnectionsLost() {
         log.info("onAllConnectionsLost");
+        shutDownBlockRangeDownloader();
         closeAllHandlers();
         stopRetryTimer();
         stopped = true;
@@ -210,6 +278,7 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
     @Override
     public void onNewConnectionAfterAllConnectionsLost() {
         log.info("onNewConnectionAfterAllConnectionsLost");
+        shutDownBlockRangeDownloader();
         closeAllHandlers();
         stopped = false;
         tryWithNewSeedNode(lastRequestedBlockHeight);
@@ -218,6 +287,7 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
     @Override
     public void onAwakeFromStandby() {
         log.info("onAwakeFromStandby");
+        shutDownBlockRangeDownloader();
         closeAllHandlers();
         stopped = false;
         tryWithNewSeedNode(lastRequestedBlockHeight);
@@ -329,10 +399,53 @@ public class LiteNodeNetworkService implements MessageListener, ConnectionListen
     }
 
 
+    private Runnable requestBlockRange(NodeAddress peersNodeAddress,
+                                       int fromBlockHeight,
+                                       int toBlockHeight,
+                                       BlockRangeDownloader.ResponseHandler responseHandler) {
+        RequestBlocksHandler requestBlocksHandler = new RequestBlocksHandler(networkNode,
+                peerManager,
+                peersNodeAddress,
+                fromBlockHeight,
+                toBlockHeight,
+                new RequestBlocksHandler.Listener() {
+                    @Override
+                    public void onComplete(GetBlocksResponse getBlocksResponse) {
+                        responseHandler.onBlocks(getBlocksResponse.getBlocks());
+                    }
+
+                    @Override
+                    public void onFault(String errorMessage, @Nullable Connection connection) {
+                        responseHandler.onFault(errorMessage);
+                    }
+                });
+        requestBlocksHandler.requestBlocks();
+        return requestBlocksHandler::terminate;
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Utils
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private List<NodeAddress> getSeedNodesSupportingBlockRanges() {
+        return networkNode.getConfirmedConnections().stream()
+                .filter(peerManager::isSeedNode)
+                .filter(connection -> connection.getCapabilities().containsAll(Capability.DAO_BLOCK_RANGES))
+                .map(Connection::getPeersNodeAddressOptional)
+                .flatMap(Optional::stream)
+                .filter(nodeAddress -> !peerManager.isSelf(nodeAddress))
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private void shutDownBlockRangeDownloader() {
+        if (blockRangeDownloader != null) {
+            blockRangeDownloader.shutDown();
+            blockRangeDownloader = null;
+        }
+    }
+
     private void tryWithNewSeedNode(int startBlockHeight) {
         if (networkNode.getAllConnections().isEmpty()) {
             return;
@@ -48,6 +48,8 @@ public final class GetBlocksRequest extends NetworkEnvelope implements DirectMes
         SupportedCapabilitiesMessage, InitialDataRequest {
     private final int fromBlockHeight;
     private final int nonce;
+    // Added for range requests to full nodes with Capability.DAO_BLOCK_RANGES. 0 if not set.
+    private final int toBlockHeight;
 
     // Added after version 1.0.1. Can be null if received from older clients.
     @Nullable
@@ -60,7 +62,15 @@ public final class GetBlocksRequest extends NetworkEnvelope implements DirectMes
     public GetBlocksRequest(int fromBlockHeight,
                             int nonce,
                             @Nullable NodeAddress senderNodeAddress) {
+        this(fromBlockHeight, 0, nonce, senderNodeAddress);
+    }
+
+    public GetBlocksRequest(int fromBlockHeight,
+                            int toBlockHeight,
+                            int nonce,
+                            @Nullable NodeAddress senderNodeAddress) {
         this(fromBlockHeight,
+                toBlockHeight,
                 nonce,
                 senderNodeAddress,
                 Capabilities.app,
@@ -73,12 +83,14 @@ public final class GetBlocksRequest extends NetworkEnvelope implements DirectMes
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private GetBlocksRequest(int fromBlockHeight,
+                             int toBlockHeight,
                              int nonce,
                              @Nullable NodeAddress senderNodeAddress,
                              @Nullable Capabilities supportedCapabilities,
                              int messageVersion) {
         super(messageVersion);
         this.fromBlockHeight = fromBlockHeight;
+        this.toBlockHeight = toBlockHeight;
         this.nonce = nonce;
         this.senderNodeAddress = senderNodeAddress;
         this.supportedCapabilities = supportedCapabilities;
@@ -88,6 +100,7 @@ public final class GetBlocksRequest extends NetworkEnvelope implements DirectMes
     public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
         protobuf.GetBlocksRequest.Builder builder = protobuf.GetBlocksRequest.newBuilder()
                 .setFromBlockHeight(fromBlockHeight)
+                .setToBlockHeight(toBlockHeight)
                 .setNonce(nonce);
         Optional.ofNullable(senderNodeAddress).ifPresent(e -> builder.setSenderNodeAddress(e.toProtoMessage()));
         Optional.ofNullable(supportedCapabilities).ifPresent(e -> builder.addAllSupportedCapabilities(Capabilities.toIntList(supportedCapabilities)));
@@ -103,6 +116,7 @@ public final class GetBlocksRequest extends NetworkEnvelope implements DirectMes
                 null :
                 Capabilities.fromIntList(proto.getSupportedCapabilitiesList());
         return new GetBlocksRequest(proto.getFromBlockHeight(),
+                proto.getToBlockHeight(),
                 proto.getNonce(),
                 senderNodeAddress,
                 supportedCapabilities,
@@ -118,6 +132,7 @@ public final class GetBlocksRequest extends NetworkEnvelope implements DirectMes
     public String toString() {
         return "GetBlocksRequest{" +
                 "\n     fromBlockHeight=" + fromBlockHeight +
+                ",\n     toBlockHeight=" + toBlockHeight +
                 ",\n     nonce=" + nonce +
                 ",\n     senderNodeAddress=" + senderNodeAddress +
                 ",\n     supportedCapabilities=" + supportedCapabilities +
@@ -18,18 +18,28 @@
 package bisq.core.dao.node.parser;
 
 import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.full.RawTx;
 import bisq.core.dao.node.parser.exceptions.BlockHashNotConnectingException;
 import bisq.core.dao.node.parser.exceptions.BlockHeightNotConnectingException;
 import bisq.core.dao.state.DaoStateService;
 import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.blockchain.TxInput;
 
 import bisq.common.app.DevEnv;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.LatencyHistogram;
+import bisq.common.metrics.MetricsRegistry;
 
 import org.bitcoinj.core.Coin;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import javax.inject.Inject;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -38,10 +48,23 @@ import javax.annotation.concurrent.Immutable;
 /**
  * Parse a rawBlock and creates a block from it with an empty tx list.
  * Iterates all rawTx and if the tx is a BSQ tx it gets added to the tx list.
+ * <p>
+ * Most txs of a block are not BSQ txs. Before the sequential parsing we pre-screen the txs in parallel with read only
+ * access to the dao state and only parse the txs which might be BSQ txs, see getBsqTxCandidates.
  */
 @Slf4j
 @Immutable
 public class BlockParser {
+    private static final LatencyHistogram PARSE_DURATION = MetricsRegistry.histogram(
+            "bisq_dao_block_parse_duration_seconds", "Time spent parsing a block, including the listeners of the parsed block");
+    private static final Counter PARSED_TXS = MetricsRegistry.counter(
+            "bisq_dao_parsed_txs_total", "Raw transactions of parsed blocks");
+    private static final Counter BSQ_TX_CANDIDATES = MetricsRegistry.counter(
+            "bisq_dao_bsq_tx_candidates_total", "Raw transactions which passed the pre-screening and got parsed");
+
+    // Below that number of txs the overhead of a parallel pre-screening is not worth it
+    private static final int MIN_TXS_FOR_PARALLEL_PRE_SCREENING = 200;
+
     private final TxParser txParser;
     private final DaoStateService daoStateService;
     private final String genesisTxId;
@@ -76,7 +99,15 @@ public class BlockParser {
      * @throws BlockHeightNotConnectingException If new block height is not current chain Height + 1
      */
     public Block parseBlock(RawBlock rawBlock) throws BlockHashNotConnectingException, BlockHeightNotConnectingException {
+        return parseBlock(rawBlock, true);
+    }
+
+    // Without the pre-screening all txs get parsed. Used by tests to compare the results of both.
+    @VisibleForTesting
+    Block parseBlock(RawBlock rawBlock, boolean usePreScreening)
+            throws BlockHashNotConnectingException, BlockHeightNotConnectingException {
         long startTs = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         int blockHeight = rawBlock.getHeight();
         log.trace("Parse block at height={} ", blockHeight);
 
@@ -104,7 +135,8 @@ public class BlockParser {
         // one get resolved.
         // Lately there is a patter with 24 iterations observed
 
-        rawBlock.getRawTxs().forEach(rawTx ->
+        List<RawTx> rawTxs = usePreScreening ? getBsqTxCandidates(rawBlock) : rawBlock.getRawTxs();
+        rawTxs.forEach(rawTx ->
                 txParser.findTx(rawTx,
                         genesisTxId,
                         genesisBlockHeight,
@@ -112,6 +144,9 @@ public class BlockParser {
                         .ifPresent(tx -> daoStateService.onNewTxForLastBlock(block, tx)));
 
         daoStateService.onParseBlockComplete(block);
+        PARSE_DURATION.recordSince(startTime);
+        PARSED_TXS.add(rawBlock.getRawTxs().size());
+        BSQ_TX_CANDIDATES.add(rawTxs.size());
         long duration = System.currentTimeMillis() - startTs;
         if (duration > 10) {
             log.info("Parsing {} transactions at block height {} took {} ms", rawBlock.getRawTxs().size(),
@@ -121,6 +156,42 @@ public class BlockParser {
         return block;
     }
 
+    /**
+     * Returns the txs which might be BSQ txs, in the order of the block. All others are definitely not BSQ txs and
+     * TxParser.findTx would not find a tx nor change the dao state for them. A tx is a candidate if it is the genesis
+     * tx, if it spends an unspent BSQ output or if it spends an output of a tx of the same block. The latter might
+     * become a BSQ output while parsing the block.
+     * <p>
+     * This only reads the dao state, so for large blocks we run it in parallel. It must not run concurrently with
+     * changes of the dao state.
+     */
+    @VisibleForTesting
+    List<RawTx> getBsqTxCandidates(RawBlock rawBlock) {
+        List<RawTx> rawTxs = rawBlock.getRawTxs();
+        Set<String> txIdsOfBlock = rawTxs.stream().map(RawTx::getId).collect(Collectors.toSet());
+        IntStream indices = IntStream.range(0, rawTxs.size());
+        if (rawTxs.size() >= MIN_TXS_FOR_PARALLEL_PRE_SCREENING) {
+            indices = indices.parallel();
+        }
+        // Keeps the order of the block also for the parallel stream
+        return indices.filter(index -> isBsqTxCandidate(rawTxs.get(index), txIdsOfBlock))
+                .mapToObj(rawTxs::get)
+                .collect(Collectors.toList());
+    }
+
+    private boolean isBsqTxCandidate(RawTx rawTx, Set<String> txIdsOfBlock) {
+        if (GenesisTxParser.isGenesis(rawTx, genesisTxId, genesisBlockHeight))
+            return true;
+
+        for (TxInput txInput : rawTx.getTxInputs()) {
+            if (txIdsOfBlock.contains(txInput.getConnectedTxOutputTxId()) ||
+                    daoStateService.getUnspentTxOutput(txInput.getConnectedTxOutputKey()).isPresent()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void validateIfBlockIsConnecting(RawBlock rawBlock) throws BlockHashNotConnectingException, BlockHeightNotConnectingException {
         List<Block> blocks = daoStateService.getBlocks();
 
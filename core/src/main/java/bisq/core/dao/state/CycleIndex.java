@@ -0,0 +1,65 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.governance.Cycle;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import lombok.Getter;
+
+/**
+ * Immutable index of the cycles for a binary search by height. Cycles are added in order of their heights and don't
+ * overlap.
+ */
+final class CycleIndex {
+    static final CycleIndex EMPTY = new CycleIndex(List.of());
+
+    static CycleIndex of(List<Cycle> cycles) {
+        return new CycleIndex(cycles);
+    }
+
+    private final Cycle[] cycles;
+    private final int[] heightsOfFirstBlock;
+    @Getter
+    private final int numCycles;
+
+    private CycleIndex(List<Cycle> cycleList) {
+        cycles = cycleList.toArray(new Cycle[0]);
+        numCycles = cycles.length;
+        heightsOfFirstBlock = new int[numCycles];
+        for (int i = 0; i < numCycles; i++) {
+            heightsOfFirstBlock[i] = cycles[i].getHeightOfFirstBlock();
+        }
+    }
+
+    Optional<Cycle> getCycle(int height) {
+        int index = Arrays.binarySearch(heightsOfFirstBlock, height);
+        // If not found binarySearch returns (-(insertion point) - 1), we want the cycle before the insertion point
+        if (index < 0) {
+            index = -index - 2;
+        }
+        if (index < 0) {
+            return Optional.empty();
+        }
+        Cycle cycle = cycles[index];
+        return cycle.getHeightOfLastBlock() >= height ? Optional.of(cycle) : Optional.empty();
+    }
+}
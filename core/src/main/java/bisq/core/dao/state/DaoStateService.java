@@ -44,6 +44,7 @@ import org.bitcoinj.core.Coin;
 import javax.inject.Inject;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -56,6 +57,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
@@ -67,6 +69,11 @@ import static com.google.common.base.Preconditions.checkArgument;
  */
 @Slf4j
 public class DaoStateService implements DaoSetupService {
+    // Provides blocks which got removed from the DaoState by pruneBlocks
+    public interface PersistedBlocksProvider {
+        List<Block> getPersistedBlocks(int fromHeight, int toHeight);
+    }
+
     private final DaoState daoState;
     private final GenesisTxInfo genesisTxInfo;
     private final BsqFormatter bsqFormatter;
@@ -74,6 +81,20 @@ public class DaoStateService implements DaoSetupService {
     @Getter
     private boolean parseBlockChainComplete;
     private boolean allowDaoStateChange;
+    // Lookup indexes for cycles and params by height. They get rebuilt when cycles or params are added or a snapshot
+    // is applied. We also rebuild if the size of the indexed list changed, in case the list was changed directly.
+    private volatile CycleIndex cycleIndex = CycleIndex.EMPTY;
+    private volatile ParamChangeIndex paramChangeIndex = ParamChangeIndex.EMPTY;
+    // Bucketed commitment over the unspentTxOutputMap. It is built at the first access and then maintained with each
+    // added or removed output. Applying a snapshot invalidates it so we do not force the lazy map to be converted.
+    private final UtxoCommitment utxoCommitment = new UtxoCommitment();
+    // Keys of the unspent outputs per bucket, maintained together with the commitment, so we can look up the outputs
+    // of a bucket without hashing all keys of the map.
+    private final List<Set<TxOutputKey>> utxoKeysByBucket = new ArrayList<>(UtxoCommitment.NUM_BUCKETS);
+    private boolean utxoCommitmentValid;
+    @Setter
+    @Nullable
+    private PersistedBlocksProvider persistedBlocksProvider;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -143,6 +164,10 @@ public class DaoStateService implements DaoSetupService {
 
         daoState.getDecryptedBallotsWithMeritsList().clear();
         daoState.getDecryptedBallotsWithMeritsList().addAll(snapshot.getDecryptedBallotsWithMeritsList());
+
+        rebuildCycleIndex();
+        rebuildParamChangeIndex();
+        utxoCommitmentValid = false;
     }
 
     public DaoState getClone() {
@@ -178,6 +203,7 @@ public class DaoStateService implements DaoSetupService {
     public void addCycle(Cycle cycle) {
         assertDaoStateChange();
         getCycles().add(cycle);
+        rebuildCycleIndex();
     }
 
     @Nullable
@@ -186,10 +212,7 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public Optional<Cycle> getCycle(int height) {
-        return getCycles().stream()
-                .filter(cycle -> cycle.getHeightOfFirstBlock() <= height)
-                .filter(cycle -> cycle.getHeightOfLastBlock() >= height)
-                .findAny();
+        return getCycleIndex().getCycle(height);
     }
 
     public Optional<Integer> getStartHeightOfNextCycle(int blockHeight) {
@@ -200,6 +223,20 @@ public class DaoStateService implements DaoSetupService {
         return getCycle(blockHeight).map(cycle -> cycle.getHeightOfFirstBlock());
     }
 
+    private CycleIndex getCycleIndex() {
+        CycleIndex index = cycleIndex;
+        if (index.getNumCycles() != getCycles().size()) {
+            index = rebuildCycleIndex();
+        }
+        return index;
+    }
+
+    private CycleIndex rebuildCycleIndex() {
+        CycleIndex index = CycleIndex.of(getCycles());
+        cycleIndex = index;
+        return index;
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Block
@@ -306,11 +343,20 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public Optional<Block> getBlockAtHeight(int height) {
-        return Optional.ofNullable(daoState.getBlocksByHeight().get(height));
+        Block block = daoState.getBlocksByHeight().get(height);
+        if (block == null && hasPrunedBlocks() && height < getBlocks().get(0).getHeight()) {
+            return persistedBlocksProvider.getPersistedBlocks(height, height).stream().findAny();
+        }
+        return Optional.ofNullable(block);
     }
 
     public long getBlockTimeAtBlockHeight(int height) {
-        return getBlockAtHeight(height).map(Block::getTime).orElse(0L);
+        Block block = daoState.getBlocksByHeight().get(height);
+        if (block != null) {
+            return block.getTime();
+        }
+        // We keep the times of pruned blocks, so we don't need to read them from disk
+        return daoState.getTimeOfRemovedBlock(height);
     }
 
     public boolean containsBlock(Block block) {
@@ -318,7 +364,7 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public long getBlockTime(int height) {
-        return getBlockAtHeight(height).map(Block::getTime).orElse(0L);
+        return getBlockTimeAtBlockHeight(height);
     }
 
     public List<Block> getBlocksFromBlockHeight(int fromBlockHeight) {
@@ -328,10 +374,48 @@ public class DaoStateService implements DaoSetupService {
     public List<Block> getBlocksFromBlockHeight(int fromBlockHeight, int numMaxBlocks) {
         // We limit requests to numMaxBlocks blocks, to avoid performance issues and too
         // large network data in case a node requests too far back in history.
-        return getBlocks().stream()
+        List<Block> blocks = new ArrayList<>();
+        if (hasPrunedBlocks() && numMaxBlocks > 0) {
+            int firstResidentHeight = getBlocks().get(0).getHeight();
+            if (fromBlockHeight < firstResidentHeight) {
+                int toBlockHeight = (int) Math.min(firstResidentHeight - 1L, (long) fromBlockHeight + numMaxBlocks - 1);
+                blocks.addAll(persistedBlocksProvider.getPersistedBlocks(fromBlockHeight, toBlockHeight));
+            }
+        }
+        getBlocks().stream()
                 .filter(block -> block.getHeight() >= fromBlockHeight)
-                .limit(numMaxBlocks)
-                .collect(Collectors.toList());
+                .limit(numMaxBlocks - blocks.size())
+                .forEach(blocks::add);
+        return blocks;
+    }
+
+    // Includes the blocks removed by pruneBlocks
+    public int getNumBlocks() {
+        return daoState.getNumBlocks();
+    }
+
+    /**
+     * Removes old blocks from the block list to reduce memory usage. Removed blocks are served by the
+     * persistedBlocksProvider, so we only remove blocks if one is set. The txs of removed blocks are kept.
+     *
+     * @param maxPersistedHeight    Blocks up to that height are persisted and can be removed
+     * @param numResidentBlocks     Number of most recent blocks which we keep in any case
+     */
+    public void pruneBlocks(int maxPersistedHeight, int numResidentBlocks) {
+        if (persistedBlocksProvider == null) {
+            return;
+        }
+
+        int height = Math.min(maxPersistedHeight, getBlockHeightOfLastBlock() - numResidentBlocks);
+        int numRemovedBlocks = daoState.removeBlocksUpTo(height);
+        if (numRemovedBlocks > 0) {
+            log.info("Removed {} blocks up to height {}. {} blocks are resident.",
+                    numRemovedBlocks, height, getBlocks().size());
+        }
+    }
+
+    private boolean hasPrunedBlocks() {
+        return persistedBlocksProvider != null && daoState.getNumBlocks() > getBlocks().size();
     }
 
 
@@ -465,12 +549,62 @@ public class DaoStateService implements DaoSetupService {
 
     public void addUnspentTxOutput(TxOutput txOutput) {
         assertDaoStateChange();
-        getUnspentTxOutputMap().put(txOutput.getKey(), txOutput);
+        TxOutput previous = getUnspentTxOutputMap().put(txOutput.getKey(), txOutput);
+        if (utxoCommitmentValid) {
+            if (previous != null) {
+                removeFromUtxoCommitment(previous);
+            }
+            addToUtxoCommitment(txOutput);
+        }
     }
 
     public void removeUnspentTxOutput(TxOutput txOutput) {
         assertDaoStateChange();
-        getUnspentTxOutputMap().remove(txOutput.getKey());
+        TxOutput removed = getUnspentTxOutputMap().remove(txOutput.getKey());
+        if (utxoCommitmentValid && removed != null) {
+            removeFromUtxoCommitment(removed);
+        }
+    }
+
+    public UtxoCommitment getUtxoCommitment() {
+        if (!utxoCommitmentValid) {
+            long ts = System.currentTimeMillis();
+            utxoCommitment.reset(List.of());
+            utxoKeysByBucket.clear();
+            for (int i = 0; i < UtxoCommitment.NUM_BUCKETS; i++) {
+                utxoKeysByBucket.add(new HashSet<>());
+            }
+            getUnspentTxOutputMap().values().forEach(this::addToUtxoCommitment);
+            utxoCommitmentValid = true;
+            log.info("Building the UTXO commitment took {} ms", System.currentTimeMillis() - ts);
+        }
+        return utxoCommitment;
+    }
+
+    public List<TxOutput> getUnspentTxOutputsOfBuckets(Collection<Integer> bucketIndices) {
+        getUtxoCommitment();
+        TreeMap<TxOutputKey, TxOutput> unspentTxOutputMap = getUnspentTxOutputMap();
+        return bucketIndices.stream()
+                .distinct()
+                .flatMap(bucketIndex -> utxoKeysByBucket.get(bucketIndex).stream())
+                .map(unspentTxOutputMap::get)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns a detached copy of our UTXO commitment where the given buckets contain the outputs of a peer instead of
+     * ours. This is only meant for diagnosing a DAO state conflict: it tells if adopting the outputs of the peer would
+     * resolve it. The outputs of the peer are not validated, so our own state is never changed.
+     */
+    public UtxoCommitment getRepairedUtxoCommitment(Collection<Integer> bucketIndices,
+                                                    Collection<TxOutput> peersTxOutputs) {
+        UtxoCommitment repaired = new UtxoCommitment(getUtxoCommitment());
+        Set<Integer> buckets = new HashSet<>(bucketIndices);
+        buckets.forEach(repaired::clearBucket);
+        peersTxOutputs.stream()
+                .filter(txOutput -> buckets.contains(UtxoCommitment.getBucketIndex(txOutput.getKey())))
+                .forEach(repaired::add);
+        return repaired;
     }
 
     public boolean isUnspent(TxOutputKey key) {
@@ -924,24 +1058,13 @@ public class DaoStateService implements DaoSetupService {
                     paramChangeList.add(paramChange);
                     // Addition with older height should not be possible but to ensure correct sorting lets run a sort.
                     paramChangeList.sort(Comparator.comparingInt(ParamChange::getActivationHeight));
+                    rebuildParamChangeIndex();
                 });
     }
 
+    // If no param change is found we get the default value
     public String getParamValue(Param param, int blockHeight) {
-        List<ParamChange> paramChangeList = new ArrayList<>(daoState.getParamChangeList());
-        if (!paramChangeList.isEmpty()) {
-            // List is sorted by height, we start from latest entries to find most recent entry.
-            for (int i = paramChangeList.size() - 1; i >= 0; i--) {
-                ParamChange paramChange = paramChangeList.get(i);
-                if (paramChange.getParamName().equals(param.name()) &&
-                        blockHeight >= paramChange.getActivationHeight()) {
-                    return paramChange.getValue();
-                }
-            }
-        }
-
-        // If no value found we use default values
-        return param.getDefaultValue();
+        return getParamChangeIndex().get(param, blockHeight).getValue();
     }
 
     public List<Coin> getParamChangeList(Param param) {
@@ -967,15 +1090,29 @@ public class DaoStateService implements DaoSetupService {
     }
 
     public Coin getParamValueAsCoin(Param param, int blockHeight) {
-        return getParamValueAsCoin(param, getParamValue(param, blockHeight));
+        return getParamChangeIndex().get(param, blockHeight).getValueAsCoin(value -> getParamValueAsCoin(param, value));
     }
 
     public double getParamValueAsPercentDouble(Param param, int blockHeight) {
-        return getParamValueAsPercentDouble(getParamValue(param, blockHeight));
+        return getParamChangeIndex().get(param, blockHeight).getValueAsPercentDouble(this::getParamValueAsPercentDouble);
     }
 
     public int getParamValueAsBlock(Param param, int blockHeight) {
-        return getParamValueAsBlock(getParamValue(param, blockHeight));
+        return getParamChangeIndex().get(param, blockHeight).getValueAsBlock(this::getParamValueAsBlock);
+    }
+
+    private ParamChangeIndex getParamChangeIndex() {
+        ParamChangeIndex index = paramChangeIndex;
+        if (index.getNumParamChanges() != daoState.getParamChangeList().size()) {
+            index = rebuildParamChangeIndex();
+        }
+        return index;
+    }
+
+    private ParamChangeIndex rebuildParamChangeIndex() {
+        ParamChangeIndex index = ParamChangeIndex.of(daoState.getParamChangeList());
+        paramChangeIndex = index;
+        return index;
     }
 
 
@@ -1075,5 +1212,17 @@ public class DaoStateService implements DaoSetupService {
         if (!allowDaoStateChange)
             throw new RuntimeException("We got a call which would change the daoState outside of the allowed event phase");
     }
+
+    private void addToUtxoCommitment(TxOutput txOutput) {
+        int bucketIndex = UtxoCommitment.getBucketIndex(txOutput.getKey());
+        utxoCommitment.add(txOutput, bucketIndex);
+        utxoKeysByBucket.get(bucketIndex).add(txOutput.getKey());
+    }
+
+    private void removeFromUtxoCommitment(TxOutput txOutput) {
+        int bucketIndex = UtxoCommitment.getBucketIndex(txOutput.getKey());
+        utxoCommitment.remove(txOutput, bucketIndex);
+        utxoKeysByBucket.get(bucketIndex).remove(txOutput.getKey());
+    }
 }
 
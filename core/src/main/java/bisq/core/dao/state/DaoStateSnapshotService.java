@@ -20,7 +20,7 @@ package bisq.core.dao.state;
 import bisq.core.dao.DaoSetupService;
 import bisq.core.dao.governance.param.Param;
 import bisq.core.dao.monitoring.DaoStateMonitoringService;
-import bisq.core.dao.monitoring.model.DaoStateHash;
+import bisq.core.dao.monitoring.model.DaoStateHashChain;
 import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
 import bisq.core.dao.state.storage.DaoStateStorageService;
@@ -38,7 +38,6 @@ import com.google.common.annotations.VisibleForTesting;
 import java.io.File;
 import java.io.IOException;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import lombok.Setter;
@@ -68,7 +67,7 @@ public class DaoStateSnapshotService implements DaoSetupService, DaoStateListene
     private final File storageDir;
 
     private protobuf.DaoState daoStateCandidate;
-    private LinkedList<DaoStateHash> hashChainCandidate = new LinkedList<>();
+    private DaoStateHashChain hashChainCandidate = new DaoStateHashChain();
     private List<Block> blocksCandidate;
     private int snapshotHeight;
     private int chainHeightOfLastApplySnapshot;
@@ -112,6 +111,10 @@ public class DaoStateSnapshotService implements DaoSetupService, DaoStateListene
 
     @Override
     public void start() {
+        // Blocks are only removed from memory if they are not needed for dumping the blockchain data
+        if (config.daoNumResidentBlocks > 0 && !config.dumpBlockchainData) {
+            daoStateService.setPersistedBlocksProvider(daoStateStorageService::getPersistedBlocks);
+        }
     }
 
 
@@ -173,11 +176,12 @@ public class DaoStateSnapshotService implements DaoSetupService, DaoStateListene
 
                 protobuf.DaoState daoStateForSnapshot = getDaoStateForSnapshot();
                 List<Block> blocksForSnapshot = getBlocksForSnapshot();
-                LinkedList<DaoStateHash> hashChainForSnapshot = getHashChainForSnapshot();
+                DaoStateHashChain hashChainForSnapshot = getHashChainForSnapshot();
                 daoStateStorageService.requestPersistence(daoStateForSnapshot,
                         blocksForSnapshot,
                         hashChainForSnapshot,
                         () -> {
+                            pruneBlocks();
                             GcUtil.maybeReleaseMemory();
                             log.info("Persisted daoState after parsing completed at height {}. Took {} ms",
                                     chainHeight, System.currentTimeMillis() - ts);
@@ -241,6 +245,7 @@ public class DaoStateSnapshotService implements DaoSetupService, DaoStateListene
                             snapshotHeight, System.currentTimeMillis() - ts);
 
                     createSnapshot();
+                    pruneBlocks();
                     readyForPersisting = true;
                 });
     }
@@ -263,7 +268,7 @@ public class DaoStateSnapshotService implements DaoSetupService, DaoStateListene
 
     public void applySnapshot(boolean fromReorg) {
         DaoState persistedBsqState = daoStateStorageService.getPersistedBsqState();
-        LinkedList<DaoStateHash> persistedDaoStateHashChain = daoStateStorageService.getPersistedDaoStateHashChain();
+        DaoStateHashChain persistedDaoStateHashChain = daoStateStorageService.getPersistedDaoStateHashChain();
         if (persistedBsqState != null) {
             int chainHeightOfPersisted = persistedBsqState.getChainHeight();
             if (!persistedBsqState.getBlocks().isEmpty()) {
@@ -276,6 +281,7 @@ public class DaoStateSnapshotService implements DaoSetupService, DaoStateListene
                         daoStateService.applySnapshot(persistedBsqState);
                         daoStateMonitoringService.applySnapshot(persistedDaoStateHashChain);
                         daoStateStorageService.releaseMemory();
+                        pruneBlocks();
                     } else {
                         // The reorg might have been caused by the previous parsing which might contains a range of
                         // blocks.
@@ -345,7 +351,13 @@ public class DaoStateSnapshotService implements DaoSetupService, DaoStateListene
         return daoStateService.getBlocksFromBlockHeight(fromBlockHeight);
     }
 
-    private LinkedList<DaoStateHash> getHashChainForSnapshot() {
-        return new LinkedList<>(daoStateMonitoringService.getDaoStateHashChain());
+    // Blocks which are persisted are removed from memory except the most recent ones
+    private void pruneBlocks() {
+        daoStateService.pruneBlocks(daoStateStorageService.getChainHeightOfPersistedBlocks(), config.daoNumResidentBlocks);
+    }
+
+    // Read only view on the current hashes, later appends are not visible in it
+    private DaoStateHashChain getHashChainForSnapshot() {
+        return daoStateMonitoringService.getDaoStateHashChain().getSnapshot();
     }
 }
@@ -0,0 +1,126 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.governance.param.Param;
+import bisq.core.dao.state.model.governance.ParamChange;
+
+import org.bitcoinj.core.Coin;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+
+/**
+ * Immutable index of the param changes by param and activation height. Each param also has an entry with its
+ * default value at Integer.MIN_VALUE, so a lookup always finds a value. The entries cache their parsed values as
+ * the same values are requested for each block and tx during parsing.
+ */
+final class ParamChangeIndex {
+    static final ParamChangeIndex EMPTY = new ParamChangeIndex(List.of());
+
+    static ParamChangeIndex of(List<ParamChange> paramChangeList) {
+        return new ParamChangeIndex(paramChangeList);
+    }
+
+    static final class Entry {
+        @Getter
+        private final String value;
+        // Parsed values are created lazily. Concurrent callers might parse twice but get equal immutable results.
+        @Nullable
+        private Coin valueAsCoin;
+        @Nullable
+        private Integer valueAsBlock;
+        @Nullable
+        private Double valueAsPercentDouble;
+
+        private Entry(String value) {
+            this.value = value;
+        }
+
+        Coin getValueAsCoin(Function<String, Coin> parser) {
+            Coin result = valueAsCoin;
+            if (result == null) {
+                result = parser.apply(value);
+                valueAsCoin = result;
+            }
+            return result;
+        }
+
+        int getValueAsBlock(ToIntFunction<String> parser) {
+            Integer result = valueAsBlock;
+            if (result == null) {
+                result = parser.applyAsInt(value);
+                valueAsBlock = result;
+            }
+            return result;
+        }
+
+        double getValueAsPercentDouble(ToDoubleFunction<String> parser) {
+            Double result = valueAsPercentDouble;
+            if (result == null) {
+                result = parser.applyAsDouble(value);
+                valueAsPercentDouble = result;
+            }
+            return result;
+        }
+    }
+
+    @Getter
+    private final int numParamChanges;
+    private final Map<Param, NavigableMap<Integer, Entry>> entriesByParam = new EnumMap<>(Param.class);
+
+    private ParamChangeIndex(List<ParamChange> paramChangeList) {
+        numParamChanges = paramChangeList.size();
+        for (Param param : Param.values()) {
+            NavigableMap<Integer, Entry> entriesByHeight = new TreeMap<>();
+            entriesByHeight.put(Integer.MIN_VALUE, new Entry(param.getDefaultValue()));
+            entriesByParam.put(param, entriesByHeight);
+        }
+        // The list is sorted by height. At the same height the later change wins, as it did at the list lookup.
+        for (ParamChange paramChange : paramChangeList) {
+            Param param = toParam(paramChange.getParamName());
+            if (param != null) {
+                entriesByParam.get(param).put(paramChange.getActivationHeight(), new Entry(paramChange.getValue()));
+            }
+        }
+    }
+
+    Entry get(Param param, int blockHeight) {
+        return entriesByParam.get(param).floorEntry(blockHeight).getValue();
+    }
+
+    @Nullable
+    private static Param toParam(String paramName) {
+        try {
+            return Param.valueOf(paramName);
+        } catch (IllegalArgumentException e) {
+            // Unknown params can't be requested
+            return null;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.dao.state.model.blockchain.TxOutputKey;
+
+import bisq.common.crypto.Hash;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Commitment over the unspent tx outputs, split into NUM_BUCKETS buckets by the hash of the TxOutputKey. The digest of
+ * a bucket is the sum modulo 2^256 of the SHA-256 hashes of the serialized outputs in it, so adding or removing an
+ * output costs one hash and does not depend on the other outputs. Two nodes compare their digests to find the buckets
+ * with differing outputs and then only need to exchange the outputs of those buckets.
+ *
+ * Not thread safe, it is only used from the user thread like the DaoStateService.
+ */
+public final class UtxoCommitment {
+    public static final int NUM_BUCKETS = 256;
+    public static final int DIGEST_LENGTH = 32;
+    private static final int NUM_WORDS = DIGEST_LENGTH / Long.BYTES;
+
+    public static int getBucketIndex(TxOutputKey key) {
+        return Hash.getSha256Hash(key.toString())[0] & 0xff;
+    }
+
+    public static List<Integer> getDifferingBuckets(byte[] packedDigests, byte[] otherPackedDigests) {
+        checkArgument(packedDigests.length == NUM_BUCKETS * DIGEST_LENGTH &&
+                        otherPackedDigests.length == NUM_BUCKETS * DIGEST_LENGTH,
+                "Packed digests must have a length of %s", NUM_BUCKETS * DIGEST_LENGTH);
+        List<Integer> result = new ArrayList<>();
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            int from = i * DIGEST_LENGTH;
+            int to = from + DIGEST_LENGTH;
+            if (!Arrays.equals(packedDigests, from, to, otherPackedDigests, from, to)) {
+                result.add(i);
+            }
+        }
+        return result;
+    }
+
+    static byte[] getOutputHash(TxOutput txOutput) {
+        return Hash.getSha256Hash(txOutput.toProtoMessage().toByteArray());
+    }
+
+    // The sum of a bucket is stored as NUM_WORDS big endian words, the first word is the most significant one.
+    private final long[] sums = new long[NUM_BUCKETS * NUM_WORDS];
+    private final int[] numOutputs = new int[NUM_BUCKETS];
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public UtxoCommitment() {
+    }
+
+    // Detached copy, changes to it do not affect the original
+    public UtxoCommitment(UtxoCommitment other) {
+        System.arraycopy(other.sums, 0, sums, 0, sums.length);
+        System.arraycopy(other.numOutputs, 0, numOutputs, 0, numOutputs.length);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void add(TxOutput txOutput) {
+        add(txOutput, getBucketIndex(txOutput.getKey()));
+    }
+
+    public void remove(TxOutput txOutput) {
+        remove(txOutput, getBucketIndex(txOutput.getKey()));
+    }
+
+    public void clearBucket(int bucketIndex) {
+        Arrays.fill(sums, bucketIndex * NUM_WORDS, (bucketIndex + 1) * NUM_WORDS, 0);
+        numOutputs[bucketIndex] = 0;
+    }
+
+    public void reset(Collection<TxOutput> txOutputs) {
+        Arrays.fill(sums, 0);
+        Arrays.fill(numOutputs, 0);
+        txOutputs.forEach(this::add);
+    }
+
+    // Package private so the DaoStateService can reuse the bucket index it needs for its key index
+    void add(TxOutput txOutput, int bucketIndex) {
+        long[] words = toWords(getOutputHash(txOutput));
+        int offset = bucketIndex * NUM_WORDS;
+        long carry = 0;
+        for (int i = NUM_WORDS - 1; i >= 0; i--) {
+            long sum = sums[offset + i];
+            long addend = words[i] + carry;
+            long carryFromAddend = carry == 1 && addend == 0 ? 1 : 0;
+            long result = sum + addend;
+            carry = carryFromAddend | (Long.compareUnsigned(result, sum) < 0 ? 1 : 0);
+            sums[offset + i] = result;
+        }
+        numOutputs[bucketIndex]++;
+    }
+
+    void remove(TxOutput txOutput, int bucketIndex) {
+        long[] words = toWords(getOutputHash(txOutput));
+        int offset = bucketIndex * NUM_WORDS;
+        long borrow = 0;
+        for (int i = NUM_WORDS - 1; i >= 0; i--) {
+            long sum = sums[offset + i];
+            long subtrahend = words[i] + borrow;
+            long borrowFromSubtrahend = borrow == 1 && subtrahend == 0 ? 1 : 0;
+            borrow = borrowFromSubtrahend | (Long.compareUnsigned(sum, subtrahend) < 0 ? 1 : 0);
+            sums[offset + i] = sum - subtrahend;
+        }
+        numOutputs[bucketIndex]--;
+    }
+
+    public byte[] getDigest(int bucketIndex) {
+        byte[] digest = new byte[DIGEST_LENGTH];
+        writeDigest(bucketIndex, digest, 0);
+        return digest;
+    }
+
+    public byte[] getPackedDigests() {
+        byte[] packed = new byte[NUM_BUCKETS * DIGEST_LENGTH];
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            writeDigest(i, packed, i * DIGEST_LENGTH);
+        }
+        return packed;
+    }
+
+    public int getNumOutputs(int bucketIndex) {
+        return numOutputs[bucketIndex];
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void writeDigest(int bucketIndex, byte[] target, int targetOffset) {
+        int offset = bucketIndex * NUM_WORDS;
+        for (int i = 0; i < NUM_WORDS; i++) {
+            long word = sums[offset + i];
+            for (int j = 0; j < Long.BYTES; j++) {
+                target[targetOffset + i * Long.BYTES + j] = (byte) (word >>> (56 - 8 * j));
+            }
+        }
+    }
+
+    private static long[] toWords(byte[] hash) {
+        long[] words = new long[NUM_WORDS];
+        for (int i = 0; i < NUM_WORDS; i++) {
+            long word = 0;
+            for (int j = 0; j < Long.BYTES; j++) {
+                word = (word << 8) | (hash[i * Long.BYTES + j] & 0xff);
+            }
+            words[i] = word;
+        }
+        return words;
+    }
+}
@@ -37,6 +37,7 @@ import com.google.protobuf.Message;
 import javax.inject.Inject;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -120,6 +121,17 @@ public class DaoState implements PersistablePayload {
     private transient final Map<Integer, Block> blocksByHeight; // Blocks indexed by height
     @JsonExclude
     private transient final Map<TxOutputType, Set<TxOutput>> txOutputsByTxOutputType = new HashMap<>();
+    // Number of blocks removed from the head of the block list by removeBlocksUpTo. Those blocks are only
+    // available from the persisted block buckets.
+    @JsonExclude
+    private transient int numRemovedBlocks;
+    // Times of the blocks removed by removeBlocksUpTo, indexed by height - heightOfFirstRemovedBlock. Views look up
+    // the time of old blocks, e.g. the first block of each cycle, which we would have to read from disk otherwise.
+    // With about 8 bytes per block that is about 3 MB for the whole BSQ chain.
+    @JsonExclude
+    private transient long[] timesOfRemovedBlocks = new long[0];
+    @JsonExclude
+    private transient int heightOfFirstRemovedBlock;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -307,6 +319,7 @@ public class DaoState implements PersistablePayload {
      * @see #addBlock(Block) to add a single block
      * @see #addBlocks(List) to add a list of blocks
      * @see #clearAndSetBlocks(List)  to replace existing blocks with a new list
+     * @see #removeBlocksUpTo(int) to remove old blocks which are available from the persisted blocks
      */
     public List<Block> getBlocks() {
         return Collections.unmodifiableList(blocks);
@@ -334,10 +347,60 @@ public class DaoState implements PersistablePayload {
     public void clearAndSetBlocks(List<Block> newBlocks) {
         blocks.clear();
         blocksByHeight.clear();
+        numRemovedBlocks = 0;
+        timesOfRemovedBlocks = new long[0];
 
         addBlocks(newBlocks);
     }
 
+    /**
+     * Removes all blocks up to and including the given height from the block list and the height index.
+     * The txs of those blocks stay in the txCache as they are still needed for parsing new blocks.
+     * The last block is never removed.
+     * @param height    Height of the last block to remove
+     * @return Number of removed blocks
+     */
+    public int removeBlocksUpTo(int height) {
+        if (blocks.size() <= 1 || blocks.getFirst().getHeight() > height) {
+            return 0;
+        }
+
+        if (numRemovedBlocks == 0) {
+            heightOfFirstRemovedBlock = blocks.getFirst().getHeight();
+        }
+        int heightOfLastRemovedBlock = Math.min(height, blocks.get(blocks.size() - 2).getHeight());
+        timesOfRemovedBlocks = Arrays.copyOf(timesOfRemovedBlocks,
+                Math.max(timesOfRemovedBlocks.length, heightOfLastRemovedBlock - heightOfFirstRemovedBlock + 1));
+
+        int numRemoved = 0;
+        while (blocks.size() > 1 && blocks.getFirst().getHeight() <= height) {
+            Block block = blocks.removeFirst();
+            blocksByHeight.remove(block.getHeight());
+            timesOfRemovedBlocks[block.getHeight() - heightOfFirstRemovedBlock] = block.getTime();
+            numRemoved++;
+        }
+        numRemovedBlocks += numRemoved;
+        return numRemoved;
+    }
+
+    /**
+     * @param height    Height of a block removed by removeBlocksUpTo
+     * @return Time of the block or 0 if no block at that height was removed
+     */
+    public long getTimeOfRemovedBlock(int height) {
+        int index = height - heightOfFirstRemovedBlock;
+        return numRemovedBlocks > 0 && index >= 0 && index < timesOfRemovedBlocks.length ?
+                timesOfRemovedBlocks[index] :
+                0;
+    }
+
+    /**
+     * @return Number of blocks in the chain including those removed by removeBlocksUpTo
+     */
+    public int getNumBlocks() {
+        return numRemovedBlocks + blocks.size();
+    }
+
     @Override
     public String toString() {
         return "DaoState{" +
@@ -92,25 +92,12 @@ public class BlocksPersistence {
         }
     }
 
-    public List<BaseBlock> readBlocks(int from, int to) {
-        if (!storageDir.exists()) {
-            storageDir.mkdir();
-        }
-
-        long ts = System.currentTimeMillis();
-        List<BaseBlock> buckets = new ArrayList<>();
-        int start = from / BUCKET_SIZE + 1;
-        int end = to / BUCKET_SIZE + 1;
-        for (int bucketIndex = start; bucketIndex <= end; bucketIndex++) {
-            List<BaseBlock> bucket = readBucket(bucketIndex);
-            buckets.addAll(bucket);
-        }
-        log.info("Reading {} blocks took {} msec", buckets.size(), System.currentTimeMillis() - ts);
-        return buckets;
+    // Bucket n holds the blocks with the heights (n - 1) * BUCKET_SIZE + 1 to n * BUCKET_SIZE
+    public static int getBucketIndex(int height) {
+        return (height - 1) / BUCKET_SIZE + 1;
     }
 
-
-    private List<BaseBlock> readBucket(int bucketIndex) {
+    public List<BaseBlock> readBucket(int bucketIndex) {
         int first = bucketIndex * BUCKET_SIZE - BUCKET_SIZE + 1;
         int last = bucketIndex * BUCKET_SIZE;
         String child = fileName + "_" + first + "-" + last;
@@ -21,7 +21,10 @@ import bisq.core.dao.state.GenesisTxInfo;
 import bisq.core.dao.state.model.blockchain.Block;
 
 import bisq.common.config.Config;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.proto.persistable.PersistenceProtoResolver;
+import bisq.common.util.Utilities;
 
 import protobuf.BaseBlock;
 
@@ -35,8 +38,15 @@ import java.net.URL;
 
 import java.io.File;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
@@ -47,11 +57,27 @@ import lombok.extern.slf4j.Slf4j;
 public class BsqBlocksStorageService {
     public final static String NAME = "BsqBlocks";
 
+    // Decoded buckets of BlocksPersistence.BUCKET_SIZE blocks we keep for serving blocks which are not resident in
+    // the DaoState anymore. Requests of lite nodes are usually for recent blocks, so a few buckets are enough.
+    private static final int MAX_DECODED_BUCKETS = 8;
+    private static final int NUM_DECODE_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final ExecutorService DECODE_EXECUTOR = Utilities.getThreadPoolExecutor("BsqBlocksStorageService-decode-%d",
+            NUM_DECODE_THREADS, NUM_DECODE_THREADS, 10, new LinkedBlockingQueue<>());
+    private static final Counter DECODED_BUCKETS = MetricsRegistry.counter(
+            "bisq_dao_block_buckets_decoded_total", "Block buckets read from disk and deserialized");
+
     private final int genesisBlockHeight;
     private final File storageDir;
     private final BlocksPersistence blocksPersistence;
     @Getter
-    private int chainHeightOfPersistedBlocks;
+    private volatile int chainHeightOfPersistedBlocks;
+    // Access ordered, so the least recently used bucket gets removed first
+    private final Map<Integer, List<Block>> decodedBuckets = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Block>> eldest) {
+            return size() > MAX_DECODED_BUCKETS;
+        }
+    };
 
     @Inject
     public BsqBlocksStorageService(GenesisTxInfo genesisTxInfo,
@@ -68,6 +94,7 @@ public class BsqBlocksStorageService {
                 .map(Block::toProtoMessage)
                 .collect(Collectors.toList());
         blocksPersistence.writeBlocks(protobufBlocks);
+        clearDecodedBuckets();
 
         if (!blocks.isEmpty()) {
             chainHeightOfPersistedBlocks = Math.max(chainHeightOfPersistedBlocks,
@@ -78,22 +105,56 @@ public class BsqBlocksStorageService {
                 System.currentTimeMillis() - ts);
     }
 
+    // Used at startup for reading all blocks. The buckets are decoded in parallel and added in the order of the buckets.
     public LinkedList<Block> readBlocks(int chainHeight) {
         long ts = System.currentTimeMillis();
+        if (!storageDir.exists()) {
+            storageDir.mkdir();
+        }
+
+        List<CompletableFuture<List<Block>>> futures = new ArrayList<>();
+        int lastBucketIndex = BlocksPersistence.getBucketIndex(chainHeight);
+        for (int bucketIndex = BlocksPersistence.getBucketIndex(genesisBlockHeight); bucketIndex <= lastBucketIndex; bucketIndex++) {
+            int index = bucketIndex;
+            futures.add(CompletableFuture.supplyAsync(() -> decodeBucket(index), DECODE_EXECUTOR));
+        }
         LinkedList<Block> blocks = new LinkedList<>();
-        List<BaseBlock> list = blocksPersistence.readBlocks(genesisBlockHeight, chainHeight);
-        list.stream().map(Block::fromProto)
-                .forEach(blocks::add);
-        log.info("Reading and deserializing {} blocks took {} ms", blocks.size(), System.currentTimeMillis() - ts);
+        futures.forEach(future -> blocks.addAll(future.join()));
+        log.info("Reading and deserializing {} blocks from {} buckets took {} ms",
+                blocks.size(), futures.size(), System.currentTimeMillis() - ts);
         if (!blocks.isEmpty()) {
             chainHeightOfPersistedBlocks = getHeightOfLastFullBucket(blocks);
         }
         return blocks;
     }
 
+    /**
+     * Reads blocks from the persisted buckets. Used for blocks which are not resident in the DaoState anymore.
+     * The recently used buckets are kept decoded in memory.
+     * @param fromHeight    Height of the first block
+     * @param toHeight      Height of the last block
+     * @return Blocks in the given range which are persisted
+     */
+    public List<Block> getPersistedBlocks(int fromHeight, int toHeight) {
+        List<Block> blocks = new ArrayList<>();
+        int from = Math.max(fromHeight, genesisBlockHeight);
+        if (from > toHeight) {
+            return blocks;
+        }
+
+        int lastBucketIndex = BlocksPersistence.getBucketIndex(toHeight);
+        for (int bucketIndex = BlocksPersistence.getBucketIndex(from); bucketIndex <= lastBucketIndex; bucketIndex++) {
+            getDecodedBucket(bucketIndex).stream()
+                    .filter(block -> block.getHeight() >= from && block.getHeight() <= toHeight)
+                    .forEach(blocks::add);
+        }
+        return blocks;
+    }
+
     public LinkedList<Block> migrateBlocks(List<protobuf.BaseBlock> protobufBlocks) {
         long ts = System.currentTimeMillis();
         blocksPersistence.writeBlocks(protobufBlocks);
+        clearDecodedBuckets();
         LinkedList<Block> blocks = new LinkedList<>();
         protobufBlocks.forEach(protobufBlock -> blocks.add(Block.fromProto(protobufBlock)));
         if (!blocks.isEmpty()) {
@@ -147,14 +208,36 @@ public class BsqBlocksStorageService {
         return bucketIndex * BlocksPersistence.BUCKET_SIZE;
     }
 
+    private List<Block> getDecodedBucket(int bucketIndex) {
+        synchronized (decodedBuckets) {
+            return decodedBuckets.computeIfAbsent(bucketIndex, this::decodeBucket);
+        }
+    }
+
+    private List<Block> decodeBucket(int bucketIndex) {
+        List<Block> blocks = blocksPersistence.readBucket(bucketIndex).stream()
+                .map(Block::fromProto)
+                .collect(Collectors.toList());
+        DECODED_BUCKETS.inc();
+        return Collections.unmodifiableList(blocks);
+    }
+
+    private void clearDecodedBuckets() {
+        synchronized (decodedBuckets) {
+            decodedBuckets.clear();
+        }
+    }
+
     public void removeBlocksDirectory() {
         blocksPersistence.removeBlocksDirectory();
+        clearDecodedBuckets();
     }
 
     // We recreate the directory so that we don't fill the blocks after restart from resources
     // In copyFromResources we only check for the directory not the files inside.
     public void removeBlocksInDirectory() {
         blocksPersistence.removeBlocksDirectory();
+        clearDecodedBuckets();
         if (!storageDir.exists()) {
             storageDir.mkdir();
         }
@@ -17,7 +17,7 @@
 
 package bisq.core.dao.state.storage;
 
-import bisq.core.dao.monitoring.model.DaoStateHash;
+import bisq.core.dao.monitoring.model.DaoStateHashChain;
 import bisq.core.dao.state.model.DaoState;
 import bisq.core.dao.state.model.blockchain.Block;
 
@@ -85,9 +85,13 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
         return bsqBlocksStorageService.getChainHeightOfPersistedBlocks();
     }
 
+    public List<Block> getPersistedBlocks(int fromHeight, int toHeight) {
+        return bsqBlocksStorageService.getPersistedBlocks(fromHeight, toHeight);
+    }
+
     public void requestPersistence(protobuf.DaoState daoStateAsProto,
                                    List<Block> blocks,
-                                   LinkedList<DaoStateHash> daoStateHashChain,
+                                   DaoStateHashChain daoStateHashChain,
                                    Runnable completeHandler) {
         if (daoStateAsProto == null) {
             completeHandler.run();
@@ -158,7 +162,7 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
         return new DaoState();
     }
 
-    public LinkedList<DaoStateHash> getPersistedDaoStateHashChain() {
+    public DaoStateHashChain getPersistedDaoStateHashChain() {
         return store.getDaoStateHashChain();
     }
 
@@ -177,7 +181,7 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
         }
 
         store.setDaoStateAsProto(DaoState.getBsqStateCloneExcludingBlocks(new DaoState()));
-        store.setDaoStateHashChain(new LinkedList<>());
+        store.setDaoStateHashChain(new DaoStateHashChain());
         persistenceManager.persistNow(resultHandler);
         bsqBlocksStorageService.removeBlocksInDirectory();
     }
@@ -218,7 +222,7 @@ public class DaoStateStorageService extends StoreService<DaoStateStore> {
 
     @Override
     protected DaoStateStore createStore() {
-        return new DaoStateStore(null, new LinkedList<>());
+        return new DaoStateStore(null, new DaoStateHashChain());
     }
 
     @Override
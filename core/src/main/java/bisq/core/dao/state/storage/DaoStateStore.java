@@ -17,15 +17,12 @@
 
 package bisq.core.dao.state.storage;
 
-import bisq.core.dao.monitoring.model.DaoStateHash;
+import bisq.core.dao.monitoring.model.DaoStateHashChain;
 
 import bisq.common.proto.persistable.PersistableEnvelope;
 
 import com.google.protobuf.Message;
 
-import java.util.LinkedList;
-import java.util.stream.Collectors;
-
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -44,9 +41,9 @@ public class DaoStateStore implements PersistableEnvelope {
 
     @Getter
     @Setter
-    private LinkedList<DaoStateHash> daoStateHashChain;
+    private DaoStateHashChain daoStateHashChain;
 
-    DaoStateStore(@Nullable protobuf.DaoState daoStateAsProto, LinkedList<DaoStateHash> daoStateHashChain) {
+    DaoStateStore(@Nullable protobuf.DaoState daoStateAsProto, DaoStateHashChain daoStateHashChain) {
         this.daoStateAsProto = daoStateAsProto;
         this.daoStateHashChain = daoStateHashChain;
     }
@@ -60,21 +57,22 @@ public class DaoStateStore implements PersistableEnvelope {
         checkNotNull(daoStateAsProto, "daoStateAsProto must not be null when toProtoMessage is invoked");
         protobuf.DaoStateStore.Builder builder = protobuf.DaoStateStore.newBuilder()
                 .setDaoState(daoStateAsProto)
-                .addAllDaoStateHash(daoStateHashChain.stream()
-                        .map(DaoStateHash::toProtoMessage)
-                        .collect(Collectors.toList()));
+                .setHashChainFirstHeight(daoStateHashChain.getFirstHeight())
+                .setHashChainHashes(daoStateHashChain.getPackedHashes())
+                .setHashChainSelfCreated(daoStateHashChain.getPackedSelfCreatedFlags());
         return protobuf.PersistableEnvelope.newBuilder()
                 .setDaoStateStore(builder)
                 .build();
     }
 
     public static DaoStateStore fromProto(protobuf.DaoStateStore proto) {
-        LinkedList<DaoStateHash> daoStateHashList = proto.getDaoStateHashList().isEmpty() ?
-                new LinkedList<>() :
-                new LinkedList<>(proto.getDaoStateHashList().stream()
-                        .map(DaoStateHash::fromProto)
-                        .collect(Collectors.toList()));
-        return new DaoStateStore(proto.getDaoState(), daoStateHashList);
+        // Stores written by older versions and the resource files have the hashes as list
+        DaoStateHashChain daoStateHashChain = proto.getDaoStateHashList().isEmpty() ?
+                DaoStateHashChain.fromPacked(proto.getHashChainFirstHeight(),
+                        proto.getHashChainHashes(),
+                        proto.getHashChainSelfCreated()) :
+                DaoStateHashChain.fromProto(proto.getDaoStateHashList());
+        return new DaoStateStore(proto.getDaoState(), daoStateHashChain);
     }
 
     public void releaseMemory() {
@@ -21,7 +21,7 @@ import bisq.core.dao.monitoring.BlindVoteStateMonitoringService;
 import bisq.core.dao.monitoring.DaoStateMonitoringService;
 import bisq.core.dao.monitoring.ProposalStateMonitoringService;
 import bisq.core.dao.monitoring.model.BlindVoteStateBlock;
-import bisq.core.dao.monitoring.model.DaoStateBlock;
+import bisq.core.dao.monitoring.model.DaoStateHashChain;
 import bisq.core.dao.monitoring.model.ProposalStateBlock;
 import bisq.core.dao.state.DaoStateService;
 import bisq.core.filter.Filter;
@@ -112,15 +112,15 @@ public class GetInventoryRequestHandler implements MessageListener {
             dataObjects.forEach((key, value) -> inventory.put(key, String.valueOf(value)));
 
             // DAO
-            int numBsqBlocks = daoStateService.getBlocks().size();
+            int numBsqBlocks = daoStateService.getNumBlocks();
             inventory.put(InventoryItem.numBsqBlocks, String.valueOf(numBsqBlocks));
 
             int daoStateChainHeight = daoStateService.getChainHeight();
             inventory.put(InventoryItem.daoStateChainHeight, String.valueOf(daoStateChainHeight));
 
-            LinkedList<DaoStateBlock> daoStateBlockChain = daoStateMonitoringService.getDaoStateBlockChain();
-            if (!daoStateBlockChain.isEmpty()) {
-                String daoStateHash = Utilities.bytesAsHexString(daoStateBlockChain.getLast().getMyStateHash().getHash());
+            DaoStateHashChain daoStateHashChain = daoStateMonitoringService.getDaoStateHashChain();
+            if (!daoStateHashChain.isEmpty()) {
+                String daoStateHash = Utilities.bytesAsHexString(daoStateHashChain.getLast().getHash());
                 inventory.put(InventoryItem.daoStateHash, daoStateHash);
             }
 
@@ -27,6 +27,8 @@ import bisq.core.dao.monitoring.network.messages.GetDaoStateHashesRequest;
 import bisq.core.dao.monitoring.network.messages.GetDaoStateHashesResponse;
 import bisq.core.dao.monitoring.network.messages.GetProposalStateHashesRequest;
 import bisq.core.dao.monitoring.network.messages.GetProposalStateHashesResponse;
+import bisq.core.dao.monitoring.network.messages.GetUtxoBucketsRequest;
+import bisq.core.dao.monitoring.network.messages.GetUtxoBucketsResponse;
 import bisq.core.dao.monitoring.network.messages.NewBlindVoteStateHashMessage;
 import bisq.core.dao.monitoring.network.messages.NewDaoStateHashMessage;
 import bisq.core.dao.monitoring.network.messages.NewProposalStateHashMessage;
@@ -243,6 +245,11 @@ public class CoreNetworkProtoResolver extends CoreProtoResolver implements Netwo
                 case GET_BLIND_VOTE_STATE_HASHES_RESPONSE:
                     return GetBlindVoteStateHashesResponse.fromProto(proto.getGetBlindVoteStateHashesResponse(), messageVersion);
 
+                case GET_UTXO_BUCKETS_REQUEST:
+                    return GetUtxoBucketsRequest.fromProto(proto.getGetUtxoBucketsRequest(), messageVersion);
+                case GET_UTXO_BUCKETS_RESPONSE:
+                    return GetUtxoBucketsResponse.fromProto(proto.getGetUtxoBucketsResponse(), messageVersion);
+
                 case BUNDLE_OF_ENVELOPES:
                     return BundleOfEnvelopes.fromProto(proto.getBundleOfEnvelopes(), this, messageVersion);
 
@@ -53,11 +53,13 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import lombok.extern.slf4j.Slf4j;
@@ -75,8 +77,12 @@ public class PriceFeedService {
     private final Preferences preferences;
 
     private static final long PERIOD_SEC = 60;
+    private static final long STATISTICS_INTERVAL_SEC = TimeUnit.HOURS.toSeconds(1);
 
     private final Map<String, MarketPrice> cache = new HashMap<>();
+    // Currency codes for which the last notification to listeners was done with a
+    // recent price. Used to notify listeners once a price gets outdated.
+    private final Set<String> currencyCodesWithRecentPrice = new HashSet<>();
     private PriceProvider priceProvider;
     @Nullable
     private Consumer<Double> priceConsumer;
@@ -94,6 +100,11 @@ public class PriceFeedService {
     private Timer requestTimer;
     @Nullable
     private PriceRequest priceRequest;
+    @Nullable
+    private Timer statisticsTimer;
+    private long numCharsReceivedFromPreviousProviders;
+    private long numCharsReceivedAtLastStatistics;
+    private int numListenerNotifications;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -122,6 +133,10 @@ public class PriceFeedService {
             requestTimer.stop();
             requestTimer = null;
         }
+        if (statisticsTimer != null) {
+            statisticsTimer.stop();
+            statisticsTimer = null;
+        }
         if (priceRequest != null) {
             priceRequest.shutDown();
         }
@@ -147,6 +162,9 @@ public class PriceFeedService {
         this.priceConsumer = resultHandler;
         this.faultHandler = faultHandler;
 
+        if (statisticsTimer == null)
+            statisticsTimer = UserThread.runPeriodically(this::logStatistics, STATISTICS_INTERVAL_SEC);
+
         request(true);
     }
 
@@ -167,11 +185,12 @@ public class PriceFeedService {
 
         baseUrlOfRespondingProvider = null;
 
-        requestAllPrices(priceProvider, () -> {
+        requestAllPrices(priceProvider, changedCurrencyCodes -> {
             baseUrlOfRespondingProvider = priceProvider.getBaseUrl();
 
             // At applyPriceToConsumer we also check if price is not exceeding max. age for price data.
-            boolean success = applyPriceToConsumer();
+            // We only notify listeners if any price has changed.
+            boolean success = applyPriceToConsumer(changedCurrencyCodes);
             if (success) {
                 MarketPrice marketPrice = cache.get(currencyCode);
                 if (marketPrice != null)
@@ -246,8 +265,10 @@ public class PriceFeedService {
 
     private void setNewPriceProvider() {
         providersRepository.selectNextProviderBaseUrl();
-        if (!providersRepository.getBaseUrl().isEmpty())
+        if (!providersRepository.getBaseUrl().isEmpty()) {
+            numCharsReceivedFromPreviousProviders += priceProvider.getNumCharsReceived();
             priceProvider = new PriceProvider(httpClient, providersRepository.getBaseUrl());
+        }
         else
             log.warn("We cannot create a new priceProvider because new base url is empty.");
     }
@@ -276,7 +297,7 @@ public class PriceFeedService {
             this.currencyCode = currencyCode;
             currencyCodeProperty.set(currencyCode);
             if (priceConsumer != null)
-                applyPriceToConsumer();
+                applyPriceToConsumer(null);
         }
     }
 
@@ -339,7 +360,14 @@ public class PriceFeedService {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private boolean applyPriceToConsumer() {
+    /**
+     * @param changedCurrencyCodes The currency codes whose price has changed with the
+     *                             last response, or null if listeners should be notified
+     *                             unconditionally
+     */
+    private boolean applyPriceToConsumer(@Nullable Set<String> changedCurrencyCodes) {
+        boolean notifyListeners = changedCurrencyCodes == null || !changedCurrencyCodes.isEmpty();
+        boolean notifyPriceConsumer = changedCurrencyCodes == null || changedCurrencyCodes.contains(currencyCode);
         boolean result = false;
         String errorMessage = null;
         if (currencyCode != null) {
@@ -349,7 +377,7 @@ public class PriceFeedService {
                     MarketPrice marketPrice = cache.get(currencyCode);
                     if (marketPrice.isExternallyProvidedPrice()) {
                         if (marketPrice.isRecentPriceAvailable()) {
-                            if (priceConsumer != null)
+                            if (priceConsumer != null && notifyPriceConsumer)
                                 priceConsumer.accept(marketPrice.getPrice());
                             result = true;
                         } else {
@@ -387,12 +415,17 @@ public class PriceFeedService {
                 faultHandler.handleFault(errorMessage, new PriceRequestException(errorMessage));
         }
 
-        updateCounter.set(updateCounter.get() + 1);
+        if (notifyListeners) {
+            updateCounter.set(updateCounter.get() + 1);
+            numListenerNotifications++;
+        }
 
         return result;
     }
 
-    private void requestAllPrices(PriceProvider provider, Runnable resultHandler, FaultHandler faultHandler) {
+    private void requestAllPrices(PriceProvider provider,
+                                  Consumer<Set<String>> resultHandler,
+                                  FaultHandler faultHandler) {
         if (httpClient.hasPendingRequest()) {
             log.warn("We have a pending request open. We ignore that request. httpClient {}", httpClient);
             return;
@@ -412,9 +445,7 @@ public class PriceFeedService {
 
                     Map<String, MarketPrice> priceMap = result.second;
 
-                    cache.putAll(priceMap);
-
-                    resultHandler.run();
+                    resultHandler.accept(applyToCache(priceMap));
                 });
             }
 
@@ -424,4 +455,48 @@ public class PriceFeedService {
             }
         }, MoreExecutors.directExecutor());
     }
+
+    /**
+     * Puts the received market prices into the cache.
+     *
+     * @return The currency codes for which the price has changed or for which the price
+     * became outdated since the last notification of listeners
+     */
+    private Set<String> applyToCache(Map<String, MarketPrice> priceMap) {
+        Set<String> changedCurrencyCodes = new HashSet<>();
+        priceMap.forEach((currencyCode, marketPrice) -> {
+            MarketPrice previous = cache.put(currencyCode, marketPrice);
+            if (previous == null ||
+                    previous.getPrice() != marketPrice.getPrice() ||
+                    previous.isExternallyProvidedPrice() != marketPrice.isExternallyProvidedPrice()) {
+                changedCurrencyCodes.add(currencyCode);
+            }
+        });
+
+        cache.forEach((currencyCode, marketPrice) -> {
+            boolean isRecentPriceAvailable = marketPrice.isRecentPriceAvailable();
+            if (isRecentPriceAvailable != currencyCodesWithRecentPrice.contains(currencyCode)) {
+                changedCurrencyCodes.add(currencyCode);
+                if (isRecentPriceAvailable)
+                    currencyCodesWithRecentPrice.add(currencyCode);
+                else
+                    currencyCodesWithRecentPrice.remove(currencyCode);
+            }
+        });
+        return changedCurrencyCodes;
+    }
+
+    private void logStatistics() {
+        // We count the chars of the decompressed json, not the bytes on the wire, as the HttpClient does not
+        // expose the size of the compressed response entity.
+        long numCharsReceived = numCharsReceivedFromPreviousProviders + priceProvider.getNumCharsReceived();
+        log.info("Price feed statistics of last {} min: received {} chars of decompressed json " +
+                        "(not bytes on the wire) from provider {}, notified listeners {} times",
+                STATISTICS_INTERVAL_SEC / 60,
+                numCharsReceived - numCharsReceivedAtLastStatistics,
+                priceProvider.getBaseUrl(),
+                numListenerNotifications);
+        numCharsReceivedAtLastStatistics = numCharsReceived;
+        numListenerNotifications = 0;
+    }
 }
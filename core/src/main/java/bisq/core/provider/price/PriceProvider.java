@@ -20,6 +20,7 @@ package bisq.core.provider.price;
 import bisq.core.provider.HttpClientProvider;
 
 import bisq.network.http.HttpClient;
+import bisq.network.http.HttpException;
 import bisq.network.p2p.P2PService;
 
 import bisq.common.app.Version;
@@ -36,13 +37,35 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class PriceProvider extends HttpClientProvider {
 
     private boolean shutDownRequested;
 
+    // Set to false if the pricenode does not support the getMarketPriceUpdates endpoint,
+    // in which case we fall back to request all market prices each time.
+    private boolean marketPriceUpdatesSupported = true;
+    // Version of the last snapshot we received from the pricenode. Versions are only
+    // meaningful for the pricenode which delivered them, so this is not shared between
+    // PriceProvider instances.
+    private long snapshotVersion = -1;
+    // ETag of the last snapshot we received, sent as If-None-Match so the pricenode answers
+    // with 304 if its snapshot has not changed since
+    @Nullable
+    private String eTag;
+    // All market prices and the timestamps received so far from that pricenode, with deltas applied
+    private final Map<String, MarketPrice> marketPriceMap = new HashMap<>();
+    private Map<String, Long> tsMap = new HashMap<>();
+    // Chars of the received json. Responses might be compressed on the wire, so this is not the number of bytes
+    // received.
+    @Getter
+    private long numCharsReceived;
+
     // Do not use Guice here as we might create multiple instances
     public PriceProvider(HttpClient httpClient, String baseUrl) {
         super(httpClient, baseUrl, false);
@@ -53,37 +76,87 @@ public class PriceProvider extends HttpClientProvider {
             return new Tuple2<>(new HashMap<>(), new HashMap<>());
         }
 
-        Map<String, MarketPrice> marketPriceMap = new HashMap<>();
         String hsVersion = "";
         if (P2PService.getMyNodeAddress() != null)
             hsVersion = P2PService.getMyNodeAddress().getHostName().length() > 22 ? ", HSv3" : ", HSv2";
+        String userAgent = "bisq/" + Version.VERSION + hsVersion;
 
-        String json = httpClient.get("getAllMarketPrices", "User-Agent", "bisq/"
-                + Version.VERSION + hsVersion);
+        if (marketPriceUpdatesSupported) {
+            try {
+                return getMarketPriceUpdates(userAgent);
+            } catch (IOException e) {
+                if (!(e.getCause() instanceof HttpException) ||
+                        ((HttpException) e.getCause()).getResponseCode() != 404) {
+                    throw e;
+                }
+                log.info("Pricenode {} does not support getMarketPriceUpdates. " +
+                        "We fall back to getAllMarketPrices.", getBaseUrl());
+                marketPriceUpdatesSupported = false;
+            }
+        }
 
+        Map<String, MarketPrice> marketPriceMap = new HashMap<>();
+        String json = httpClient.get("getAllMarketPrices", "User-Agent", userAgent);
+        numCharsReceived += json.length();
 
         LinkedTreeMap<?, ?> map = new Gson().fromJson(json, LinkedTreeMap.class);
+        Map<String, Long> tsMap = getTsMap(map);
+
+        List<?> list = (ArrayList<?>) map.get("data");
+        list.forEach(obj -> putMarketPrice(marketPriceMap, obj));
+        return new Tuple2<>(tsMap, marketPriceMap);
+    }
+
+    private Tuple2<Map<String, Long>, Map<String, MarketPrice>> getMarketPriceUpdates(String userAgent)
+            throws IOException {
+        Tuple2<String, String> jsonAndETag = httpClient.getIfNoneMatch(
+                "getMarketPriceUpdates?sinceVersion=" + snapshotVersion, eTag, "User-Agent", userAgent);
+        if (jsonAndETag == null) {
+            // Not modified since our last snapshot
+            return new Tuple2<>(new HashMap<>(tsMap), new HashMap<>(marketPriceMap));
+        }
+
+        String json = jsonAndETag.first;
+        numCharsReceived += json.length();
+
+        LinkedTreeMap<?, ?> map = new Gson().fromJson(json, LinkedTreeMap.class);
+        tsMap = getTsMap(map);
+
+        if ((Boolean) map.get("fullSnapshot")) {
+            marketPriceMap.clear();
+        } else {
+            List<?> removed = (ArrayList<?>) map.get("removed");
+            removed.forEach(marketPriceMap::remove);
+        }
+        List<?> list = (ArrayList<?>) map.get("data");
+        list.forEach(obj -> putMarketPrice(marketPriceMap, obj));
+        // json uses double for our long value
+        snapshotVersion = MathUtils.doubleToLong((Double) map.get("version"));
+        eTag = jsonAndETag.second;
+
+        return new Tuple2<>(new HashMap<>(tsMap), new HashMap<>(marketPriceMap));
+    }
+
+    private Map<String, Long> getTsMap(LinkedTreeMap<?, ?> map) {
         Map<String, Long> tsMap = new HashMap<>();
         tsMap.put("btcAverageTs", ((Double) map.get("btcAverageTs")).longValue());
         tsMap.put("poloniexTs", ((Double) map.get("poloniexTs")).longValue());
         tsMap.put("coinmarketcapTs", ((Double) map.get("coinmarketcapTs")).longValue());
+        return tsMap;
+    }
 
-        List<?> list = (ArrayList<?>) map.get("data");
-        list.forEach(obj -> {
-            try {
-                LinkedTreeMap<?, ?> treeMap = (LinkedTreeMap<?, ?>) obj;
-                String currencyCode = (String) treeMap.get("currencyCode");
-                double price = (Double) treeMap.get("price");
-                // json uses double for our timestampSec long value...
-                long timestampSec = MathUtils.doubleToLong((Double) treeMap.get("timestampSec"));
-                marketPriceMap.put(currencyCode, new MarketPrice(currencyCode, price, timestampSec, true));
-            } catch (Throwable t) {
-                log.error(t.toString());
-                t.printStackTrace();
-            }
-
-        });
-        return new Tuple2<>(tsMap, marketPriceMap);
+    private void putMarketPrice(Map<String, MarketPrice> marketPriceMap, Object obj) {
+        try {
+            LinkedTreeMap<?, ?> treeMap = (LinkedTreeMap<?, ?>) obj;
+            String currencyCode = (String) treeMap.get("currencyCode");
+            double price = (Double) treeMap.get("price");
+            // json uses double for our timestampSec long value...
+            long timestampSec = MathUtils.doubleToLong((Double) treeMap.get("timestampSec"));
+            marketPriceMap.put(currencyCode, new MarketPrice(currencyCode, price, timestampSec, true));
+        } catch (Throwable t) {
+            log.error(t.toString());
+            t.printStackTrace();
+        }
     }
 
     public String getBaseUrl() {
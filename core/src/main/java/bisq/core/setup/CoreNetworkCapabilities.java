@@ -57,7 +57,7 @@ public class CoreNetworkCapabilities {
         // bit later than we call that method so we have to add DAO_FULL_NODE Capability at preferences as well to
         // be sure it is set in both cases.
         if (config.fullDaoNode) {
-            Capabilities.app.addAll(Capability.DAO_FULL_NODE);
+            Capabilities.app.addAll(Capability.DAO_FULL_NODE, Capability.DAO_BLOCK_RANGES, Capability.DAO_UTXO_BUCKETS);
         } else {
             // A lite node has the capability to receive bsq blocks. We do not want to send BSQ blocks to full nodes
             // as they ignore them anyway.
@@ -26,7 +26,6 @@ import bisq.network.Socks5ProxyProvider;
 import bisq.common.UserThread;
 import bisq.common.app.Version;
 import bisq.common.handlers.FaultHandler;
-import bisq.common.util.Utilities;
 
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonParser;
@@ -34,9 +33,9 @@ import com.google.gson.JsonParser;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
@@ -51,6 +50,7 @@ import javax.annotation.Nullable;
 /**
  * Requests for the XMR tx proof for a particular trade from a particular service.
  * Repeats every 90 sec requests if tx is not confirmed or found yet until MAX_REQUEST_PERIOD of 12 hours is reached.
+ * The requests are run by the XmrTxProofRequestScheduler shared by all trades.
  */
 @Slf4j
 @EqualsAndHashCode
@@ -140,15 +140,13 @@ class XmrTxProofRequest implements AssetTxProofRequest<XmrTxProofRequest.Result>
     // Class fields
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private final ListeningExecutorService executorService = Utilities.getListeningExecutorService(
-            "XmrTransferProofRequester", 3, 5, 10 * 60);
-
+    private final XmrTxProofRequestScheduler requestScheduler;
     private final AssetTxProofParser<XmrTxProofRequest.Result, XmrTxProofModel> parser;
     private final XmrTxProofModel model;
     private final AssetTxProofHttpClient httpClient;
     private final long firstRequest;
 
-    private boolean terminated;
+    private volatile boolean terminated;
     @Getter
     @Nullable
     private Result result;
@@ -159,7 +157,9 @@ class XmrTxProofRequest implements AssetTxProofRequest<XmrTxProofRequest.Result>
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     XmrTxProofRequest(Socks5ProxyProvider socks5ProxyProvider,
+                      XmrTxProofRequestScheduler requestScheduler,
                       XmrTxProofModel model) {
+        this.requestScheduler = requestScheduler;
         this.parser = new XmrTxProofParser();
         this.model = model;
 
@@ -204,12 +204,13 @@ class XmrTxProofRequest implements AssetTxProofRequest<XmrTxProofRequest.Result>
 
         // Timeout handing is delegated to the connection timeout handling in httpClient.
 
-        ListenableFuture<Result> future = executorService.submit(() -> {
-            Thread.currentThread().setName("XmrTransferProofRequest-" + this.getShortId());
-            String param = "/api/outputs?txhash=" + model.getTxHash() +
-                    "&address=" + model.getRecipientAddress() +
-                    "&viewkey=" + model.getTxKey() +
-                    "&txprove=1";
+        // The requests of all trades run on the shared requestScheduler which limits the concurrent requests per
+        // service and coalesces identical requests. We parse the json for our model.
+        String param = "/api/outputs?txhash=" + model.getTxHash() +
+                "&address=" + model.getRecipientAddress() +
+                "&viewkey=" + model.getTxKey() +
+                "&txprove=1";
+        Callable<String> request = () -> {
             log.info("Param {} for {}", param, this);
             String json = httpClient.get(param, "User-Agent", "bisq/" + Version.VERSION);
             try {
@@ -218,11 +219,16 @@ class XmrTxProofRequest implements AssetTxProofRequest<XmrTxProofRequest.Result>
             } catch (Throwable error) {
                 log.error("Pretty print caused a {}: raw json={}", error, json);
             }
-
+            return json;
+        };
+        // If we get terminated before the request is due it is not sent anymore
+        ListenableFuture<String> jsonFuture = requestScheduler.submit(model.getServiceAddress(), param,
+                () -> terminated, request);
+        ListenableFuture<Result> future = Futures.transform(jsonFuture, json -> {
             Result result = parser.parse(model, json);
             log.info("Result from {}\n{}", this, result);
             return result;
-        });
+        }, MoreExecutors.directExecutor());
 
         Futures.addCallback(future, new FutureCallback<>() {
             public void onSuccess(Result result) {
@@ -241,7 +247,8 @@ class XmrTxProofRequest implements AssetTxProofRequest<XmrTxProofRequest.Result>
                             // If we reached out timeout we return with an error.
                             UserThread.execute(() -> resultHandler.accept(XmrTxProofRequest.Result.ERROR.with(Detail.NO_RESULTS_TIMEOUT)));
                         } else {
-                            UserThread.runAfter(() -> requestFromService(resultHandler, faultHandler), REPEAT_REQUEST_PERIOD, TimeUnit.MILLISECONDS);
+                            UserThread.runAfter(() -> requestFromService(resultHandler, faultHandler),
+                                    XmrTxProofRequestScheduler.withJitter(REPEAT_REQUEST_PERIOD), TimeUnit.MILLISECONDS);
                             // We update our listeners
                             UserThread.execute(() -> resultHandler.accept(result));
                         }
@@ -263,6 +270,12 @@ class XmrTxProofRequest implements AssetTxProofRequest<XmrTxProofRequest.Result>
             }
 
             public void onFailure(@NotNull Throwable throwable) {
+                if (terminated) {
+                    log.warn("{} failed with {} but was terminated already. We do not process the failure.",
+                            XmrTxProofRequest.this, throwable.toString());
+                    return;
+                }
+
                 String errorMessage = this + " failed with error " + throwable.toString();
                 faultHandler.handleFault(errorMessage, throwable);
                 UserThread.execute(() ->
@@ -286,10 +299,6 @@ class XmrTxProofRequest implements AssetTxProofRequest<XmrTxProofRequest.Result>
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private String getShortId() {
-        return Utilities.getShortId(model.getTradeId()) + " @ " + model.getServiceAddress().substring(0, 6);
-    }
-
     private boolean isTimeOutReached() {
         return System.currentTimeMillis() - firstRequest > MAX_REQUEST_PERIOD;
     }
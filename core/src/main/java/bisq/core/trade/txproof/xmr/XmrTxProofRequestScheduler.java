@@ -0,0 +1,229 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.txproof.xmr;
+
+import bisq.common.util.Utilities;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the requests to the XMR explorer services of all trades on a shared thread pool. Each service gets at most
+ * maxRequestsPerService concurrent requests, others are queued. Identical requests which are in flight at the same
+ * time are coalesced to one. Queued requests whose requesters have all cancelled in the meantime are dropped when they
+ * are due. After a failed request we back off from that service with an exponentially growing and jittered delay,
+ * which is reset by the next successful request.
+ */
+@Slf4j
+class XmrTxProofRequestScheduler {
+    private static final int MAX_THREADS = 4;
+    private static final int MAX_REQUESTS_PER_SERVICE = 2;
+    private static final long MIN_BACK_OFF = TimeUnit.SECONDS.toMillis(5);
+    private static final long MAX_BACK_OFF = TimeUnit.MINUTES.toMillis(10);
+
+    // Returns a delay randomly spread by +-10% so that repeated requests of many trades do not run in lockstep
+    static long withJitter(long delay) {
+        return delay - delay / 10 + ThreadLocalRandom.current().nextLong(delay / 5 + 1);
+    }
+
+    private final int maxRequestsPerService;
+    private final long minBackOff;
+    private final long maxBackOff;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Map<String, ServiceQueue> serviceQueueByAddress = new HashMap<>();
+    private final Map<String, Task> inFlightByKey = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    XmrTxProofRequestScheduler() {
+        this(MAX_THREADS, MAX_REQUESTS_PER_SERVICE, MIN_BACK_OFF, MAX_BACK_OFF);
+    }
+
+    @VisibleForTesting
+    XmrTxProofRequestScheduler(int maxThreads, int maxRequestsPerService, long minBackOff, long maxBackOff) {
+        this.maxRequestsPerService = maxRequestsPerService;
+        this.minBackOff = minBackOff;
+        this.maxBackOff = maxBackOff;
+        executor = Utilities.getScheduledThreadPoolExecutor("XmrTxProofRequestScheduler", maxThreads, maxThreads,
+                60);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Schedules the request to the service. If a request with the same key to the same service is in flight we
+     * return its future instead. If isCancelled returns true for all requesters by the time the request is due, it
+     * is not sent and the future gets cancelled.
+     */
+    ListenableFuture<String> submit(String serviceAddress,
+                                    String key,
+                                    BooleanSupplier isCancelled,
+                                    Callable<String> request) {
+        String requestKey = serviceAddress + key;
+        synchronized (this) {
+            Task inFlight = inFlightByKey.get(requestKey);
+            if (inFlight != null) {
+                log.info("Request {} to {} is in flight already, we use its result", key, serviceAddress);
+                inFlight.cancelChecks.add(isCancelled);
+                return inFlight.future;
+            }
+
+            Task task = new Task(requestKey, request, SettableFuture.create());
+            task.cancelChecks.add(isCancelled);
+            inFlightByKey.put(requestKey, task);
+            ServiceQueue serviceQueue = serviceQueueByAddress.computeIfAbsent(serviceAddress, ServiceQueue::new);
+            serviceQueue.pending.add(task);
+            dispatch(serviceQueue);
+            return task.future;
+        }
+    }
+
+    @VisibleForTesting
+    synchronized int getNumFailures(String serviceAddress) {
+        ServiceQueue serviceQueue = serviceQueueByAddress.get(serviceAddress);
+        return serviceQueue != null ? serviceQueue.numFailures : 0;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private synchronized void dispatch(ServiceQueue serviceQueue) {
+        while (serviceQueue.numRunning < maxRequestsPerService && !serviceQueue.pending.isEmpty()) {
+            long delay = serviceQueue.backOffUntil - System.currentTimeMillis();
+            if (delay > 0) {
+                if (!serviceQueue.dispatchScheduled) {
+                    serviceQueue.dispatchScheduled = true;
+                    executor.schedule(() -> {
+                        synchronized (this) {
+                            serviceQueue.dispatchScheduled = false;
+                            dispatch(serviceQueue);
+                        }
+                    }, delay, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+
+            Task task = serviceQueue.pending.poll();
+            if (task.isCancelled()) {
+                log.info("Request {} was cancelled before it was sent", task.key);
+                inFlightByKey.remove(task.key);
+                task.future.cancel(false);
+                continue;
+            }
+
+            serviceQueue.numRunning++;
+            executor.execute(() -> run(serviceQueue, task));
+        }
+    }
+
+    private void run(ServiceQueue serviceQueue, Task task) {
+        String result = null;
+        Throwable error = null;
+        try {
+            result = task.request.call();
+        } catch (Throwable t) {
+            error = t;
+        }
+
+        synchronized (this) {
+            serviceQueue.numRunning--;
+            inFlightByKey.remove(task.key);
+            if (error == null) {
+                serviceQueue.numFailures = 0;
+                serviceQueue.backOffUntil = 0;
+            } else {
+                serviceQueue.numFailures++;
+                long backOff = getBackOff(serviceQueue.numFailures);
+                serviceQueue.backOffUntil = System.currentTimeMillis() + backOff;
+                log.warn("Request to {} failed {} time(s) in a row. We back off for {} ms.",
+                        serviceQueue.serviceAddress, serviceQueue.numFailures, backOff);
+            }
+            dispatch(serviceQueue);
+        }
+
+        if (error == null) {
+            task.future.set(result);
+        } else {
+            task.future.setException(error);
+        }
+    }
+
+    // Exponential back off with a random part of up to half of it
+    private long getBackOff(int numFailures) {
+        long backOff = Math.min(maxBackOff, minBackOff << Math.min(numFailures - 1, 20));
+        return backOff / 2 + ThreadLocalRandom.current().nextLong(backOff / 2 + 1);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Inner classes
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class ServiceQueue {
+        private final String serviceAddress;
+        private final Deque<Task> pending = new ArrayDeque<>();
+        private int numRunning;
+        private int numFailures;
+        private long backOffUntil;
+        private boolean dispatchScheduled;
+
+        ServiceQueue(String serviceAddress) {
+            this.serviceAddress = serviceAddress;
+        }
+    }
+
+    private static class Task {
+        private final String key;
+        private final Callable<String> request;
+        private final SettableFuture<String> future;
+        private final List<BooleanSupplier> cancelChecks = new ArrayList<>();
+
+        Task(String key, Callable<String> request, SettableFuture<String> future) {
+            this.key = key;
+            this.request = request;
+            this.future = future;
+        }
+
+        private boolean isCancelled() {
+            return cancelChecks.stream().allMatch(BooleanSupplier::getAsBoolean);
+        }
+    }
+}
@@ -58,6 +58,7 @@ class XmrTxProofRequestsPerTrade implements AssetTxProofRequestsPerTrade {
     private final FilterManager filterManager;
     private final RefundManager refundManager;
     private final Socks5ProxyProvider socks5ProxyProvider;
+    private final XmrTxProofRequestScheduler requestScheduler;
 
     private int numRequiredSuccessResults;
     private final Set<XmrTxProofRequest> requests = new HashSet<>();
@@ -73,12 +74,14 @@ class XmrTxProofRequestsPerTrade implements AssetTxProofRequestsPerTrade {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     XmrTxProofRequestsPerTrade(Socks5ProxyProvider socks5ProxyProvider,
+                               XmrTxProofRequestScheduler requestScheduler,
                                Trade trade,
                                AutoConfirmSettings autoConfirmSettings,
                                MediationManager mediationManager,
                                FilterManager filterManager,
                                RefundManager refundManager) {
         this.socks5ProxyProvider = socks5ProxyProvider;
+        this.requestScheduler = requestScheduler;
         this.trade = trade;
         this.autoConfirmSettings = autoConfirmSettings;
         this.mediationManager = mediationManager;
@@ -149,7 +152,7 @@ class XmrTxProofRequestsPerTrade implements AssetTxProofRequestsPerTrade {
                 continue;  // #4683: filter for auto-confirm explorers
             }
             XmrTxProofModel model = new XmrTxProofModel(trade, serviceAddress, autoConfirmSettings);
-            XmrTxProofRequest request = new XmrTxProofRequest(socks5ProxyProvider, model);
+            XmrTxProofRequest request = new XmrTxProofRequest(socks5ProxyProvider, requestScheduler, model);
 
             log.info("{} created", request);
             requests.add(request);
@@ -79,6 +79,8 @@ public class XmrTxProofService implements AssetTxProofService {
     private final P2PService p2PService;
     private final WalletsSetup walletsSetup;
     private final Socks5ProxyProvider socks5ProxyProvider;
+    // Shared by the requests of all trades
+    private final XmrTxProofRequestScheduler requestScheduler = new XmrTxProofRequestScheduler();
     private final Map<String, XmrTxProofRequestsPerTrade> servicesByTradeId = new HashMap<>();
     private AutoConfirmSettings autoConfirmSettings;
     private final Map<String, ChangeListener<Trade.State>> tradeStateListenerMap = new HashMap<>();
@@ -252,6 +254,7 @@ public class XmrTxProofService implements AssetTxProofService {
 
     private void startRequests(SellerTrade trade) {
         XmrTxProofRequestsPerTrade service = new XmrTxProofRequestsPerTrade(socks5ProxyProvider,
+                requestScheduler,
                 trade,
                 autoConfirmSettings,
                 mediationManager,
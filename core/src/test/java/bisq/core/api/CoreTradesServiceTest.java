@@ -0,0 +1,189 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.api;
+
+import bisq.core.btc.wallet.BtcWalletService;
+import bisq.core.offer.Offer;
+import bisq.core.offer.OfferUtil;
+import bisq.core.offer.bisq_v1.TakeOfferModel;
+import bisq.core.offer.bsq_swap.BsqSwapTakeOfferModel;
+import bisq.core.trade.ClosedTradableManager;
+import bisq.core.trade.TradeManager;
+import bisq.core.trade.bisq_v1.TradeUtil;
+import bisq.core.trade.model.bisq_v1.Contract;
+import bisq.core.trade.model.bisq_v1.Trade;
+import bisq.core.user.User;
+
+import bisq.common.UserThread;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+import javafx.beans.property.SimpleObjectProperty;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CoreTradesServiceTest {
+    private ObservableList<Trade> openTrades;
+    private TradeManager tradeManager;
+    private ClosedTradableManager closedTradableManager;
+    private TradeUtil tradeUtil;
+    private CoreTradesService coreTradesService;
+    private final List<String> events = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        UserThread.setExecutor(MoreExecutors.directExecutor());
+        openTrades = FXCollections.observableArrayList();
+        tradeManager = mock(TradeManager.class);
+        when(tradeManager.getObservableList()).thenReturn(openTrades);
+        when(tradeManager.getTradeById(anyString())).thenAnswer(invocation -> openTrades.stream()
+                .filter(trade -> trade.getId().equals(invocation.getArgument(0)))
+                .findAny());
+        closedTradableManager = mock(ClosedTradableManager.class);
+        when(closedTradableManager.getTradableById("failed")).thenReturn(Optional.empty());
+        tradeUtil = mock(TradeUtil.class);
+    }
+
+    // The trade listeners get installed when the service is created
+    private void createCoreTradesService() {
+        coreTradesService = new CoreTradesService(mock(CoreContext.class),
+                mock(CoreWalletsService.class),
+                mock(BtcWalletService.class),
+                mock(OfferUtil.class),
+                closedTradableManager,
+                mock(TakeOfferModel.class),
+                mock(BsqSwapTakeOfferModel.class),
+                tradeManager,
+                tradeUtil,
+                mock(User.class));
+        coreTradesService.addTradeListener(new TradeListener() {
+            @Override
+            public void onAdded(Trade trade) {
+                events.add("added " + trade.getId());
+            }
+
+            @Override
+            public void onChanged(Trade trade) {
+                events.add("changed " + trade.getId());
+            }
+
+            @Override
+            public void onRemoved(Trade trade) {
+                events.add("removed " + trade.getId() + " " + coreTradesService.getTradeRole(trade));
+            }
+        });
+    }
+
+    private static Trade trade(String tradeId, SimpleObjectProperty<Trade.State> state) {
+        Trade trade = mock(Trade.class);
+        when(trade.getId()).thenReturn(tradeId);
+        when(trade.getShortId()).thenReturn(tradeId);
+        when(trade.stateProperty()).thenReturn(state);
+        when(trade.disputeStateProperty()).thenReturn(new SimpleObjectProperty<>(Trade.DisputeState.NO_DISPUTE));
+        return trade;
+    }
+
+    @Test
+    public void testFailedTrade() {
+        createCoreTradesService();
+        SimpleObjectProperty<Trade.State> state = new SimpleObjectProperty<>(Trade.State.PREPARATION);
+        Trade trade = trade("failed", state);
+        when(trade.getContract()).thenReturn(mock(Contract.class));
+        when(trade.getOffer()).thenReturn(mock(Offer.class));
+        when(tradeUtil.getRole(trade)).thenReturn("BTC buyer as taker");
+
+        openTrades.add(trade);
+        state.set(Trade.State.TAKER_PUBLISHED_TAKER_FEE_TX);
+        // The trade gets moved to the failed trades, so it is neither an open nor a closed trade anymore.
+        openTrades.remove(trade);
+        state.set(Trade.State.SELLER_PUBLISHED_PAYOUT_TX);
+
+        assertEquals(List.of("added failed", "changed failed", "removed failed BTC buyer as taker"), events);
+        try {
+            // Looking up the role by the trade id fails for a failed trade
+            coreTradesService.getTradeRole("failed");
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("not found"));
+        }
+    }
+
+    @Test
+    public void testTradeRoleWithoutContract() {
+        createCoreTradesService();
+        Trade trade = trade("noContract", new SimpleObjectProperty<>(Trade.State.PREPARATION));
+
+        openTrades.add(trade);
+        openTrades.remove(trade);
+
+        assertEquals(List.of("added noContract", "removed noContract "), events);
+    }
+
+    @Test
+    public void testTradeRoleFailure() {
+        createCoreTradesService();
+        Trade trade = trade("noRole", new SimpleObjectProperty<>(Trade.State.PREPARATION));
+        when(trade.getContract()).thenReturn(mock(Contract.class));
+        when(trade.getOffer()).thenReturn(mock(Offer.class));
+        when(tradeUtil.getRole(trade)).thenThrow(new IllegalStateException("no role"));
+
+        assertEquals("", coreTradesService.getTradeRole(trade));
+    }
+
+    @Test
+    public void testExistingTradesAreObserved() {
+        SimpleObjectProperty<Trade.State> state = new SimpleObjectProperty<>(Trade.State.PREPARATION);
+        Trade trade = trade("existing", state);
+        openTrades.add(trade);
+        createCoreTradesService();
+
+        state.set(Trade.State.TAKER_PUBLISHED_TAKER_FEE_TX);
+
+        assertEquals(List.of("changed existing"), events);
+    }
+
+    @Test
+    public void testUnFailedTradeIsObservedOnce() {
+        createCoreTradesService();
+        SimpleObjectProperty<Trade.State> state = new SimpleObjectProperty<>(Trade.State.PREPARATION);
+        Trade trade = trade("unFailed", state);
+
+        openTrades.add(trade);
+        // TradeManager.unFailTrade adds the same trade instance again
+        openTrades.remove(trade);
+        openTrades.add(trade);
+        state.set(Trade.State.TAKER_PUBLISHED_TAKER_FEE_TX);
+
+        assertEquals(List.of("added unFailed", "removed unFailed ", "added unFailed", "changed unFailed"), events);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.api.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PageTest {
+
+    private static class Item {
+        final String id;
+        final long price;
+
+        Item(String id, long price) {
+            this.id = id;
+            this.price = price;
+        }
+    }
+
+    private final List<Item> items = Arrays.asList(
+            new Item("c", 300),
+            new Item("a", 100),
+            new Item("e", 200),
+            new Item("b", 200),
+            new Item("d", 400));
+
+    @Test
+    public void testAllItemsOnSinglePage() {
+        Page<Item> page = Page.of(items, i -> i.price, i -> i.id, false, 0, "");
+        assertEquals(Arrays.asList("a", "b", "e", "c", "d"), ids(page.getItems()));
+        assertTrue(page.getNextPageToken().isEmpty());
+    }
+
+    @Test
+    public void testPagingVisitsEveryItemOnce() {
+        List<String> visited = new ArrayList<>();
+        String pageToken = "";
+        int numPages = 0;
+        do {
+            Page<Item> page = Page.of(items, i -> i.price, i -> i.id, true, 2, pageToken);
+            visited.addAll(ids(page.getItems()));
+            pageToken = page.getNextPageToken();
+            numPages++;
+        } while (!pageToken.isEmpty());
+        assertEquals(3, numPages);
+        assertEquals(Arrays.asList("d", "c", "b", "e", "a"), visited);
+    }
+
+    @Test
+    public void testPagingAfterLastItemOfPageWasRemoved() {
+        Page<Item> firstPage = Page.of(items, i -> i.price, i -> i.id, false, 2, "");
+        assertEquals(Arrays.asList("a", "b"), ids(firstPage.getItems()));
+
+        List<Item> remaining = new ArrayList<>(items);
+        remaining.removeIf(i -> i.id.equals("b"));
+        Page<Item> secondPage = Page.of(remaining, i -> i.price, i -> i.id, false, 2, firstPage.getNextPageToken());
+        assertEquals(Arrays.asList("e", "c"), ids(secondPage.getItems()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPageToken() {
+        Page.of(items, i -> i.price, i -> i.id, false, 2, "not-a-token");
+    }
+
+    private static List<String> ids(List<Item> items) {
+        List<String> ids = new ArrayList<>();
+        items.forEach(i -> ids.add(i.id));
+        return ids;
+    }
+}
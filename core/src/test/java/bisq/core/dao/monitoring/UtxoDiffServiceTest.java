@@ -0,0 +1,187 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.monitoring;
+
+import bisq.core.dao.monitoring.model.UtxoDiff;
+import bisq.core.dao.monitoring.network.UtxoBucketsNetworkService;
+import bisq.core.dao.monitoring.network.messages.GetUtxoBucketsResponse;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.util.coin.BsqFormatter;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.handlers.ErrorMessageHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class UtxoDiffServiceTest {
+    private static final String PEERS_ADDRESS = "peer.onion:9999";
+
+    private DaoStateService daoStateService;
+    private DaoStateService peersDaoStateService;
+    private UtxoDiffService utxoDiffService;
+    private List<TxOutput> txOutputs;
+    private AtomicInteger numRequests;
+    private int peersChainHeightOffset;
+
+    @Before
+    public void setup() {
+        daoStateService = newDaoStateService();
+        peersDaoStateService = newDaoStateService();
+        txOutputs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            txOutputs.add(txOutput("tx" + i / 2, i % 2, 1000 + i));
+        }
+        numRequests = new AtomicInteger();
+
+        // The stubbed network service answers with the data of the peers DaoStateService like the real one would do
+        UtxoBucketsNetworkService utxoBucketsNetworkService = mock(UtxoBucketsNetworkService.class);
+        doAnswer(invocation -> {
+            NodeAddress peersNodeAddress = invocation.getArgument(0);
+            List<Integer> bucketIndices = invocation.getArgument(1);
+            Consumer<GetUtxoBucketsResponse> resultHandler = invocation.getArgument(2);
+            assertEquals(PEERS_ADDRESS, peersNodeAddress.getFullAddress());
+            assertTrue(bucketIndices.size() <= UtxoBucketsNetworkService.MAX_BUCKETS_PER_REQUEST);
+            numRequests.incrementAndGet();
+            resultHandler.accept(new GetUtxoBucketsResponse(0,
+                    peersDaoStateService.getChainHeight() + peersChainHeightOffset,
+                    peersDaoStateService.getUtxoCommitment().getPackedDigests(),
+                    peersDaoStateService.getUnspentTxOutputsOfBuckets(bucketIndices)));
+            return null;
+        }).when(utxoBucketsNetworkService).requestBuckets(any(NodeAddress.class), anyList(), any(),
+                any(ErrorMessageHandler.class));
+
+        utxoDiffService = new UtxoDiffService(daoStateService, utxoBucketsNetworkService);
+    }
+
+    private static DaoStateService newDaoStateService() {
+        DaoStateService daoStateService = new DaoStateService(new DaoState(), mock(GenesisTxInfo.class),
+                new BsqFormatter());
+        daoStateService.start();
+        return daoStateService;
+    }
+
+    private static TxOutput txOutput(String txId, int index, long value) {
+        return TxOutput.fromProto(protobuf.BaseTxOutput.newBuilder()
+                .setTxId(txId)
+                .setIndex(index)
+                .setValue(value)
+                .setBlockHeight(700000)
+                .setTxOutput(protobuf.TxOutput.newBuilder()
+                        .setTxOutputType(protobuf.TxOutputType.BSQ_OUTPUT)
+                        .setLockTime(-1))
+                .build());
+    }
+
+    private UtxoDiff requestUtxoDiff(boolean repair) {
+        daoStateService.onParseBlockChainComplete();
+        AtomicReference<UtxoDiff> result = new AtomicReference<>();
+        AtomicReference<String> error = new AtomicReference<>();
+        utxoDiffService.requestUtxoDiff(PEERS_ADDRESS, repair, result::set, error::set);
+        assertNull(error.get());
+        return result.get();
+    }
+
+    @Test
+    public void testNoDifferences() {
+        txOutputs.forEach(daoStateService::addUnspentTxOutput);
+        txOutputs.forEach(peersDaoStateService::addUnspentTxOutput);
+
+        UtxoDiff utxoDiff = requestUtxoDiff(true);
+
+        assertTrue(utxoDiff.isEmpty());
+        assertFalse(utxoDiff.isRepaired());
+        // Only the digests got requested
+        assertEquals(1, numRequests.get());
+    }
+
+    @Test
+    public void testDifferences() {
+        TxOutput missing = txOutputs.get(1);
+        TxOutput unexpected = txOutputs.get(2);
+        TxOutput changed = txOutputs.get(3);
+        txOutputs.stream().filter(txOutput -> txOutput != missing).forEach(daoStateService::addUnspentTxOutput);
+        txOutputs.stream().filter(txOutput -> txOutput != unexpected && txOutput != changed)
+                .forEach(peersDaoStateService::addUnspentTxOutput);
+        peersDaoStateService.addUnspentTxOutput(txOutput(changed.getTxId(), changed.getIndex(),
+                changed.getValue() + 1));
+        byte[] ourPackedDigests = daoStateService.getUtxoCommitment().getPackedDigests();
+
+        UtxoDiff utxoDiff = requestUtxoDiff(true);
+
+        assertFalse(utxoDiff.isEmpty());
+        assertTrue(utxoDiff.getDifferingBuckets().size() <= 3);
+        assertEquals(List.of(missing), utxoDiff.getMissingTxOutputs());
+        assertEquals(List.of(unexpected), utxoDiff.getUnexpectedTxOutputs());
+        assertEquals(List.of(changed.getKey()), utxoDiff.getChangedTxOutputKeys());
+        assertTrue(utxoDiff.isRepaired());
+        assertTrue(utxoDiff.isRepairResolvesConflict());
+        // The repair was only applied to a copy
+        assertArrayEquals(ourPackedDigests, daoStateService.getUtxoCommitment().getPackedDigests());
+        assertFalse(daoStateService.isUnspent(missing.getKey()));
+        assertTrue(daoStateService.isUnspent(unexpected.getKey()));
+    }
+
+    @Test
+    public void testManyDifferingBucketsAreRequestedInBatches() {
+        txOutputs.forEach(daoStateService::addUnspentTxOutput);
+
+        UtxoDiff utxoDiff = requestUtxoDiff(false);
+
+        int numDifferingBuckets = utxoDiff.getDifferingBuckets().size();
+        assertTrue(numDifferingBuckets > UtxoBucketsNetworkService.MAX_BUCKETS_PER_REQUEST);
+        assertEquals(1 + (numDifferingBuckets + UtxoBucketsNetworkService.MAX_BUCKETS_PER_REQUEST - 1) /
+                UtxoBucketsNetworkService.MAX_BUCKETS_PER_REQUEST, numRequests.get());
+        assertEquals(txOutputs.size(), utxoDiff.getUnexpectedTxOutputs().size());
+        assertFalse(utxoDiff.isRepaired());
+    }
+
+    @Test
+    public void testDifferentChainHeightFails() {
+        txOutputs.forEach(daoStateService::addUnspentTxOutput);
+        peersChainHeightOffset = 1;
+        daoStateService.onParseBlockChainComplete();
+
+        AtomicReference<UtxoDiff> result = new AtomicReference<>();
+        AtomicReference<String> error = new AtomicReference<>();
+        utxoDiffService.requestUtxoDiff(PEERS_ADDRESS, false, result::set, error::set);
+
+        assertNull(result.get());
+        assertTrue(error.get().contains("chain height"));
+    }
+}
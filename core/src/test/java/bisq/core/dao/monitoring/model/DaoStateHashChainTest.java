@@ -0,0 +1,131 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.monitoring.model;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class DaoStateHashChainTest {
+    private static final int FIRST_HEIGHT = 571747;
+
+    private static byte[] hash(int height) {
+        byte[] hash = new byte[DaoStateHashChain.HASH_LENGTH];
+        Arrays.fill(hash, (byte) height);
+        hash[0] = (byte) (height >> 8);
+        return hash;
+    }
+
+    private static DaoStateHashChain createChain(int size) {
+        DaoStateHashChain chain = new DaoStateHashChain();
+        for (int i = 0; i < size; i++) {
+            int height = FIRST_HEIGHT + i;
+            assertTrue(chain.append(height, hash(height), i % 3 == 0));
+        }
+        return chain;
+    }
+
+    @Test
+    public void testAppendAndLookup() {
+        // Exceeds the initial capacity
+        DaoStateHashChain chain = createChain(3000);
+        assertEquals(3000, chain.size());
+        assertEquals(FIRST_HEIGHT, chain.getFirstHeight());
+        assertEquals(FIRST_HEIGHT + 2999, chain.getLastHeight());
+
+        DaoStateHash daoStateHash = chain.getByHeight(FIRST_HEIGHT + 1500);
+        assertEquals(new DaoStateHash(FIRST_HEIGHT + 1500, hash(FIRST_HEIGHT + 1500), true), daoStateHash);
+        assertEquals(new DaoStateHash(FIRST_HEIGHT + 2999, hash(FIRST_HEIGHT + 2999), false), chain.getLast());
+        assertArrayEquals(hash(FIRST_HEIGHT + 7), chain.getHash(FIRST_HEIGHT + 7));
+        assertNull(chain.getByHeight(FIRST_HEIGHT - 1));
+        assertNull(chain.getHash(FIRST_HEIGHT + 3000));
+    }
+
+    @Test
+    public void testAppendRejectsGapsAndInvalidHashes() {
+        DaoStateHashChain chain = createChain(10);
+        assertFalse(chain.append(FIRST_HEIGHT + 11, hash(FIRST_HEIGHT + 11), false));
+        assertFalse(chain.append(FIRST_HEIGHT + 5, hash(FIRST_HEIGHT + 5), false));
+        assertFalse(chain.append(FIRST_HEIGHT + 10, new byte[32], false));
+        assertEquals(10, chain.size());
+        assertTrue(chain.append(FIRST_HEIGHT + 10, hash(FIRST_HEIGHT + 10), false));
+    }
+
+    @Test
+    public void testSnapshotIsNotAffectedByLaterChanges() {
+        DaoStateHashChain chain = createChain(1024);
+        DaoStateHashChain snapshot = chain.getSnapshot();
+        DaoStateHashChain subChain = chain.getSubChain(FIRST_HEIGHT + 1000);
+
+        // Grows the arrays of the chain
+        chain.append(FIRST_HEIGHT + 1024, hash(FIRST_HEIGHT + 1024), true);
+        assertEquals(1024, snapshot.size());
+        assertEquals(24, subChain.size());
+        assertEquals(FIRST_HEIGHT + 1000, subChain.get(0).getHeight());
+
+        chain.clear();
+        chain.append(FIRST_HEIGHT, new byte[DaoStateHashChain.HASH_LENGTH], false);
+        assertArrayEquals(hash(FIRST_HEIGHT), snapshot.getHash(FIRST_HEIGHT));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSnapshotIsReadOnly() {
+        createChain(10).getSnapshot().append(FIRST_HEIGHT + 10, hash(FIRST_HEIGHT + 10), false);
+    }
+
+    @Test
+    public void testSubChainBounds() {
+        DaoStateHashChain chain = createChain(10);
+        assertEquals(10, chain.getSubChain(FIRST_HEIGHT - 100).size());
+        assertEquals(1, chain.getSubChain(FIRST_HEIGHT + 9).size());
+        assertTrue(chain.getSubChain(FIRST_HEIGHT + 10).isEmpty());
+        assertTrue(new DaoStateHashChain().getSubChain(FIRST_HEIGHT).isEmpty());
+    }
+
+    @Test
+    public void testProtoRoundTrip() {
+        DaoStateHashChain chain = createChain(100);
+        DaoStateHashChain subChain = chain.getSubChain(FIRST_HEIGHT + 40);
+
+        DaoStateHashChain fromPacked = DaoStateHashChain.fromPacked(subChain.getFirstHeight(),
+                subChain.getPackedHashes(), subChain.getPackedSelfCreatedFlags());
+        assertEquals(subChain, fromPacked);
+
+        // Same messages as the DaoStateHashes of the former list would create
+        assertEquals(subChain.stream().map(DaoStateHash::toProtoMessage).collect(Collectors.toList()),
+                subChain.toProtoMessages());
+        assertEquals(subChain, DaoStateHashChain.fromProto(subChain.toProtoMessages()));
+    }
+
+    @Test
+    public void testSetAll() {
+        DaoStateHashChain chain = new DaoStateHashChain();
+        DaoStateHashChain persisted = createChain(50).getSubChain(FIRST_HEIGHT + 20);
+        chain.setAll(persisted);
+        assertEquals(persisted, chain);
+        assertTrue(chain.append(FIRST_HEIGHT + 50, hash(FIRST_HEIGHT + 50), true));
+        assertEquals(30, persisted.size());
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.monitoring.network;
+
+import bisq.core.dao.monitoring.network.messages.GetUtxoBucketsRequest;
+import bisq.core.dao.state.DaoStateService;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.network.Connection;
+import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.peers.PeerManager;
+
+import bisq.common.FrameRateTimer;
+import bisq.common.Timer;
+import bisq.common.UserThread;
+import bisq.common.app.Capabilities;
+import bisq.common.app.Capability;
+
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UtxoBucketsNetworkServiceTest {
+    private static final NodeAddress PEERS_NODE_ADDRESS = new NodeAddress("peer.onion", 9999);
+
+    private NetworkNode networkNode;
+    private PeerManager peerManager;
+    private UtxoBucketsNetworkService utxoBucketsNetworkService;
+    private List<String> errorMessages;
+
+    @Before
+    public void setUp() {
+        ManualTimer.action = null;
+        UserThread.setTimerClass(ManualTimer.class);
+        networkNode = mock(NetworkNode.class);
+        peerManager = mock(PeerManager.class);
+        utxoBucketsNetworkService = new UtxoBucketsNetworkService(networkNode, peerManager,
+                mock(DaoStateService.class));
+        errorMessages = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        UserThread.setTimerClass(FrameRateTimer.class);
+    }
+
+    @Test
+    public void testPeerWithoutCapabilityIsNotRequested() {
+        when(networkNode.findPeersCapabilities(PEERS_NODE_ADDRESS)).thenReturn(Optional.of(new Capabilities()));
+
+        requestBuckets();
+
+        assertEquals(1, errorMessages.size());
+        assertTrue(errorMessages.get(0).contains("DAO_UTXO_BUCKETS"));
+        verify(networkNode, never()).sendMessage(any(NodeAddress.class), any());
+    }
+
+    @Test
+    public void testNotConnectedPeerIsNotRequested() {
+        when(networkNode.findPeersCapabilities(PEERS_NODE_ADDRESS)).thenReturn(Optional.empty());
+
+        requestBuckets();
+
+        assertEquals(1, errorMessages.size());
+        verify(networkNode, never()).sendMessage(any(NodeAddress.class), any());
+    }
+
+    @Test
+    public void testTimeoutIsNoConnectionFault() {
+        when(networkNode.findPeersCapabilities(PEERS_NODE_ADDRESS))
+                .thenReturn(Optional.of(new Capabilities(Capability.DAO_UTXO_BUCKETS)));
+        when(networkNode.sendMessage(eq(PEERS_NODE_ADDRESS), any(GetUtxoBucketsRequest.class)))
+                .thenReturn(SettableFuture.create());
+
+        requestBuckets();
+        assertNotNull(ManualTimer.action);
+        ManualTimer.action.run();
+
+        assertEquals(1, errorMessages.size());
+        assertTrue(errorMessages.get(0).contains("timeout"));
+        verify(peerManager, never()).handleConnectionFault(any(NodeAddress.class));
+    }
+
+    @Test
+    public void testSendFailureIsConnectionFault() {
+        when(networkNode.findPeersCapabilities(PEERS_NODE_ADDRESS))
+                .thenReturn(Optional.of(new Capabilities(Capability.DAO_UTXO_BUCKETS)));
+        SettableFuture<Connection> future = SettableFuture.create();
+        when(networkNode.sendMessage(eq(PEERS_NODE_ADDRESS), any(GetUtxoBucketsRequest.class))).thenReturn(future);
+
+        requestBuckets();
+        future.setException(new IllegalStateException("Connection lost"));
+
+        assertEquals(1, errorMessages.size());
+        verify(peerManager).handleConnectionFault(PEERS_NODE_ADDRESS);
+    }
+
+    private void requestBuckets() {
+        utxoBucketsNetworkService.requestBuckets(PEERS_NODE_ADDRESS, List.of(1, 2),
+                response -> {
+                },
+                errorMessages::add);
+    }
+
+    // Keeps the scheduled action so the test can run it instead of waiting for the timeout
+    public static class ManualTimer implements Timer {
+        private static Runnable action;
+
+        @Override
+        public Timer runLater(Duration delay, Runnable action) {
+            ManualTimer.action = action;
+            return this;
+        }
+
+        @Override
+        public Timer runPeriodically(Duration interval, Runnable runnable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void stop() {
+            action = null;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.lite.network;
+
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.state.model.blockchain.Block;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.UserThread;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BlockRangeDownloaderTest {
+    private static final int START_HEIGHT = 1000;
+    private static final int TIP_HEIGHT = 5999;
+
+    // Stands in for a seed node which answers GetBlocksRequests after a given latency
+    private static class Seed {
+        private final int latencyMs;
+        private final boolean supportsRanges;
+        private final boolean faulty;
+        // Blocks from that height on are from another chain
+        private final int forkHeight;
+        private final AtomicInteger numRequests = new AtomicInteger();
+
+        private Seed(int latencyMs, boolean supportsRanges, boolean faulty, int forkHeight) {
+            this.latencyMs = latencyMs;
+            this.supportsRanges = supportsRanges;
+            this.faulty = faulty;
+            this.forkHeight = forkHeight;
+        }
+
+        private static Seed withLatency(int latencyMs) {
+            return new Seed(latencyMs, true, false, Integer.MAX_VALUE);
+        }
+
+        private void respond(int fromBlockHeight, int toBlockHeight, BlockRangeDownloader.ResponseHandler handler) {
+            if (faulty) {
+                handler.onFault("Connection failed");
+                return;
+            }
+            int lastHeight = supportsRanges && toBlockHeight > 0 ? toBlockHeight : TIP_HEIGHT;
+            List<RawBlock> blocks = new ArrayList<>();
+            for (int height = fromBlockHeight; height <= lastHeight; height++) {
+                String prefix = height > forkHeight ? "fork" : "hash";
+                String previousPrefix = height - 1 > forkHeight ? "fork" : "hash";
+                blocks.add(RawBlock.fromBlock(new Block(height, height * 600_000L, prefix + height,
+                        previousPrefix + (height - 1))));
+            }
+            handler.onBlocks(blocks);
+        }
+    }
+
+    // Request which is only answered when the test responds to it
+    private static class PendingRequest {
+        private final NodeAddress peer;
+        private final int fromBlockHeight;
+        private final int toBlockHeight;
+        private final BlockRangeDownloader.ResponseHandler handler;
+        private volatile boolean terminated;
+        private boolean answered;
+
+        private PendingRequest(NodeAddress peer,
+                               int fromBlockHeight,
+                               int toBlockHeight,
+                               BlockRangeDownloader.ResponseHandler handler) {
+            this.peer = peer;
+            this.fromBlockHeight = fromBlockHeight;
+            this.toBlockHeight = toBlockHeight;
+            this.handler = handler;
+        }
+
+        private void respond() {
+            answered = true;
+            UserThread.execute(() -> Seed.withLatency(0).respond(fromBlockHeight, toBlockHeight, handler));
+        }
+    }
+
+    private final Map<NodeAddress, Seed> seeds = new LinkedHashMap<>();
+    private final List<RawBlock> appliedBlocks = new ArrayList<>();
+    private final CountDownLatch doneLatch = new CountDownLatch(1);
+    private ScheduledExecutorService networkExecutor;
+    private ExecutorService userThreadExecutor;
+    private BlockRangeDownloader downloader;
+    private int failedAtHeight = -1;
+
+    @Before
+    public void setUp() {
+        networkExecutor = Executors.newScheduledThreadPool(4);
+        userThreadExecutor = Executors.newSingleThreadExecutor();
+        UserThread.setExecutor(userThreadExecutor);
+    }
+
+    @After
+    public void tearDown() {
+        if (downloader != null) {
+            UserThread.execute(downloader::shutDown);
+        }
+        UserThread.setExecutor(MoreExecutors.directExecutor());
+        networkExecutor.shutdownNow();
+        userThreadExecutor.shutdown();
+    }
+
+    private void addSeed(int port, Seed seed) {
+        seeds.put(new NodeAddress("localhost", port), seed);
+    }
+
+    private void download(long slowRangeMillis) throws InterruptedException {
+        downloader = new BlockRangeDownloader(this::requestBlocks, new BlockRangeDownloader.Listener() {
+            @Override
+            public void onRangeReceived(List<RawBlock> blocks) {
+                appliedBlocks.addAll(blocks);
+                if (appliedBlocks.get(appliedBlocks.size() - 1).getHeight() == TIP_HEIGHT) {
+                    doneLatch.countDown();
+                } else {
+                    // Parsing is done later on the user thread
+                    UserThread.execute(downloader::onRangeApplied);
+                }
+            }
+
+            @Override
+            public void onFailed(int nextBlockHeight) {
+                failedAtHeight = nextBlockHeight;
+                doneLatch.countDown();
+            }
+        }, slowRangeMillis);
+        UserThread.execute(() -> downloader.start(new ArrayList<>(seeds.keySet()), START_HEIGHT, TIP_HEIGHT));
+        assertTrue("Download did not complete", doneLatch.await(20, TimeUnit.SECONDS));
+    }
+
+    private Runnable requestBlocks(NodeAddress peer,
+                                   int fromBlockHeight,
+                                   int toBlockHeight,
+                                   BlockRangeDownloader.ResponseHandler handler) {
+        Seed seed = seeds.get(peer);
+        seed.numRequests.incrementAndGet();
+        ScheduledFuture<?> future = networkExecutor.schedule(() ->
+                        UserThread.execute(() -> seed.respond(fromBlockHeight, toBlockHeight, handler)),
+                seed.latencyMs, TimeUnit.MILLISECONDS);
+        return () -> future.cancel(false);
+    }
+
+    private static PendingRequest awaitRequest(List<PendingRequest> requests, NodeAddress peer)
+            throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < timeout) {
+            for (PendingRequest request : requests) {
+                if (request.peer.equals(peer) && !request.answered && !request.terminated) {
+                    return request;
+                }
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("No request to " + peer);
+    }
+
+    private void assertAllBlocksAppliedInOrder() {
+        assertEquals(TIP_HEIGHT - START_HEIGHT + 1, appliedBlocks.size());
+        for (int i = 0; i < appliedBlocks.size(); i++) {
+            RawBlock block = appliedBlocks.get(i);
+            assertEquals(START_HEIGHT + i, block.getHeight());
+            assertEquals("hash" + block.getHeight(), block.getHash());
+        }
+    }
+
+    @Test
+    public void testGetRangeSize() {
+        assertEquals(417, BlockRangeDownloader.getRangeSize(5000, 3));
+        assertEquals(BlockRangeDownloader.MIN_RANGE_SIZE, BlockRangeDownloader.getRangeSize(500, 3));
+        assertEquals(BlockRangeDownloader.MAX_RANGE_SIZE, BlockRangeDownloader.getRangeSize(100_000, 2));
+    }
+
+    @Test
+    public void testRangesFromSeveralSeedsAreAppliedInOrder() throws InterruptedException {
+        addSeed(8001, Seed.withLatency(5));
+        addSeed(8002, Seed.withLatency(20));
+        addSeed(8003, Seed.withLatency(50));
+        // Delivers all blocks up to its tip for each request
+        addSeed(8004, new Seed(10, false, false, Integer.MAX_VALUE));
+        download(10_000);
+
+        assertEquals(-1, failedAtHeight);
+        assertAllBlocksAppliedInOrder();
+        seeds.values().forEach(seed -> assertTrue(seed.numRequests.get() > 0));
+    }
+
+    @Test
+    public void testRangeOfSlowSeedIsRequestedFromOtherSeed() throws InterruptedException {
+        addSeed(8001, Seed.withLatency(60_000));
+        addSeed(8002, Seed.withLatency(5));
+        addSeed(8003, Seed.withLatency(10));
+        download(200);
+
+        assertEquals(-1, failedAtHeight);
+        assertAllBlocksAppliedInOrder();
+        assertEquals(1, seeds.get(new NodeAddress("localhost", 8001)).numRequests.get());
+    }
+
+    @Test
+    public void testRangeNotConnectingToPreviousRangeIsRequestedAgain() throws InterruptedException {
+        addSeed(8001, Seed.withLatency(5));
+        addSeed(8002, Seed.withLatency(5));
+        // Gets the third range and is on a fork from the start height on
+        addSeed(8003, new Seed(5, true, false, START_HEIGHT));
+        download(10_000);
+
+        assertEquals(-1, failedAtHeight);
+        assertAllBlocksAppliedInOrder();
+    }
+
+    @Test
+    public void testFailsIfNoSeedIsLeft() throws InterruptedException {
+        addSeed(8001, new Seed(5, true, true, Integer.MAX_VALUE));
+        addSeed(8002, new Seed(5, true, true, Integer.MAX_VALUE));
+        download(10_000);
+
+        assertEquals(START_HEIGHT, failedAtHeight);
+        assertTrue(appliedBlocks.isEmpty());
+    }
+
+    @Test
+    public void testOnlySlowSeedIsDroppedIfRangeWasRequestedTwice() throws InterruptedException {
+        NodeAddress slowSeed = new NodeAddress("localhost", 8001);
+        NodeAddress otherSeed = new NodeAddress("localhost", 8002);
+        List<PendingRequest> requests = new CopyOnWriteArrayList<>();
+        downloader = new BlockRangeDownloader((peer, fromBlockHeight, toBlockHeight, handler) -> {
+            PendingRequest request = new PendingRequest(peer, fromBlockHeight, toBlockHeight, handler);
+            requests.add(request);
+            return () -> request.terminated = true;
+        }, new BlockRangeDownloader.Listener() {
+            @Override
+            public void onRangeReceived(List<RawBlock> blocks) {
+                UserThread.execute(downloader::onRangeApplied);
+            }
+
+            @Override
+            public void onFailed(int nextBlockHeight) {
+                failedAtHeight = nextBlockHeight;
+            }
+        }, 1000);
+        UserThread.execute(() -> downloader.start(List.of(slowSeed, otherSeed), START_HEIGHT, TIP_HEIGHT));
+
+        // The slow seed gets the first range and does not answer. The other seed answers the ranges ahead until the
+        // first range is outstanding for longer than slowRangeMillis and it gets requested from the other seed too.
+        PendingRequest slowRequest = awaitRequest(requests, slowSeed);
+        assertEquals(START_HEIGHT, slowRequest.fromBlockHeight);
+        PendingRequest additionalRequest = awaitRequest(requests, otherSeed);
+        int lastAnsweredHeight = 0;
+        while (additionalRequest.fromBlockHeight != START_HEIGHT) {
+            lastAnsweredHeight = additionalRequest.toBlockHeight;
+            additionalRequest.respond();
+            additionalRequest = awaitRequest(requests, otherSeed);
+        }
+
+        // The slow seed answers first, so only the additional request gets terminated and the other seed gets
+        // further ranges
+        slowRequest.respond();
+        long timeout = System.currentTimeMillis() + 10_000;
+        while (!additionalRequest.terminated && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        assertTrue(additionalRequest.terminated);
+
+        PendingRequest nextRequest = awaitRequest(requests, otherSeed);
+        assertTrue(nextRequest.fromBlockHeight > lastAnsweredHeight);
+        assertEquals(-1, failedAtHeight);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.node.parser;
+
+import bisq.core.dao.governance.period.PeriodService;
+import bisq.core.dao.node.full.RawBlock;
+import bisq.core.dao.node.full.RawTx;
+import bisq.core.dao.node.full.RawTxOutput;
+import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.GenesisTxInfo;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.TxInput;
+import bisq.core.util.coin.BsqFormatter;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Parses a chain with and without the pre-screening of the BlockParser and compares the resulting dao states.
+ */
+public class BlockParserPreScreeningTest {
+    private static final String GENESIS_TX_ID = "genesisTxId";
+    private static final int GENESIS_BLOCK_HEIGHT = 100;
+    private static final long GENESIS_TOTAL_SUPPLY = 10_000_000;
+    private static final int NUM_BLOCKS = 20;
+    // Above the threshold for a parallel pre-screening
+    private static final int NUM_TXS_PER_BLOCK = 400;
+
+    private final Random random = new Random(1);
+    private int txCounter;
+
+    private static BlockParser blockParser(DaoState daoState) {
+        GenesisTxInfo genesisTxInfo = new GenesisTxInfo(GENESIS_TX_ID, GENESIS_BLOCK_HEIGHT, GENESIS_TOTAL_SUPPLY);
+        DaoStateService daoStateService = new DaoStateService(daoState, genesisTxInfo, new BsqFormatter());
+        daoStateService.start();
+        return new BlockParser(new TxParser(new PeriodService(daoStateService), daoStateService), daoStateService);
+    }
+
+    @Test
+    public void testPreScreeningResultsInSameDaoState() throws Exception {
+        List<RawBlock> rawBlocks = rawBlocks();
+
+        DaoState daoStateWithoutPreScreening = new DaoState();
+        BlockParser blockParserWithoutPreScreening = blockParser(daoStateWithoutPreScreening);
+        DaoState daoStateWithPreScreening = new DaoState();
+        BlockParser blockParserWithPreScreening = blockParser(daoStateWithPreScreening);
+
+        int numTxs = 0;
+        int numCandidates = 0;
+        int numBsqTxs = 0;
+        for (RawBlock rawBlock : rawBlocks) {
+            numTxs += rawBlock.getRawTxs().size();
+            numCandidates += blockParserWithPreScreening.getBsqTxCandidates(rawBlock).size();
+
+            int bsqTxs = blockParserWithoutPreScreening.parseBlock(rawBlock, false).getTxs().size();
+            assertEquals(bsqTxs, blockParserWithPreScreening.parseBlock(rawBlock, true).getTxs().size());
+            numBsqTxs += bsqTxs;
+        }
+
+        assertArrayEquals(daoStateWithoutPreScreening.getBsqStateBuilder().build().toByteArray(),
+                daoStateWithPreScreening.getBsqStateBuilder().build().toByteArray());
+        assertTrue(numBsqTxs > NUM_BLOCKS);
+        assertTrue(numCandidates >= numBsqTxs);
+        assertTrue(numCandidates < numTxs / 2);
+    }
+
+    // Each block has BSQ txs spending outputs of former blocks and of former txs in the same block, BTC txs spending
+    // outputs of former txs in the same block and BTC txs with unknown inputs.
+    private List<RawBlock> rawBlocks() {
+        List<RawBlock> rawBlocks = new ArrayList<>();
+        Deque<RawTxOutput> bsqOutputs = new ArrayDeque<>();
+        String previousBlockHash = "previousBlockHash";
+        for (int height = GENESIS_BLOCK_HEIGHT; height < GENESIS_BLOCK_HEIGHT + NUM_BLOCKS; height++) {
+            String blockHash = "blockHash" + height;
+            List<RawTx> rawTxs = new ArrayList<>();
+            List<RawTxOutput> btcOutputsOfBlock = new ArrayList<>();
+            if (height == GENESIS_BLOCK_HEIGHT) {
+                RawTx genesisTx = rawTx(GENESIS_TX_ID, height, blockHash, unknownInputs(1),
+                        List.of(GENESIS_TOTAL_SUPPLY / 2, GENESIS_TOTAL_SUPPLY / 2), false);
+                bsqOutputs.addAll(genesisTx.getRawTxOutputs());
+                rawTxs.add(genesisTx);
+            }
+            while (rawTxs.size() < NUM_TXS_PER_BLOCK) {
+                int type = random.nextInt(20);
+                if (type == 0 && !bsqOutputs.isEmpty()) {
+                    // Splits a BSQ output, the new outputs can be spent in the same block
+                    RawTxOutput spent = bsqOutputs.poll();
+                    long value = spent.getValue();
+                    List<Long> values = value > 1_000 ? List.of(value / 2, value - value / 2) : List.of(value);
+                    String txId = nextTxId();
+                    RawTx bsqTx = rawTx(txId, height, blockHash,
+                            ImmutableList.<TxInput>builder()
+                                    .add(new TxInput(spent.getTxId(), spent.getIndex(), null))
+                                    .addAll(unknownInputs(1))
+                                    .build(),
+                            values,
+                            true);
+                    bsqOutputs.addAll(bsqTx.getRawTxOutputs().subList(0, values.size()));
+                    btcOutputsOfBlock.add(bsqTx.getRawTxOutputs().get(values.size()));
+                    rawTxs.add(bsqTx);
+                } else if (type == 1 && !btcOutputsOfBlock.isEmpty()) {
+                    // Spends a BTC output of the same block
+                    RawTxOutput spent = btcOutputsOfBlock.remove(0);
+                    rawTxs.add(rawTx(nextTxId(), height, blockHash,
+                            ImmutableList.of(new TxInput(spent.getTxId(), spent.getIndex(), null)),
+                            List.of(),
+                            true));
+                } else {
+                    RawTx btcTx = rawTx(nextTxId(), height, blockHash, unknownInputs(1 + random.nextInt(3)),
+                            List.of(), true);
+                    btcOutputsOfBlock.add(btcTx.getRawTxOutputs().get(0));
+                    rawTxs.add(btcTx);
+                }
+            }
+            rawBlocks.add(RawBlock.fromProto(protobuf.BaseBlock.newBuilder()
+                    .setHeight(height)
+                    .setTime(height * 600L)
+                    .setHash(blockHash)
+                    .setPreviousBlockHash(previousBlockHash)
+                    .setRawBlock(protobuf.RawBlock.newBuilder()
+                            .addAllRawTxs(rawTxs.stream().map(RawTx::toProtoMessage).collect(Collectors.toList())))
+                    .build()));
+            previousBlockHash = blockHash;
+        }
+        return rawBlocks;
+    }
+
+    private RawTx rawTx(String txId,
+                        int height,
+                        String blockHash,
+                        ImmutableList<TxInput> txInputs,
+                        List<Long> values,
+                        boolean addBtcOutput) {
+        List<RawTxOutput> outputs = new ArrayList<>();
+        for (long value : values) {
+            outputs.add(new RawTxOutput(outputs.size(), value, txId, null, null, null, height));
+        }
+        if (addBtcOutput) {
+            // Exceeds any available BSQ input value, so it is always a BTC output.
+            outputs.add(new RawTxOutput(outputs.size(), 10_000_000_000L + random.nextInt(1_000_000), txId,
+                    null, null, null, height));
+        }
+        return new RawTx(txId, height, blockHash, height * 600L, txInputs, ImmutableList.copyOf(outputs));
+    }
+
+    private ImmutableList<TxInput> unknownInputs(int numInputs) {
+        ImmutableList.Builder<TxInput> builder = ImmutableList.builder();
+        for (int i = 0; i < numInputs; i++) {
+            builder.add(new TxInput("unknownTxId" + random.nextInt(), random.nextInt(4), null));
+        }
+        return builder.build();
+    }
+
+    private String nextTxId() {
+        return "txId" + txCounter++;
+    }
+}
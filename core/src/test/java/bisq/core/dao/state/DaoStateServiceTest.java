@@ -0,0 +1,172 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.governance.param.Param;
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.Block;
+import bisq.core.dao.state.model.governance.Cycle;
+import bisq.core.dao.state.model.governance.DaoPhase;
+import bisq.core.util.coin.BsqFormatter;
+
+import org.bitcoinj.core.Coin;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Mockito.mock;
+
+public class DaoStateServiceTest {
+    private static final int CYCLE_DURATION = 10;
+
+    private DaoState daoState;
+    private DaoStateService daoStateService;
+
+    @Before
+    public void setup() {
+        daoState = new DaoState();
+        daoStateService = new DaoStateService(daoState, mock(GenesisTxInfo.class), new BsqFormatter());
+        daoStateService.start();
+    }
+
+    private static Cycle cycle(int heightOfFirstBlock) {
+        return new Cycle(heightOfFirstBlock, ImmutableList.of(new DaoPhase(DaoPhase.Phase.PROPOSAL, CYCLE_DURATION)));
+    }
+
+    @Test
+    public void testGetCycle() {
+        assertFalse(daoStateService.getCycle(100).isPresent());
+
+        daoStateService.addCycle(cycle(100));
+        daoStateService.addCycle(cycle(110));
+        daoStateService.addCycle(cycle(120));
+
+        assertFalse(daoStateService.getCycle(99).isPresent());
+        assertEquals(100, daoStateService.getCycle(100).get().getHeightOfFirstBlock());
+        assertEquals(100, daoStateService.getCycle(109).get().getHeightOfFirstBlock());
+        assertEquals(110, daoStateService.getCycle(110).get().getHeightOfFirstBlock());
+        assertEquals(120, daoStateService.getCycle(129).get().getHeightOfFirstBlock());
+        assertFalse(daoStateService.getCycle(130).isPresent());
+        assertEquals(Optional.of(130), daoStateService.getStartHeightOfNextCycle(125));
+    }
+
+    @Test
+    public void testGetParamValue() {
+        daoStateService.addCycle(cycle(100));
+        daoStateService.addCycle(cycle(110));
+
+        assertEquals(Param.PROPOSAL_FEE.getDefaultValue(), daoStateService.getParamValue(Param.PROPOSAL_FEE, 105));
+        assertEquals(Coin.valueOf(200), daoStateService.getParamValueAsCoin(Param.PROPOSAL_FEE, 105));
+
+        // Activates at the start of the next cycle
+        daoStateService.setNewParam(105, Param.PROPOSAL_FEE, "3");
+        daoStateService.setNewParam(105, Param.PROPOSAL_FEE, "4");
+        daoStateService.setNewParam(115, Param.PROPOSAL_FEE, "5");
+
+        assertEquals(Param.PROPOSAL_FEE.getDefaultValue(), daoStateService.getParamValue(Param.PROPOSAL_FEE, 109));
+        // The later change at the same height wins
+        assertEquals("4", daoStateService.getParamValue(Param.PROPOSAL_FEE, 110));
+        assertEquals(Coin.valueOf(400), daoStateService.getParamValueAsCoin(Param.PROPOSAL_FEE, 119));
+        assertEquals("5", daoStateService.getParamValue(Param.PROPOSAL_FEE, 120));
+        assertEquals(Coin.valueOf(500), daoStateService.getParamValueAsCoin(Param.PROPOSAL_FEE, 1000));
+        assertEquals(Param.DEFAULT_MAKER_FEE_BTC.getDefaultValue(),
+                daoStateService.getParamValue(Param.DEFAULT_MAKER_FEE_BTC, 1000));
+    }
+
+    @Test
+    public void testApplySnapshotRebuildsIndexes() {
+        daoStateService.addCycle(cycle(100));
+        daoStateService.setNewParam(105, Param.PROPOSAL_FEE, "3");
+        assertEquals("3", daoStateService.getParamValue(Param.PROPOSAL_FEE, 110));
+
+        DaoState snapshot = new DaoState();
+        snapshot.getCycles().add(cycle(200));
+        daoStateService.applySnapshot(snapshot);
+
+        assertFalse(daoStateService.getCycle(105).isPresent());
+        assertEquals(200, daoStateService.getCycle(205).get().getHeightOfFirstBlock());
+        assertEquals(Param.PROPOSAL_FEE.getDefaultValue(), daoStateService.getParamValue(Param.PROPOSAL_FEE, 110));
+    }
+
+    @Test
+    public void testPruneBlocks() {
+        List<Block> persistedBlocks = IntStream.rangeClosed(100, 119)
+                .mapToObj(height -> new Block(height, height, "hash" + height, "hash" + (height - 1)))
+                .collect(Collectors.toList());
+        daoState.addBlocks(persistedBlocks);
+
+        // Without a provider of the persisted blocks we keep all blocks
+        daoStateService.pruneBlocks(110, 5);
+        assertEquals(20, daoStateService.getBlocks().size());
+
+        daoStateService.setPersistedBlocksProvider((fromHeight, toHeight) -> persistedBlocks.stream()
+                .filter(block -> block.getHeight() >= fromHeight && block.getHeight() <= toHeight)
+                .collect(Collectors.toList()));
+        daoStateService.pruneBlocks(110, 5);
+        assertEquals(9, daoStateService.getBlocks().size());
+        assertEquals(111, daoStateService.getBlocks().get(0).getHeight());
+        assertEquals(20, daoStateService.getNumBlocks());
+
+        // The number of resident blocks limits pruning as well
+        daoStateService.pruneBlocks(119, 5);
+        assertEquals(5, daoStateService.getBlocks().size());
+        assertEquals(119, daoStateService.getBlockHeightOfLastBlock());
+
+        assertEquals("hash105", daoStateService.getBlockAtHeight(105).get().getHash());
+        assertEquals("hash117", daoStateService.getBlockAtHeight(117).get().getHash());
+        assertFalse(daoStateService.getBlockAtHeight(99).isPresent());
+        assertFalse(daoStateService.getBlockAtHeight(120).isPresent());
+
+        List<Block> blocks = daoStateService.getBlocksFromBlockHeight(112, 5);
+        assertEquals(IntStream.rangeClosed(112, 116).boxed().collect(Collectors.toList()),
+                blocks.stream().map(Block::getHeight).collect(Collectors.toList()));
+        assertEquals(persistedBlocks, daoStateService.getBlocksFromBlockHeight(0));
+    }
+
+    @Test
+    public void testBlockTimeOfPrunedBlocksIsNotReadFromDisk() {
+        daoState.addBlocks(IntStream.rangeClosed(100, 119)
+                .mapToObj(height -> new Block(height, height * 1000L, "hash" + height, "hash" + (height - 1)))
+                .collect(Collectors.toList()));
+        AtomicInteger numReads = new AtomicInteger();
+        daoStateService.setPersistedBlocksProvider((fromHeight, toHeight) -> {
+            numReads.incrementAndGet();
+            return List.of();
+        });
+        daoStateService.pruneBlocks(105, 5);
+        daoStateService.pruneBlocks(110, 5);
+
+        assertEquals(100_000, daoStateService.getBlockTimeAtBlockHeight(100));
+        assertEquals(106_000, daoStateService.getBlockTimeAtBlockHeight(106));
+        assertEquals(110_000, daoStateService.getBlockTime(110));
+        assertEquals(111_000, daoStateService.getBlockTimeAtBlockHeight(111));
+        assertEquals(0, daoStateService.getBlockTimeAtBlockHeight(99));
+        assertEquals(0, daoStateService.getBlockTimeAtBlockHeight(120));
+        assertEquals(0, numReads.get());
+    }
+}
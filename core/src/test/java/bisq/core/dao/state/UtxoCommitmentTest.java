@@ -0,0 +1,175 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.dao.state;
+
+import bisq.core.dao.state.model.DaoState;
+import bisq.core.dao.state.model.blockchain.TxOutput;
+import bisq.core.util.coin.BsqFormatter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class UtxoCommitmentTest {
+    private static final byte[] EMPTY = new byte[UtxoCommitment.NUM_BUCKETS * UtxoCommitment.DIGEST_LENGTH];
+
+    private List<TxOutput> txOutputs;
+
+    @Before
+    public void setup() {
+        txOutputs = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            txOutputs.add(txOutput("tx" + i / 3, i % 3, 1000 + i));
+        }
+    }
+
+    private static TxOutput txOutput(String txId, int index, long value) {
+        return TxOutput.fromProto(protobuf.BaseTxOutput.newBuilder()
+                .setTxId(txId)
+                .setIndex(index)
+                .setValue(value)
+                .setBlockHeight(700000)
+                .setTxOutput(protobuf.TxOutput.newBuilder()
+                        .setTxOutputType(protobuf.TxOutputType.BSQ_OUTPUT)
+                        .setLockTime(-1))
+                .build());
+    }
+
+    @Test
+    public void testDigestsDoNotDependOnOrder() {
+        UtxoCommitment commitment = new UtxoCommitment();
+        commitment.reset(txOutputs);
+
+        List<TxOutput> shuffled = new ArrayList<>(txOutputs);
+        Collections.shuffle(shuffled, new Random(1));
+        UtxoCommitment other = new UtxoCommitment();
+        shuffled.forEach(other::add);
+
+        assertArrayEquals(commitment.getPackedDigests(), other.getPackedDigests());
+        assertFalse(UtxoCommitment.getDifferingBuckets(commitment.getPackedDigests(), EMPTY).isEmpty());
+    }
+
+    @Test
+    public void testRemoveRevertsAdd() {
+        UtxoCommitment commitment = new UtxoCommitment();
+        txOutputs.forEach(commitment::add);
+        txOutputs.forEach(commitment::remove);
+
+        assertArrayEquals(EMPTY, commitment.getPackedDigests());
+        for (int i = 0; i < UtxoCommitment.NUM_BUCKETS; i++) {
+            assertEquals(0, commitment.getNumOutputs(i));
+        }
+    }
+
+    @Test
+    public void testDifferingBucketsOfChangedOutput() {
+        UtxoCommitment commitment = new UtxoCommitment();
+        commitment.reset(txOutputs);
+        UtxoCommitment other = new UtxoCommitment();
+        other.reset(txOutputs);
+
+        TxOutput changed = txOutputs.get(42);
+        other.remove(changed);
+        other.add(txOutput(changed.getTxId(), changed.getIndex(), changed.getValue() + 1));
+
+        int bucketIndex = UtxoCommitment.getBucketIndex(changed.getKey());
+        assertEquals(List.of(bucketIndex),
+                UtxoCommitment.getDifferingBuckets(commitment.getPackedDigests(), other.getPackedDigests()));
+        assertEquals(commitment.getNumOutputs(bucketIndex), other.getNumOutputs(bucketIndex));
+    }
+
+    @Test
+    public void testDaoStateServiceMaintainsCommitment() {
+        DaoStateService daoStateService = new DaoStateService(new DaoState(), mock(GenesisTxInfo.class),
+                new BsqFormatter());
+        daoStateService.start();
+        txOutputs.subList(0, 1000).forEach(daoStateService::addUnspentTxOutput);
+
+        // Built at first access, then maintained incrementally
+        UtxoCommitment commitment = daoStateService.getUtxoCommitment();
+        txOutputs.subList(1000, 2000).forEach(daoStateService::addUnspentTxOutput);
+        txOutputs.subList(0, 500).forEach(daoStateService::removeUnspentTxOutput);
+
+        UtxoCommitment expected = new UtxoCommitment();
+        expected.reset(txOutputs.subList(500, 2000));
+        assertArrayEquals(expected.getPackedDigests(), commitment.getPackedDigests());
+    }
+
+    @Test
+    public void testGetUnspentTxOutputsOfBuckets() {
+        DaoStateService daoStateService = new DaoStateService(new DaoState(), mock(GenesisTxInfo.class),
+                new BsqFormatter());
+        daoStateService.start();
+        txOutputs.forEach(daoStateService::addUnspentTxOutput);
+        daoStateService.getUtxoCommitment();
+        TxOutput removed = txOutputs.get(5);
+        daoStateService.removeUnspentTxOutput(removed);
+
+        int bucketIndex = UtxoCommitment.getBucketIndex(removed.getKey());
+        List<TxOutput> expected = txOutputs.stream()
+                .filter(txOutput -> txOutput != removed)
+                .filter(txOutput -> UtxoCommitment.getBucketIndex(txOutput.getKey()) == bucketIndex)
+                .collect(Collectors.toList());
+        List<TxOutput> result = daoStateService.getUnspentTxOutputsOfBuckets(List.of(bucketIndex, bucketIndex));
+
+        assertEquals(new HashSet<>(expected), new HashSet<>(result));
+        assertEquals(expected.size(), result.size());
+    }
+
+    @Test
+    public void testGetRepairedUtxoCommitment() {
+        DaoStateService daoStateService = new DaoStateService(new DaoState(), mock(GenesisTxInfo.class),
+                new BsqFormatter());
+        daoStateService.start();
+        txOutputs.forEach(daoStateService::addUnspentTxOutput);
+        TxOutput unexpected = txOutputs.get(7);
+        daoStateService.removeUnspentTxOutput(txOutputs.get(3));
+        byte[] ourPackedDigests = daoStateService.getUtxoCommitment().getPackedDigests();
+
+        UtxoCommitment peers = new UtxoCommitment();
+        List<TxOutput> peersTxOutputs = new ArrayList<>(txOutputs);
+        peersTxOutputs.remove(unexpected);
+        peers.reset(peersTxOutputs);
+
+        List<Integer> differingBuckets = UtxoCommitment.getDifferingBuckets(ourPackedDigests,
+                peers.getPackedDigests());
+        assertFalse(differingBuckets.isEmpty());
+        assertTrue(differingBuckets.size() <= 2);
+
+        UtxoCommitment repaired = daoStateService.getRepairedUtxoCommitment(differingBuckets, peersTxOutputs);
+
+        assertArrayEquals(peers.getPackedDigests(), repaired.getPackedDigests());
+        // Our own state is not changed
+        assertArrayEquals(ourPackedDigests, daoStateService.getUtxoCommitment().getPackedDigests());
+        assertFalse(daoStateService.isUnspent(txOutputs.get(3).getKey()));
+        assertTrue(daoStateService.isUnspent(unexpected.getKey()));
+        assertEquals(txOutputs.size() - 1, daoStateService.getUnspentTxOutputMap().size());
+    }
+}
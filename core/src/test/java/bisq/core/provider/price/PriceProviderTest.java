@@ -0,0 +1,232 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.provider.price;
+
+import bisq.network.http.HttpClient;
+import bisq.network.http.HttpException;
+
+import bisq.common.util.Tuple2;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.Nullable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PriceProviderTest {
+    private StubHttpClient httpClient;
+    private PriceProvider priceProvider;
+
+    @Before
+    public void setUp() {
+        httpClient = new StubHttpClient();
+        priceProvider = new PriceProvider(httpClient, "http://pricenode/");
+    }
+
+    @Test
+    public void testDeltasAndRemovalsAreApplied() throws IOException {
+        httpClient.updates.add(new Tuple2<>(json(1, true, "", price("EUR", 1000), price("USD", 1100)), "\"1\""));
+        httpClient.updates.add(new Tuple2<>(json(2, false, "\"EUR\"", price("USD", 1200), price("XMR", 0.005)),
+                "\"2\""));
+
+        Map<String, MarketPrice> prices = priceProvider.getAll().second;
+        assertEquals(2, prices.size());
+        assertEquals(1000, prices.get("EUR").getPrice(), 0);
+
+        Tuple2<Map<String, Long>, Map<String, MarketPrice>> tsMapAndPrices = priceProvider.getAll();
+        prices = tsMapAndPrices.second;
+        assertEquals(2, prices.size());
+        assertFalse(prices.containsKey("EUR"));
+        assertEquals(1200, prices.get("USD").getPrice(), 0);
+        assertEquals(0.005, prices.get("XMR").getPrice(), 0);
+        assertEquals(2, (long) tsMapAndPrices.first.get("btcAverageTs"));
+        assertEquals(List.of("getMarketPriceUpdates?sinceVersion=-1", "getMarketPriceUpdates?sinceVersion=1"),
+                httpClient.requestedParams);
+    }
+
+    @Test
+    public void testFullSnapshotReplacesAllPrices() throws IOException {
+        httpClient.updates.add(new Tuple2<>(json(1, true, "", price("EUR", 1000), price("USD", 1100)), "\"1\""));
+        // The pricenode sends a full snapshot if it cannot deliver a delta since our version, e.g. after a restart
+        httpClient.updates.add(new Tuple2<>(json(1, true, "", price("USD", 1200)), "\"1b\""));
+
+        priceProvider.getAll();
+        Map<String, MarketPrice> prices = priceProvider.getAll().second;
+
+        assertEquals(1, prices.size());
+        assertEquals(1200, prices.get("USD").getPrice(), 0);
+    }
+
+    @Test
+    public void testNotModifiedReusesPreviousPrices() throws IOException {
+        httpClient.updates.add(new Tuple2<>(json(1, true, "", price("EUR", 1000)), "\"1\""));
+        httpClient.updates.add(null);
+
+        priceProvider.getAll();
+        long numCharsReceived = priceProvider.getNumCharsReceived();
+        Tuple2<Map<String, Long>, Map<String, MarketPrice>> tsMapAndPrices = priceProvider.getAll();
+
+        assertEquals(1, tsMapAndPrices.second.size());
+        assertEquals(1000, tsMapAndPrices.second.get("EUR").getPrice(), 0);
+        assertEquals(1, (long) tsMapAndPrices.first.get("btcAverageTs"));
+        assertEquals(numCharsReceived, priceProvider.getNumCharsReceived());
+        // We did not get a new version, so we still ask for updates since the previous one
+        assertEquals("getMarketPriceUpdates?sinceVersion=1", httpClient.requestedParams.get(1));
+    }
+
+    @Test
+    public void testETagIsSentWithNextRequest() throws IOException {
+        httpClient.updates.add(new Tuple2<>(json(1, true, "", price("EUR", 1000)), "\"1\""));
+        httpClient.updates.add(new Tuple2<>(json(2, false, "", price("EUR", 1100)), "\"2\""));
+        httpClient.updates.add(null);
+
+        priceProvider.getAll();
+        priceProvider.getAll();
+        priceProvider.getAll();
+
+        List<String> expected = new ArrayList<>();
+        expected.add(null);
+        expected.add("\"1\"");
+        expected.add("\"2\"");
+        assertEquals(expected, httpClient.requestedETags);
+    }
+
+    @Test
+    public void testFallbackToAllMarketPricesIfUpdatesAreNotSupported() throws IOException {
+        httpClient.updatesException = new IOException("Not found", new HttpException("Not found", 404));
+        httpClient.allMarketPrices = json(1, true, "", price("EUR", 1000), price("USD", 1100));
+
+        Map<String, MarketPrice> prices = priceProvider.getAll().second;
+        assertEquals(2, prices.size());
+
+        // We do not try again to request updates from that pricenode
+        priceProvider.getAll();
+        assertEquals(List.of("getMarketPriceUpdates?sinceVersion=-1", "getAllMarketPrices", "getAllMarketPrices"),
+                httpClient.requestedParams);
+    }
+
+    @Test(expected = IOException.class)
+    public void testNoFallbackAtOtherErrors() throws IOException {
+        httpClient.updatesException = new IOException("Server error", new HttpException("Server error", 500));
+        httpClient.allMarketPrices = json(1, true, "", price("EUR", 1000));
+
+        priceProvider.getAll();
+    }
+
+    @Test
+    public void testNoRequestsAfterShutDown() throws IOException {
+        priceProvider.shutDown();
+
+        assertTrue(priceProvider.getAll().second.isEmpty());
+        assertTrue(httpClient.requestedParams.isEmpty());
+    }
+
+    private static String price(String currencyCode, double price) {
+        return "{\"currencyCode\":\"" + currencyCode + "\",\"price\":" + price + ",\"timestampSec\":1600000000}";
+    }
+
+    private static String json(long version, boolean fullSnapshot, String removed, String... data) {
+        return "{\"version\":" + version +
+                ",\"fullSnapshot\":" + fullSnapshot +
+                ",\"removed\":[" + removed + "]" +
+                ",\"data\":[" + String.join(",", data) + "]" +
+                ",\"btcAverageTs\":" + version +
+                ",\"poloniexTs\":" + version +
+                ",\"coinmarketcapTs\":" + version + "}";
+    }
+
+    private static class StubHttpClient implements HttpClient {
+        // A null entry stands for a 304 Not Modified response
+        private final Deque<Tuple2<String, String>> updates = new LinkedList<>();
+        private final List<String> requestedParams = new ArrayList<>();
+        private final List<String> requestedETags = new ArrayList<>();
+        @Nullable
+        private IOException updatesException;
+        @Nullable
+        private String allMarketPrices;
+        private String baseUrl;
+
+        @Override
+        public void setBaseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        @Override
+        public void setIgnoreSocks5Proxy(boolean ignoreSocks5Proxy) {
+        }
+
+        @Override
+        public String get(String param, @Nullable String headerKey, @Nullable String headerValue)
+                throws IOException {
+            requestedParams.add(param);
+            if (allMarketPrices == null)
+                throw new IOException("Unexpected request " + param);
+            return allMarketPrices;
+        }
+
+        @Nullable
+        @Override
+        public Tuple2<String, String> getIfNoneMatch(String param,
+                                                     @Nullable String eTag,
+                                                     @Nullable String headerKey,
+                                                     @Nullable String headerValue) throws IOException {
+            requestedParams.add(param);
+            requestedETags.add(eTag);
+            if (updatesException != null)
+                throw updatesException;
+            if (updates.isEmpty())
+                throw new IOException("Unexpected request " + param);
+            return updates.poll();
+        }
+
+        @Override
+        public String post(String param, @Nullable String headerKey, @Nullable String headerValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getUid() {
+            return "stub";
+        }
+
+        @Override
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        @Override
+        public boolean hasPendingRequest() {
+            return false;
+        }
+
+        @Override
+        public void shutDown() {
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.core.trade.txproof.xmr;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class XmrTxProofRequestSchedulerTest {
+    private static final int MAX_THREADS = 4;
+    private static final int MAX_REQUESTS_PER_SERVICE = 2;
+
+    @Test
+    public void testManyTradesShareBoundedThreads() throws Exception {
+        XmrTxProofRequestScheduler scheduler = new XmrTxProofRequestScheduler(MAX_THREADS,
+                MAX_REQUESTS_PER_SERVICE, 100, 1000);
+        List<StubExplorer> explorers = List.of(new StubExplorer("explorer1"), new StubExplorer("explorer2"),
+                new StubExplorer("explorer3"));
+        StubExplorer.Totals totals = new StubExplorer.Totals();
+        explorers.forEach(explorer -> explorer.totals = totals);
+
+        int numTrades = 300;
+        List<ListenableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < numTrades; i++) {
+            for (StubExplorer explorer : explorers) {
+                String param = "/api/outputs?txhash=" + i;
+                futures.add(scheduler.submit(explorer.address, param, () -> false, () -> explorer.get(param)));
+            }
+        }
+        for (ListenableFuture<String> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        for (StubExplorer explorer : explorers) {
+            assertEquals(numTrades, explorer.numRequests.get());
+            assertTrue(explorer.maxConcurrent.get() <= MAX_REQUESTS_PER_SERVICE);
+        }
+        assertTrue(totals.maxConcurrent.get() <= MAX_THREADS);
+        assertTrue(totals.threads.size() <= MAX_THREADS);
+    }
+
+    @Test
+    public void testIdenticalRequestsAreCoalesced() throws Exception {
+        XmrTxProofRequestScheduler scheduler = new XmrTxProofRequestScheduler(MAX_THREADS,
+                MAX_REQUESTS_PER_SERVICE, 100, 1000);
+        StubExplorer explorer = new StubExplorer("explorer1");
+        explorer.release = new CountDownLatch(1);
+
+        String param = "/api/outputs?txhash=1";
+        ListenableFuture<String> first = scheduler.submit(explorer.address, param, () -> false,
+                () -> explorer.get(param));
+        for (int i = 0; i < 50; i++) {
+            assertSame(first, scheduler.submit(explorer.address, param, () -> false, () -> explorer.get(param)));
+        }
+        explorer.release.countDown();
+        assertEquals(explorer.address + param, first.get(10, TimeUnit.SECONDS));
+        assertEquals(1, explorer.numRequests.get());
+
+        // Once completed the same request is sent again
+        scheduler.submit(explorer.address, param, () -> false, () -> explorer.get(param)).get(10, TimeUnit.SECONDS);
+        assertEquals(2, explorer.numRequests.get());
+    }
+
+    @Test
+    public void testBackOffAfterFailure() throws Exception {
+        long minBackOff = 400;
+        XmrTxProofRequestScheduler scheduler = new XmrTxProofRequestScheduler(MAX_THREADS,
+                MAX_REQUESTS_PER_SERVICE, minBackOff, 1000);
+        StubExplorer explorer = new StubExplorer("explorer1");
+        explorer.numFailures.set(1);
+
+        try {
+            scheduler.submit(explorer.address, "a", () -> false, () -> explorer.get("a")).get(10, TimeUnit.SECONDS);
+            fail("Expected the first request to fail");
+        } catch (ExecutionException expected) {
+        }
+        long failed = System.currentTimeMillis();
+        assertEquals(1, scheduler.getNumFailures(explorer.address));
+
+        scheduler.submit(explorer.address, "b", () -> false, () -> explorer.get("b")).get(10, TimeUnit.SECONDS);
+        assertTrue(explorer.lastRequestTime - failed >= minBackOff / 2 - 10);
+        assertEquals(0, scheduler.getNumFailures(explorer.address));
+
+        // Other services are not affected
+        StubExplorer other = new StubExplorer("explorer2");
+        long ts = System.currentTimeMillis();
+        scheduler.submit(other.address, "a", () -> false, () -> other.get("a")).get(10, TimeUnit.SECONDS);
+        assertTrue(other.lastRequestTime - ts < minBackOff / 2);
+    }
+
+    @Test
+    public void testCancelledRequestsAreNotSent() throws Exception {
+        XmrTxProofRequestScheduler scheduler = new XmrTxProofRequestScheduler(MAX_THREADS, 1, 100, 1000);
+        StubExplorer explorer = new StubExplorer("explorer1");
+        explorer.release = new CountDownLatch(1);
+        AtomicBoolean terminated = new AtomicBoolean();
+
+        // While "a" is running the others are queued
+        ListenableFuture<String> running = scheduler.submit(explorer.address, "a", terminated::get,
+                () -> explorer.get("a"));
+        ListenableFuture<String> cancelled = scheduler.submit(explorer.address, "b", terminated::get,
+                () -> explorer.get("b"));
+        ListenableFuture<String> coalesced = scheduler.submit(explorer.address, "c", terminated::get,
+                () -> explorer.get("c"));
+        assertSame(coalesced, scheduler.submit(explorer.address, "c", () -> false, () -> explorer.get("c")));
+        terminated.set(true);
+        explorer.release.countDown();
+
+        // A request which is running already completes, one which is still requested by another requester is sent
+        assertEquals(explorer.address + "a", running.get(10, TimeUnit.SECONDS));
+        assertEquals(explorer.address + "c", coalesced.get(10, TimeUnit.SECONDS));
+        assertTrue(cancelled.isCancelled());
+        assertEquals(2, explorer.numRequests.get());
+    }
+
+    @Test
+    public void testWithJitter() {
+        for (int i = 0; i < 1000; i++) {
+            long delay = XmrTxProofRequestScheduler.withJitter(90_000);
+            assertTrue(delay >= 81_000 && delay <= 99_000);
+        }
+    }
+
+    // Simulates an explorer service with some latency, counting the requests and concurrent requests
+    private static class StubExplorer {
+        static class Totals {
+            final AtomicInteger concurrent = new AtomicInteger();
+            final AtomicInteger maxConcurrent = new AtomicInteger();
+            final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        }
+
+        final String address;
+        final AtomicInteger numRequests = new AtomicInteger();
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        final AtomicInteger numFailures = new AtomicInteger();
+        Totals totals = new Totals();
+        CountDownLatch release;
+        volatile long lastRequestTime;
+
+        StubExplorer(String address) {
+            this.address = address;
+        }
+
+        String get(String param) throws IOException, InterruptedException {
+            numRequests.incrementAndGet();
+            lastRequestTime = System.currentTimeMillis();
+            totals.threads.add(Thread.currentThread());
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            totals.maxConcurrent.accumulateAndGet(totals.concurrent.incrementAndGet(), Math::max);
+            try {
+                if (release != null) {
+                    release.await(10, TimeUnit.SECONDS);
+                } else {
+                    Thread.sleep(1);
+                }
+                if (numFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                    throw new IOException("Service unavailable");
+                }
+                return address + param;
+            } finally {
+                concurrent.decrementAndGet();
+                totals.concurrent.decrementAndGet();
+            }
+        }
+    }
+}
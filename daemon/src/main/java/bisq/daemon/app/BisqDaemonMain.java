@@ -23,7 +23,9 @@ import bisq.core.app.CoreModule;
 
 import bisq.common.UserThread;
 import bisq.common.app.AppModule;
+import bisq.common.config.Config;
 import bisq.common.handlers.ResultHandler;
+import bisq.common.metrics.MetricsHttpServer;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
@@ -32,6 +34,8 @@ import java.util.concurrent.ThreadFactory;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 
 
 import bisq.daemon.grpc.GrpcServer;
@@ -40,6 +44,8 @@ import bisq.daemon.grpc.GrpcServer;
 public class BisqDaemonMain extends BisqHeadlessAppMain implements BisqSetup.BisqSetupListener {
 
     private GrpcServer grpcServer;
+    @Nullable
+    private MetricsHttpServer metricsHttpServer;
 
     public static void main(String[] args) {
         new BisqDaemonMain().execute(args);
@@ -104,6 +110,11 @@ public class BisqDaemonMain extends BisqHeadlessAppMain implements BisqSetup.Bis
 
         grpcServer = injector.getInstance(GrpcServer.class);
         grpcServer.start();
+
+        if (config.metricsPort != Config.UNSPECIFIED_PORT) {
+            metricsHttpServer = new MetricsHttpServer(config.metricsPort);
+            metricsHttpServer.start();
+        }
     }
 
     @Override
@@ -111,5 +122,8 @@ public class BisqDaemonMain extends BisqHeadlessAppMain implements BisqSetup.Bis
         super.gracefulShutDown(resultHandler);
 
         grpcServer.shutdown();
+        if (metricsHttpServer != null) {
+            metricsHttpServer.shutDown();
+        }
     }
 }
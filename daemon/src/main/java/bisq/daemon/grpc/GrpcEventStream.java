@@ -0,0 +1,129 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers the events of a server-streaming call, honoring the client's flow control.
+ *
+ * Events are only written to the transport while the call is ready to accept more
+ * messages.  Events published while the client is not keeping up are queued by key,
+ * and a newer event for the same key replaces a still pending one, so a slow client
+ * receives the latest state of an offer, trade or balance instead of every
+ * intermediate change.  The event messages are built when they are sent, not when
+ * they are published.  If the number of distinct pending keys exceeds the configured
+ * limit, the stream is closed with RESOURCE_EXHAUSTED, and the client is expected to
+ * re-subscribe to get a fresh snapshot.
+ *
+ * The close handler is called once, when the client cancels the call or the stream
+ * is closed by the server, and is used to remove the core listeners feeding the stream.
+ */
+@Slf4j
+class GrpcEventStream<T> {
+
+    private final ServerCallStreamObserver<T> responseObserver;
+    private final int maxPendingEvents;
+    // Insertion ordered, a coalesced event takes the position of its latest publication.
+    private final Map<String, Supplier<T>> pendingEvents = new LinkedHashMap<>();
+    private Runnable closeHandler = () -> {
+    };
+    private boolean closed;
+
+    GrpcEventStream(StreamObserver<T> responseObserver, int maxPendingEvents) {
+        this.responseObserver = (ServerCallStreamObserver<T>) responseObserver;
+        this.maxPendingEvents = maxPendingEvents;
+        this.responseObserver.setOnReadyHandler(this::drain);
+        this.responseObserver.setOnCancelHandler(this::close);
+    }
+
+    synchronized void setCloseHandler(Runnable closeHandler) {
+        this.closeHandler = closeHandler;
+    }
+
+    /**
+     * Queues the event supplied by eventSupplier for delivery, replacing a pending
+     * event published with the same key.  The supplier may return null if there is
+     * nothing to send anymore by the time the event is due.
+     */
+    synchronized void publish(String key, Supplier<T> eventSupplier) {
+        if (closed)
+            return;
+
+        pendingEvents.remove(key);
+        pendingEvents.put(key, eventSupplier);
+        if (pendingEvents.size() > maxPendingEvents) {
+            log.warn("Closing event stream, client did not keep up with {} pending events.",
+                    pendingEvents.size());
+            close();
+            responseObserver.onError(Status.RESOURCE_EXHAUSTED
+                    .withDescription("client is too slow to receive events, re-subscribe to resume")
+                    .asRuntimeException());
+            return;
+        }
+        drain();
+    }
+
+    synchronized int getNumPendingEvents() {
+        return pendingEvents.size();
+    }
+
+    private synchronized void drain() {
+        if (!closed && responseObserver.isCancelled()) {
+            close();
+            return;
+        }
+
+        Iterator<Supplier<T>> iterator = pendingEvents.values().iterator();
+        while (!closed && responseObserver.isReady() && iterator.hasNext()) {
+            Supplier<T> eventSupplier = iterator.next();
+            iterator.remove();
+            T event;
+            try {
+                event = eventSupplier.get();
+            } catch (Throwable t) {
+                log.warn("Could not build event, skipping it: {}", t.toString());
+                continue;
+            }
+            if (event != null)
+                responseObserver.onNext(event);
+        }
+    }
+
+    private synchronized void close() {
+        if (closed)
+            return;
+
+        closed = true;
+        pendingEvents.clear();
+        try {
+            closeHandler.run();
+        } catch (Throwable t) {
+            log.error("Event stream close handler failed", t);
+        }
+    }
+}
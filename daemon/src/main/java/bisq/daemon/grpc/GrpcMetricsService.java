@@ -0,0 +1,136 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc;
+
+import bisq.core.api.CoreApi;
+
+import bisq.common.persistence.StartupTimeline;
+
+import bisq.proto.grpc.GetMetricsReply;
+import bisq.proto.grpc.GetMetricsRequest;
+import bisq.proto.grpc.HostReadMetrics;
+import bisq.proto.grpc.MethodCallMetrics;
+import bisq.proto.grpc.StartupMetrics;
+import bisq.proto.grpc.StoreReadMetrics;
+
+import io.grpc.ServerInterceptor;
+import io.grpc.stub.StreamObserver;
+
+import javax.inject.Inject;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import lombok.extern.slf4j.Slf4j;
+
+import static bisq.daemon.grpc.interceptor.GrpcServiceRateMeteringConfig.getCustomRateMeteringInterceptor;
+import static bisq.proto.grpc.MetricsGrpc.MetricsImplBase;
+import static bisq.proto.grpc.MetricsGrpc.getGetMetricsMethod;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+
+
+import bisq.daemon.grpc.interceptor.CallMetricsInterceptor;
+import bisq.daemon.grpc.interceptor.CallRateMeteringInterceptor;
+import bisq.daemon.grpc.interceptor.GrpcCallRateMeter;
+
+@Slf4j
+class GrpcMetricsService extends MetricsImplBase {
+
+    private final CoreApi coreApi;
+    private final CallMetricsInterceptor callMetricsInterceptor;
+    private final GrpcExceptionHandler exceptionHandler;
+
+    @Inject
+    public GrpcMetricsService(CoreApi coreApi,
+                              CallMetricsInterceptor callMetricsInterceptor,
+                              GrpcExceptionHandler exceptionHandler) {
+        this.coreApi = coreApi;
+        this.callMetricsInterceptor = callMetricsInterceptor;
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    @Override
+    public void getMetrics(GetMetricsRequest req, StreamObserver<GetMetricsReply> responseObserver) {
+        try {
+            List<Long> latencyBucketUpperBoundsMs = Arrays.stream(CallMetricsInterceptor.getLatencyBucketUpperBoundsMs())
+                    .boxed()
+                    .collect(Collectors.toList());
+            var reply = GetMetricsReply.newBuilder()
+                    .addAllMethodCallMetrics(callMetricsInterceptor.getMethodCallMetrics().stream()
+                            .map(m -> MethodCallMetrics.newBuilder()
+                                    .setMethodName(m.getMethodName())
+                                    .setNumCalls(m.getNumCalls())
+                                    .setNumFailedCalls(m.getNumFailedCalls())
+                                    .setNumPermissionDeniedCalls(m.getNumPermissionDeniedCalls())
+                                    .setTotalLatencyMicros(m.getTotalLatencyMicros())
+                                    .addAllLatencyBucketUpperBoundsMs(latencyBucketUpperBoundsMs)
+                                    .addAllLatencyBucketCounts(Arrays.stream(m.getLatencyBucketCounts())
+                                            .boxed()
+                                            .collect(Collectors.toList()))
+                                    .build())
+                            .collect(Collectors.toList()))
+                    .setStartupMetrics(toStartupMetrics())
+                    .build();
+            responseObserver.onNext(reply);
+            responseObserver.onCompleted();
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
+    private static StartupMetrics toStartupMetrics() {
+        return StartupMetrics.newBuilder()
+                .setReadAllPersistedTimeMs(StartupTimeline.getTotalTimeMs())
+                .addAllStoreReadMetrics(StartupTimeline.getStoreEntries().stream()
+                        .map(e -> StoreReadMetrics.newBuilder()
+                                .setFileName(e.getFileName())
+                                .setFileSize(e.getFileSize())
+                                .setParseTimeMs(e.getParseTimeMs())
+                                .setConversionTimeMs(e.getConversionTimeMs())
+                                .setHeapDeltaBytes(e.getHeapDeltaBytes())
+                                .build())
+                        .collect(Collectors.toList()))
+                .addAllHostReadMetrics(StartupTimeline.getHostEntries().stream()
+                        .map(e -> HostReadMetrics.newBuilder()
+                                .setHostName(e.getHostName())
+                                .setStartOffsetMs(e.getStartOffsetMs())
+                                .setDurationMs(e.getDurationMs())
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    final ServerInterceptor[] interceptors() {
+        Optional<ServerInterceptor> rateMeteringInterceptor = rateMeteringInterceptor();
+        return rateMeteringInterceptor.map(serverInterceptor ->
+                new ServerInterceptor[]{serverInterceptor}).orElseGet(() -> new ServerInterceptor[0]);
+    }
+
+    final Optional<ServerInterceptor> rateMeteringInterceptor() {
+        return getCustomRateMeteringInterceptor(coreApi.getConfig().appDataDir, this.getClass())
+                .or(() -> Optional.of(CallRateMeteringInterceptor.valueOf(
+                        new HashMap<>() {{
+                            put(getGetMetricsMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
+                        }}
+                )));
+    }
+}
@@ -20,7 +20,9 @@ package bisq.daemon.grpc;
 import bisq.core.api.CoreApi;
 import bisq.core.api.model.BsqSwapOfferInfo;
 import bisq.core.api.model.OfferInfo;
+import bisq.core.api.model.OfferInfoFieldMask;
 import bisq.core.offer.Offer;
+import bisq.core.offer.OfferBookService;
 import bisq.core.offer.OpenOffer;
 
 import bisq.proto.grpc.CancelOfferReply;
@@ -43,6 +45,8 @@ import bisq.proto.grpc.GetOfferReply;
 import bisq.proto.grpc.GetOfferRequest;
 import bisq.proto.grpc.GetOffersReply;
 import bisq.proto.grpc.GetOffersRequest;
+import bisq.proto.grpc.OfferEvent;
+import bisq.proto.grpc.SubscribeOffersRequest;
 
 import io.grpc.ServerInterceptor;
 import io.grpc.stub.StreamObserver;
@@ -59,6 +63,8 @@ import lombok.extern.slf4j.Slf4j;
 import static bisq.core.api.model.BsqSwapOfferInfo.toBsqSwapOfferInfo;
 import static bisq.core.api.model.OfferInfo.toOfferInfo;
 import static bisq.core.api.model.OfferInfo.toPendingOfferInfo;
+import static bisq.proto.grpc.OfferEvent.EventType.ADDED;
+import static bisq.proto.grpc.OfferEvent.EventType.REMOVED;
 import static bisq.daemon.grpc.interceptor.GrpcServiceRateMeteringConfig.getCustomRateMeteringInterceptor;
 import static bisq.proto.grpc.OffersGrpc.*;
 import static java.util.concurrent.TimeUnit.MINUTES;
@@ -72,6 +78,9 @@ import bisq.daemon.grpc.interceptor.GrpcCallRateMeter;
 @Slf4j
 class GrpcOffersService extends OffersImplBase {
 
+    // Max number of offers with undelivered events before a subscription is closed.
+    private static final int MAX_PENDING_OFFER_EVENTS = 10_000;
+
     private final CoreApi coreApi;
     private final GrpcExceptionHandler exceptionHandler;
 
@@ -164,13 +173,17 @@ class GrpcOffersService extends OffersImplBase {
     public void getOffers(GetOffersRequest req,
                           StreamObserver<GetOffersReply> responseObserver) {
         try {
-            List<OfferInfo> result = coreApi.getOffers(req.getDirection(), req.getCurrencyCode())
-                    .stream().map(OfferInfo::toOfferInfo)
-                    .collect(Collectors.toList());
+            // Only the requested page of offers is converted, and only the requested fields are set.
+            var fieldMask = OfferInfoFieldMask.of(req.getFieldsList());
+            var page = coreApi.getOffersPage(req.getDirection(),
+                    req.getCurrencyCode(),
+                    req.getPageSize(),
+                    req.getPageToken());
             var reply = GetOffersReply.newBuilder()
-                    .addAllOffers(result.stream()
-                            .map(OfferInfo::toProtoMessage)
+                    .addAllOffers(page.getItems().stream()
+                            .map(fieldMask::toProtoMessage)
                             .collect(Collectors.toList()))
+                    .setNextPageToken(page.getNextPageToken())
                     .build();
             responseObserver.onNext(reply);
             responseObserver.onCompleted();
@@ -179,6 +192,44 @@ class GrpcOffersService extends OffersImplBase {
         }
     }
 
+    @Override
+    public void subscribeOffers(SubscribeOffersRequest req,
+                                StreamObserver<OfferEvent> responseObserver) {
+        try {
+            String direction = req.getDirection();
+            String currencyCode = req.getCurrencyCode();
+            GrpcEventStream<OfferEvent> eventStream = new GrpcEventStream<>(responseObserver,
+                    MAX_PENDING_OFFER_EVENTS);
+            OfferBookService.OfferBookChangedListener listener = new OfferBookService.OfferBookChangedListener() {
+                @Override
+                public void onAdded(Offer offer) {
+                    if (coreApi.isAvailableOffer(offer, direction, currencyCode))
+                        eventStream.publish(offer.getId(), () -> toOfferEvent(ADDED, offer));
+                }
+
+                @Override
+                public void onRemoved(Offer offer) {
+                    if (coreApi.isOfferOfOtherTrader(offer, direction, currencyCode))
+                        eventStream.publish(offer.getId(), () -> toOfferEvent(REMOVED, offer));
+                }
+            };
+            eventStream.setCloseHandler(() -> coreApi.removeOfferBookChangedListener(listener));
+            coreApi.addOfferBookChangedListener(listener);
+            // The subscriber's initial view of the offer book is sent as ADDED events.
+            coreApi.getOffers(direction, currencyCode)
+                    .forEach(offer -> eventStream.publish(offer.getId(), () -> toOfferEvent(ADDED, offer)));
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
+    private OfferEvent toOfferEvent(OfferEvent.EventType eventType, Offer offer) {
+        return OfferEvent.newBuilder()
+                .setEventType(eventType)
+                .setOffer(toOfferInfo(offer).toProtoMessage())
+                .build();
+    }
+
     @Override
     public void getMyBsqSwapOffers(GetMyOffersRequest req,
                                    StreamObserver<GetMyBsqSwapOffersReply> responseObserver) {
@@ -319,6 +370,7 @@ class GrpcOffersService extends OffersImplBase {
                             put(getGetMyOfferMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getGetOffersMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getGetMyOffersMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
+                            put(getSubscribeOffersMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getCreateOfferMethod().getFullMethodName(), new GrpcCallRateMeter(1, MINUTES));
                             put(getEditOfferMethod().getFullMethodName(), new GrpcCallRateMeter(1, MINUTES));
                             put(getCancelOfferMethod().getFullMethodName(), new GrpcCallRateMeter(1, MINUTES));
@@ -37,6 +37,7 @@ import static io.grpc.ServerInterceptors.interceptForward;
 
 
 
+import bisq.daemon.grpc.interceptor.CallMetricsInterceptor;
 import bisq.daemon.grpc.interceptor.PasswordAuthInterceptor;
 
 @Singleton
@@ -49,8 +50,10 @@ public class GrpcServer {
     public GrpcServer(CoreContext coreContext,
                       Config config,
                       PasswordAuthInterceptor passwordAuthInterceptor,
+                      CallMetricsInterceptor callMetricsInterceptor,
                       GrpcDisputeAgentsService disputeAgentsService,
                       GrpcHelpService helpService,
+                      GrpcMetricsService metricsService,
                       GrpcOffersService offersService,
                       GrpcPaymentAccountsService paymentAccountsService,
                       GrpcPriceService priceService,
@@ -63,6 +66,7 @@ public class GrpcServer {
                 .executor(UserThread.getExecutor())
                 .addService(interceptForward(disputeAgentsService, disputeAgentsService.interceptors()))
                 .addService(interceptForward(helpService, helpService.interceptors()))
+                .addService(interceptForward(metricsService, metricsService.interceptors()))
                 .addService(interceptForward(offersService, offersService.interceptors()))
                 .addService(interceptForward(paymentAccountsService, paymentAccountsService.interceptors()))
                 .addService(interceptForward(priceService, priceService.interceptors()))
@@ -71,6 +75,9 @@ public class GrpcServer {
                 .addService(interceptForward(tradesService, tradesService.interceptors()))
                 .addService(interceptForward(versionService, versionService.interceptors()))
                 .addService(interceptForward(walletsService, walletsService.interceptors()))
+                // The last registered interceptor is called first, calls are authenticated
+                // before they are metered.
+                .intercept(callMetricsInterceptor)
                 .intercept(passwordAuthInterceptor)
                 .build();
         coreContext.setApiUser(true);
@@ -18,8 +18,10 @@
 package bisq.daemon.grpc;
 
 import bisq.core.api.CoreApi;
+import bisq.core.api.TradeListener;
 import bisq.core.api.model.BsqSwapTradeInfo;
 import bisq.core.api.model.TradeInfo;
+import bisq.core.api.model.TradeInfoFieldMask;
 import bisq.core.trade.model.bisq_v1.Trade;
 
 import bisq.proto.grpc.ConfirmPaymentReceivedReply;
@@ -29,12 +31,16 @@ import bisq.proto.grpc.ConfirmPaymentStartedRequest;
 import bisq.proto.grpc.GetBsqSwapTradeReply;
 import bisq.proto.grpc.GetTradeReply;
 import bisq.proto.grpc.GetTradeRequest;
+import bisq.proto.grpc.GetTradesReply;
+import bisq.proto.grpc.GetTradesRequest;
+import bisq.proto.grpc.SubscribeTradesRequest;
 import bisq.proto.grpc.KeepFundsReply;
 import bisq.proto.grpc.KeepFundsRequest;
 import bisq.proto.grpc.TakeBsqSwapOfferReply;
 import bisq.proto.grpc.TakeBsqSwapOfferRequest;
 import bisq.proto.grpc.TakeOfferReply;
 import bisq.proto.grpc.TakeOfferRequest;
+import bisq.proto.grpc.TradeEvent;
 import bisq.proto.grpc.WithdrawFundsReply;
 import bisq.proto.grpc.WithdrawFundsRequest;
 
@@ -44,7 +50,9 @@ import io.grpc.stub.StreamObserver;
 import javax.inject.Inject;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -52,6 +60,9 @@ import static bisq.core.api.model.BsqSwapTradeInfo.toBsqSwapTradeInfo;
 import static bisq.core.api.model.TradeInfo.toNewTradeInfo;
 import static bisq.core.api.model.TradeInfo.toTradeInfo;
 import static bisq.daemon.grpc.interceptor.GrpcServiceRateMeteringConfig.getCustomRateMeteringInterceptor;
+import static bisq.proto.grpc.TradeEvent.EventType.ADDED;
+import static bisq.proto.grpc.TradeEvent.EventType.REMOVED;
+import static bisq.proto.grpc.TradeEvent.EventType.UPDATED;
 import static bisq.proto.grpc.TradesGrpc.*;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -64,6 +75,9 @@ import bisq.daemon.grpc.interceptor.GrpcCallRateMeter;
 @Slf4j
 class GrpcTradesService extends TradesImplBase {
 
+    // Max number of trades with undelivered events before a subscription is closed.
+    private static final int MAX_PENDING_TRADE_EVENTS = 1_000;
+
     private final CoreApi coreApi;
     private final GrpcExceptionHandler exceptionHandler;
 
@@ -139,6 +153,81 @@ class GrpcTradesService extends TradesImplBase {
         }
     }
 
+    @Override
+    public void getTrades(GetTradesRequest req,
+                          StreamObserver<GetTradesReply> responseObserver) {
+        try {
+            // The role and isMyOffer lookups are only done if the role or offer fields are requested.
+            var fieldMask = TradeInfoFieldMask.of(req.getFieldsList(),
+                    trade -> coreApi.getTradeRole(trade.getId()),
+                    trade -> coreApi.isMyOffer(trade.getOffer().getId()));
+            List<Trade> trades;
+            String nextPageToken;
+            if (req.getTradeIdsCount() > 0) {
+                trades = coreApi.getTrades(req.getTradeIdsList());
+                nextPageToken = "";
+            } else {
+                var page = coreApi.getOpenTradesPage(req.getPageSize(), req.getPageToken());
+                trades = page.getItems();
+                nextPageToken = page.getNextPageToken();
+            }
+            var reply = GetTradesReply.newBuilder()
+                    .addAllTrades(trades.stream()
+                            .map(fieldMask::toProtoMessage)
+                            .collect(Collectors.toList()))
+                    .setNextPageToken(nextPageToken)
+                    .build();
+            responseObserver.onNext(reply);
+            responseObserver.onCompleted();
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
+    @Override
+    public void subscribeTrades(SubscribeTradesRequest req,
+                                StreamObserver<TradeEvent> responseObserver) {
+        try {
+            List<Trade> openTrades = coreApi.getOpenTrades();
+            GrpcEventStream<TradeEvent> eventStream = new GrpcEventStream<>(responseObserver,
+                    MAX_PENDING_TRADE_EVENTS);
+            // The TradeInfo is built when the event is sent, so a client that fell behind
+            // gets the trade's latest state.
+            TradeListener listener = new TradeListener() {
+                @Override
+                public void onAdded(Trade trade) {
+                    eventStream.publish(trade.getId(), () -> toTradeEvent(ADDED, trade));
+                }
+
+                @Override
+                public void onChanged(Trade trade) {
+                    eventStream.publish(trade.getId(), () -> toTradeEvent(UPDATED, trade));
+                }
+
+                @Override
+                public void onRemoved(Trade trade) {
+                    eventStream.publish(trade.getId(), () -> toTradeEvent(REMOVED, trade));
+                }
+            };
+            eventStream.setCloseHandler(() -> coreApi.removeTradeListener(listener));
+            coreApi.addTradeListener(listener);
+            // The subscriber's initial view of the open trades is sent as ADDED events.
+            openTrades.forEach(listener::onAdded);
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
+    private TradeEvent toTradeEvent(TradeEvent.EventType eventType, Trade trade) {
+        boolean isMyOffer = coreApi.isMyOffer(trade.getOffer().getId());
+        // The trade might have failed or got closed already, so we must not look it up.
+        String role = coreApi.getTradeRole(trade);
+        return TradeEvent.newBuilder()
+                .setEventType(eventType)
+                .setTrade(toTradeInfo(trade, role, isMyOffer).toProtoMessage())
+                .build();
+    }
+
     @Override
     public void takeOffer(TakeOfferRequest req,
                           StreamObserver<TakeOfferReply> responseObserver) {
@@ -227,6 +316,8 @@ class GrpcTradesService extends TradesImplBase {
                 .or(() -> Optional.of(CallRateMeteringInterceptor.valueOf(
                         new HashMap<>() {{
                             put(getGetTradeMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
+                            put(getGetTradesMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
+                            put(getSubscribeTradesMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getTakeOfferMethod().getFullMethodName(), new GrpcCallRateMeter(1, MINUTES));
                             put(getConfirmPaymentStartedMethod().getFullMethodName(), new GrpcCallRateMeter(1, MINUTES));
                             put(getConfirmPaymentReceivedMethod().getFullMethodName(), new GrpcCallRateMeter(1, MINUTES));
@@ -23,6 +23,7 @@ import bisq.core.api.model.TxFeeRateInfo;
 import bisq.core.btc.exceptions.TxBroadcastException;
 import bisq.core.btc.wallet.TxBroadcaster;
 
+import bisq.proto.grpc.BalancesInfo;
 import bisq.proto.grpc.GetAddressBalanceReply;
 import bisq.proto.grpc.GetAddressBalanceRequest;
 import bisq.proto.grpc.GetBalancesReply;
@@ -47,6 +48,7 @@ import bisq.proto.grpc.SetTxFeeRatePreferenceReply;
 import bisq.proto.grpc.SetTxFeeRatePreferenceRequest;
 import bisq.proto.grpc.SetWalletPasswordReply;
 import bisq.proto.grpc.SetWalletPasswordRequest;
+import bisq.proto.grpc.SubscribeBalancesRequest;
 import bisq.proto.grpc.UnlockWalletReply;
 import bisq.proto.grpc.UnlockWalletRequest;
 import bisq.proto.grpc.UnsetTxFeeRatePreferenceReply;
@@ -86,6 +88,9 @@ import bisq.daemon.grpc.interceptor.GrpcCallRateMeter;
 @Slf4j
 class GrpcWalletsService extends WalletsImplBase {
 
+    // Balance updates are coalesced under a single key, only the latest balances are sent.
+    private static final String BALANCES_EVENT_KEY = "balances";
+
     private final CoreApi coreApi;
     private final GrpcExceptionHandler exceptionHandler;
 
@@ -109,6 +114,24 @@ class GrpcWalletsService extends WalletsImplBase {
         }
     }
 
+    @Override
+    public void subscribeBalances(SubscribeBalancesRequest req,
+                                  StreamObserver<BalancesInfo> responseObserver) {
+        try {
+            String currencyCode = req.getCurrencyCode();
+            // Validates the currency code and wallet state before the stream is opened.
+            var balances = coreApi.getBalances(currencyCode);
+            GrpcEventStream<BalancesInfo> eventStream = new GrpcEventStream<>(responseObserver, 1);
+            Runnable listener = () -> eventStream.publish(BALANCES_EVENT_KEY,
+                    () -> coreApi.getBalances(currencyCode).toProtoMessage());
+            eventStream.setCloseHandler(() -> coreApi.removeBalanceListener(listener));
+            coreApi.addBalanceListener(listener);
+            eventStream.publish(BALANCES_EVENT_KEY, balances::toProtoMessage);
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
     @Override
     public void getAddressBalance(GetAddressBalanceRequest req,
                                   StreamObserver<GetAddressBalanceReply> responseObserver) {
@@ -370,6 +393,7 @@ class GrpcWalletsService extends WalletsImplBase {
                 .or(() -> Optional.of(CallRateMeteringInterceptor.valueOf(
                         new HashMap<>() {{
                             put(getGetBalancesMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
+                            put(getSubscribeBalancesMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getGetAddressBalanceMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getGetFundingAddressesMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
                             put(getGetUnusedBsqAddressMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
@@ -0,0 +1,149 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc.interceptor;
+
+import io.grpc.ForwardingServerCall;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Getter;
+
+/**
+ * Counts the calls of every gRPC method and records their latencies in a histogram,
+ * from the time a call is intercepted until it is closed.  Calls rejected by a
+ * {@link CallRateMeteringInterceptor} are closed with PERMISSION_DENIED and counted
+ * separately.  All counters are LongAdders, so recording does not lock.
+ */
+@Singleton
+public final class CallMetricsInterceptor implements ServerInterceptor {
+
+    // The inclusive upper bounds of the latency histogram buckets, in milliseconds.
+    private static final long[] LATENCY_BUCKET_UPPER_BOUNDS_MS =
+            {1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 30_000, 60_000};
+
+    private final Map<String, MethodCallMetrics> methodCallMetricsByName = new ConcurrentHashMap<>();
+
+    @Inject
+    public CallMetricsInterceptor() {
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> serverCall,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> serverCallHandler) {
+        String methodName = serverCall.getMethodDescriptor().getFullMethodName();
+        MethodCallMetrics methodCallMetrics = methodCallMetricsByName.get(methodName);
+        if (methodCallMetrics == null)
+            methodCallMetrics = methodCallMetricsByName.computeIfAbsent(methodName, MethodCallMetrics::new);
+
+        MethodCallMetrics metrics = methodCallMetrics;
+        long startTime = System.nanoTime();
+        var meteredServerCall = new ForwardingServerCall.SimpleForwardingServerCall<>(serverCall) {
+            @Override
+            public void close(Status status, Metadata trailers) {
+                metrics.record(status, System.nanoTime() - startTime);
+                super.close(status, trailers);
+            }
+        };
+        return serverCallHandler.startCall(meteredServerCall, headers);
+    }
+
+    public List<MethodCallMetrics> getMethodCallMetrics() {
+        List<MethodCallMetrics> methodCallMetrics = new ArrayList<>(methodCallMetricsByName.values());
+        methodCallMetrics.sort(Comparator.comparing(MethodCallMetrics::getMethodName));
+        return methodCallMetrics;
+    }
+
+    public static long[] getLatencyBucketUpperBoundsMs() {
+        return LATENCY_BUCKET_UPPER_BOUNDS_MS.clone();
+    }
+
+    public static class MethodCallMetrics {
+        @Getter
+        private final String methodName;
+        private final LongAdder numCalls = new LongAdder();
+        private final LongAdder numFailedCalls = new LongAdder();
+        private final LongAdder numPermissionDeniedCalls = new LongAdder();
+        private final LongAdder totalLatencyMicros = new LongAdder();
+        // One more bucket than upper bounds, for calls slower than the highest bound.
+        private final LongAdder[] latencyBucketCounts = new LongAdder[LATENCY_BUCKET_UPPER_BOUNDS_MS.length + 1];
+
+        MethodCallMetrics(String methodName) {
+            this.methodName = methodName;
+            for (int i = 0; i < latencyBucketCounts.length; i++) {
+                latencyBucketCounts[i] = new LongAdder();
+            }
+        }
+
+        void record(Status status, long latencyNanos) {
+            numCalls.increment();
+            if (!status.isOk()) {
+                numFailedCalls.increment();
+                if (status.getCode() == Status.Code.PERMISSION_DENIED)
+                    numPermissionDeniedCalls.increment();
+            }
+            totalLatencyMicros.add(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+            latencyBucketCounts[getBucketIndex(TimeUnit.NANOSECONDS.toMillis(latencyNanos))].increment();
+        }
+
+        public long getNumCalls() {
+            return numCalls.sum();
+        }
+
+        public long getNumFailedCalls() {
+            return numFailedCalls.sum();
+        }
+
+        public long getNumPermissionDeniedCalls() {
+            return numPermissionDeniedCalls.sum();
+        }
+
+        public long getTotalLatencyMicros() {
+            return totalLatencyMicros.sum();
+        }
+
+        public long[] getLatencyBucketCounts() {
+            long[] counts = new long[latencyBucketCounts.length];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = latencyBucketCounts[i].sum();
+            }
+            return counts;
+        }
+
+        private static int getBucketIndex(long latencyMs) {
+            int index = 0;
+            while (index < LATENCY_BUCKET_UPPER_BOUNDS_MS.length && latencyMs > LATENCY_BUCKET_UPPER_BOUNDS_MS[index])
+                index++;
+            return index;
+        }
+    }
+}
@@ -27,7 +27,6 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -50,10 +49,13 @@ public final class CallRateMeteringInterceptor implements ServerInterceptor {
     public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> serverCall,
                                                                  Metadata headers,
                                                                  ServerCallHandler<ReqT, RespT> serverCallHandler) {
-        Optional<Map.Entry<String, GrpcCallRateMeter>> rateMeterKV = getRateMeterKV(serverCall);
-        rateMeterKV.ifPresentOrElse(
-                (kv) -> checkRateMeterAndMaybeCloseCall(kv, serverCall),
-                () -> handleMissingRateMeterConfiguration(serverCall));
+        // A plain map lookup, metering a call should not allocate.
+        String methodName = getRateMeterKey(serverCall);
+        GrpcCallRateMeter rateMeter = serviceCallRateMeters.get(methodName);
+        if (rateMeter != null)
+            checkRateMeterAndMaybeCloseCall(methodName, rateMeter, serverCall);
+        else
+            handleMissingRateMeterConfiguration(serverCall);
 
         // We leave it to the gRPC framework to clean up if the server call was closed
         // above.  But we still have to invoke startCall here because the method must
@@ -61,15 +63,13 @@ public final class CallRateMeteringInterceptor implements ServerInterceptor {
         return serverCallHandler.startCall(serverCall, headers);
     }
 
-    private void checkRateMeterAndMaybeCloseCall(Map.Entry<String, GrpcCallRateMeter> rateMeterKV,
+    private void checkRateMeterAndMaybeCloseCall(String methodName,
+                                                 GrpcCallRateMeter rateMeter,
                                                  ServerCall<?, ?> serverCall) {
-        String methodName = rateMeterKV.getKey();
-        GrpcCallRateMeter rateMeter = rateMeterKV.getValue();
-
         if (!rateMeter.checkAndIncrement())
             handlePermissionDeniedWarningAndCloseCall(methodName, rateMeter, serverCall);
-        else
-            log.info(rateMeter.getCallsCountProgress(methodName));
+        else if (log.isDebugEnabled())
+            log.debug(rateMeter.getCallsCountProgress(methodName));
     }
 
     private void handleMissingRateMeterConfiguration(ServerCall<?, ?> serverCall)
@@ -101,12 +101,6 @@ public final class CallRateMeteringInterceptor implements ServerInterceptor {
                 timeUnitName);
     }
 
-    private Optional<Map.Entry<String, GrpcCallRateMeter>> getRateMeterKV(ServerCall<?, ?> serverCall) {
-        String rateMeterKey = getRateMeterKey(serverCall);
-        return serviceCallRateMeters.entrySet().stream()
-                .filter((e) -> e.getKey().equals(rateMeterKey)).findFirst();
-    }
-
     private String getRateMeterKey(ServerCall<?, ?> serverCall) {
         // Get the rate meter map key from the server call method descriptor.  The
         // returned String (e.g., 'io.bisq.protobuffer.Offers/CreateOffer') will match
@@ -2,9 +2,8 @@ package bisq.daemon.grpc.interceptor;
 
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.ArrayDeque;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -12,45 +11,86 @@ import lombok.extern.slf4j.Slf4j;
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
 
+/**
+ * A lock-free sliding window call rate meter.
+ *
+ * The time window is divided into NUM_SLICES_PER_WINDOW time slices, and each call is
+ * counted in the slice it was made in.  Slices are kept in a ring buffer of packed
+ * (slice index, call count) longs updated by CAS, so metering a call neither allocates
+ * nor locks.  A call is treated as made at the start of its slice, so calls become
+ * stale up to one slice earlier than with exact call timestamps.
+ *
+ * An optional burst allowance lets a client make up to burstAllowance more calls
+ * than allowedCallsPerTimeWindow in a window, if it left at least as many calls
+ * unused in the preceding window.
+ */
 @Slf4j
 public class GrpcCallRateMeter {
 
+    private static final int NUM_SLICES_PER_WINDOW = 10;
+    // The ring holds the current and the preceding window, plus partially covered slices.
+    private static final int NUM_SLOTS = 2 * NUM_SLICES_PER_WINDOW + 3;
+    private static final int COUNT_BITS = 22;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
     @Getter
     private final int allowedCallsPerTimeWindow;
     @Getter
     private final TimeUnit timeUnit;
     @Getter
     private final int numTimeUnits;
+    @Getter
+    private final int burstAllowance;
 
     @Getter
     private transient final long timeUnitIntervalInMilliseconds;
 
-    private transient final ArrayDeque<Long> callTimestamps;
+    private transient final long sliceIntervalInMilliseconds;
+    private transient final AtomicLongArray slots;
 
     public GrpcCallRateMeter(int allowedCallsPerTimeWindow, TimeUnit timeUnit) {
         this(allowedCallsPerTimeWindow, timeUnit, 1);
     }
 
     public GrpcCallRateMeter(int allowedCallsPerTimeWindow, TimeUnit timeUnit, int numTimeUnits) {
+        this(allowedCallsPerTimeWindow, timeUnit, numTimeUnits, 0);
+    }
+
+    public GrpcCallRateMeter(int allowedCallsPerTimeWindow,
+                             TimeUnit timeUnit,
+                             int numTimeUnits,
+                             int burstAllowance) {
         this.allowedCallsPerTimeWindow = allowedCallsPerTimeWindow;
         this.timeUnit = timeUnit;
         this.numTimeUnits = numTimeUnits;
+        this.burstAllowance = burstAllowance;
         this.timeUnitIntervalInMilliseconds = timeUnit.toMillis(1) * numTimeUnits;
-        this.callTimestamps = new ArrayDeque<>();
+        this.sliceIntervalInMilliseconds = Math.max(1, timeUnitIntervalInMilliseconds / NUM_SLICES_PER_WINDOW);
+        this.slots = new AtomicLongArray(NUM_SLOTS);
     }
 
     public boolean checkAndIncrement() {
-        if (getCallsCount() < allowedCallsPerTimeWindow) {
-            incrementCallsCount();
+        long now = currentTimeMillis();
+        long currentSlice = now / sliceIntervalInMilliseconds;
+        // Count the call first, and take it back if it exceeds the limit.  Concurrent
+        // callers may then be denied a call the limit would allow, but the limit is
+        // never exceeded.
+        if (!increment(currentSlice))
+            return false;
+
+        long firstSliceInWindow = getFirstSliceInWindow(now);
+        int callsCount = countCalls(firstSliceInWindow, currentSlice);
+        if (callsCount <= getAllowedCallsCount(firstSliceInWindow, callsCount)) {
             return true;
         } else {
+            decrement(currentSlice);
             return false;
         }
     }
 
     public int getCallsCount() {
-        removeStaleCallTimestamps();
-        return callTimestamps.size();
+        long now = currentTimeMillis();
+        return countCalls(getFirstSliceInWindow(now), now / sliceIntervalInMilliseconds);
     }
 
     public String getCallsCountProgress(String calledMethodName) {
@@ -58,30 +98,71 @@ public class GrpcCallRateMeter {
         // Just print 'GetVersion has been called N times...',
         // not 'io.bisq.protobuffer.GetVersion/GetVersion has been called N times...'
         String loggedMethodName = calledMethodName.split("/")[1];
+        int callsCount = getCallsCount();
         return format("%s has been called %d time%s in the last %s, rate limit is %d/%s",
                 loggedMethodName,
-                callTimestamps.size(),
-                callTimestamps.size() == 1 ? "" : "s",
+                callsCount,
+                callsCount == 1 ? "" : "s",
                 shortTimeUnitName,
                 allowedCallsPerTimeWindow,
                 shortTimeUnitName);
     }
 
-    private void incrementCallsCount() {
-        callTimestamps.add(currentTimeMillis());
+    private int getAllowedCallsCount(long firstSliceInWindow, int callsCount) {
+        if (burstAllowance == 0 || callsCount <= allowedCallsPerTimeWindow)
+            return allowedCallsPerTimeWindow;
+
+        long firstSliceInPrecedingWindow = firstSliceInWindow - NUM_SLICES_PER_WINDOW;
+        int unusedCallsCount = allowedCallsPerTimeWindow - countCalls(firstSliceInPrecedingWindow, firstSliceInWindow - 1);
+        return allowedCallsPerTimeWindow + Math.max(0, Math.min(burstAllowance, unusedCallsCount));
+    }
+
+    private long getFirstSliceInWindow(long now) {
+        // The oldest slice starting at or after the beginning of the time window.
+        long windowStart = now - timeUnitIntervalInMilliseconds;
+        return Math.floorDiv(windowStart + sliceIntervalInMilliseconds - 1, sliceIntervalInMilliseconds);
     }
 
-    private void removeStaleCallTimestamps() {
-        while (!callTimestamps.isEmpty() && isStale.test(callTimestamps.peek())) {
-            callTimestamps.remove();
+    private int countCalls(long fromSlice, long toSlice) {
+        int callsCount = 0;
+        for (int i = 0; i < NUM_SLOTS; i++) {
+            long slot = slots.get(i);
+            long slice = slot >>> COUNT_BITS;
+            if (slice >= fromSlice && slice <= toSlice)
+                callsCount += (int) (slot & COUNT_MASK);
         }
+        return callsCount;
     }
 
-    private final Predicate<Long> isStale = (t) -> {
-        long stale = currentTimeMillis() - this.getTimeUnitIntervalInMilliseconds();
-        // Is the given timestamp before the current time minus 1 timeUnit in millis?
-        return t < stale;
-    };
+    // Returns false if the slice's call count is saturated.
+    private boolean increment(long slice) {
+        int index = (int) (slice % NUM_SLOTS);
+        while (true) {
+            long slot = slots.get(index);
+            long newSlot;
+            if ((slot >>> COUNT_BITS) == slice) {
+                if ((slot & COUNT_MASK) == COUNT_MASK)
+                    return false;
+                newSlot = slot + 1;
+            } else {
+                // A slot holding an older slice is reused for the current slice.
+                newSlot = (slice << COUNT_BITS) | 1;
+            }
+            if (slots.compareAndSet(index, slot, newSlot))
+                return true;
+        }
+    }
+
+    private void decrement(long slice) {
+        int index = (int) (slice % NUM_SLOTS);
+        while (true) {
+            long slot = slots.get(index);
+            if ((slot >>> COUNT_BITS) != slice || (slot & COUNT_MASK) == 0)
+                return;
+            if (slots.compareAndSet(index, slot, slot - 1))
+                return;
+        }
+    }
 
     @Override
     public String toString() {
@@ -89,7 +170,8 @@ public class GrpcCallRateMeter {
                 "allowedCallsPerTimeWindow=" + allowedCallsPerTimeWindow +
                 ", timeUnit=" + timeUnit.name() +
                 ", timeUnitIntervalInMilliseconds=" + timeUnitIntervalInMilliseconds +
-                ", callsCount=" + callTimestamps.size() +
+                ", burstAllowance=" + burstAllowance +
+                ", callsCount=" + getCallsCount() +
                 '}';
     }
 }
@@ -60,6 +60,7 @@ public class GrpcServiceRateMeteringConfig {
     private static final String KEY_ALLOWED_CALL_PER_TIME_WINDOW = "allowedCallsPerTimeWindow";
     private static final String KEY_TIME_UNIT = "timeUnit";
     private static final String KEY_NUM_TIME_UNITS = "numTimeUnits";
+    private static final String KEY_BURST_ALLOWANCE = "burstAllowance";
 
     private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
 
@@ -87,8 +88,16 @@ public class GrpcServiceRateMeteringConfig {
                                                                 int maxCalls,
                                                                 TimeUnit timeUnit,
                                                                 int numTimeUnits) {
+        return addMethodCallRateMeter(methodName, maxCalls, timeUnit, numTimeUnits, 0);
+    }
+
+    public GrpcServiceRateMeteringConfig addMethodCallRateMeter(String methodName,
+                                                                int maxCalls,
+                                                                TimeUnit timeUnit,
+                                                                int numTimeUnits,
+                                                                int burstAllowance) {
         methodRateMeters.add(new LinkedHashMap<>() {{
-            put(methodName, new GrpcCallRateMeter(maxCalls, timeUnit, numTimeUnits));
+            put(methodName, new GrpcCallRateMeter(maxCalls, timeUnit, numTimeUnits, burstAllowance));
         }});
         return this;
     }
@@ -186,7 +195,11 @@ public class GrpcServiceRateMeteringConfig {
         int allowedCallsPerTimeWindow = ((Number) valueMap.get(KEY_ALLOWED_CALL_PER_TIME_WINDOW)).intValue();
         TimeUnit timeUnit = TimeUnit.valueOf((String) valueMap.get(KEY_TIME_UNIT));
         int numTimeUnits = ((Number) valueMap.get(KEY_NUM_TIME_UNITS)).intValue();
-        return new GrpcCallRateMeter(allowedCallsPerTimeWindow, timeUnit, numTimeUnits);
+        // The burst allowance is optional, config files written by older versions do not define it.
+        int burstAllowance = valueMap.containsKey(KEY_BURST_ALLOWANCE)
+                ? ((Number) valueMap.get(KEY_BURST_ALLOWANCE)).intValue()
+                : 0;
+        return new GrpcCallRateMeter(allowedCallsPerTimeWindow, timeUnit, numTimeUnits, burstAllowance);
     }
 
     private static void verifyConfigFile(File configFile) {
@@ -236,16 +249,31 @@ public class GrpcServiceRateMeteringConfig {
                                      int maxCalls,
                                      TimeUnit timeUnit,
                                      int numTimeUnits) {
-            log.info("Adding call rate metering definition {}.{} ({}/{}ms).",
+            addCallRateMeter(grpcServiceClassName,
+                    methodName,
+                    maxCalls,
+                    timeUnit,
+                    numTimeUnits,
+                    0);
+        }
+
+        public void addCallRateMeter(String grpcServiceClassName,
+                                     String methodName,
+                                     int maxCalls,
+                                     TimeUnit timeUnit,
+                                     int numTimeUnits,
+                                     int burstAllowance) {
+            log.info("Adding call rate metering definition {}.{} ({}/{}ms, burst allowance {}).",
                     grpcServiceClassName,
                     methodName,
                     maxCalls,
-                    timeUnit.toMillis(1) * numTimeUnits);
+                    timeUnit.toMillis(1) * numTimeUnits,
+                    burstAllowance);
             rateMeterConfigs.stream().filter(c -> c.isConfigForGrpcService(grpcServiceClassName))
                     .findFirst().ifPresentOrElse(
-                    (config) -> config.addMethodCallRateMeter(methodName, maxCalls, timeUnit, numTimeUnits),
+                    (config) -> config.addMethodCallRateMeter(methodName, maxCalls, timeUnit, numTimeUnits, burstAllowance),
                     () -> rateMeterConfigs.add(new GrpcServiceRateMeteringConfig(grpcServiceClassName)
-                            .addMethodCallRateMeter(methodName, maxCalls, timeUnit, numTimeUnits)));
+                            .addMethodCallRateMeter(methodName, maxCalls, timeUnit, numTimeUnits, burstAllowance)));
         }
 
         public File build() {
@@ -0,0 +1,75 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.daemon.grpc.interceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GrpcCallRateMeterTest {
+
+    @Test
+    public void testBurstAllowanceUsesCallsLeftUnusedInPrecedingWindow() {
+        GrpcCallRateMeter rateMeter = new GrpcCallRateMeter(2, SECONDS, 1, 1);
+        // Nothing was called in the preceding window, so one extra call is allowed.
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateMeter.checkAndIncrement());
+        }
+        assertFalse(rateMeter.checkAndIncrement());
+        assertEquals(3, rateMeter.getCallsCount());
+    }
+
+    @Test
+    public void testNoBurstAllowanceByDefault() {
+        GrpcCallRateMeter rateMeter = new GrpcCallRateMeter(2, SECONDS);
+        assertTrue(rateMeter.checkAndIncrement());
+        assertTrue(rateMeter.checkAndIncrement());
+        assertFalse(rateMeter.checkAndIncrement());
+        assertEquals(2, rateMeter.getCallsCount());
+    }
+
+    @Test
+    public void testConcurrentCallsNeverExceedLimit() throws InterruptedException {
+        GrpcCallRateMeter rateMeter = new GrpcCallRateMeter(1_000, MINUTES);
+        AtomicInteger numAllowedCalls = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 1_000; j++) {
+                    if (rateMeter.checkAndIncrement())
+                        numAllowedCalls.incrementAndGet();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1_000, numAllowedCalls.get());
+        assertEquals(1_000, rateMeter.getCallsCount());
+    }
+}
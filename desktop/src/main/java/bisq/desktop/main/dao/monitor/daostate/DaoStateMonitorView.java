@@ -18,6 +18,7 @@
 package bisq.desktop.main.dao.monitor.daostate;
 
 import bisq.desktop.common.view.FxmlView;
+import bisq.desktop.components.AutoTooltipButton;
 import bisq.desktop.components.AutoTooltipTableColumn;
 import bisq.desktop.main.dao.monitor.StateMonitorView;
 import bisq.desktop.main.overlays.popups.Popup;
@@ -27,10 +28,13 @@ import bisq.core.dao.DaoFacade;
 import bisq.core.dao.governance.period.CycleService;
 import bisq.core.dao.governance.period.PeriodService;
 import bisq.core.dao.monitoring.DaoStateMonitoringService;
+import bisq.core.dao.monitoring.UtxoDiffService;
 import bisq.core.dao.monitoring.model.DaoStateBlock;
 import bisq.core.dao.monitoring.model.DaoStateHash;
+import bisq.core.dao.monitoring.model.UtxoDiff;
 import bisq.core.dao.monitoring.model.UtxoMismatch;
 import bisq.core.dao.state.DaoStateService;
+import bisq.core.dao.state.UtxoCommitment;
 import bisq.core.locale.Res;
 
 import bisq.network.p2p.seed.SeedNodeRepository;
@@ -41,6 +45,7 @@ import bisq.common.util.Utilities;
 import javax.inject.Inject;
 import javax.inject.Named;
 
+import javafx.scene.control.Button;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 
@@ -61,6 +66,7 @@ import java.util.stream.Collectors;
 public class DaoStateMonitorView extends StateMonitorView<DaoStateHash, DaoStateBlock, DaoStateBlockListItem, DaoStateInConflictListItem>
         implements DaoStateMonitoringService.Listener {
     private final DaoStateMonitoringService daoStateMonitoringService;
+    private final UtxoDiffService utxoDiffService;
     private ListChangeListener<UtxoMismatch> utxoMismatchListChangeListener;
     private Popup warningPopup;
 
@@ -73,6 +79,7 @@ public class DaoStateMonitorView extends StateMonitorView<DaoStateHash, DaoState
     private DaoStateMonitorView(DaoStateService daoStateService,
                                 DaoFacade daoFacade,
                                 DaoStateMonitoringService daoStateMonitoringService,
+                                UtxoDiffService utxoDiffService,
                                 CycleService cycleService,
                                 PeriodService periodService,
                                 SeedNodeRepository seedNodeRepository,
@@ -80,6 +87,7 @@ public class DaoStateMonitorView extends StateMonitorView<DaoStateHash, DaoState
         super(daoStateService, daoFacade, cycleService, periodService, seedNodeRepository, storageDir);
 
         this.daoStateMonitoringService = daoStateMonitoringService;
+        this.utxoDiffService = utxoDiffService;
     }
 
     @Override
@@ -235,11 +243,69 @@ public class DaoStateMonitorView extends StateMonitorView<DaoStateHash, DaoState
         tableView.getColumns().add(2, column);
     }
 
+    @Override
+    protected void createConflictColumns() {
+        super.createConflictColumns();
+
+        TableColumn<DaoStateInConflictListItem, DaoStateInConflictListItem> column = new AutoTooltipTableColumn<>("");
+        column.setMinWidth(120);
+        column.setCellValueFactory((item) -> new ReadOnlyObjectWrapper<>(item.getValue()));
+        column.setCellFactory(
+                new Callback<>() {
+                    @Override
+                    public TableCell<DaoStateInConflictListItem, DaoStateInConflictListItem> call(
+                            TableColumn<DaoStateInConflictListItem, DaoStateInConflictListItem> column) {
+                        return new TableCell<>() {
+                            Button button;
+
+                            @Override
+                            public void updateItem(final DaoStateInConflictListItem item, boolean empty) {
+                                super.updateItem(item, empty);
+                                if (item != null && !empty) {
+                                    if (button == null) {
+                                        button = new AutoTooltipButton(Res.get("dao.monitor.daoState.utxoDiff.button"));
+                                        setGraphic(button);
+                                    }
+                                    button.setOnAction(e -> requestUtxoDiff(item.getPeerAddress()));
+                                } else {
+                                    setGraphic(null);
+                                    if (button != null) {
+                                        button.setOnAction(null);
+                                        button = null;
+                                    }
+                                }
+                            }
+                        };
+                    }
+                });
+        column.setSortable(false);
+        conflictTableView.getColumns().add(column);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private void requestUtxoDiff(String peerAddress) {
+        utxoDiffService.requestUtxoDiff(peerAddress, true, utxoDiff -> {
+            String message = utxoDiff.isEmpty() ?
+                    Res.get("dao.monitor.daoState.utxoDiff.inSync", utxoDiff.getHeight(), peerAddress) :
+                    Res.get("dao.monitor.daoState.utxoDiff.result",
+                            utxoDiff.getHeight(),
+                            utxoDiff.getDifferingBuckets().size(),
+                            UtxoCommitment.NUM_BUCKETS,
+                            peerAddress,
+                            utxoDiff.getMissingTxOutputs().size(),
+                            utxoDiff.getUnexpectedTxOutputs().size(),
+                            utxoDiff.getChangedTxOutputKeys().size(),
+                            utxoDiff.isRepairResolvesConflict() ? Res.get("shared.yes") : Res.get("shared.no"));
+            new Popup().headLine(Res.get("dao.monitor.daoState.utxoDiff.headline"))
+                    .information(message)
+                    .show();
+        }, errorMessage -> new Popup().warning(errorMessage).show());
+    }
+
     private void updateUtxoMismatches() {
         if (!daoStateMonitoringService.getUtxoMismatches().isEmpty()) {
             StringBuilder sb = new StringBuilder();
@@ -25,16 +25,23 @@ import bisq.core.offer.OfferRestrictions;
 import bisq.network.p2p.storage.P2PDataStorage;
 import bisq.network.utils.Utils;
 
+import bisq.common.UserThread;
+
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
-import javafx.collections.FXCollections;
+import javafx.collections.ModifiableObservableListBase;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
@@ -47,12 +54,21 @@ import static bisq.core.offer.OfferDirection.BUY;
  * As it is used only by the Buy and Sell UIs we treat it as local UI model.
  * It also use OfferRepository.Listener as the lists items class and we don't want to get any dependency out of the
  * package for that.
+ * <p>
+ * Offers are indexed by offer id. Adds and removes received from the network are collected and applied to the
+ * observable list once per UI frame, so a burst of offers (e.g. the initial data response) causes a single list
+ * change instead of one change and re-layout per offer.
  */
 @Singleton
 @Slf4j
 public class OfferBook {
     private final OfferBookService offerBookService;
-    private final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
+    private final OfferBookListItems offerBookListItems = new OfferBookListItems();
+    // Reflects the list including the not yet applied changes. Holds at most one item per offer id.
+    private final Map<String, OfferBookListItem> itemsByOfferId = new LinkedHashMap<>();
+    private final Set<OfferBookListItem> pendingAdds = new LinkedHashSet<>();
+    private final Set<OfferBookListItem> pendingRemoves = new HashSet<>();
+    private boolean applyPendingChangesScheduled;
     private final Map<String, Integer> buyOfferCountMap = new HashMap<>();
     private final Map<String, Integer> sellOfferCountMap = new HashMap<>();
     private final FilterManager filterManager;
@@ -94,11 +110,12 @@ public class OfferBook {
                 // Use offer.equals(offer) to see if the OfferBook list contains an exact
                 // match -- offer.equals(offer) includes comparisons of payload, state
                 // and errorMessage.
-                boolean hasSameOffer = offerBookListItems.stream().anyMatch(item -> item.getOffer().equals(offer));
+                OfferBookListItem existingItem = itemsByOfferId.get(offer.getId());
+                boolean hasSameOffer = existingItem != null && existingItem.getOffer().equals(offer);
                 if (!hasSameOffer) {
                     OfferBookListItem newOfferBookListItem = new OfferBookListItem(offer);
                     removeDuplicateItem(newOfferBookListItem);
-                    offerBookListItems.add(newOfferBookListItem);  // Add replacement.
+                    addItem(newOfferBookListItem);  // Add replacement.
                     if (log.isDebugEnabled()) {  // TODO delete debug stmt in future PR.
                         log.debug("onAdded: Added new offer {}\n"
                                         + "\twith newItem.payloadHash: {}",
@@ -127,22 +144,20 @@ public class OfferBook {
     }
 
     private void onProofOfWorkDifficultyChanged() {
-        List<OfferBookListItem> toRemove = offerBookListItems.stream()
+        List<OfferBookListItem> toRemove = itemsByOfferId.values().stream()
                 .filter(item -> item.getOffer().isBsqSwapOffer())
                 .filter(item -> !filterManager.isProofOfWorkValid(item.getOffer()))
                 .collect(Collectors.toList());
-        toRemove.forEach(offerBookListItems::remove);
+        toRemove.forEach(this::removeItem);
     }
 
     private void removeDuplicateItem(OfferBookListItem newOfferBookListItem) {
         String offerId = newOfferBookListItem.getOffer().getId();
         // We need to remove any view items with a matching offerId before
         // a newOfferBookListItem is added to the view.
-        List<OfferBookListItem> duplicateItems = offerBookListItems.stream()
-                .filter(item -> item.getOffer().getId().equals(offerId))
-                .collect(Collectors.toList());
-        duplicateItems.forEach(oldOfferItem -> {
-            offerBookListItems.remove(oldOfferItem);
+        OfferBookListItem oldOfferItem = itemsByOfferId.get(offerId);
+        if (oldOfferItem != null) {
+            removeItem(oldOfferItem);
             if (log.isDebugEnabled()) {  // TODO delete debug stmt in future PR.
                 log.debug("onAdded: Removed old offer {}\n"
                                 + "\twith payload hash {} from list.\n"
@@ -151,7 +166,7 @@ public class OfferBook {
                         oldOfferItem.getHashOfPayload().getHex(),
                         oldOfferItem.getOffer().getId());
             }
-        });
+        }
     }
 
     public void removeOffer(Offer offer) {
@@ -168,13 +183,10 @@ public class OfferBook {
                     hashOfPayload.getHex());
         }
 
-        // Find the removal candidate in the OfferBook list with matching offerId and payload-hash.
-        Optional<OfferBookListItem> candidateWithMatchingPayloadHash = offerBookListItems.stream()
-                .filter(item -> item.getOffer().getId().equals(offer.getId())
-                        && item.hashOfPayload.equals(hashOfPayload))
-                .findAny();
+        // Find the removal candidate in the OfferBook list with matching offerId.
+        OfferBookListItem candidate = itemsByOfferId.get(offer.getId());
 
-        if (!candidateWithMatchingPayloadHash.isPresent()) {
+        if (candidate == null) {
             if (log.isDebugEnabled()) {  // TODO delete debug stmt in future PR.
                 log.debug("UI view list does not contain offer with id {} and payload-hash {}",
                         offer.getId(),
@@ -183,14 +195,13 @@ public class OfferBook {
             return;
         }
 
-        OfferBookListItem candidate = candidateWithMatchingPayloadHash.get();
         // Remove the candidate only if the candidate's offer payload the hash matches the
         // onRemoved hashOfPayload parameter.  We may receive add/remove messages out of
         // order from the API's 'editoffer' method, and use the offer payload hash to
         // ensure we do not remove an edited offer immediately after it was added.
         if (candidate.getHashOfPayload().equals(hashOfPayload)) {
             // The payload-hash test passed, remove the candidate and print reason.
-            offerBookListItems.remove(candidate);
+            removeItem(candidate);
 
             if (log.isDebugEnabled()) {  // TODO delete debug stmt in future PR.
                 log.debug("Candidate.payload-hash: {} == onRemoved.payload-hash: {} ?"
@@ -218,12 +229,17 @@ public class OfferBook {
         try {
             // setAll causes sometimes an UnsupportedOperationException
             // Investigate why....
-            offerBookListItems.clear();
-            offerBookListItems.addAll(offerBookService.getOffers().stream()
+            pendingAdds.clear();
+            pendingRemoves.clear();
+            itemsByOfferId.clear();
+            // We keep only the last item per offer id, same as onAdded does.
+            offerBookService.getOffers().stream()
                     .filter(this::isOfferAllowed)
                     .filter(offer -> !offer.isBsqSwapOffer() || filterManager.isProofOfWorkValid(offer))
                     .map(OfferBookListItem::new)
-                    .collect(Collectors.toList()));
+                    .forEach(item -> itemsByOfferId.put(item.getOffer().getId(), item));
+            offerBookListItems.clear();
+            offerBookListItems.addAll(new ArrayList<>(itemsByOfferId.values()));
 
             log.debug("offerBookListItems.size {}", offerBookListItems.size());
             fillOfferCountMaps();
@@ -246,6 +262,43 @@ public class OfferBook {
         }
     }
 
+    private void addItem(OfferBookListItem item) {
+        itemsByOfferId.put(item.getOffer().getId(), item);
+        pendingAdds.add(item);
+        scheduleApplyPendingChanges();
+    }
+
+    private void removeItem(OfferBookListItem item) {
+        itemsByOfferId.remove(item.getOffer().getId(), item);
+        // An item which was added in the same frame never made it into the list.
+        if (!pendingAdds.remove(item)) {
+            pendingRemoves.add(item);
+        }
+        scheduleApplyPendingChanges();
+    }
+
+    private void scheduleApplyPendingChanges() {
+        if (!applyPendingChangesScheduled) {
+            applyPendingChangesScheduled = true;
+            // The UserThread executor is Platform::runLater in the desktop app, so all adds and removes we receive
+            // until the next UI frame are applied together.
+            UserThread.execute(this::applyPendingChanges);
+        }
+    }
+
+    private void applyPendingChanges() {
+        applyPendingChangesScheduled = false;
+        if (pendingAdds.isEmpty() && pendingRemoves.isEmpty()) {
+            return;
+        }
+
+        offerBookListItems.applyChanges(pendingRemoves, pendingAdds);
+        log.debug("Applied {} removed and {} added offers. offerBookListItems.size {}",
+                pendingRemoves.size(), pendingAdds.size(), offerBookListItems.size());
+        pendingAdds.clear();
+        pendingRemoves.clear();
+    }
+
     public Map<String, Integer> getBuyOfferCountMap() {
         return buyOfferCountMap;
     }
@@ -279,4 +332,47 @@ public class OfferBook {
         log.debug("buyOfferCountMap.size {}   sellOfferCountMap.size {}",
                 buyOfferCountMap.size(), sellOfferCountMap.size());
     }
+
+
+    /**
+     * Observable list which allows to apply a set of removes and adds as one list change.
+     */
+    private static class OfferBookListItems extends ModifiableObservableListBase<OfferBookListItem> {
+        private final List<OfferBookListItem> items = new ArrayList<>();
+
+        void applyChanges(Collection<OfferBookListItem> toRemove, Collection<OfferBookListItem> toAdd) {
+            beginChange();
+            try {
+                removeAll(toRemove);
+                addAll(toAdd);
+            } finally {
+                endChange();
+            }
+        }
+
+        @Override
+        public OfferBookListItem get(int index) {
+            return items.get(index);
+        }
+
+        @Override
+        public int size() {
+            return items.size();
+        }
+
+        @Override
+        protected void doAdd(int index, OfferBookListItem element) {
+            items.add(index, element);
+        }
+
+        @Override
+        protected OfferBookListItem doSet(int index, OfferBookListItem element) {
+            return items.set(index, element);
+        }
+
+        @Override
+        protected OfferBookListItem doRemove(int index) {
+            return items.remove(index);
+        }
+    }
 }
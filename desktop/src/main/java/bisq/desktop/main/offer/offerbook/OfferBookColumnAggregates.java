@@ -0,0 +1,119 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.desktop.main.offer.offerbook;
+
+import java.text.DecimalFormat;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * Keeps track of the offers which determine the widths of the amount, volume, price and market price margin columns,
+ * so that list changes can be applied incrementally instead of scanning all items at each change.
+ * <p>
+ * The price of market based offers depends on the current market price. We use the price at the time the item got
+ * added, which is good enough for sizing a column.
+ */
+class OfferBookColumnAggregates {
+    private final MaxIndex amountIndex = new MaxIndex();
+    private final MaxIndex priceIndex = new MaxIndex();
+    private final MaxIndex marketPriceMarginIndex = new MaxIndex();
+    private final Set<OfferBookListItem> rangeAmountItems = new LinkedHashSet<>();
+
+    void add(OfferBookListItem item) {
+        amountIndex.put(item, item.getOffer().getAmount().getValue());
+        priceIndex.put(item, item.getOffer().getPrice() != null ? item.getOffer().getPrice().getValue() : null);
+        marketPriceMarginIndex.put(item, item.getOffer().isUseMarketBasedPrice() ?
+                (long) new DecimalFormat("#0.00").format(item.getOffer().getMarketPriceMargin() * 100).length() :
+                null);
+        if (item.getOffer().isRange()) {
+            rangeAmountItems.add(item);
+        }
+    }
+
+    void remove(OfferBookListItem item) {
+        amountIndex.remove(item);
+        priceIndex.remove(item);
+        marketPriceMarginIndex.remove(item);
+        rangeAmountItems.remove(item);
+    }
+
+    void clear() {
+        amountIndex.clear();
+        priceIndex.clear();
+        marketPriceMarginIndex.clear();
+        rangeAmountItems.clear();
+    }
+
+    Optional<OfferBookListItem> getHighestAmountItem() {
+        return amountIndex.getMax();
+    }
+
+    boolean containsRangeAmount() {
+        return !rangeAmountItems.isEmpty();
+    }
+
+    Optional<OfferBookListItem> getHighestPriceItem() {
+        return priceIndex.getMax();
+    }
+
+    Optional<OfferBookListItem> getHighestMarketPriceMarginItem() {
+        return marketPriceMarginIndex.getMax();
+    }
+
+    private static class MaxIndex {
+        private final TreeMap<Long, Set<OfferBookListItem>> itemsByKey = new TreeMap<>();
+        private final Map<OfferBookListItem, Long> keyByItem = new HashMap<>();
+
+        // Items with a null key are not tracked
+        void put(OfferBookListItem item, @Nullable Long key) {
+            remove(item);
+            if (key != null) {
+                keyByItem.put(item, key);
+                itemsByKey.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(item);
+            }
+        }
+
+        void remove(OfferBookListItem item) {
+            Long key = keyByItem.remove(item);
+            if (key != null) {
+                Set<OfferBookListItem> items = itemsByKey.get(key);
+                items.remove(item);
+                if (items.isEmpty()) {
+                    itemsByKey.remove(key);
+                }
+            }
+        }
+
+        void clear() {
+            itemsByKey.clear();
+            keyByItem.clear();
+        }
+
+        Optional<OfferBookListItem> getMax() {
+            Map.Entry<Long, Set<OfferBookListItem>> lastEntry = itemsByKey.lastEntry();
+            return lastEntry != null ? Optional.of(lastEntry.getValue().iterator().next()) : Optional.empty();
+        }
+    }
+}
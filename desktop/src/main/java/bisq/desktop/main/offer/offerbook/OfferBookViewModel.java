@@ -84,8 +84,6 @@ import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 
-import java.text.DecimalFormat;
-
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
@@ -119,6 +117,7 @@ class OfferBookViewModel extends ActivatableViewModel {
     private final SortedList<OfferBookListItem> sortedItems;
     private final ListChangeListener<TradeCurrency> tradeCurrencyListChangeListener;
     private final ListChangeListener<OfferBookListItem> filterItemsListener;
+    private final OfferBookColumnAggregates columnAggregates = new OfferBookColumnAggregates();
     private TradeCurrency selectedTradeCurrency;
     private final ObservableList<TradeCurrency> allTradeCurrencies = FXCollections.observableArrayList();
 
@@ -189,41 +188,19 @@ class OfferBookViewModel extends ActivatableViewModel {
         tradeCurrencyListChangeListener = c -> fillAllTradeCurrencies();
 
         filterItemsListener = c -> {
-            final Optional<OfferBookListItem> highestAmountOffer = filteredItems.stream()
-                    .max(Comparator.comparingLong(o -> o.getOffer().getAmount().getValue()));
-
-            final boolean containsRangeAmount = filteredItems.stream().anyMatch(o -> o.getOffer().isRange());
-
-            if (highestAmountOffer.isPresent()) {
-                final OfferBookListItem item = highestAmountOffer.get();
-                if (!item.getOffer().isRange() && containsRangeAmount) {
-                    maxPlacesForAmount.set(formatAmount(item.getOffer(), false)
-                            .length() * 2 + FormattingUtils.RANGE_SEPARATOR.length());
-                    maxPlacesForVolume.set(formatVolume(item.getOffer(), false)
-                            .length() * 2 + FormattingUtils.RANGE_SEPARATOR.length());
-                } else {
-                    maxPlacesForAmount.set(formatAmount(item.getOffer(), false).length());
-                    maxPlacesForVolume.set(formatVolume(item.getOffer(), false).length());
-                }
-
+            while (c.next()) {
+                c.getRemoved().forEach(columnAggregates::remove);
+                c.getAddedSubList().forEach(columnAggregates::add);
             }
-
-            final Optional<OfferBookListItem> highestPriceOffer = filteredItems.stream()
-                    .filter(o -> o.getOffer().getPrice() != null)
-                    .max(Comparator.comparingLong(o -> o.getOffer().getPrice() != null ? o.getOffer().getPrice().getValue() : 0));
-
-            highestPriceOffer.ifPresent(offerBookListItem -> maxPlacesForPrice.set(formatPrice(offerBookListItem.getOffer(), false).length()));
-
-            final Optional<OfferBookListItem> highestMarketPriceMarginOffer = filteredItems.stream()
-                    .filter(o -> o.getOffer().isUseMarketBasedPrice())
-                    .max(Comparator.comparing(o -> new DecimalFormat("#0.00").format(o.getOffer().getMarketPriceMargin() * 100).length()));
-
-            highestMarketPriceMarginOffer.ifPresent(offerBookListItem -> maxPlacesForMarketPriceMargin.set(formatMarketPriceMargin(offerBookListItem.getOffer()).length()));
+            updateMaxPlaces();
         };
     }
 
     @Override
     protected void activate() {
+        // We do not get the changes while we are deactivated, so we start from the current items.
+        columnAggregates.clear();
+        filteredItems.forEach(columnAggregates::add);
         filteredItems.addListener(filterItemsListener);
 
         updateSelectedTradeCurrency();
@@ -248,6 +225,26 @@ class OfferBookViewModel extends ActivatableViewModel {
         preferences.getTradeCurrenciesAsObservable().removeListener(tradeCurrencyListChangeListener);
     }
 
+    private void updateMaxPlaces() {
+        columnAggregates.getHighestAmountItem().ifPresent(item -> {
+            if (!item.getOffer().isRange() && columnAggregates.containsRangeAmount()) {
+                maxPlacesForAmount.set(formatAmount(item.getOffer(), false)
+                        .length() * 2 + FormattingUtils.RANGE_SEPARATOR.length());
+                maxPlacesForVolume.set(formatVolume(item.getOffer(), false)
+                        .length() * 2 + FormattingUtils.RANGE_SEPARATOR.length());
+            } else {
+                maxPlacesForAmount.set(formatAmount(item.getOffer(), false).length());
+                maxPlacesForVolume.set(formatVolume(item.getOffer(), false).length());
+            }
+        });
+
+        columnAggregates.getHighestPriceItem().ifPresent(item ->
+                maxPlacesForPrice.set(formatPrice(item.getOffer(), false).length()));
+
+        columnAggregates.getHighestMarketPriceMarginItem().ifPresent(item ->
+                maxPlacesForMarketPriceMargin.set(formatMarketPriceMargin(item.getOffer()).length()));
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // API
@@ -0,0 +1,187 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.desktop.main.offer.offerbook;
+
+import bisq.core.filter.Filter;
+import bisq.core.filter.FilterManager;
+import bisq.core.offer.Offer;
+import bisq.core.offer.OfferBookService;
+
+import bisq.network.p2p.NodeAddress;
+
+import bisq.common.UserThread;
+import bisq.common.crypto.Encryption;
+import bisq.common.crypto.PubKeyRing;
+import bisq.common.crypto.Sig;
+
+import com.google.common.util.concurrent.MoreExecutors;
+
+import javafx.beans.property.SimpleObjectProperty;
+
+import javafx.collections.ListChangeListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.mockito.ArgumentCaptor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static bisq.desktop.maker.OfferMaker.btcUsdOffer;
+import static bisq.desktop.maker.OfferMaker.id;
+import static bisq.desktop.maker.OfferMaker.nodeAddress;
+import static bisq.desktop.maker.OfferMaker.nodeAddresses;
+import static bisq.desktop.maker.OfferMaker.price;
+import static bisq.desktop.maker.OfferMaker.pubKeyRing;
+import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+public class OfferBookTest {
+    private static final NodeAddress MAKER_NODE_ADDRESS =
+            new NodeAddress("hj2nkbcrwgfgjfdwrrc4khsd34hzxfttdpgl5zfn7wgkbzuk4agvfbyd.onion", 9999);
+    private static PubKeyRing makerPubKeyRing;
+
+    private final List<Runnable> userThreadTasks = new ArrayList<>();
+    private final AtomicInteger numListChanges = new AtomicInteger();
+    private OfferBookService.OfferBookChangedListener offerBookChangedListener;
+    private OfferBook offerBook;
+
+    @BeforeClass
+    public static void setUpClass() {
+        // Key generation is slow, so all offers share the same maker keys
+        makerPubKeyRing = new PubKeyRing(Sig.generateKeyPair().getPublic(), Encryption.generateKeyPair().getPublic());
+    }
+
+    @Before
+    public void setUp() {
+        // We run the user thread tasks manually to simulate the end of a UI frame
+        UserThread.setExecutor(userThreadTasks::add);
+
+        OfferBookService offerBookService = mock(OfferBookService.class);
+        FilterManager filterManager = mock(FilterManager.class);
+        when(filterManager.filterProperty()).thenReturn(new SimpleObjectProperty<Filter>());
+        offerBook = new OfferBook(offerBookService, filterManager);
+
+        ArgumentCaptor<OfferBookService.OfferBookChangedListener> captor =
+                ArgumentCaptor.forClass(OfferBookService.OfferBookChangedListener.class);
+        verify(offerBookService).addOfferBookChangedListener(captor.capture());
+        offerBookChangedListener = captor.getValue();
+
+        offerBook.getOfferBookListItems().addListener((ListChangeListener<OfferBookListItem>) c ->
+                numListChanges.incrementAndGet());
+    }
+
+    @After
+    public void tearDown() {
+        UserThread.setExecutor(MoreExecutors.directExecutor());
+    }
+
+    @Test
+    public void testInitialPopulationIsAppliedAsSingleChange() {
+        int numOffers = 5000;
+        List<Offer> offers = new ArrayList<>();
+        for (int i = 0; i < numOffers; i++) {
+            offers.add(createOffer("offer-" + i, 100000L + i));
+        }
+
+        long ts = System.nanoTime();
+        offers.forEach(offerBookChangedListener::onAdded);
+        assertTrue(offerBook.getOfferBookListItems().isEmpty());
+        runUserThreadTasks();
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ts);
+        log.info("Populating the offer book with {} offers took {} ms", numOffers, durationMs);
+
+        assertEquals(numOffers, offerBook.getOfferBookListItems().size());
+        assertEquals(1, numListChanges.get());
+    }
+
+    @Test
+    public void testOfferWithSameIdReplacesItem() {
+        offerBookChangedListener.onAdded(createOffer("offer", 100000L));
+        runUserThreadTasks();
+
+        Offer editedOffer = createOffer("offer", 200000L);
+        offerBookChangedListener.onAdded(editedOffer);
+        runUserThreadTasks();
+
+        assertEquals(1, offerBook.getOfferBookListItems().size());
+        assertSame(editedOffer, offerBook.getOfferBookListItems().get(0).getOffer());
+        assertEquals(2, numListChanges.get());
+    }
+
+    @Test
+    public void testRemoveOfReplacedOfferIsIgnored() {
+        Offer offer = createOffer("offer", 100000L);
+        Offer editedOffer = createOffer("offer", 200000L);
+        // Edit from the API: remove and add can arrive in any order in the same bundle
+        offerBookChangedListener.onAdded(offer);
+        offerBookChangedListener.onAdded(editedOffer);
+        offerBookChangedListener.onRemoved(offer);
+        runUserThreadTasks();
+
+        assertEquals(1, offerBook.getOfferBookListItems().size());
+        assertSame(editedOffer, offerBook.getOfferBookListItems().get(0).getOffer());
+
+        offerBookChangedListener.onRemoved(editedOffer);
+        runUserThreadTasks();
+        assertTrue(offerBook.getOfferBookListItems().isEmpty());
+        assertEquals(2, numListChanges.get());
+    }
+
+    @Test
+    public void testAddAndRemoveInSameFrameDoesNotChangeList() {
+        Offer offer = createOffer("offer", 100000L);
+        offerBookChangedListener.onAdded(offer);
+        offerBookChangedListener.onRemoved(offer);
+        runUserThreadTasks();
+
+        assertTrue(offerBook.getOfferBookListItems().isEmpty());
+        assertEquals(0, numListChanges.get());
+    }
+
+    private void runUserThreadTasks() {
+        List<Runnable> tasks = new ArrayList<>(userThreadTasks);
+        userThreadTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private static Offer createOffer(String offerId, long offerPrice) {
+        List<NodeAddress> addresses = new ArrayList<>();
+        addresses.add(MAKER_NODE_ADDRESS);
+        return make(btcUsdOffer.but(
+                with(id, offerId),
+                with(price, offerPrice),
+                with(nodeAddress, MAKER_NODE_ADDRESS),
+                with(nodeAddresses, addresses),
+                with(pubKeyRing, makerPubKeyRing)));
+    }
+}
@@ -17,6 +17,8 @@
 
 package bisq.network.http;
 
+import bisq.common.util.Tuple2;
+
 import java.io.IOException;
 
 import javax.annotation.Nullable;
@@ -30,6 +32,17 @@ public interface HttpClient {
                @Nullable String headerKey,
                @Nullable String headerValue) throws IOException;
 
+    /**
+     * Sends a GET request with the given eTag as If-None-Match header, unless it is null.
+     *
+     * @return the response and the ETag of the response, or null if the server answered with 304 Not Modified
+     */
+    @Nullable
+    Tuple2<String, String> getIfNoneMatch(String param,
+                                          @Nullable String eTag,
+                                          @Nullable String headerKey,
+                                          @Nullable String headerValue) throws IOException;
+
     String post(String param,
                 @Nullable String headerKey,
                 @Nullable String headerValue) throws IOException;
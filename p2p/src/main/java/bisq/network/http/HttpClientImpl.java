@@ -20,22 +20,16 @@ package bisq.network.http;
 import bisq.network.Socks5ProxyProvider;
 
 import bisq.common.app.Version;
+import bisq.common.util.Tuple2;
+import bisq.common.util.Tuple3;
 import bisq.common.util.Utilities;
 
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
-import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpUriRequest;
-import org.apache.http.client.protocol.HttpClientContext;
-import org.apache.http.config.Registry;
-import org.apache.http.config.RegistryBuilder;
-import org.apache.http.conn.socket.ConnectionSocketFactory;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
-import org.apache.http.ssl.SSLContexts;
 
 import com.runjva.sourceforge.jsocks.protocol.Socks5Proxy;
 
@@ -72,8 +66,9 @@ public class HttpClientImpl implements HttpClient {
     private Socks5ProxyProvider socks5ProxyProvider;
     @Nullable
     private HttpURLConnection connection;
+    // The request over the proxy which is in progress, we abort it at shutDown
     @Nullable
-    private CloseableHttpClient closeableHttpClient;
+    private volatile HttpUriRequest pendingProxyRequest;
 
     @Getter
     @Setter
@@ -102,8 +97,9 @@ public class HttpClientImpl implements HttpClient {
                 connection.getInputStream().close();
                 connection.disconnect();
             }
-            if (closeableHttpClient != null) {
-                closeableHttpClient.close();
+            HttpUriRequest request = pendingProxyRequest;
+            if (request != null) {
+                request.abort();
             }
         } catch (IOException ignore) {
         }
@@ -118,37 +114,51 @@ public class HttpClientImpl implements HttpClient {
     public String get(String param,
                       @Nullable String headerKey,
                       @Nullable String headerValue) throws IOException {
-        return doRequest(param, HttpMethod.GET, headerKey, headerValue);
+        return doRequest(param, HttpMethod.GET, headerKey, headerValue, null).first;
+    }
+
+    @Nullable
+    @Override
+    public Tuple2<String, String> getIfNoneMatch(String param,
+                                                 @Nullable String eTag,
+                                                 @Nullable String headerKey,
+                                                 @Nullable String headerValue) throws IOException {
+        Tuple2<String, String> responseAndETag = doRequest(param, HttpMethod.GET, headerKey, headerValue, eTag);
+        return responseAndETag.first != null ? responseAndETag : null;
     }
 
     @Override
     public String post(String param,
                        @Nullable String headerKey,
                        @Nullable String headerValue) throws IOException {
-        return doRequest(param, HttpMethod.POST, headerKey, headerValue);
+        return doRequest(param, HttpMethod.POST, headerKey, headerValue, null).first;
     }
 
-    private String doRequest(String param,
-                             HttpMethod httpMethod,
-                             @Nullable String headerKey,
-                             @Nullable String headerValue) throws IOException {
+    // Returns the response and the ETag of the response. The response is null if we sent an eTag and the server
+    // answered with 304 Not Modified.
+    private Tuple2<String, String> doRequest(String param,
+                                             HttpMethod httpMethod,
+                                             @Nullable String headerKey,
+                                             @Nullable String headerValue,
+                                             @Nullable String eTag) throws IOException {
         checkNotNull(baseUrl, "baseUrl must be set before calling doRequest");
         checkArgument(!hasPendingRequest, "We got called on the same HttpClient again while a request is still open.");
 
         hasPendingRequest = true;
         Socks5Proxy socks5Proxy = getSocks5Proxy(socks5ProxyProvider);
         if (ignoreSocks5Proxy || socks5Proxy == null || baseUrl.contains("localhost")) {
-            return requestWithoutProxy(baseUrl, param, httpMethod, headerKey, headerValue);
+            return requestWithoutProxy(baseUrl, param, httpMethod, headerKey, headerValue, eTag);
         } else {
-            return doRequestWithProxy(baseUrl, param, httpMethod, socks5Proxy, headerKey, headerValue);
+            return doRequestWithProxy(baseUrl, param, httpMethod, socks5Proxy, headerKey, headerValue, eTag);
         }
     }
 
-    private String requestWithoutProxy(String baseUrl,
-                                       String param,
-                                       HttpMethod httpMethod,
-                                       @Nullable String headerKey,
-                                       @Nullable String headerValue) throws IOException {
+    private Tuple2<String, String> requestWithoutProxy(String baseUrl,
+                                                       String param,
+                                                       HttpMethod httpMethod,
+                                                       @Nullable String headerKey,
+                                                       @Nullable String headerValue,
+                                                       @Nullable String eTag) throws IOException {
         long ts = System.currentTimeMillis();
         log.debug("requestWithoutProxy: URL={}, param={}, httpMethod={}", baseUrl, param, httpMethod);
         try {
@@ -162,6 +172,9 @@ public class HttpClientImpl implements HttpClient {
             if (headerKey != null && headerValue != null) {
                 connection.setRequestProperty(headerKey, headerValue);
             }
+            if (eTag != null) {
+                connection.setRequestProperty("If-None-Match", eTag);
+            }
 
             if (httpMethod == HttpMethod.POST) {
                 connection.setDoOutput(true);
@@ -169,7 +182,13 @@ public class HttpClientImpl implements HttpClient {
             }
 
             int responseCode = connection.getResponseCode();
-            if (responseCode == 200) {
+            if (responseCode == 304 && eTag != null) {
+                log.debug("Response from {} with param {} took {} ms. Not modified.",
+                        baseUrl,
+                        param,
+                        System.currentTimeMillis() - ts);
+                return new Tuple2<>(null, connection.getHeaderField("ETag"));
+            } else if (responseCode == 200) {
                 String response = convertInputStreamToString(connection.getInputStream());
                 log.debug("Response from {} with param {} took {} ms. Data size:{}, response: {}",
                         baseUrl,
@@ -177,7 +196,7 @@ public class HttpClientImpl implements HttpClient {
                         System.currentTimeMillis() - ts,
                         Utilities.readableFileSize(response.getBytes().length),
                         Utilities.toTruncatedString(response));
-                return response;
+                return new Tuple2<>(response, connection.getHeaderField("ETag"));
             } else {
                 InputStream errorStream = connection.getErrorStream();
                 if (errorStream != null) {
@@ -216,73 +235,75 @@ public class HttpClientImpl implements HttpClient {
         }
     }
 
-    private String doRequestWithProxy(String baseUrl,
-                                      String param,
-                                      HttpMethod httpMethod,
-                                      Socks5Proxy socks5Proxy,
-                                      @Nullable String headerKey,
-                                      @Nullable String headerValue) throws IOException {
+    private Tuple2<String, String> doRequestWithProxy(String baseUrl,
+                                                      String param,
+                                                      HttpMethod httpMethod,
+                                                      Socks5Proxy socks5Proxy,
+                                                      @Nullable String headerKey,
+                                                      @Nullable String headerValue,
+                                                      @Nullable String eTag) throws IOException {
         long ts = System.currentTimeMillis();
         log.debug("doRequestWithProxy: baseUrl={}, param={}, httpMethod={}", baseUrl, param, httpMethod);
-        // This code is adapted from:
-        //  http://stackoverflow.com/a/25203021/5616248
-
-        // Register our own SocketFactories to override createSocket() and connectSocket().
-        // connectSocket does NOT resolve hostname before passing it to proxy.
-        Registry<ConnectionSocketFactory> reg = RegistryBuilder.<ConnectionSocketFactory>create()
-                .register("http", new SocksConnectionSocketFactory())
-                .register("https", new SocksSSLConnectionSocketFactory(SSLContexts.createSystemDefault())).build();
-
-        // Use FakeDNSResolver if not resolving DNS locally.
-        // This prevents a local DNS lookup (which would be ignored anyway)
-        PoolingHttpClientConnectionManager cm = socks5Proxy.resolveAddrLocally() ?
-                new PoolingHttpClientConnectionManager(reg) :
-                new PoolingHttpClientConnectionManager(reg, new FakeDnsResolver());
         try {
-            closeableHttpClient = checkNotNull(HttpClients.custom().setConnectionManager(cm).build());
             InetSocketAddress socksAddress = new InetSocketAddress(socks5Proxy.getInetAddress(), socks5Proxy.getPort());
 
             // remove me: Use this to test with system-wide Tor proxy, or change port for another proxy.
             // InetSocketAddress socksAddress = new InetSocketAddress("127.0.0.1", 9050);
 
-            HttpClientContext context = HttpClientContext.create();
-            context.setAttribute("socks.address", socksAddress);
-
             HttpUriRequest request = getHttpUriRequest(httpMethod, baseUrl, param);
             if (headerKey != null && headerValue != null) {
                 request.setHeader(headerKey, headerValue);
             }
+            if (eTag != null) {
+                request.setHeader("If-None-Match", eTag);
+            }
 
-            try (CloseableHttpResponse httpResponse = closeableHttpClient.execute(request, context)) {
-                String response = convertInputStreamToString(httpResponse.getEntity().getContent());
-                int statusCode = httpResponse.getStatusLine().getStatusCode();
-                if (statusCode == 200) {
-                    log.debug("Response from {} took {} ms. Data size:{}, response: {}, param: {}",
-                            baseUrl,
-                            System.currentTimeMillis() - ts,
-                            Utilities.readableFileSize(response.getBytes().length),
-                            Utilities.toTruncatedString(response),
-                            param);
-                    return response;
-                } else {
-                    log.info("Received errorMsg '{}' with statusCode {} from {}. Response took: {} ms. param: {}",
-                            response,
-                            statusCode,
-                            baseUrl,
-                            System.currentTimeMillis() - ts,
-                            param);
-                    throw new HttpException(response, statusCode);
-                }
+            // We use a shared pool of kept alive connections to avoid a new SOCKS handshake and Tor circuit setup
+            // at each request. The entity is consumed by the handler so the connection can be reused.
+            pendingProxyRequest = request;
+            // A 304 response has no entity.
+            Tuple3<Integer, String, String> statusCodeResponseAndETag = HttpConnectionPool.getInstance().execute(
+                    request,
+                    socksAddress,
+                    socks5Proxy.resolveAddrLocally(),
+                    httpResponse -> {
+                        Header eTagHeader = httpResponse.getFirstHeader("ETag");
+                        HttpEntity entity = httpResponse.getEntity();
+                        return new Tuple3<>(httpResponse.getStatusLine().getStatusCode(),
+                                entity != null ? convertInputStreamToString(entity.getContent()) : "",
+                                eTagHeader != null ? eTagHeader.getValue() : null);
+                    });
+            int statusCode = statusCodeResponseAndETag.first;
+            String response = statusCodeResponseAndETag.second;
+            if (statusCode == 304 && eTag != null) {
+                log.debug("Response from {} took {} ms. Not modified. param: {}",
+                        baseUrl,
+                        System.currentTimeMillis() - ts,
+                        param);
+                return new Tuple2<>(null, statusCodeResponseAndETag.third);
+            } else if (statusCode == 200) {
+                log.debug("Response from {} took {} ms. Data size:{}, response: {}, param: {}",
+                        baseUrl,
+                        System.currentTimeMillis() - ts,
+                        Utilities.readableFileSize(response.getBytes().length),
+                        Utilities.toTruncatedString(response),
+                        param);
+                return new Tuple2<>(response, statusCodeResponseAndETag.third);
+            } else {
+                log.info("Received errorMsg '{}' with statusCode {} from {}. Response took: {} ms. param: {}",
+                        response,
+                        statusCode,
+                        baseUrl,
+                        System.currentTimeMillis() - ts,
+                        param);
+                throw new HttpException(response, statusCode);
             }
         } catch (Throwable t) {
             String message = "Error at doRequestWithProxy with url " + baseUrl + " and param " + param +
                     ". Throwable=" + t.getMessage();
             throw new IOException(message, t);
         } finally {
-            if (closeableHttpClient != null) {
-                closeableHttpClient.close();
-                closeableHttpClient = null;
-            }
+            pendingProxyRequest = null;
             hasPendingRequest = false;
         }
     }
@@ -338,7 +359,7 @@ public class HttpClientImpl implements HttpClient {
                 ",\n     ignoreSocks5Proxy=" + ignoreSocks5Proxy +
                 ",\n     uid='" + uid + '\'' +
                 ",\n     connection=" + connection +
-                ",\n     httpclient=" + closeableHttpClient +
+                ",\n     pendingProxyRequest=" + pendingProxyRequest +
                 "\n}";
     }
 }
@@ -0,0 +1,264 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.http;
+
+import bisq.common.util.Utilities;
+
+import org.apache.http.HttpHost;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContexts;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.net.InetSocketAddress;
+
+import java.io.IOException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Long-lived HTTP clients for requests over a SOCKS proxy, one per proxy and destination (scheme, host and port).
+ * Connections are kept alive and reused by later requests to the same destination, so we do not pay for a new SOCKS
+ * handshake and Tor circuit setup at each price, fee or tx proof request. Connections, and with that the Tor streams,
+ * are never shared between destinations.
+ *
+ * Idle connections are closed after idleTimeoutSec and destinations without requests for destinationTimeoutSec are
+ * removed. Each destination has at most maxConnectionsPerDestination connections, further requests wait for a free
+ * one. If there are maxDestinations destinations already we remove the least recently used one without a running
+ * request. If all of them have a running request we go over the limit until one of them gets idle.
+ */
+@Slf4j
+public class HttpConnectionPool {
+    private static final int MAX_CONNECTIONS_PER_DESTINATION = 4;
+    private static final int MAX_DESTINATIONS = 32;
+    // Tor closes streams which have been idle for a while, so we don't keep them for long
+    private static final long IDLE_TIMEOUT_SEC = 60;
+    private static final long DESTINATION_TIMEOUT_SEC = TimeUnit.MINUTES.toSeconds(15);
+    // We check connections which have been idle for that time before reusing them, as Tor or the server might have
+    // closed them in the meantime.
+    private static final int VALIDATE_AFTER_INACTIVITY_MS = 2000;
+    private static final int TIMEOUT_MS = (int) TimeUnit.SECONDS.toMillis(120);
+
+    private static final HttpConnectionPool INSTANCE = new HttpConnectionPool(MAX_CONNECTIONS_PER_DESTINATION,
+            MAX_DESTINATIONS, IDLE_TIMEOUT_SEC, DESTINATION_TIMEOUT_SEC);
+
+    public static HttpConnectionPool getInstance() {
+        return INSTANCE;
+    }
+
+    private final int maxConnectionsPerDestination;
+    private final int maxDestinations;
+    private final long idleTimeoutSec;
+    private final long destinationTimeoutSec;
+    private final Map<String, Destination> destinationByKey = new HashMap<>();
+    private final ScheduledThreadPoolExecutor evictionExecutor;
+    private boolean isShutDown;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @VisibleForTesting
+    HttpConnectionPool(int maxConnectionsPerDestination,
+                       int maxDestinations,
+                       long idleTimeoutSec,
+                       long destinationTimeoutSec) {
+        this.maxConnectionsPerDestination = maxConnectionsPerDestination;
+        this.maxDestinations = maxDestinations;
+        this.idleTimeoutSec = idleTimeoutSec;
+        this.destinationTimeoutSec = destinationTimeoutSec;
+        evictionExecutor = Utilities.getScheduledThreadPoolExecutor("HttpConnectionPool-evictor", 1, 1, 60);
+        long evictionPeriodSec = Math.max(1, idleTimeoutSec / 2);
+        evictionExecutor.scheduleWithFixedDelay(this::evictIdle, evictionPeriodSec, evictionPeriodSec,
+                TimeUnit.SECONDS);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Executes the request over the SOCKS proxy at socksAddress with a pooled connection to the destination of the
+     * request. The responseHandler must consume the response entity, only then the connection can be reused.
+     */
+    public <T> T execute(HttpUriRequest request,
+                         InetSocketAddress socksAddress,
+                         boolean resolveAddrLocally,
+                         ResponseHandler<? extends T> responseHandler) throws IOException {
+        HttpHost target = URIUtils.extractHost(request.getURI());
+        if (target == null) {
+            throw new IOException("Request URI has no host: " + request.getURI());
+        }
+        Destination destination = startRequest(target, socksAddress, resolveAddrLocally);
+        try {
+            HttpClientContext context = HttpClientContext.create();
+            context.setAttribute("socks.address", socksAddress);
+            return destination.httpClient.execute(request, responseHandler, context);
+        } finally {
+            synchronized (this) {
+                destination.numRunningRequests--;
+            }
+        }
+    }
+
+    @VisibleForTesting
+    synchronized int getNumDestinations() {
+        return destinationByKey.size();
+    }
+
+    @VisibleForTesting
+    synchronized void evictIdle() {
+        long now = System.currentTimeMillis();
+        List<String> expired = new ArrayList<>();
+        destinationByKey.forEach((key, destination) -> {
+            destination.connectionManager.closeExpiredConnections();
+            destination.connectionManager.closeIdleConnections(idleTimeoutSec, TimeUnit.SECONDS);
+            if (now - destination.lastUsed >= TimeUnit.SECONDS.toMillis(destinationTimeoutSec) &&
+                    destination.isIdle()) {
+                expired.add(key);
+            }
+        });
+        expired.forEach(this::close);
+    }
+
+    public synchronized void shutDown() {
+        isShutDown = true;
+        evictionExecutor.shutdownNow();
+        new ArrayList<>(destinationByKey.keySet()).forEach(this::close);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns the destination for the request and counts the request as running on it, so it does not get closed
+    // before the request has completed.
+    private synchronized Destination startRequest(HttpHost target,
+                                                  InetSocketAddress socksAddress,
+                                                  boolean resolveAddrLocally) throws IOException {
+        if (isShutDown) {
+            throw new IOException("Connection pool is shut down");
+        }
+
+        String key = socksAddress + "|" + resolveAddrLocally + "|" + target.toURI();
+        Destination destination = destinationByKey.get(key);
+        if (destination == null) {
+            while (destinationByKey.size() >= maxDestinations) {
+                Optional<String> leastRecentlyUsedIdle = destinationByKey.entrySet().stream()
+                        .filter(entry -> entry.getValue().isIdle())
+                        .min(Comparator.comparingLong(entry -> entry.getValue().lastUsed))
+                        .map(Map.Entry::getKey);
+                if (!leastRecentlyUsedIdle.isPresent()) {
+                    log.info("All {} destinations have running requests. We add {} above the limit.",
+                            destinationByKey.size(), key);
+                    break;
+                }
+                close(leastRecentlyUsedIdle.get());
+            }
+            destination = new Destination(resolveAddrLocally);
+            destinationByKey.put(key, destination);
+            log.debug("Created connection pool for {}", key);
+        }
+        destination.lastUsed = System.currentTimeMillis();
+        destination.numRunningRequests++;
+        return destination;
+    }
+
+    private void close(String key) {
+        Destination destination = destinationByKey.remove(key);
+        if (destination != null) {
+            try {
+                destination.httpClient.close();
+            } catch (IOException ignore) {
+            }
+            log.debug("Closed connection pool for {}", key);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Destination
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private class Destination {
+        private final PoolingHttpClientConnectionManager connectionManager;
+        private final CloseableHttpClient httpClient;
+        private volatile long lastUsed;
+        // Guarded by the pool. Requests count from before they lease a connection until they have completed.
+        private int numRunningRequests;
+
+        Destination(boolean resolveAddrLocally) {
+            // Our own SocketFactories connect over the SOCKS proxy of the context and do not resolve the hostname
+            // before passing it to the proxy.
+            Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", new SocksConnectionSocketFactory())
+                    .register("https", new SocksSSLConnectionSocketFactory(SSLContexts.createSystemDefault()))
+                    .build();
+            // The FakeDnsResolver prevents a local DNS lookup, which would be ignored anyway
+            connectionManager = resolveAddrLocally ?
+                    new PoolingHttpClientConnectionManager(registry) :
+                    new PoolingHttpClientConnectionManager(registry, new FakeDnsResolver());
+            connectionManager.setMaxTotal(maxConnectionsPerDestination);
+            connectionManager.setDefaultMaxPerRoute(maxConnectionsPerDestination);
+            connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MS);
+
+            RequestConfig requestConfig = RequestConfig.custom()
+                    .setConnectTimeout(TIMEOUT_MS)
+                    .setSocketTimeout(TIMEOUT_MS)
+                    .setConnectionRequestTimeout(TIMEOUT_MS)
+                    .build();
+            long maxKeepAliveMs = TimeUnit.SECONDS.toMillis(idleTimeoutSec);
+            httpClient = HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setDefaultRequestConfig(requestConfig)
+                    .setKeepAliveStrategy((response, context) -> {
+                        long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response,
+                                context);
+                        return keepAlive > 0 ? Math.min(keepAlive, maxKeepAliveMs) : maxKeepAliveMs;
+                    })
+                    .build();
+        }
+
+        private boolean isIdle() {
+            return numRunningRequests == 0 && connectionManager.getTotalStats().getLeased() == 0;
+        }
+    }
+}
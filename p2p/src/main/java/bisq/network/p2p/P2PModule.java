@@ -24,6 +24,7 @@ import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.Broadcaster;
 import bisq.network.p2p.peers.PeerManager;
+import bisq.network.p2p.peers.getdata.GetDataResponseBuilder;
 import bisq.network.p2p.peers.getdata.RequestDataManager;
 import bisq.network.p2p.peers.keepalive.KeepAliveManager;
 import bisq.network.p2p.peers.peerexchange.PeerExchangeManager;
@@ -64,6 +65,7 @@ public class P2PModule extends AppModule {
         bind(ProtectedDataStoreService.class).in(Singleton.class);
         bind(ResourceDataStoreService.class).in(Singleton.class);
         bind(RequestDataManager.class).in(Singleton.class);
+        bind(GetDataResponseBuilder.class).in(Singleton.class);
         bind(PeerExchangeManager.class).in(Singleton.class);
         bind(KeepAliveManager.class).in(Singleton.class);
         bind(Broadcaster.class).in(Singleton.class);
@@ -93,5 +95,6 @@ public class P2PModule extends AppModule {
         bindConstant().annotatedWith(named(TOR_STREAM_ISOLATION)).to(config.torStreamIsolation);
         bindConstant().annotatedWith(named("MAX_SEQUENCE_NUMBER_MAP_SIZE_BEFORE_PURGE")).to(1000);
         bind(Boolean.class).annotatedWith(named(REPUBLISH_MAILBOX_ENTRIES)).toInstance(config.republishMailboxEntries);
+        bindConstant().annotatedWith(named(MAX_CONCURRENT_GET_DATA_RESPONSE_BUILDS)).to(config.maxConcurrentGetDataResponseBuilds);
     }
 }
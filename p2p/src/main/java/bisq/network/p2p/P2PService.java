@@ -19,6 +19,7 @@ package bisq.network.p2p;
 
 import bisq.network.Socks5ProxyProvider;
 import bisq.network.crypto.EncryptionService;
+import bisq.network.http.HttpConnectionPool;
 import bisq.network.p2p.mailbox.MailboxMessageService;
 import bisq.network.p2p.network.CloseConnectionReason;
 import bisq.network.p2p.network.Connection;
@@ -222,6 +223,9 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             networkReadySubscription.unsubscribe();
         }
 
+        // Closes the kept alive connections of the HTTP requests over Tor before Tor gets shut down
+        HttpConnectionPool.getInstance().shutDown();
+
         if (networkNode != null) {
             networkNode.shutDown(() -> {
                 shutDownResultHandlers.forEach(Runnable::run);
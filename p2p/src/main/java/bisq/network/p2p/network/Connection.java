@@ -37,6 +37,10 @@ import bisq.common.app.Capabilities;
 import bisq.common.app.HasCapabilities;
 import bisq.common.app.Version;
 import bisq.common.config.Config;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.LatencyHistogram;
+import bisq.common.metrics.MetricFamily;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.proto.ProtobufferException;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkProtoResolver;
@@ -110,6 +114,18 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
     //TODO decrease limits again after testing
     private static final int SOCKET_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(180);
 
+    // Labeled by the message case of the proto network envelope
+    private static final MetricFamily<Counter> SENT_MESSAGES = MetricsRegistry.counter(
+            "bisq_p2p_sent_messages_total", "Network messages sent", "type");
+    private static final MetricFamily<Counter> SENT_BYTES = MetricsRegistry.counter(
+            "bisq_p2p_sent_bytes_total", "Serialized size of network messages sent", "type");
+    private static final MetricFamily<Counter> RECEIVED_MESSAGES = MetricsRegistry.counter(
+            "bisq_p2p_received_messages_total", "Network messages received", "type");
+    private static final MetricFamily<Counter> RECEIVED_BYTES = MetricsRegistry.counter(
+            "bisq_p2p_received_bytes_total", "Serialized size of network messages received", "type");
+    private static final LatencyHistogram SEND_DURATION = MetricsRegistry.histogram(
+            "bisq_p2p_send_duration_seconds", "Time spent writing a network message to the socket");
+
     public static int getPermittedMessageSize() {
         return PERMITTED_MESSAGE_SIZE;
     }
@@ -237,7 +253,8 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             log.debug("Capability for networkEnvelope is required but not supported");
             return;
         }
-        int networkEnvelopeSize = networkEnvelope.toProtoNetworkEnvelope().getSerializedSize();
+        protobuf.NetworkEnvelope proto = networkEnvelope.toProtoNetworkEnvelope();
+        int networkEnvelopeSize = proto.getSerializedSize();
         try {
             // Throttle outbound network_messages
             long now = System.currentTimeMillis();
@@ -254,9 +271,14 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
             lastSendTimeStamp = now;
 
             if (!stopped) {
+                long writeStartTime = System.nanoTime();
                 protoOutputStream.writeEnvelope(networkEnvelope);
+                SEND_DURATION.recordSince(writeStartTime);
+                String messageType = proto.getMessageCase().name();
+                SENT_MESSAGES.labels(messageType).inc();
+                SENT_BYTES.labels(messageType).add(networkEnvelopeSize);
                 UserThread.execute(() -> messageListeners.forEach(e -> e.onMessageSent(networkEnvelope, this)));
-                UserThread.execute(() -> connectionStatistics.addSendMsgMetrics(System.currentTimeMillis() - ts, networkEnvelopeSize));
+                connectionStatistics.addSentMessage(networkEnvelope, proto, System.currentTimeMillis() - ts, networkEnvelopeSize);
             }
         } catch (Throwable t) {
             handleException(t);
@@ -758,9 +780,12 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
 
                     // We want to track the size of each object even if it is invalid data
                     statistic.addReceivedBytes(size);
+                    String messageType = proto.getMessageCase().name();
+                    RECEIVED_MESSAGES.labels(messageType).inc();
+                    RECEIVED_BYTES.labels(messageType).add(size);
 
                     // We want to track the network_messages also before the checks, so do it early...
-                    statistic.addReceivedMessage(networkEnvelope);
+                    statistic.addReceivedMessage(proto);
 
                     // First we check the size
                     boolean exceeds;
@@ -828,7 +853,7 @@ public class Connection implements HasCapabilities, Runnable, MessageListener {
                         }
 
                         onMessage(networkEnvelope, this);
-                        UserThread.execute(() -> connectionStatistics.addReceivedMsgMetrics(System.currentTimeMillis() - ts, size));
+                        connectionStatistics.addReceivedMessage(networkEnvelope, proto, System.currentTimeMillis() - ts, size);
                     }
                 } catch (InvalidClassException e) {
                     log.error(e.getMessage());
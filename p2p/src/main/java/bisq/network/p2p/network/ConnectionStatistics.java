@@ -25,46 +25,41 @@ import bisq.network.p2p.NodeAddress;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.util.Utilities;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Per connection statistics. Updated directly from the connection threads with lock free counters, so the
+ * accounting of a message does not post a task to the user thread.
+ */
 @Slf4j
-public class ConnectionStatistics implements MessageListener {
+public class ConnectionStatistics {
     private final Connection connection;
     private final ConnectionState connectionState;
-    private final Map<String, Integer> sentDataMap = new HashMap<>();
-    private final Map<String, Integer> receivedDataMap = new HashMap<>();
-    private final Map<String, Long> rrtMap = new HashMap<>();
+    private final MessageTypeCounters sentMessages = MessageTypeCounters.perConnection();
+    private final MessageTypeCounters receivedMessages = MessageTypeCounters.perConnection();
+    private final Map<String, Long> rrtMap = new ConcurrentHashMap<>();
+    private final AtomicLong timeOnSendMsg = new AtomicLong();
+    private final AtomicLong timeOnReceivedMsg = new AtomicLong();
+    private final AtomicLong sentBytes = new AtomicLong();
+    private final AtomicLong receivedBytes = new AtomicLong();
     @Getter
     private final long connectionCreationTimeStamp;
     @Getter
-    private long lastMessageTimestamp;
-    @Getter
-    private long timeOnSendMsg = 0;
-    @Getter
-    private long timeOnReceivedMsg = 0;
-    @Getter
-    private int sentBytes = 0;
-    @Getter
-    private int receivedBytes = 0;
+    private volatile long lastMessageTimestamp;
 
     public ConnectionStatistics(Connection connection, ConnectionState connectionState) {
         this.connection = connection;
         this.connectionState = connectionState;
 
-        connection.addMessageListener(this);
-
         connectionCreationTimeStamp = System.currentTimeMillis();
     }
 
-    public void shutDown() {
-        connection.removeMessageListener(this);
-    }
-
     public String getInfo() {
         String ls = System.lineSeparator();
         long now = System.currentTimeMillis();
@@ -115,59 +110,61 @@ public class ConnectionStatistics implements MessageListener {
                 connection.getUid(),
                 lastMsg,
                 rrt,
-                Utilities.readableFileSize(sentBytes), sentDataMap.toString(),
-                Utilities.readableFileSize(receivedBytes), receivedDataMap.toString(),
-                Utilities.formatDurationAsWords(timeOnSendMsg),
-                Utilities.formatDurationAsWords(timeOnReceivedMsg));
+                Utilities.readableFileSize(sentBytes.get()), sentMessages,
+                Utilities.readableFileSize(receivedBytes.get()), receivedMessages,
+                Utilities.formatDurationAsWords(timeOnSendMsg.get()),
+                Utilities.formatDurationAsWords(timeOnReceivedMsg.get()));
     }
 
-    @Override
-    public void onMessage(NetworkEnvelope networkEnvelope,
-                          Connection connection) {
+    // Called from the send thread after the message was written
+    void addSentMessage(NetworkEnvelope networkEnvelope,
+                        protobuf.NetworkEnvelope proto,
+                        long timeSpent,
+                        int bytes) {
         lastMessageTimestamp = System.currentTimeMillis();
-        if (networkEnvelope instanceof BundleOfEnvelopes) {
-            ((BundleOfEnvelopes) networkEnvelope).getEnvelopes().forEach(e -> addToMap(e, receivedDataMap));
-            // We want to track also number of BundleOfEnvelopes
-            addToMap(networkEnvelope, receivedDataMap);
-        } else {
-            addToMap(networkEnvelope, receivedDataMap);
-        }
+        // We want to track also number of BundleOfEnvelopes
+        sentMessages.incrementWithBundledEnvelopes(proto);
+        updateRrtMap(networkEnvelope);
+        timeOnSendMsg.addAndGet(timeSpent);
+        sentBytes.addAndGet(bytes);
     }
 
-    @Override
-    public void onMessageSent(NetworkEnvelope networkEnvelope, Connection connection) {
+    // Called from the input handler thread after the message was handled
+    void addReceivedMessage(NetworkEnvelope networkEnvelope,
+                            protobuf.NetworkEnvelope proto,
+                            long timeSpent,
+                            int bytes) {
         lastMessageTimestamp = System.currentTimeMillis();
-        if (networkEnvelope instanceof BundleOfEnvelopes) {
-            ((BundleOfEnvelopes) networkEnvelope).getEnvelopes().forEach(e -> addToMap(e, sentDataMap));
-            // We want to track also number of BundleOfEnvelopes
-            addToMap(networkEnvelope, sentDataMap);
-        } else {
-            addToMap(networkEnvelope, sentDataMap);
-        }
+        receivedMessages.incrementWithBundledEnvelopes(proto);
+        updateRrtMap(networkEnvelope);
+        timeOnReceivedMsg.addAndGet(timeSpent);
+        receivedBytes.addAndGet(bytes);
     }
 
-    private void addToMap(NetworkEnvelope networkEnvelope, Map<String, Integer> map) {
-        String key = networkEnvelope.getClass().getSimpleName();
-        map.putIfAbsent(key, 0);
-        map.put(key, map.get(key) + 1);
-
-        if (networkEnvelope instanceof InitialDataRequest) {
-            rrtMap.putIfAbsent(key, System.currentTimeMillis());
+    private void updateRrtMap(NetworkEnvelope networkEnvelope) {
+        if (networkEnvelope instanceof BundleOfEnvelopes) {
+            ((BundleOfEnvelopes) networkEnvelope).getEnvelopes().forEach(this::updateRrtMap);
+        } else if (networkEnvelope instanceof InitialDataRequest) {
+            rrtMap.putIfAbsent(networkEnvelope.getClass().getSimpleName(), System.currentTimeMillis());
         } else if (networkEnvelope instanceof InitialDataResponse) {
             String associatedRequest = ((InitialDataResponse) networkEnvelope).associatedRequest().getSimpleName();
-            if (rrtMap.containsKey(associatedRequest)) {
-                rrtMap.put(associatedRequest, System.currentTimeMillis() - rrtMap.get(associatedRequest));
-            }
+            rrtMap.computeIfPresent(associatedRequest, (key, requestTime) -> System.currentTimeMillis() - requestTime);
         }
     }
 
-    public void addSendMsgMetrics(long timeSpent, int bytes) {
-        this.timeOnSendMsg += timeSpent;
-        this.sentBytes += bytes;
+    public long getTimeOnSendMsg() {
+        return timeOnSendMsg.get();
+    }
+
+    public long getTimeOnReceivedMsg() {
+        return timeOnReceivedMsg.get();
+    }
+
+    public long getSentBytes() {
+        return sentBytes.get();
     }
 
-    public void addReceivedMsgMetrics(long timeSpent, int bytes) {
-        this.timeOnReceivedMsg += timeSpent;
-        this.receivedBytes += bytes;
+    public long getReceivedBytes() {
+        return receivedBytes.get();
     }
 }
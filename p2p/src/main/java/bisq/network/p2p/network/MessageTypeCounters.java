@@ -0,0 +1,109 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+
+/**
+ * Lock free message counters indexed by the message case of the proto network envelope. Counting a message does not
+ * use a map lookup, boxing or the user thread.
+ * Per connection counters use a compact AtomicLongArray as each connection has few writing threads. Counters shared
+ * by all connections use striped LongAdders as all connection threads write to them.
+ */
+final class MessageTypeCounters {
+    private static final protobuf.NetworkEnvelope.MessageCase[] MESSAGE_CASES =
+            protobuf.NetworkEnvelope.MessageCase.values();
+
+    static MessageTypeCounters perConnection() {
+        return new MessageTypeCounters(false);
+    }
+
+    static MessageTypeCounters shared() {
+        return new MessageTypeCounters(true);
+    }
+
+    // Only one of both is used
+    @Nullable
+    private final AtomicLongArray counts;
+    @Nullable
+    private final LongAdder[] stripedCounts;
+
+    private MessageTypeCounters(boolean striped) {
+        if (striped) {
+            counts = null;
+            stripedCounts = new LongAdder[MESSAGE_CASES.length];
+            for (int i = 0; i < stripedCounts.length; i++) {
+                stripedCounts[i] = new LongAdder();
+            }
+        } else {
+            counts = new AtomicLongArray(MESSAGE_CASES.length);
+            stripedCounts = null;
+        }
+    }
+
+    void increment(protobuf.NetworkEnvelope proto) {
+        int index = proto.getMessageCase().ordinal();
+        if (counts != null) {
+            counts.incrementAndGet(index);
+        } else {
+            stripedCounts[index].increment();
+        }
+    }
+
+    // Counts the envelope and in case of a bundle all envelopes it contains
+    void incrementWithBundledEnvelopes(protobuf.NetworkEnvelope proto) {
+        increment(proto);
+        if (proto.getMessageCase() == protobuf.NetworkEnvelope.MessageCase.BUNDLE_OF_ENVELOPES) {
+            proto.getBundleOfEnvelopes().getEnvelopesList().forEach(this::increment);
+        }
+    }
+
+    long get(int index) {
+        return counts != null ? counts.get(index) : stripedCounts[index].sum();
+    }
+
+    long getTotal() {
+        long total = 0;
+        for (int i = 0; i < MESSAGE_CASES.length; i++) {
+            total += get(i);
+        }
+        return total;
+    }
+
+    // Counts by message case name, without the message cases we have not seen
+    Map<String, Long> toMap() {
+        Map<String, Long> map = new TreeMap<>();
+        for (int i = 0; i < MESSAGE_CASES.length; i++) {
+            long count = get(i);
+            if (count > 0) {
+                map.put(MESSAGE_CASES[i].name(), count);
+            }
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+}
@@ -64,7 +64,7 @@ class ProtoOutputStream {
         delegate.flush();
 
         statistic.addSentBytes(proto.getSerializedSize());
-        statistic.addSentMessage(envelope);
+        statistic.addSentMessage(proto);
 
         if (!(envelope instanceof KeepAliveMessage)) {
             statistic.updateLastActivityTimestamp();
@@ -18,7 +18,6 @@
 package bisq.network.p2p.network;
 
 import bisq.common.UserThread;
-import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.util.Utilities;
 
 import javafx.beans.property.DoubleProperty;
@@ -28,16 +27,25 @@ import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleLongProperty;
 
+import java.util.Collections;
 import java.util.Date;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 /**
  * Network statistics per connection. As we are also interested in total network statistics
  * we use static properties to get traffic of all connections combined.
+ * <p>
+ * The counters are updated lock free from the connection threads. The JavaFX properties are only refreshed by a
+ * periodic sampler on the user thread, which gets started when a property is accessed for the first time (i.e. when
+ * there is a UI showing them). Headless nodes never create the properties.
  */
 @Slf4j
 public class Statistic {
@@ -48,92 +56,139 @@ public class Statistic {
 
 
     private final static long startTime = System.currentTimeMillis();
+    private final static LongAdder totalSentBytesCounter = new LongAdder();
+    private final static LongAdder totalReceivedBytesCounter = new LongAdder();
+    private final static MessageTypeCounters totalReceivedMessages = MessageTypeCounters.shared();
+    private final static MessageTypeCounters totalSentMessages = MessageTypeCounters.shared();
     private final static LongProperty totalSentBytes = new SimpleLongProperty(0);
     private final static DoubleProperty totalSentBytesPerSec = new SimpleDoubleProperty(0);
     private final static LongProperty totalReceivedBytes = new SimpleLongProperty(0);
     private final static DoubleProperty totalReceivedBytesPerSec = new SimpleDoubleProperty(0);
-    private final static Map<String, Integer> totalReceivedMessages = new ConcurrentHashMap<>();
-    private final static Map<String, Integer> totalSentMessages = new ConcurrentHashMap<>();
     private final static LongProperty numTotalSentMessages = new SimpleLongProperty(0);
     private final static DoubleProperty numTotalSentMessagesPerSec = new SimpleDoubleProperty(0);
     private final static LongProperty numTotalReceivedMessages = new SimpleLongProperty(0);
     private final static DoubleProperty numTotalReceivedMessagesPerSec = new SimpleDoubleProperty(0);
+    // Back dating of the storage entries of a peer which disconnected, see P2PDataStorage.onDisconnect
+    private final static AtomicLong numDisconnectBackDatings = new AtomicLong();
+    private final static AtomicLong numBackDatedEntries = new AtomicLong();
+    private final static AtomicLong disconnectBackDatingNanos = new AtomicLong();
+    // Statistics with accessed properties. Only accessed from the user thread. Weak keys, so statistics of closed
+    // connections are not kept alive by the sampler.
+    private final static Set<Statistic> sampledStatistics = Collections.newSetFromMap(new WeakHashMap<>());
+    private static boolean samplerStarted;
 
     static {
-        UserThread.runPeriodically(() -> {
-            numTotalSentMessages.set(totalSentMessages.values().stream().mapToInt(Integer::intValue).sum());
-            numTotalReceivedMessages.set(totalReceivedMessages.values().stream().mapToInt(Integer::intValue).sum());
-
-            long passed = (System.currentTimeMillis() - startTime) / 1000;
-            numTotalSentMessagesPerSec.set(((double) numTotalSentMessages.get()) / passed);
-            numTotalReceivedMessagesPerSec.set(((double) numTotalReceivedMessages.get()) / passed);
-
-            totalSentBytesPerSec.set(((double) totalSentBytes.get()) / passed);
-            totalReceivedBytesPerSec.set(((double) totalReceivedBytes.get()) / passed);
-        }, 1);
-
         // We log statistics every 5 minutes
         UserThread.runPeriodically(() -> {
             String ls = System.lineSeparator();
+            long passed = Math.max(1, (System.currentTimeMillis() - startTime) / 1000);
+            long numSentMessages = totalSentMessages.getTotal();
+            long numReceivedMessages = totalReceivedMessages.getTotal();
             log.info("Accumulated network statistics:" + ls +
                             "Bytes sent: {};" + ls +
                             "Number of sent messages/Sent messages: {} / {};" + ls +
                             "Number of sent messages per sec: {};" + ls +
                             "Bytes received: {}" + ls +
                             "Number of received messages/Received messages: {} / {};" + ls +
-                            "Number of received messages per sec: {};" + ls,
-                    Utilities.readableFileSize(totalSentBytes.get()),
-                    numTotalSentMessages.get(), totalSentMessages,
-                    numTotalSentMessagesPerSec.get(),
-                    Utilities.readableFileSize(totalReceivedBytes.get()),
-                    numTotalReceivedMessages.get(), totalReceivedMessages,
-                    numTotalReceivedMessagesPerSec.get());
+                            "Number of received messages per sec: {};" + ls +
+                            "Disconnects handled by storage/Back dated entries/Time spent: {} / {} / {} ms;" + ls,
+                    Utilities.readableFileSize(totalSentBytesCounter.sum()),
+                    numSentMessages, totalSentMessages,
+                    ((double) numSentMessages) / passed,
+                    Utilities.readableFileSize(totalReceivedBytesCounter.sum()),
+                    numReceivedMessages, totalReceivedMessages,
+                    ((double) numReceivedMessages) / passed,
+                    numDisconnectBackDatings.get(), numBackDatedEntries.get(),
+                    TimeUnit.NANOSECONDS.toMillis(disconnectBackDatingNanos.get()));
         }, TimeUnit.MINUTES.toSeconds(5));
     }
 
+    public static void addDisconnectBackDating(int numBackDated, long durationNanos) {
+        numDisconnectBackDatings.incrementAndGet();
+        numBackDatedEntries.addAndGet(numBackDated);
+        disconnectBackDatingNanos.addAndGet(durationNanos);
+    }
+
     public static LongProperty totalSentBytesProperty() {
+        startSampler();
         return totalSentBytes;
     }
 
     public static DoubleProperty totalSentBytesPerSecProperty() {
+        startSampler();
         return totalSentBytesPerSec;
     }
 
     public static LongProperty totalReceivedBytesProperty() {
+        startSampler();
         return totalReceivedBytes;
     }
 
     public static DoubleProperty totalReceivedBytesPerSecProperty() {
+        startSampler();
         return totalReceivedBytesPerSec;
     }
 
     public static LongProperty numTotalSentMessagesProperty() {
+        startSampler();
         return numTotalSentMessages;
     }
 
     public static DoubleProperty numTotalSentMessagesPerSecProperty() {
+        startSampler();
         return numTotalSentMessagesPerSec;
     }
 
     public static LongProperty numTotalReceivedMessagesProperty() {
+        startSampler();
         return numTotalReceivedMessages;
     }
 
     public static DoubleProperty numTotalReceivedMessagesPerSecProperty() {
+        startSampler();
         return numTotalReceivedMessagesPerSec;
     }
 
+    private static void startSampler() {
+        if (!samplerStarted) {
+            samplerStarted = true;
+            sample();
+            UserThread.runPeriodically(Statistic::sample, 1);
+        }
+    }
+
+    private static void sample() {
+        numTotalSentMessages.set(totalSentMessages.getTotal());
+        numTotalReceivedMessages.set(totalReceivedMessages.getTotal());
+        totalSentBytes.set(totalSentBytesCounter.sum());
+        totalReceivedBytes.set(totalReceivedBytesCounter.sum());
+
+        long passed = Math.max(1, (System.currentTimeMillis() - startTime) / 1000);
+        numTotalSentMessagesPerSec.set(((double) numTotalSentMessages.get()) / passed);
+        numTotalReceivedMessagesPerSec.set(((double) numTotalReceivedMessages.get()) / passed);
+
+        totalSentBytesPerSec.set(((double) totalSentBytes.get()) / passed);
+        totalReceivedBytesPerSec.set(((double) totalReceivedBytes.get()) / passed);
+
+        sampledStatistics.forEach(Statistic::sampleProperties);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Instance fields
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private final Date creationDate;
-    private long lastActivityTimestamp = System.currentTimeMillis();
-    private final LongProperty sentBytes = new SimpleLongProperty(0);
-    private final LongProperty receivedBytes = new SimpleLongProperty(0);
-    private final Map<String, Integer> receivedMessages = new ConcurrentHashMap<>();
-    private final Map<String, Integer> sentMessages = new ConcurrentHashMap<>();
+    private volatile long lastActivityTimestamp = System.currentTimeMillis();
+    private final AtomicLong sentBytesCounter = new AtomicLong();
+    private final AtomicLong receivedBytesCounter = new AtomicLong();
+    private final MessageTypeCounters receivedMessages = MessageTypeCounters.perConnection();
+    private final MessageTypeCounters sentMessages = MessageTypeCounters.perConnection();
+    // Created at first access, see class comment
+    @Nullable
+    private LongProperty sentBytes;
+    @Nullable
+    private LongProperty receivedBytes;
     private final IntegerProperty roundTripTime = new SimpleIntegerProperty(0);
 
 
@@ -149,59 +204,45 @@ public class Statistic {
     // Update, increment
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // The update methods are called from the connection threads
+
     void updateLastActivityTimestamp() {
-        UserThread.execute(() -> lastActivityTimestamp = System.currentTimeMillis());
+        lastActivityTimestamp = System.currentTimeMillis();
     }
 
     void addSentBytes(int value) {
-        UserThread.execute(() -> {
-            sentBytes.set(sentBytes.get() + value);
-            totalSentBytes.set(totalSentBytes.get() + value);
-        });
+        sentBytesCounter.addAndGet(value);
+        totalSentBytesCounter.add(value);
     }
 
     void addReceivedBytes(int value) {
-        UserThread.execute(() -> {
-            receivedBytes.set(receivedBytes.get() + value);
-            totalReceivedBytes.set(totalReceivedBytes.get() + value);
-        });
-    }
-
-    // TODO would need msg inspection to get useful information...
-    void addReceivedMessage(NetworkEnvelope networkEnvelope) {
-        String messageClassName = networkEnvelope.getClass().getSimpleName();
-        int counter = 1;
-        if (receivedMessages.containsKey(messageClassName)) {
-            counter = receivedMessages.get(messageClassName) + 1;
-        }
-        receivedMessages.put(messageClassName, counter);
-
-        counter = 1;
-        if (totalReceivedMessages.containsKey(messageClassName)) {
-            counter = totalReceivedMessages.get(messageClassName) + 1;
-        }
-        totalReceivedMessages.put(messageClassName, counter);
+        receivedBytesCounter.addAndGet(value);
+        totalReceivedBytesCounter.add(value);
     }
 
-    void addSentMessage(NetworkEnvelope networkEnvelope) {
-        String messageClassName = networkEnvelope.getClass().getSimpleName();
-        int counter = 1;
-        if (sentMessages.containsKey(messageClassName)) {
-            counter = sentMessages.get(messageClassName) + 1;
-        }
-        sentMessages.put(messageClassName, counter);
+    void addReceivedMessage(protobuf.NetworkEnvelope proto) {
+        receivedMessages.increment(proto);
+        totalReceivedMessages.increment(proto);
+    }
 
-        counter = 1;
-        if (totalSentMessages.containsKey(messageClassName)) {
-            counter = totalSentMessages.get(messageClassName) + 1;
-        }
-        totalSentMessages.put(messageClassName, counter);
+    void addSentMessage(protobuf.NetworkEnvelope proto) {
+        sentMessages.increment(proto);
+        totalSentMessages.increment(proto);
     }
 
     public void setRoundTripTime(int roundTripTime) {
         this.roundTripTime.set(roundTripTime);
     }
 
+    private void sampleProperties() {
+        if (sentBytes != null) {
+            sentBytes.set(sentBytesCounter.get());
+        }
+        if (receivedBytes != null) {
+            receivedBytes.set(receivedBytesCounter.get());
+        }
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Getters
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -215,18 +256,28 @@ public class Statistic {
     }
 
     public long getSentBytes() {
-        return sentBytes.get();
+        return sentBytesCounter.get();
     }
 
     public LongProperty sentBytesProperty() {
+        if (sentBytes == null) {
+            sentBytes = new SimpleLongProperty(sentBytesCounter.get());
+            sampledStatistics.add(this);
+            startSampler();
+        }
         return sentBytes;
     }
 
     public long getReceivedBytes() {
-        return receivedBytes.get();
+        return receivedBytesCounter.get();
     }
 
     public LongProperty receivedBytesProperty() {
+        if (receivedBytes == null) {
+            receivedBytes = new SimpleLongProperty(receivedBytesCounter.get());
+            sampledStatistics.add(this);
+            startSampler();
+        }
         return receivedBytes;
     }
 
@@ -243,8 +294,8 @@ public class Statistic {
         return "Statistic{" +
                 "\n     creationDate=" + creationDate +
                 ",\n     lastActivityTimestamp=" + lastActivityTimestamp +
-                ",\n     sentBytes=" + sentBytes +
-                ",\n     receivedBytes=" + receivedBytes +
+                ",\n     sentBytes=" + sentBytesCounter +
+                ",\n     receivedBytes=" + receivedBytesCounter +
                 ",\n     receivedMessages=" + receivedMessages +
                 ",\n     sentMessages=" + sentMessages +
                 ",\n     roundTripTime=" + roundTripTime +
@@ -25,6 +25,10 @@ import bisq.network.p2p.storage.messages.BroadcastMessage;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.LatencyHistogram;
+import bisq.common.metrics.MetricFamily;
+import bisq.common.metrics.MetricsRegistry;
 
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
@@ -46,6 +50,17 @@ import org.jetbrains.annotations.NotNull;
 public class BroadcastHandler implements PeerManager.Listener {
     private static final long BASE_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(120);
 
+    private static final LatencyHistogram SUFFICIENTLY_BROADCAST_DURATION = MetricsRegistry.histogram(
+            "bisq_p2p_broadcast_sufficient_duration_seconds",
+            "Time from the start of a broadcast until enough peers confirmed to consider it sufficiently broadcast");
+    private static final LatencyHistogram COMPLETED_DURATION = MetricsRegistry.histogram(
+            "bisq_p2p_broadcast_completed_duration_seconds",
+            "Time from the start of a broadcast until all peers confirmed or failed");
+    private static final MetricFamily<Counter> PEER_SENDS = MetricsRegistry.counter(
+            "bisq_p2p_broadcast_peer_sends_total", "Broadcast sends to single peers by result", "result");
+    private static final Counter TIMEOUTS = MetricsRegistry.counter(
+            "bisq_p2p_broadcast_timeouts_total", "Broadcasts which did not complete before the timeout");
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Listener
@@ -74,6 +89,7 @@ public class BroadcastHandler implements PeerManager.Listener {
     private boolean stopped, timeoutTriggered;
     private int numOfCompletedBroadcasts, numOfFailedBroadcasts, numPeersForBroadcast;
     private Timer timeoutTimer;
+    private long startTime;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -95,6 +111,7 @@ public class BroadcastHandler implements PeerManager.Listener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void broadcast(List<Broadcaster.BroadcastRequest> broadcastRequests, boolean shutDownRequested) {
+        startTime = System.nanoTime();
         List<Connection> confirmedConnections = new ArrayList<>(networkNode.getConfirmedConnections());
         Collections.shuffle(confirmedConnections);
 
@@ -207,6 +224,7 @@ public class BroadcastHandler implements PeerManager.Listener {
             }
 
             timeoutTriggered = true;
+            TIMEOUTS.inc();
 
             log.warn("Broadcast did not complete after {} sec.\n" +
                             "numPeersForBroadcast={}\n" +
@@ -244,6 +262,7 @@ public class BroadcastHandler implements PeerManager.Listener {
             @Override
             public void onSuccess(Connection connection) {
                 numOfCompletedBroadcasts++;
+                PEER_SENDS.labels("success").inc();
 
                 if (stopped) {
                     return;
@@ -258,6 +277,7 @@ public class BroadcastHandler implements PeerManager.Listener {
                 log.warn("Broadcast to {} failed. ErrorMessage={}", connection.getPeersNodeAddressOptional(),
                         throwable.getMessage());
                 numOfFailedBroadcasts++;
+                PEER_SENDS.labels("failure").inc();
 
                 if (stopped) {
                     return;
@@ -285,6 +305,7 @@ public class BroadcastHandler implements PeerManager.Listener {
         // We use equal checks to avoid duplicated listener calls as it would be the case with >= checks.
         if (numOfCompletedBroadcasts == numOfCompletedBroadcastsTarget) {
             // We have heard back from 3 peers (or all peers if numPeers is lower) so we consider the message was sufficiently broadcast.
+            SUFFICIENTLY_BROADCAST_DURATION.recordSince(startTime);
             broadcastRequests.stream()
                     .filter(broadcastRequest -> broadcastRequest.getListener() != null)
                     .map(Broadcaster.BroadcastRequest::getListener)
@@ -308,6 +329,7 @@ public class BroadcastHandler implements PeerManager.Listener {
 
     private void checkForCompletion() {
         if (numOfCompletedBroadcasts + numOfFailedBroadcasts == numPeersForBroadcast) {
+            COMPLETED_DURATION.recordSince(startTime);
             cleanup();
         }
     }
@@ -22,7 +22,6 @@ import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.NetworkNode;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
 import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
-import bisq.network.p2p.storage.P2PDataStorage;
 
 import bisq.common.Timer;
 import bisq.common.UserThread;
@@ -61,7 +60,7 @@ public class GetDataRequestHandler {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private final NetworkNode networkNode;
-    private final P2PDataStorage dataStorage;
+    private final GetDataResponseBuilder getDataResponseBuilder;
     private final Listener listener;
     private Timer timeoutTimer;
     private boolean stopped;
@@ -71,9 +70,11 @@ public class GetDataRequestHandler {
     // Constructor
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public GetDataRequestHandler(NetworkNode networkNode, P2PDataStorage dataStorage, Listener listener) {
+    public GetDataRequestHandler(NetworkNode networkNode,
+                                 GetDataResponseBuilder getDataResponseBuilder,
+                                 Listener listener) {
         this.networkNode = networkNode;
-        this.dataStorage = dataStorage;
+        this.getDataResponseBuilder = getDataResponseBuilder;
         this.listener = listener;
     }
 
@@ -88,41 +89,63 @@ public class GetDataRequestHandler {
                 .map(e -> "node address " + e.getFullAddress())
                 .orElseGet(() -> "connection UID " + connection.getUid());
 
+        if (timeoutTimer == null) {
+            timeoutTimer = UserThread.runAfter(() -> {  // setup before building and sending to avoid race conditions
+                        String errorMessage = "A timeout occurred for getDataResponse " +
+                                " on connection:" + connection;
+                        handleFault(errorMessage, CloseConnectionReason.SEND_MSG_TIMEOUT, connection);
+                    },
+                    TIMEOUT, TimeUnit.SECONDS);
+        }
+
         AtomicBoolean wasPersistableNetworkPayloadsTruncated = new AtomicBoolean(false);
         AtomicBoolean wasProtectedStorageEntriesTruncated = new AtomicBoolean(false);
-        GetDataResponse getDataResponse = dataStorage.buildGetDataResponse(
+        // The response gets built outside the user thread, the result handlers are called on the user thread.
+        getDataResponseBuilder.build(
                 getDataRequest,
                 MAX_ENTRIES,
                 wasPersistableNetworkPayloadsTruncated,
                 wasProtectedStorageEntriesTruncated,
-                connection.getCapabilities());
-
-        if (wasPersistableNetworkPayloadsTruncated.get()) {
-            log.warn("The getData request from peer with {} caused too much PersistableNetworkPayload " +
-                            "entries to get delivered. We limited the entries for the response to {} entries",
-                    connectionInfo, MAX_ENTRIES);
-        }
+                connection.getCapabilities(),
+                getDataResponse -> {
+                    if (stopped) {
+                        log.trace("We have stopped already. We ignore the built getDataResponse.");
+                        return;
+                    }
+
+                    if (wasPersistableNetworkPayloadsTruncated.get()) {
+                        log.warn("The getData request from peer with {} caused too much PersistableNetworkPayload " +
+                                        "entries to get delivered. We limited the entries for the response to {} entries",
+                                connectionInfo, MAX_ENTRIES);
+                    }
+
+                    if (wasProtectedStorageEntriesTruncated.get()) {
+                        log.warn("The getData request from peer with {} caused too much ProtectedStorageEntry " +
+                                        "entries to get delivered. We limited the entries for the response to {} entries",
+                                connectionInfo, MAX_ENTRIES);
+                    }
+
+                    log.info("The getDataResponse to peer with {} contains {} ProtectedStorageEntries and {} PersistableNetworkPayloads",
+                            connectionInfo,
+                            getDataResponse.getDataSet().size(),
+                            getDataResponse.getPersistableNetworkPayloadSet().size());
+
+                    sendResponse(getDataResponse, connection);
+                    log.info("handle GetDataRequest took {} ms", System.currentTimeMillis() - ts);
+                },
+                errorMessage -> handleFault(errorMessage, CloseConnectionReason.SEND_MSG_FAILURE, connection));
+    }
 
-        if (wasProtectedStorageEntriesTruncated.get()) {
-            log.warn("The getData request from peer with {} caused too much ProtectedStorageEntry " +
-                            "entries to get delivered. We limited the entries for the response to {} entries",
-                    connectionInfo, MAX_ENTRIES);
-        }
+    public void stop() {
+        cleanup();
+    }
 
-        log.info("The getDataResponse to peer with {} contains {} ProtectedStorageEntries and {} PersistableNetworkPayloads",
-                connectionInfo,
-                getDataResponse.getDataSet().size(),
-                getDataResponse.getPersistableNetworkPayloadSet().size());
 
-        if (timeoutTimer == null) {
-            timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
-                        String errorMessage = "A timeout occurred for getDataResponse " +
-                                " on connection:" + connection;
-                        handleFault(errorMessage, CloseConnectionReason.SEND_MSG_TIMEOUT, connection);
-                    },
-                    TIMEOUT, TimeUnit.SECONDS);
-        }
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private void sendResponse(GetDataResponse getDataResponse, Connection connection) {
         SettableFuture<Connection> future = networkNode.sendMessage(connection, getDataResponse);
         Futures.addCallback(future, new FutureCallback<>() {
             @Override
@@ -149,18 +172,8 @@ public class GetDataRequestHandler {
                 }
             }
         }, MoreExecutors.directExecutor());
-        log.info("handle GetDataRequest took {} ms", System.currentTimeMillis() - ts);
     }
 
-    public void stop() {
-        cleanup();
-    }
-
-
-    ///////////////////////////////////////////////////////////////////////////////////////////
-    // Private
-    ///////////////////////////////////////////////////////////////////////////////////////////
-
     private void handleFault(String errorMessage, CloseConnectionReason closeConnectionReason, Connection connection) {
         if (!stopped) {
             log.info(errorMessage + "\n\tcloseConnectionReason=" + closeConnectionReason);
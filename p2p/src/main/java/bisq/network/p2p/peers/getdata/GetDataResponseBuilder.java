@@ -0,0 +1,229 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata;
+
+import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import bisq.common.UserThread;
+import bisq.common.app.Capabilities;
+import bisq.common.config.Config;
+import bisq.common.handlers.ErrorMessageHandler;
+import bisq.common.util.Utilities;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Builds the GetDataResponses for the GetDataRequests of our peers on a bounded pool of worker threads, so that
+ * filtering the stores for a large response does not block the user thread. Seed nodes get many of those requests
+ * at once when peers are joining.
+ * <p/>
+ * The number of concurrent builds is set by {@link Config#MAX_CONCURRENT_GET_DATA_RESPONSE_BUILDS}, further requests
+ * are queued. GetUpdatedDataRequests result in small responses and are taken from the queue before the
+ * PreliminaryGetDataRequests, otherwise in order of arrival. If too many requests are queued we reject new ones.
+ * <p/>
+ * The stores P2PDataStorage builds the response from are concurrent maps (or immutable after loading for the
+ * historical data), and the data for the response gets copied into a new map before filtering, so it is safe to
+ * build it outside the user thread. Data which gets added while we build a response might not be included, which is
+ * the same as if it had arrived after the request. The peer gets it from the broadcast.
+ */
+@Slf4j
+public class GetDataResponseBuilder {
+    private static final int MAX_QUEUED_REQUESTS = 1000;
+    private static final long KEEP_ALIVE_SEC = 60;
+
+    private final P2PDataStorage dataStorage;
+    private final int maxConcurrentBuilds;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Metrics
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final AtomicLong numBuilds = new AtomicLong();
+    private final AtomicLong numRejected = new AtomicLong();
+    private final AtomicLong totalBuildTimeMs = new AtomicLong();
+    private final AtomicLong maxBuildTimeMs = new AtomicLong();
+    private final AtomicLong totalQueueTimeMs = new AtomicLong();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public GetDataResponseBuilder(P2PDataStorage dataStorage,
+                                  @Named(Config.MAX_CONCURRENT_GET_DATA_RESPONSE_BUILDS) int maxConcurrentBuilds) {
+        this.dataStorage = dataStorage;
+        this.maxConcurrentBuilds = Math.max(1, maxConcurrentBuilds);
+        // We must not use a listening executor as the tasks in the PriorityBlockingQueue have to be our BuildTasks.
+        executor = Utilities.getThreadPoolExecutor("GetDataResponseBuilder-%d",
+                this.maxConcurrentBuilds,
+                this.maxConcurrentBuilds,
+                KEEP_ALIVE_SEC,
+                new PriorityBlockingQueue<>());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Queues the build of the response to getDataRequest. The resultHandler, or the errorMessageHandler if the
+     * request got rejected or the build failed, is called on the user thread.
+     */
+    public void build(GetDataRequest getDataRequest,
+                      int maxEntriesPerType,
+                      AtomicBoolean wasPersistableNetworkPayloadsTruncated,
+                      AtomicBoolean wasProtectedStorageEntriesTruncated,
+                      Capabilities peerCapabilities,
+                      Consumer<GetDataResponse> resultHandler,
+                      ErrorMessageHandler errorMessageHandler) {
+        if (executor.isShutdown()) {
+            errorMessageHandler.handleErrorMessage("GetDataResponseBuilder is shut down");
+            return;
+        }
+
+        int currentQueueDepth = queueDepth.incrementAndGet();
+        if (currentQueueDepth > MAX_QUEUED_REQUESTS) {
+            queueDepth.decrementAndGet();
+            numRejected.incrementAndGet();
+            errorMessageHandler.handleErrorMessage("Too many GetDataRequests are queued (" + MAX_QUEUED_REQUESTS +
+                    "). We reject the request.");
+            return;
+        }
+        maxQueueDepth.accumulateAndGet(currentQueueDepth, Math::max);
+
+        long queuedAt = System.currentTimeMillis();
+        executor.execute(new BuildTask(getDataRequest instanceof GetUpdatedDataRequest,
+                sequence.getAndIncrement(),
+                () -> {
+                    queueDepth.decrementAndGet();
+                    long startTime = System.currentTimeMillis();
+                    long queueTime = startTime - queuedAt;
+                    try {
+                        GetDataResponse getDataResponse = dataStorage.buildGetDataResponse(getDataRequest,
+                                maxEntriesPerType,
+                                wasPersistableNetworkPayloadsTruncated,
+                                wasProtectedStorageEntriesTruncated,
+                                peerCapabilities);
+                        long buildTime = System.currentTimeMillis() - startTime;
+                        numBuilds.incrementAndGet();
+                        totalBuildTimeMs.addAndGet(buildTime);
+                        maxBuildTimeMs.accumulateAndGet(buildTime, Math::max);
+                        totalQueueTimeMs.addAndGet(queueTime);
+                        log.info("Building the response to the {} with nonce {} took {} ms after waiting {} ms " +
+                                        "in the queue. {}",
+                                getDataRequest.getClass().getSimpleName(), getDataRequest.getNonce(),
+                                buildTime, queueTime, getMetricsInfo());
+                        UserThread.execute(() -> resultHandler.accept(getDataResponse));
+                    } catch (Throwable t) {
+                        log.error("Building the GetDataResponse failed", t);
+                        UserThread.execute(() -> errorMessageHandler.handleErrorMessage(
+                                "Building the GetDataResponse failed: " + t.getMessage()));
+                    }
+                }));
+    }
+
+    public void shutDown() {
+        executor.shutdownNow();
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public long getNumBuilds() {
+        return numBuilds.get();
+    }
+
+    public long getNumRejected() {
+        return numRejected.get();
+    }
+
+    public long getAverageBuildTimeMs() {
+        long builds = numBuilds.get();
+        return builds > 0 ? totalBuildTimeMs.get() / builds : 0;
+    }
+
+    public long getMaxBuildTimeMs() {
+        return maxBuildTimeMs.get();
+    }
+
+    public long getAverageQueueTimeMs() {
+        long builds = numBuilds.get();
+        return builds > 0 ? totalQueueTimeMs.get() / builds : 0;
+    }
+
+    public String getMetricsInfo() {
+        return "Queue depth: " + getQueueDepth() +
+                " (max " + getMaxQueueDepth() + ", rejected " + getNumRejected() + ")" +
+                ", builds: " + getNumBuilds() +
+                ", avg/max build time: " + getAverageBuildTimeMs() + "/" + getMaxBuildTimeMs() + " ms" +
+                ", avg queue time: " + getAverageQueueTimeMs() + " ms" +
+                ", max concurrent builds: " + maxConcurrentBuilds;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // BuildTask
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static class BuildTask implements Runnable, Comparable<BuildTask> {
+        private final boolean isUpdatedDataRequest;
+        private final long sequence;
+        private final Runnable runnable;
+
+        BuildTask(boolean isUpdatedDataRequest, long sequence, Runnable runnable) {
+            this.isUpdatedDataRequest = isUpdatedDataRequest;
+            this.sequence = sequence;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            runnable.run();
+        }
+
+        @Override
+        public int compareTo(BuildTask other) {
+            if (isUpdatedDataRequest != other.isUpdatedDataRequest)
+                return isUpdatedDataRequest ? -1 : 1;
+
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
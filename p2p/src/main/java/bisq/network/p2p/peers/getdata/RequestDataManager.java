@@ -88,6 +88,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
 
     private final NetworkNode networkNode;
     private final P2PDataStorage dataStorage;
+    private final GetDataResponseBuilder getDataResponseBuilder;
     private final PeerManager peerManager;
     private final List<NodeAddress> seedNodeAddresses;
 
@@ -111,9 +112,11 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
     public RequestDataManager(NetworkNode networkNode,
                               SeedNodeRepository seedNodeRepository,
                               P2PDataStorage dataStorage,
+                              GetDataResponseBuilder getDataResponseBuilder,
                               PeerManager peerManager) {
         this.networkNode = networkNode;
         this.dataStorage = dataStorage;
+        this.getDataResponseBuilder = getDataResponseBuilder;
         this.peerManager = peerManager;
 
         this.networkNode.addMessageListener(this);
@@ -142,6 +145,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
         networkNode.removeConnectionListener(this);
         peerManager.removeListener(this);
         closeAllHandlers();
+        getDataResponseBuilder.shutDown();
     }
 
 
@@ -273,7 +277,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
                 }
                 final String uid = connection.getUid();
                 if (!getDataRequestHandlers.containsKey(uid)) {
-                    GetDataRequestHandler getDataRequestHandler = new GetDataRequestHandler(networkNode, dataStorage,
+                    GetDataRequestHandler getDataRequestHandler = new GetDataRequestHandler(networkNode, getDataResponseBuilder,
                             new GetDataRequestHandler.Listener() {
                                 @Override
                                 public void onComplete() {
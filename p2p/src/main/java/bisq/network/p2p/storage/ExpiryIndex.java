@@ -0,0 +1,103 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.storage.payload.ExpirablePayload;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Orders the hashes of the {@link ProtectedStorageEntry}s carrying an {@link ExpirablePayload} by the time they
+ * expire ({@code creationTimeStamp + TTL}). Expiry times are grouped into buckets of {@code bucketDurationMs}, so the
+ * periodic TTL check only has to look at the entries of the buckets which are due instead of at the whole map.
+ * <p/>
+ * The index has to be updated whenever an entry is added, replaced or removed and whenever its creationTimeStamp
+ * changes (see {@link ProtectedStorageEntry#backDate()}). Candidates returned by {@link #getDueCandidates(long)} have
+ * to be checked with {@link ProtectedStorageEntry#isExpired} by the caller, as the bucket of the current time also
+ * contains entries which expire a bit later.
+ */
+final class ExpiryIndex {
+    private final long bucketDurationMs;
+    // Bucket start time -> hashes of the entries expiring within that bucket
+    private final NavigableMap<Long, Set<P2PDataStorage.ByteArray>> buckets = new TreeMap<>();
+    private final Map<P2PDataStorage.ByteArray, Long> bucketByHash = new HashMap<>();
+
+    ExpiryIndex(long bucketDurationMs) {
+        this.bucketDurationMs = bucketDurationMs;
+    }
+
+    /**
+     * Adds the entry or moves it to the bucket matching its current expiry time. Entries without an
+     * ExpirablePayload are never due and get removed from the index.
+     */
+    synchronized void put(P2PDataStorage.ByteArray hashOfPayload, ProtectedStorageEntry protectedStorageEntry) {
+        if (!(protectedStorageEntry.getProtectedStoragePayload() instanceof ExpirablePayload)) {
+            remove(hashOfPayload);
+            return;
+        }
+
+        long ttl = ((ExpirablePayload) protectedStorageEntry.getProtectedStoragePayload()).getTTL();
+        long bucket = getBucket(protectedStorageEntry.getCreationTimeStamp() + ttl);
+        Long previousBucket = bucketByHash.put(hashOfPayload, bucket);
+        if (previousBucket != null) {
+            if (previousBucket == bucket)
+                return;
+
+            removeFromBucket(previousBucket, hashOfPayload);
+        }
+        buckets.computeIfAbsent(bucket, key -> new HashSet<>()).add(hashOfPayload);
+    }
+
+    synchronized void remove(P2PDataStorage.ByteArray hashOfPayload) {
+        Long bucket = bucketByHash.remove(hashOfPayload);
+        if (bucket != null)
+            removeFromBucket(bucket, hashOfPayload);
+    }
+
+    /**
+     * @return The hashes of all entries which expire before or within the bucket of {@code now}. The entries stay
+     * in the index until they get removed.
+     */
+    synchronized List<P2PDataStorage.ByteArray> getDueCandidates(long now) {
+        List<P2PDataStorage.ByteArray> candidates = new ArrayList<>();
+        buckets.headMap(getBucket(now), true).values().forEach(candidates::addAll);
+        return candidates;
+    }
+
+    synchronized int size() {
+        return bucketByHash.size();
+    }
+
+    private long getBucket(long expiryTime) {
+        return Math.floorDiv(expiryTime, bucketDurationMs) * bucketDurationMs;
+    }
+
+    private void removeFromBucket(long bucket, P2PDataStorage.ByteArray hashOfPayload) {
+        Set<P2PDataStorage.ByteArray> hashes = buckets.get(bucket);
+        if (hashes != null && hashes.remove(hashOfPayload) && hashes.isEmpty())
+            buckets.remove(bucket);
+    }
+}
@@ -23,6 +23,7 @@ import bisq.network.p2p.network.Connection;
 import bisq.network.p2p.network.ConnectionListener;
 import bisq.network.p2p.network.MessageListener;
 import bisq.network.p2p.network.NetworkNode;
+import bisq.network.p2p.network.Statistic;
 import bisq.network.p2p.peers.BroadcastHandler;
 import bisq.network.p2p.peers.Broadcaster;
 import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
@@ -61,6 +62,9 @@ import bisq.common.app.Capabilities;
 import bisq.common.crypto.CryptoException;
 import bisq.common.crypto.Hash;
 import bisq.common.crypto.Sig;
+import bisq.common.metrics.Counter;
+import bisq.common.metrics.MetricFamily;
+import bisq.common.metrics.MetricsRegistry;
 import bisq.common.persistence.PersistenceManager;
 import bisq.common.proto.network.NetworkEnvelope;
 import bisq.common.proto.network.NetworkPayload;
@@ -128,6 +132,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @VisibleForTesting
     public static final int CHECK_TTL_INTERVAL_SEC = 60;
 
+    // Successfully applied operations, labeled add, remove, refresh, expire and add_persistable_network_payload
+    private static final MetricFamily<Counter> OPERATIONS = MetricsRegistry.counter(
+            "bisq_p2p_storage_operations_total", "Operations applied to the P2P data storage", "operation");
+
     private boolean initialRequestApplied = false;
 
     private final Broadcaster broadcaster;
@@ -138,6 +146,12 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     @Getter
     private final Map<ByteArray, ProtectedStorageEntry> map = new ConcurrentHashMap<>();
+    // Keeps the entries of the map ordered by expiry time so the TTL check does not need to visit all entries.
+    // Must be updated together with the map, use putToMap and removeFromMap.
+    private final ExpiryIndex expiryIndex = new ExpiryIndex(TimeUnit.SECONDS.toMillis(CHECK_TTL_INTERVAL_SEC));
+    // Hashes of the RequiresOwnerIsOnlinePayload entries of the map by owner, so we only visit the entries of the
+    // disconnected peer in onDisconnect. Maintained by putToMap and removeFromMap as well.
+    private final Map<NodeAddress, Set<ByteArray>> hashesByOwnerNodeAddress = new ConcurrentHashMap<>();
     private final Set<HashMapChangedListener> hashMapChangedListeners = new CopyOnWriteArraySet<>();
     private Timer removeExpiredEntriesTimer;
 
@@ -188,6 +202,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         networkNode.addConnectionListener(this);
 
         this.persistenceManager.initialize(sequenceNumberMap, PersistenceManager.Source.PRIVATE_LOW_PRIO);
+
+        MetricsRegistry.gauge("bisq_p2p_storage_protected_entries", "Protected storage entries in the map", map::size);
     }
 
 
@@ -198,7 +214,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @Override
     public void readPersisted(Runnable completeHandler) {
         persistenceManager.readPersisted(persisted -> {
-                    sequenceNumberMap.setMap(getPurgedSequenceNumberMap(persisted.getMap()));
+                    sequenceNumberMap.setEntries(persisted);
+                    purgeSequenceNumberMap();
                     completeHandler.run();
                 },
                 completeHandler);
@@ -209,7 +226,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public void readPersistedSync() {
         SequenceNumberMap persisted = persistenceManager.getPersisted();
         if (persisted != null) {
-            sequenceNumberMap.setMap(getPurgedSequenceNumberMap(persisted.getMap()));
+            sequenceNumberMap.setEntries(persisted);
+            purgeSequenceNumberMap();
         }
     }
 
@@ -231,7 +249,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         appendOnlyDataStoreService.readFromResources(postFix, () -> appendOnlyDataStoreServiceReady.set(true));
         protectedDataStoreService.readFromResources(postFix, () -> {
-            map.putAll(protectedDataStoreService.getMap());
+            protectedDataStoreService.getMap().forEach(this::putToMap);
             protectedDataStoreServiceReady.set(true);
         });
         resourceDataStoreService.readFromResources(postFix, () -> resourceDataStoreServiceReady.set(true));
@@ -244,7 +262,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         protectedDataStoreService.readFromResourcesSync(postFix);
         resourceDataStoreService.readFromResourcesSync(postFix);
 
-        map.putAll(protectedDataStoreService.getMap());
+        protectedDataStoreService.getMap().forEach(this::putToMap);
     }
 
     // We get added mailbox message data from MailboxMessageService. We want to add those early so we can get it added
@@ -252,7 +270,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public void addProtectedMailboxStorageEntryToMap(ProtectedStorageEntry protectedStorageEntry) {
         ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
         ByteArray hashOfPayload = get32ByteHashAsByteArray(protectedStoragePayload);
-        map.put(hashOfPayload, protectedStorageEntry);
+        putToMap(hashOfPayload, protectedStorageEntry);
         //log.trace("## addProtectedMailboxStorageEntryToMap hashOfPayload={}, map={}", hashOfPayload, printMap());
     }
 
@@ -301,6 +319,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     /**
      * Returns a GetDataResponse object that contains the Payloads known locally, but not remotely.
+     * Can be called outside the user thread: the response is built from copies of the maps taken at the start,
+     * which is safe as the underlying maps are concurrent ones.
      */
     public GetDataResponse buildGetDataResponse(
             GetDataRequest getDataRequest,
@@ -317,6 +337,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         // mapForDataResponse contains the filtered by version data from HistoricalDataStoreService as well as all other
         // maps of the remaining appendOnlyDataStoreServices.
         Map<ByteArray, PersistableNetworkPayload> mapForDataResponse = getMapForDataResponse(getDataRequest.getVersion());
+        Map<ByteArray, ProtectedStorageEntry> protectedStorageEntryMap = new HashMap<>(map);
         Set<PersistableNetworkPayload> filteredPersistableNetworkPayloads =
                 filterKnownHashes(
                         mapForDataResponse,
@@ -335,7 +356,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         Set<ProtectedStorageEntry> filteredProtectedStorageEntries =
                 filterKnownHashes(
-                        map,
+                        protectedStorageEntryMap,
                         ProtectedStorageEntry::getProtectedStoragePayload,
                         excludedKeysAsByteArray,
                         peerCapabilities,
@@ -343,7 +364,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                         wasProtectedStorageEntriesTruncated);
         log.info("{} ProtectedStorageEntry entries remained after filtered by excluded keys. " +
                         "Original map had {} entries.",
-                filteredProtectedStorageEntries.size(), map.size());
+                filteredProtectedStorageEntries.size(), protectedStorageEntryMap.size());
         log.trace("## buildGetDataResponse filteredProtectedStorageEntryHashes={}",
                 filteredProtectedStorageEntries.stream()
                         .map(e -> get32ByteHashAsByteArray((e.getProtectedStoragePayload())))
@@ -540,16 +561,22 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     }
 
     @VisibleForTesting
-    void removeExpiredEntries() {
+    public void removeExpiredEntries() {
         // The moment when an object becomes expired will not be synchronous in the network and we could
         // get add network_messages after the object has expired. To avoid repeated additions of already expired
         // object when we get it sent from new peers, we don’t remove the sequence number from the map.
         // That way an ADD message for an already expired data will fail because the sequence number
         // is equal and not larger as expected.
-        ArrayList<Map.Entry<ByteArray, ProtectedStorageEntry>> toRemoveList =
-                map.entrySet().stream()
-                        .filter(entry -> entry.getValue().isExpired(this.clock))
-                        .collect(Collectors.toCollection(ArrayList::new));
+        // We only look at the entries the expiryIndex reports as due, not at the whole map.
+        ArrayList<Map.Entry<ByteArray, ProtectedStorageEntry>> toRemoveList = new ArrayList<>();
+        expiryIndex.getDueCandidates(this.clock.millis()).forEach(hashOfPayload -> {
+            ProtectedStorageEntry protectedStorageEntry = map.get(hashOfPayload);
+            if (protectedStorageEntry == null) {
+                expiryIndex.remove(hashOfPayload);
+            } else if (protectedStorageEntry.isExpired(this.clock)) {
+                toRemoveList.add(Maps.immutableEntry(hashOfPayload, protectedStorageEntry));
+            }
+        });
 
         // Batch processing can cause performance issues, so do all of the removes first, then update the listeners
         // to let them know about the removes.
@@ -560,9 +587,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             });
         }
         removeFromMapAndDataStore(toRemoveList);
+        OPERATIONS.labels("expire").add(toRemoveList.size());
 
         if (sequenceNumberMap.size() > this.maxSequenceNumberMapSizeBeforePurge) {
-            sequenceNumberMap.setMap(getPurgedSequenceNumberMap(sequenceNumberMap.getMap()));
+            purgeSequenceNumberMap();
             requestPersistence();
         }
     }
@@ -615,23 +643,30 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
         NodeAddress peersNodeAddress = connection.getPeersNodeAddressOptional().get();
 
+        long ts = System.nanoTime();
+        int numBackDated = 0;
         // Backdate all the eligible payloads based on the node that disconnected
-        map.values().stream()
-                .filter(protectedStorageEntry -> protectedStorageEntry.getProtectedStoragePayload() instanceof RequiresOwnerIsOnlinePayload)
-                .filter(protectedStorageEntry -> ((RequiresOwnerIsOnlinePayload) protectedStorageEntry.getProtectedStoragePayload()).getOwnerNodeAddress().equals(peersNodeAddress))
-                .forEach(protectedStorageEntry -> {
-                    // We only set the data back by half of the TTL and remove the data only if is has
-                    // expired after that back dating.
-                    // We might get connection drops which are not caused by the node going offline, so
-                    // we give more tolerance with that approach, giving the node the chance to
-                    // refresh the TTL with a refresh message.
-                    // We observed those issues during stress tests, but it might have been caused by the
-                    // test set up (many nodes/connections over 1 router)
-                    // TODO investigate what causes the disconnections.
-                    // Usually the are: SOCKET_TIMEOUT ,TERMINATED (EOFException)
-                    log.debug("Backdating {} due to closeConnectionReason={}", protectedStorageEntry, closeConnectionReason);
-                    protectedStorageEntry.backDate();
-                });
+        Set<ByteArray> hashesOfPeer = hashesByOwnerNodeAddress.getOrDefault(peersNodeAddress, Collections.emptySet());
+        for (ByteArray hashOfPayload : hashesOfPeer) {
+            ProtectedStorageEntry protectedStorageEntry = map.get(hashOfPayload);
+            if (protectedStorageEntry == null)
+                continue;
+
+            // We only set the data back by half of the TTL and remove the data only if is has
+            // expired after that back dating.
+            // We might get connection drops which are not caused by the node going offline, so
+            // we give more tolerance with that approach, giving the node the chance to
+            // refresh the TTL with a refresh message.
+            // We observed those issues during stress tests, but it might have been caused by the
+            // test set up (many nodes/connections over 1 router)
+            // TODO investigate what causes the disconnections.
+            // Usually the are: SOCKET_TIMEOUT ,TERMINATED (EOFException)
+            log.debug("Backdating {} due to closeConnectionReason={}", protectedStorageEntry, closeConnectionReason);
+            protectedStorageEntry.backDate();
+            expiryIndex.put(hashOfPayload, protectedStorageEntry);
+            numBackDated++;
+        }
+        Statistic.addDisconnectBackDating(numBackDated, System.nanoTime() - ts);
     }
 
     @Override
@@ -696,6 +731,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         if (!payloadHashAlreadyInStore) {
             wasAdded = appendOnlyDataStoreService.put(hashAsByteArray, payload);
             if (wasAdded) {
+                OPERATIONS.labels("add_persistable_network_payload").inc();
                 appendOnlyDataStoreListeners.forEach(e -> e.onAdded(payload));
             }
         }
@@ -797,7 +833,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         }
 
         // This is an updated entry. Record it and signal listeners.
-        map.put(hashOfPayload, protectedStorageEntry);
+        putToMap(hashOfPayload, protectedStorageEntry);
+        OPERATIONS.labels("add").inc();
         hashMapChangedListeners.forEach(e -> e.onAdded(Collections.singletonList(protectedStorageEntry)));
 
         // Record the updated sequence number and persist it. Higher delay so we can batch more items.
@@ -887,7 +924,8 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 return false;
 
             // Update the hash map with the updated entry
-            map.put(hashOfPayload, updatedEntry);
+            putToMap(hashOfPayload, updatedEntry);
+            OPERATIONS.labels("refresh").inc();
 
             // Record the latest sequence number and persist it
             sequenceNumberMap.put(hashOfPayload, new MapValue(updatedEntry.getSequenceNumber(), this.clock.millis()));
@@ -942,6 +980,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         if (storedEntry != null) {
             // Valid remove entry, do the remove and signal listeners
             removeFromMapAndDataStore(protectedStorageEntry, hashOfPayload);
+            OPERATIONS.labels("remove").inc();
         } /* else {
             // This means the RemoveData or RemoveMailboxData was seen prior to the AddData. We have already updated
             // the SequenceNumberMap appropriately so the stale Add will not pass validation, but we still want to
@@ -1039,7 +1078,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             ProtectedStorageEntry protectedStorageEntry = entry.getValue();
 
             //log.trace("## removeFromMapAndDataStore: hashOfPayload={}, map before remove={}", hashOfPayload, printMap());
-            map.remove(hashOfPayload);
+            removeFromMap(hashOfPayload);
             //log.trace("## removeFromMapAndDataStore: map after remove={}", printMap());
 
             // We inform listeners even the entry was not found in our map
@@ -1056,6 +1095,34 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         hashMapChangedListeners.forEach(e -> e.onRemoved(removedProtectedStorageEntries));
     }
 
+    private void putToMap(ByteArray hashOfPayload, ProtectedStorageEntry protectedStorageEntry) {
+        map.put(hashOfPayload, protectedStorageEntry);
+        expiryIndex.put(hashOfPayload, protectedStorageEntry);
+
+        ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
+        if (protectedStoragePayload instanceof RequiresOwnerIsOnlinePayload) {
+            NodeAddress ownerNodeAddress = ((RequiresOwnerIsOnlinePayload) protectedStoragePayload).getOwnerNodeAddress();
+            hashesByOwnerNodeAddress.compute(ownerNodeAddress, (key, hashes) -> {
+                Set<ByteArray> result = hashes != null ? hashes : ConcurrentHashMap.newKeySet();
+                result.add(hashOfPayload);
+                return result;
+            });
+        }
+    }
+
+    private void removeFromMap(ByteArray hashOfPayload) {
+        ProtectedStorageEntry removed = map.remove(hashOfPayload);
+        expiryIndex.remove(hashOfPayload);
+
+        if (removed != null && removed.getProtectedStoragePayload() instanceof RequiresOwnerIsOnlinePayload) {
+            NodeAddress ownerNodeAddress = ((RequiresOwnerIsOnlinePayload) removed.getProtectedStoragePayload()).getOwnerNodeAddress();
+            hashesByOwnerNodeAddress.computeIfPresent(ownerNodeAddress, (key, hashes) -> {
+                hashes.remove(hashOfPayload);
+                return hashes.isEmpty() ? null : hashes;
+            });
+        }
+    }
+
     private boolean hasSequenceNrIncreased(int newSequenceNumber, ByteArray hashOfData) {
         if (sequenceNumberMap.containsKey(hashOfData)) {
             int storedSequenceNumber = sequenceNumberMap.get(hashOfData).sequenceNr;
@@ -1091,15 +1158,11 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         return new ByteArray(P2PDataStorage.get32ByteHash(data));
     }
 
-    // Get a new map with entries older than PURGE_AGE_DAYS purged from the given map.
-    private Map<ByteArray, MapValue> getPurgedSequenceNumberMap(Map<ByteArray, MapValue> persisted) {
-        Map<ByteArray, MapValue> purged = new HashMap<>();
+    // Removes the entries older than PURGE_AGE_DAYS from the sequenceNumberMap.
+    private void purgeSequenceNumberMap() {
         long maxAgeTs = this.clock.millis() - TimeUnit.DAYS.toMillis(PURGE_AGE_DAYS);
-        persisted.forEach((key, value) -> {
-            if (value.timeStamp > maxAgeTs)
-                purged.put(key, value);
-        });
-        return purged;
+        int numPurged = sequenceNumberMap.removeEntriesOlderThan(maxAgeTs);
+        log.debug("Purged {} entries from the sequenceNumberMap. Remaining entries: {}", numPurged, sequenceNumberMap.size());
     }
 
     private void printData(String info) {
@@ -1256,7 +1319,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         final public int sequenceNr;
         final public long timeStamp;
 
-        MapValue(int sequenceNr, long timeStamp) {
+        public MapValue(int sequenceNr, long timeStamp) {
             this.sequenceNr = sequenceNr;
             this.timeStamp = timeStamp;
         }
@@ -21,23 +21,40 @@ import bisq.network.p2p.storage.P2PDataStorage;
 
 import bisq.common.proto.persistable.PersistableEnvelope;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import com.google.protobuf.ByteString;
 
-import lombok.Getter;
-import lombok.Setter;
+import java.nio.ByteBuffer;
+
+import java.util.Arrays;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
 
 /**
- * This class was not generalized to HashMapPersistable (like we did with #ListPersistable) because
- * in protobuffer the map construct can't be anything, so the straightforward mapping was not possible.
- * Hence this Persistable class.
+ * Holds the latest sequence number and the time we have seen it for the hash of each protected storage payload.
+ * <p>
+ * As the map holds every payload we have seen within PURGE_AGE_DAYS it can get large. We do not keep boxed keys and
+ * values but store the 32 byte hashes, sequence numbers and timestamps densely in primitive arrays, with an open
+ * addressing (linear probing) index table of entry positions. Old entries are removed in place by
+ * {@link #removeEntriesOlderThan(long)}.
+ * <p>
+ * For persistence we write the entries as one packed bytes field of fixed size records. The legacy repeated
+ * SequenceNumberEntry field is still read so a persisted map from older versions is not lost.
  */
+@Slf4j
 public class SequenceNumberMap implements PersistableEnvelope {
-    @Getter
-    @Setter
-    private Map<P2PDataStorage.ByteArray, P2PDataStorage.MapValue> map = new ConcurrentHashMap<>();
+    public static final int KEY_LENGTH = 32;
+    // Key, sequence number and timestamp
+    private static final int PACKED_ENTRY_LENGTH = KEY_LENGTH + 4 + 8;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private byte[] keys = new byte[INITIAL_CAPACITY * KEY_LENGTH];
+    private int[] sequenceNrs = new int[INITIAL_CAPACITY];
+    private long[] timeStamps = new long[INITIAL_CAPACITY];
+    private int size;
+    // Index table of entry position + 1, 0 marks a free slot. Length is a power of 2, see rebuildSlots.
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
 
     public SequenceNumberMap() {
     }
@@ -47,28 +64,46 @@ public class SequenceNumberMap implements PersistableEnvelope {
     // PROTO BUFFER
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private SequenceNumberMap(Map<P2PDataStorage.ByteArray, P2PDataStorage.MapValue> map) {
-        this.map.putAll(map);
-    }
-
     @Override
-    public protobuf.PersistableEnvelope toProtoMessage() {
+    public synchronized protobuf.PersistableEnvelope toProtoMessage() {
+        ByteBuffer buffer = ByteBuffer.allocate(size * PACKED_ENTRY_LENGTH);
+        for (int i = 0; i < size; i++) {
+            buffer.put(keys, i * KEY_LENGTH, KEY_LENGTH)
+                    .putInt(sequenceNrs[i])
+                    .putLong(timeStamps[i]);
+        }
+        buffer.flip();
         return protobuf.PersistableEnvelope.newBuilder()
                 .setSequenceNumberMap(protobuf.SequenceNumberMap.newBuilder()
-                        .addAllSequenceNumberEntries(map.entrySet().stream()
-                                .map(entry -> protobuf.SequenceNumberEntry.newBuilder()
-                                        .setBytes(entry.getKey().toProtoMessage())
-                                        .setMapValue(entry.getValue().toProtoMessage())
-                                        .build())
-                                .collect(Collectors.toList())))
+                        .setPackedEntries(ByteString.copyFrom(buffer)))
                 .build();
     }
 
     public static SequenceNumberMap fromProto(protobuf.SequenceNumberMap proto) {
-        HashMap<P2PDataStorage.ByteArray, P2PDataStorage.MapValue> map = new HashMap<>();
-        proto.getSequenceNumberEntriesList()
-                .forEach(e -> map.put(P2PDataStorage.ByteArray.fromProto(e.getBytes()), P2PDataStorage.MapValue.fromProto(e.getMapValue())));
-        return new SequenceNumberMap(map);
+        SequenceNumberMap sequenceNumberMap = new SequenceNumberMap();
+        // Legacy format
+        proto.getSequenceNumberEntriesList().forEach(e -> {
+            byte[] key = e.getBytes().getBytes().toByteArray();
+            if (key.length == KEY_LENGTH) {
+                sequenceNumberMap.put(key, e.getMapValue().getSequenceNr(), e.getMapValue().getTimeStamp());
+            } else {
+                log.warn("Ignoring persisted sequence number entry with unexpected key length {}", key.length);
+            }
+        });
+
+        ByteBuffer buffer = proto.getPackedEntries().asReadOnlyByteBuffer();
+        if (buffer.remaining() % PACKED_ENTRY_LENGTH != 0) {
+            log.warn("Persisted packed sequence number entries have an unexpected length of {} bytes. " +
+                    "We ignore the trailing bytes.", buffer.remaining());
+        }
+        byte[] key = new byte[KEY_LENGTH];
+        while (buffer.remaining() >= PACKED_ENTRY_LENGTH) {
+            buffer.get(key);
+            int sequenceNr = buffer.getInt();
+            long timeStamp = buffer.getLong();
+            sequenceNumberMap.put(key, sequenceNr, timeStamp);
+        }
+        return sequenceNumberMap;
     }
 
 
@@ -76,20 +111,167 @@ public class SequenceNumberMap implements PersistableEnvelope {
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    // Delegates
-    public int size() {
-        return map.size();
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean containsKey(P2PDataStorage.ByteArray key) {
+        return isValidKey(key.bytes) && findEntry(key.bytes) >= 0;
+    }
+
+    @Nullable
+    public synchronized P2PDataStorage.MapValue get(P2PDataStorage.ByteArray key) {
+        if (!isValidKey(key.bytes))
+            return null;
+
+        int entry = findEntry(key.bytes);
+        return entry >= 0 ? new P2PDataStorage.MapValue(sequenceNrs[entry], timeStamps[entry]) : null;
+    }
+
+    public synchronized void put(P2PDataStorage.ByteArray key, P2PDataStorage.MapValue value) {
+        if (!isValidKey(key.bytes))
+            throw new IllegalArgumentException("SequenceNumberMap keys must be " + KEY_LENGTH + " byte hashes. " +
+                    "key length=" + key.bytes.length);
+
+        put(key.bytes, value.sequenceNr, value.timeStamp);
+    }
+
+    // Replaces our entries with a copy of the entries of the given map
+    public void setEntries(SequenceNumberMap other) {
+        if (other == this)
+            return;
+
+        // We don't hold both locks at the same time
+        byte[] otherKeys;
+        int[] otherSequenceNrs;
+        long[] otherTimeStamps;
+        int otherSize;
+        synchronized (other) {
+            otherSize = other.size;
+            otherKeys = Arrays.copyOf(other.keys, Math.max(INITIAL_CAPACITY, otherSize) * KEY_LENGTH);
+            otherSequenceNrs = Arrays.copyOf(other.sequenceNrs, Math.max(INITIAL_CAPACITY, otherSize));
+            otherTimeStamps = Arrays.copyOf(other.timeStamps, Math.max(INITIAL_CAPACITY, otherSize));
+        }
+        synchronized (this) {
+            keys = otherKeys;
+            sequenceNrs = otherSequenceNrs;
+            timeStamps = otherTimeStamps;
+            size = otherSize;
+            rebuildSlots(sequenceNrs.length);
+        }
+    }
+
+    /**
+     * Removes the entries with a timestamp not after the given one. The remaining entries are compacted in place and
+     * only the index table is rebuilt, so no entries get copied into a new map.
+     *
+     * @param maxAgeTs  Entries with a timestamp <= maxAgeTs get removed
+     * @return Number of removed entries
+     */
+    public synchronized int removeEntriesOlderThan(long maxAgeTs) {
+        int newSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (timeStamps[i] > maxAgeTs) {
+                if (newSize != i) {
+                    System.arraycopy(keys, i * KEY_LENGTH, keys, newSize * KEY_LENGTH, KEY_LENGTH);
+                    sequenceNrs[newSize] = sequenceNrs[i];
+                    timeStamps[newSize] = timeStamps[i];
+                }
+                newSize++;
+            }
+        }
+        int numRemoved = size - newSize;
+        if (numRemoved > 0) {
+            size = newSize;
+            rebuildSlots(sequenceNrs.length);
+        }
+        return numRemoved;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static boolean isValidKey(byte[] key) {
+        return key.length == KEY_LENGTH;
+    }
+
+    private synchronized void put(byte[] key, int sequenceNr, long timeStamp) {
+        int slot = findSlot(key);
+        int entry = slots[slot] - 1;
+        if (entry < 0) {
+            if (size == sequenceNrs.length) {
+                grow();
+                slot = findSlot(key);
+            }
+            entry = size++;
+            System.arraycopy(key, 0, keys, entry * KEY_LENGTH, KEY_LENGTH);
+            slots[slot] = entry + 1;
+        }
+        sequenceNrs[entry] = sequenceNr;
+        timeStamps[entry] = timeStamp;
+    }
+
+    private int findEntry(byte[] key) {
+        return slots[findSlot(key)] - 1;
+    }
+
+    // Returns the slot of the key or the free slot where it would be inserted
+    private int findSlot(byte[] key) {
+        int mask = slots.length - 1;
+        int slot = hash(key, 0) & mask;
+        while (true) {
+            int entry = slots[slot] - 1;
+            if (entry < 0 || keyEquals(entry, key))
+                return slot;
+
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean keyEquals(int entry, byte[] key) {
+        int offset = entry * KEY_LENGTH;
+        for (int i = 0; i < KEY_LENGTH; i++) {
+            if (keys[offset + i] != key[i])
+                return false;
+        }
+        return true;
     }
 
-    public boolean containsKey(P2PDataStorage.ByteArray key) {
-        return map.containsKey(key);
+    // The keys are hashes, so a few of their bytes are well distributed already
+    private static int hash(byte[] bytes, int offset) {
+        int h = ((bytes[offset] & 0xff) << 24) |
+                ((bytes[offset + 1] & 0xff) << 16) |
+                ((bytes[offset + 2] & 0xff) << 8) |
+                (bytes[offset + 3] & 0xff);
+        return h ^ (h >>> 16);
     }
 
-    public P2PDataStorage.MapValue get(P2PDataStorage.ByteArray key) {
-        return map.get(key);
+    private void grow() {
+        int newCapacity = sequenceNrs.length + (sequenceNrs.length >> 1);
+        keys = Arrays.copyOf(keys, newCapacity * KEY_LENGTH);
+        sequenceNrs = Arrays.copyOf(sequenceNrs, newCapacity);
+        timeStamps = Arrays.copyOf(timeStamps, newCapacity);
+        rebuildSlots(newCapacity);
     }
 
-    public void put(P2PDataStorage.ByteArray key, P2PDataStorage.MapValue value) {
-        map.put(key, value);
+    private void rebuildSlots(int entryCapacity) {
+        // Load factor of at most 0.75 when all entry positions are used
+        int minNumSlots = entryCapacity + entryCapacity / 3 + 1;
+        int numSlots = Integer.highestOneBit(minNumSlots - 1) << 1;
+        if (numSlots == slots.length) {
+            Arrays.fill(slots, 0);
+        } else {
+            slots = new int[numSlots];
+        }
+        int mask = numSlots - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = hash(keys, entry * KEY_LENGTH) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = entry + 1;
+        }
     }
 }
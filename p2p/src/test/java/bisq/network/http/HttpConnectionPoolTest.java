@@ -0,0 +1,278 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.http;
+
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import java.nio.charset.StandardCharsets;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HttpConnectionPoolTest {
+    private static final ResponseHandler<String> TO_STRING = response -> EntityUtils.toString(response.getEntity());
+
+    private HttpConnectionPool pool;
+    private SocksStandIn socks;
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        pool = new HttpConnectionPool(2, 4, 60, 60);
+        socks = new SocksStandIn();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        pool.shutDown();
+        socks.close();
+        servers.forEach(server -> server.stop(0));
+    }
+
+    @Test
+    public void testConnectionIsKeptAlive() throws IOException {
+        int port = startServer("price");
+        for (int i = 0; i < 5; i++) {
+            assertEquals("price", pool.execute(get("localhost", port), socks.getAddress(), false, TO_STRING));
+        }
+        assertEquals(1, socks.numHandshakes.get());
+    }
+
+    @Test
+    public void testConnectionsAreNotSharedBetweenDestinations() throws IOException {
+        int pricePort = startServer("price");
+        int feePort = startServer("fee");
+        for (int i = 0; i < 3; i++) {
+            assertEquals("price", pool.execute(get("localhost", pricePort), socks.getAddress(), false, TO_STRING));
+            assertEquals("fee", pool.execute(get("localhost", feePort), socks.getAddress(), false, TO_STRING));
+        }
+        assertEquals(2, socks.numHandshakes.get());
+        assertEquals(2, pool.getNumDestinations());
+    }
+
+    @Test
+    public void testIdleConnectionsAreEvicted() throws IOException {
+        pool.shutDown();
+        pool = new HttpConnectionPool(2, 4, 0, 0);
+        int port = startServer("price");
+        pool.execute(get("localhost", port), socks.getAddress(), false, TO_STRING);
+        pool.evictIdle();
+        assertEquals(0, pool.getNumDestinations());
+
+        pool.execute(get("localhost", port), socks.getAddress(), false, TO_STRING);
+        assertEquals(2, socks.numHandshakes.get());
+    }
+
+    @Test
+    public void testConcurrentRequestsAreBoundedPerDestination() throws Exception {
+        int port = startServer("price");
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(executor.submit(() -> pool.execute(get("localhost", port), socks.getAddress(), false,
+                    TO_STRING)));
+        }
+        for (Future<String> future : futures) {
+            assertEquals("price", future.get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertTrue(socks.numHandshakes.get() <= 2);
+        assertTrue(socks.maxOpenConnections.get() <= 2);
+    }
+
+    @Test
+    public void testDestinationWithRunningRequestIsNotEvicted() throws Exception {
+        pool.shutDown();
+        pool = new HttpConnectionPool(2, 1, 60, 60);
+        CountDownLatch received = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int slowPort = startServer("slow", received, release);
+        int pricePort = startServer("price");
+        int feePort = startServer("fee");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<String> slowRequest = executor.submit(() -> pool.execute(get("localhost", slowPort),
+                socks.getAddress(), false, TO_STRING));
+        assertTrue(received.await(10, TimeUnit.SECONDS));
+
+        // The slow destination is busy, so we go over the limit
+        assertEquals("price", pool.execute(get("localhost", pricePort), socks.getAddress(), false, TO_STRING));
+        assertEquals(2, pool.getNumDestinations());
+
+        release.countDown();
+        assertEquals("slow", slowRequest.get(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // Once idle, destinations get evicted down to the limit again
+        assertEquals("fee", pool.execute(get("localhost", feePort), socks.getAddress(), false, TO_STRING));
+        assertEquals(1, pool.getNumDestinations());
+    }
+
+    @Test(expected = IOException.class)
+    public void testNoRequestsAfterShutDown() throws IOException {
+        int port = startServer("price");
+        pool.shutDown();
+        pool.execute(get("localhost", port), socks.getAddress(), false, TO_STRING);
+    }
+
+    private int startServer(String response) throws IOException {
+        return startServer(response, new CountDownLatch(0), new CountDownLatch(0));
+    }
+
+    // The server signals received when it got a request and waits for release before it responds
+    private int startServer(String response, CountDownLatch received, CountDownLatch release) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // Each exchange on its own thread, so a waiting exchange does not block others
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            received.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ignore) {
+            }
+            byte[] body = response.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+        servers.add(server);
+        return server.getAddress().getPort();
+    }
+
+    private static HttpGet get(String host, int port) {
+        return new HttpGet("http://" + host + ":" + port + "/");
+    }
+
+    // Minimal SOCKS5 proxy which supports the CONNECT command without authentication
+    private static class SocksStandIn {
+        private final ServerSocket serverSocket;
+        private final AtomicInteger numHandshakes = new AtomicInteger();
+        private final AtomicInteger openConnections = new AtomicInteger();
+        private final AtomicInteger maxOpenConnections = new AtomicInteger();
+
+        SocksStandIn() throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread thread = new Thread(() -> {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        Socket socket = serverSocket.accept();
+                        new Thread(() -> handle(socket)).start();
+                    } catch (IOException ignore) {
+                    }
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        InetSocketAddress getAddress() {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+        }
+
+        void close() throws IOException {
+            serverSocket.close();
+        }
+
+        private void handle(Socket client) {
+            try (client) {
+                DataInputStream in = new DataInputStream(client.getInputStream());
+                OutputStream out = client.getOutputStream();
+                // Greeting: version, number of methods, methods. We select "no authentication".
+                in.readUnsignedByte();
+                in.readFully(new byte[in.readUnsignedByte()]);
+                out.write(new byte[]{5, 0});
+                // Request: version, command, reserved, address type, address, port
+                in.readUnsignedByte();
+                in.readUnsignedByte();
+                in.readUnsignedByte();
+                String host;
+                int addressType = in.readUnsignedByte();
+                if (addressType == 3) {
+                    byte[] name = new byte[in.readUnsignedByte()];
+                    in.readFully(name);
+                    host = new String(name, StandardCharsets.US_ASCII);
+                } else {
+                    byte[] address = new byte[addressType == 1 ? 4 : 16];
+                    in.readFully(address);
+                    host = InetAddress.getByAddress(address).getHostAddress();
+                }
+                int port = in.readUnsignedShort();
+                numHandshakes.incrementAndGet();
+                maxOpenConnections.accumulateAndGet(openConnections.incrementAndGet(), Math::max);
+                try (Socket target = new Socket(host, port)) {
+                    out.write(new byte[]{5, 0, 0, 1, 0, 0, 0, 0, 0, 0});
+                    Thread relay = new Thread(() -> relay(target, client));
+                    relay.setDaemon(true);
+                    relay.start();
+                    relay(client, target);
+                } finally {
+                    openConnections.decrementAndGet();
+                }
+            } catch (IOException ignore) {
+            }
+        }
+
+        private static void relay(Socket from, Socket to) {
+            try {
+                InputStream in = from.getInputStream();
+                OutputStream out = to.getOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                    out.flush();
+                }
+            } catch (IOException ignore) {
+            } finally {
+                try {
+                    to.shutdownOutput();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+}
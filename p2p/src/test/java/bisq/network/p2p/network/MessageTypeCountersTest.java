@@ -0,0 +1,81 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.network;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class MessageTypeCountersTest {
+
+    private static protobuf.NetworkEnvelope ping() {
+        return protobuf.NetworkEnvelope.newBuilder()
+                .setPing(protobuf.Ping.newBuilder().setNonce(1))
+                .build();
+    }
+
+    private static protobuf.NetworkEnvelope bundle(int numPings) {
+        protobuf.BundleOfEnvelopes.Builder builder = protobuf.BundleOfEnvelopes.newBuilder();
+        for (int i = 0; i < numPings; i++) {
+            builder.addEnvelopes(ping());
+        }
+        return protobuf.NetworkEnvelope.newBuilder().setBundleOfEnvelopes(builder).build();
+    }
+
+    @Test
+    public void testIncrementWithBundledEnvelopes() {
+        MessageTypeCounters counters = MessageTypeCounters.perConnection();
+        counters.increment(ping());
+        counters.incrementWithBundledEnvelopes(bundle(3));
+
+        assertEquals(5, counters.getTotal());
+        assertEquals(4, (long) counters.toMap().get("PING"));
+        assertEquals(1, (long) counters.toMap().get("BUNDLE_OF_ENVELOPES"));
+        assertEquals(2, counters.toMap().size());
+    }
+
+    @Test
+    public void testConcurrentIncrements() throws InterruptedException {
+        MessageTypeCounters perConnection = MessageTypeCounters.perConnection();
+        MessageTypeCounters shared = MessageTypeCounters.shared();
+        protobuf.NetworkEnvelope ping = ping();
+        int numThreads = 4;
+        int numIncrements = 10_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < numIncrements; j++) {
+                    perConnection.increment(ping);
+                    shared.increment(ping);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int index = protobuf.NetworkEnvelope.MessageCase.PING.ordinal();
+        assertEquals(numThreads * numIncrements, perConnection.get(index));
+        assertEquals(numThreads * numIncrements, shared.get(index));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.peers.getdata;
+
+import bisq.network.p2p.NodeAddress;
+import bisq.network.p2p.peers.getdata.messages.GetDataRequest;
+import bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
+import bisq.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import bisq.common.app.Capabilities;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GetDataResponseBuilderTest {
+    private static final NodeAddress PEER = new NodeAddress("peer", 9999);
+
+    private P2PDataStorage dataStorage;
+    private GetDataResponseBuilder builder;
+    private final AtomicInteger concurrentBuilds = new AtomicInteger();
+    private final AtomicInteger maxConcurrentBuilds = new AtomicInteger();
+    private final List<GetDataRequest> buildOrder = Collections.synchronizedList(new ArrayList<>());
+    private volatile CountDownLatch firstBuildReleased = new CountDownLatch(0);
+
+    @Before
+    public void setUp() {
+        dataStorage = mock(P2PDataStorage.class);
+        when(dataStorage.buildGetDataResponse(any(), anyInt(), any(), any(), any())).thenAnswer(invocation -> {
+            GetDataRequest getDataRequest = invocation.getArgument(0);
+            maxConcurrentBuilds.accumulateAndGet(concurrentBuilds.incrementAndGet(), Math::max);
+            try {
+                if (buildOrder.isEmpty())
+                    firstBuildReleased.await(10, TimeUnit.SECONDS);
+                buildOrder.add(getDataRequest);
+                Thread.sleep(2);
+                return new GetDataResponse(new HashSet<>(),
+                        new HashSet<>(),
+                        getDataRequest.getNonce(),
+                        getDataRequest instanceof GetUpdatedDataRequest);
+            } finally {
+                concurrentBuilds.decrementAndGet();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        if (builder != null)
+            builder.shutDown();
+    }
+
+    private void build(GetDataRequest getDataRequest, CountDownLatch completed) {
+        builder.build(getDataRequest,
+                10_000,
+                new AtomicBoolean(),
+                new AtomicBoolean(),
+                new Capabilities(),
+                getDataResponse -> {
+                    assertEquals(getDataRequest.getNonce(), getDataResponse.getRequestNonce());
+                    completed.countDown();
+                },
+                errorMessage -> {
+                    throw new AssertionError(errorMessage);
+                });
+    }
+
+    // 200 peers joining at the same time, each sending its request from its own connection thread
+    @Test
+    public void build_manySimultaneousRequests() throws InterruptedException {
+        int numPeers = 200;
+        builder = new GetDataResponseBuilder(dataStorage, 4);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(numPeers);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < numPeers; i++) {
+            int nonce = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    build(new PreliminaryGetDataRequest(nonce, new HashSet<>()), completed);
+                } catch (InterruptedException ignore) {
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+
+        assertTrue(completed.await(30, TimeUnit.SECONDS));
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(numPeers, builder.getNumBuilds());
+        assertEquals(0, builder.getQueueDepth());
+        assertTrue(maxConcurrentBuilds.get() <= 4);
+        assertTrue(builder.getMaxQueueDepth() > 0);
+    }
+
+    // Queued GetUpdatedDataRequests get built before queued PreliminaryGetDataRequests
+    @Test
+    public void build_updatedDataRequestsFirst() throws InterruptedException {
+        builder = new GetDataResponseBuilder(dataStorage, 1);
+        firstBuildReleased = new CountDownLatch(1);
+        CountDownLatch completed = new CountDownLatch(11);
+
+        // Occupies the only worker until we have queued the other requests
+        build(new PreliminaryGetDataRequest(0, new HashSet<>()), completed);
+        for (int i = 1; i <= 5; i++) {
+            build(new PreliminaryGetDataRequest(i, new HashSet<>()), completed);
+            build(new GetUpdatedDataRequest(PEER, 100 + i, new HashSet<>()), completed);
+        }
+        firstBuildReleased.countDown();
+
+        assertTrue(completed.await(30, TimeUnit.SECONDS));
+        assertEquals(0, buildOrder.get(0).getNonce());
+        for (int i = 1; i <= 5; i++) {
+            assertTrue(buildOrder.get(i) instanceof GetUpdatedDataRequest);
+            assertEquals(100 + i, buildOrder.get(i).getNonce());
+            assertTrue(buildOrder.get(5 + i) instanceof PreliminaryGetDataRequest);
+            assertEquals(i, buildOrder.get(5 + i).getNonce());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage;
+
+import bisq.network.p2p.TestUtils;
+import bisq.network.p2p.storage.mocks.ClockFake;
+import bisq.network.p2p.storage.mocks.ExpirableProtectedStoragePayloadStub;
+import bisq.network.p2p.storage.mocks.ProtectedStoragePayloadStub;
+import bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import bisq.network.p2p.storage.payload.ProtectedStoragePayload;
+
+import java.security.KeyPair;
+import java.security.NoSuchAlgorithmException;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExpiryIndexTest {
+    private static final long BUCKET_DURATION = TimeUnit.MINUTES.toMillis(1);
+    private static final long TTL = TimeUnit.MINUTES.toMillis(10);
+
+    private ClockFake clock;
+    private KeyPair ownerKeys;
+    private ExpiryIndex expiryIndex;
+
+    @Before
+    public void setUp() throws NoSuchAlgorithmException {
+        clock = new ClockFake();
+        ownerKeys = TestUtils.generateKeyPair();
+        expiryIndex = new ExpiryIndex(BUCKET_DURATION);
+    }
+
+    private ProtectedStorageEntry buildEntry(ProtectedStoragePayload payload) {
+        return new ProtectedStorageEntry(payload, ownerKeys.getPublic(), 1, new byte[0], clock);
+    }
+
+    private static P2PDataStorage.ByteArray hash(int id) {
+        return new P2PDataStorage.ByteArray(new byte[]{(byte) id});
+    }
+
+    // TESTCASE: Entries are only reported once the bucket of their expiry time is reached
+    @Test
+    public void getDueCandidates_onlyDueBuckets() {
+        expiryIndex.put(hash(1), buildEntry(new ExpirableProtectedStoragePayloadStub(ownerKeys.getPublic(), TTL)));
+        clock.increment(TTL);
+        expiryIndex.put(hash(2), buildEntry(new ExpirableProtectedStoragePayloadStub(ownerKeys.getPublic(), TTL)));
+
+        Assert.assertEquals(Collections.singletonList(hash(1)),
+                expiryIndex.getDueCandidates(clock.millis() + BUCKET_DURATION));
+        Assert.assertEquals(2, expiryIndex.getDueCandidates(clock.millis() + TTL + BUCKET_DURATION).size());
+    }
+
+    // TESTCASE: Payloads which are not expirable are not indexed
+    @Test
+    public void put_notExpirable() {
+        expiryIndex.put(hash(1), buildEntry(new ProtectedStoragePayloadStub(ownerKeys.getPublic())));
+
+        Assert.assertEquals(0, expiryIndex.size());
+        Assert.assertTrue(expiryIndex.getDueCandidates(Long.MAX_VALUE).isEmpty());
+    }
+
+    // TESTCASE: Removed entries are not reported anymore
+    @Test
+    public void remove() {
+        expiryIndex.put(hash(1), buildEntry(new ExpirableProtectedStoragePayloadStub(ownerKeys.getPublic(), TTL)));
+        expiryIndex.remove(hash(1));
+
+        Assert.assertEquals(0, expiryIndex.size());
+        Assert.assertTrue(expiryIndex.getDueCandidates(Long.MAX_VALUE).isEmpty());
+    }
+
+    // TESTCASE: Putting an entry again after it got back dated moves it to the earlier bucket
+    @Test
+    public void put_afterBackDate() {
+        ProtectedStorageEntry entry = buildEntry(new ExpirableProtectedStoragePayloadStub(ownerKeys.getPublic(), TTL));
+        expiryIndex.put(hash(1), entry);
+        Assert.assertTrue(expiryIndex.getDueCandidates(clock.millis() + TTL / 2 + BUCKET_DURATION).isEmpty());
+
+        entry.backDate();
+        expiryIndex.put(hash(1), entry);
+
+        Assert.assertEquals(1, expiryIndex.size());
+        Assert.assertEquals(Collections.singletonList(hash(1)),
+                expiryIndex.getDueCandidates(clock.millis() + TTL / 2 + BUCKET_DURATION));
+    }
+}
@@ -147,4 +147,20 @@ public class P2PDataStoreDisconnectTest {
 
         verifyStateAfterDisconnect(this.testState, beforeState, false);
     }
+
+    // TESTCASE: Entries which expire due to the back dating get removed by the next TTL check
+    @Test
+    public void connectionClosedBackDatedEntryRemovedWhenExpired() throws NoSuchAlgorithmException, CryptoException {
+        when(this.mockedConnection.getPeersNodeAddressOptional()).thenReturn(Optional.of(getTestNodeAddress()));
+
+        populateTestState(testState, TimeUnit.DAYS.toMillis(90));
+        this.testState.clockFake.increment(TimeUnit.DAYS.toMillis(46));
+        this.testState.mockedStorage.removeExpiredEntries();
+        Assert.assertEquals(1, this.testState.mockedStorage.getMap().size());
+
+        this.testState.mockedStorage.onDisconnect(CloseConnectionReason.SOCKET_CLOSED, mockedConnection);
+        this.testState.mockedStorage.removeExpiredEntries();
+
+        Assert.assertTrue(this.testState.mockedStorage.getMap().isEmpty());
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.network.p2p.storage.persistence;
+
+import bisq.network.p2p.storage.P2PDataStorage;
+
+import com.google.protobuf.ByteString;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SequenceNumberMapTest {
+
+    private static P2PDataStorage.ByteArray hash(int id) {
+        byte[] bytes = new byte[SequenceNumberMap.KEY_LENGTH];
+        new Random(id).nextBytes(bytes);
+        return new P2PDataStorage.ByteArray(bytes);
+    }
+
+    private static SequenceNumberMap createMap(int numEntries) {
+        SequenceNumberMap map = new SequenceNumberMap();
+        for (int i = 0; i < numEntries; i++) {
+            map.put(hash(i), new P2PDataStorage.MapValue(i, 1000L + i));
+        }
+        return map;
+    }
+
+    private static void assertContainsEntries(SequenceNumberMap map, int fromId, int toId) {
+        for (int i = fromId; i < toId; i++) {
+            P2PDataStorage.MapValue value = map.get(hash(i));
+            assertEquals(i, value.sequenceNr);
+            assertEquals(1000L + i, value.timeStamp);
+        }
+    }
+
+    // TESTCASE: Entries survive the growth of the tables and a put of an existing key updates its value
+    @Test
+    public void testPutAndGet() {
+        SequenceNumberMap map = createMap(10_000);
+        assertEquals(10_000, map.size());
+        assertContainsEntries(map, 0, 10_000);
+        assertFalse(map.containsKey(hash(10_000)));
+        assertNull(map.get(hash(10_000)));
+
+        map.put(hash(5), new P2PDataStorage.MapValue(6, 2000));
+        assertEquals(10_000, map.size());
+        assertEquals(6, map.get(hash(5)).sequenceNr);
+        assertEquals(2000, map.get(hash(5)).timeStamp);
+    }
+
+    // TESTCASE: Keys which are not 32 byte hashes are never found and can't be added
+    @Test(expected = IllegalArgumentException.class)
+    public void testPutInvalidKey() {
+        SequenceNumberMap map = new SequenceNumberMap();
+        P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(new byte[]{1});
+        assertFalse(map.containsKey(key));
+        map.put(key, new P2PDataStorage.MapValue(1, 1));
+    }
+
+    // TESTCASE: Removing old entries keeps the newer entries reachable
+    @Test
+    public void testRemoveEntriesOlderThan() {
+        SequenceNumberMap map = createMap(1000);
+        assertEquals(500, map.removeEntriesOlderThan(1000L + 499));
+        assertEquals(500, map.size());
+        for (int i = 0; i < 500; i++) {
+            assertFalse(map.containsKey(hash(i)));
+        }
+        assertContainsEntries(map, 500, 1000);
+
+        // Entries can be added after a purge
+        map.put(hash(0), new P2PDataStorage.MapValue(0, 1000L));
+        assertEquals(501, map.size());
+        assertEquals(0, map.removeEntriesOlderThan(0));
+    }
+
+    // TESTCASE: Packed persistence round trip
+    @Test
+    public void testProtoRoundTrip() {
+        SequenceNumberMap map = createMap(1000);
+        protobuf.SequenceNumberMap proto = map.toProtoMessage().getSequenceNumberMap();
+        assertEquals(0, proto.getSequenceNumberEntriesCount());
+
+        SequenceNumberMap fromProto = SequenceNumberMap.fromProto(proto);
+        assertEquals(1000, fromProto.size());
+        assertContainsEntries(fromProto, 0, 1000);
+    }
+
+    // TESTCASE: Maps persisted with the repeated SequenceNumberEntry field are still read
+    @Test
+    public void testFromLegacyProto() {
+        protobuf.SequenceNumberMap.Builder builder = protobuf.SequenceNumberMap.newBuilder();
+        for (int i = 0; i < 100; i++) {
+            builder.addSequenceNumberEntries(protobuf.SequenceNumberEntry.newBuilder()
+                    .setBytes(hash(i).toProtoMessage())
+                    .setMapValue(new P2PDataStorage.MapValue(i, 1000L + i).toProtoMessage()));
+        }
+        // Invalid keys are ignored
+        builder.addSequenceNumberEntries(protobuf.SequenceNumberEntry.newBuilder()
+                .setBytes(protobuf.ByteArray.newBuilder().setBytes(ByteString.copyFrom(new byte[]{1})))
+                .setMapValue(new P2PDataStorage.MapValue(1, 1).toProtoMessage()));
+
+        SequenceNumberMap fromProto = SequenceNumberMap.fromProto(builder.build());
+        assertEquals(100, fromProto.size());
+        assertContainsEntries(fromProto, 0, 100);
+        assertTrue(fromProto.containsKey(hash(99)));
+    }
+
+    // TESTCASE: setEntries copies the entries, later changes of the source do not affect the copy
+    @Test
+    public void testSetEntries() {
+        SequenceNumberMap source = createMap(100);
+        SequenceNumberMap map = createMap(10);
+        map.setEntries(source);
+        source.removeEntriesOlderThan(Long.MAX_VALUE);
+
+        assertEquals(0, source.size());
+        assertEquals(100, map.size());
+        assertContainsEntries(map, 0, 100);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.google.common.hash.Hashing;
+
+import javax.servlet.http.HttpServletRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An immutable response body which has been serialized to JSON and gzipped once, so it
+ * can be written to any number of clients without further processing.
+ */
+public class PreSerializedResponse {
+
+    private final byte[] json;
+    private final byte[] gzippedJson;
+    private final String eTag;
+
+    public PreSerializedResponse(ObjectMapper objectMapper, Object body) throws JsonProcessingException {
+        this.json = objectMapper.writeValueAsBytes(body);
+        this.gzippedJson = gzip(json);
+        // A collision would make clients keep stale prices, so we use a cryptographic hash of the content
+        this.eTag = "\"" + Hashing.sha256().hashBytes(json) + "\"";
+    }
+
+    /**
+     * @return A response with the gzipped body if the client accepts gzip encoding,
+     * the plain body otherwise, or 304 if the client already has this version
+     */
+    public ResponseEntity<byte[]> toResponseEntity(HttpServletRequest request) {
+        if (eTag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH)))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean acceptsGzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(eTag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip)
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzippedJson);
+        else
+            return builder.body(json);
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public byte[] getGzippedJson() {
+        return gzippedJson;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(bytes);
+        } catch (IOException e) {
+            // Cannot happen with an in-memory stream
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -17,14 +17,16 @@
 
 package bisq.price;
 
-import bisq.common.UserThread;
+import bisq.common.util.Utilities;
 
 import org.springframework.context.SmartLifecycle;
 
 import java.time.Duration;
 
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -33,13 +35,20 @@ import org.slf4j.LoggerFactory;
 
 public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
 
-    protected final Logger log = LoggerFactory.getLogger(this.getClass());
+    // All providers refresh on a shared, bounded pool instead of one timer thread per
+    // provider. A refresh which takes longer than its interval delays the next one but
+    // never runs concurrently with itself.
+    private static final int MAX_CONCURRENT_REFRESHES = 8;
+    private static final ScheduledExecutorService scheduler = Utilities.getScheduledThreadPoolExecutor(
+            "PriceProviderRefresh-%d", MAX_CONCURRENT_REFRESHES, MAX_CONCURRENT_REFRESHES, 60);
 
-    private final Timer timer = new Timer(true);
+    protected final Logger log = LoggerFactory.getLogger(this.getClass());
 
     protected final Duration refreshInterval;
 
-    private T cachedResult;
+    private volatile T cachedResult;
+    private ScheduledFuture<?> scheduledRefresh;
+    private final List<Runnable> refreshListeners = new CopyOnWriteArrayList<>();
 
     public PriceProvider(Duration refreshInterval) {
         this.refreshInterval = refreshInterval;
@@ -51,30 +60,35 @@ public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
         return cachedResult;
     }
 
+    /**
+     * @param listener called on the refreshing thread each time the provider has
+     *                 successfully retrieved a new result
+     */
+    public void addRefreshListener(Runnable listener) {
+        refreshListeners.add(listener);
+    }
+
     @Override
     public final void start() {
         // do the initial refresh asynchronously
-        UserThread.runAfter(() -> {
+        scheduler.execute(() -> {
             try {
                 refresh();
             } catch (Throwable t) {
                 log.warn("initial refresh failed", t);
             }
-        }, 1, TimeUnit.MILLISECONDS);
-
-        timer.scheduleAtFixedRate(new TimerTask() {
-            @Override
-            public void run() {
-                try {
-                    refresh();
-                } catch (Throwable t) {
-                    // we only log scheduled calls to refresh that fail to ensure that
-                    // the application does *not* halt, assuming the failure is temporary
-                    // and on the side of the upstream price provider, eg. BitcoinAverage
-                    log.warn("refresh failed", t);
-                }
+        });
+
+        scheduledRefresh = scheduler.scheduleAtFixedRate(() -> {
+            try {
+                refresh();
+            } catch (Throwable t) {
+                // we only log scheduled calls to refresh that fail to ensure that
+                // the application does *not* halt, assuming the failure is temporary
+                // and on the side of the upstream price provider, eg. BitcoinAverage
+                log.warn("refresh failed", t);
             }
-        }, refreshInterval.toMillis(), refreshInterval.toMillis());
+        }, refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
     }
 
     private void refresh() {
@@ -85,6 +99,8 @@ public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
         log.info("refresh took {} ms.", (System.currentTimeMillis() - ts));
 
         onRefresh();
+
+        refreshListeners.forEach(Runnable::run);
     }
 
     protected abstract T doGet();
@@ -94,7 +110,8 @@ public abstract class PriceProvider<T> implements SmartLifecycle, Supplier<T> {
 
     @Override
     public void stop() {
-        timer.cancel();
+        if (scheduledRefresh != null)
+            scheduledRefresh.cancel(false);
     }
 
     @Override
@@ -0,0 +1,94 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price.spot;
+
+import bisq.price.PreSerializedResponse;
+import bisq.price.mining.FeeRateProvider;
+import bisq.price.mining.FeeRateService;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Aggregates the market prices and fees once per provider refresh and publishes the
+ * result as a {@link PreSerializedResponse}, so that serving /getAllMarketPrices does
+ * not need to aggregate or serialize anything per request.
+ */
+@Component
+class AllMarketPricesPublisher {
+    protected final Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final ExchangeRateService exchangeRateService;
+    private final FeeRateService feeRateService;
+    private final ObjectMapper objectMapper;
+
+    private volatile PreSerializedResponse response;
+
+    public AllMarketPricesPublisher(ExchangeRateService exchangeRateService,
+                                    FeeRateService feeRateService,
+                                    List<ExchangeRateProvider> exchangeRateProviders,
+                                    List<FeeRateProvider> feeRateProviders,
+                                    ObjectMapper objectMapper) {
+        this.exchangeRateService = exchangeRateService;
+        this.feeRateService = feeRateService;
+        this.objectMapper = objectMapper;
+
+        exchangeRateProviders.forEach(p -> p.addRefreshListener(this::publish));
+        feeRateProviders.forEach(p -> p.addRefreshListener(this::publish));
+    }
+
+    public PreSerializedResponse getResponse() {
+        PreSerializedResponse response = this.response;
+        if (response == null) {
+            // No provider has completed a refresh yet
+            publish();
+            response = this.response;
+        }
+        return response;
+    }
+
+    private synchronized void publish() {
+        long ts = System.currentTimeMillis();
+        Map<String, Object> retVal = exchangeRateService.getAllMarketPrices();
+
+        // add the fee info to results
+        feeRateService.getFees().forEach((key, value) -> {
+            retVal.put(ExchangeRateController.translateFieldName(key), value);
+        });
+
+        try {
+            response = new PreSerializedResponse(objectMapper, retVal);
+        } catch (JsonProcessingException e) {
+            // Keep serving the previous response
+            log.error("Could not serialize market prices", e);
+            return;
+        }
+        log.info("Published market prices in {} ms. Size: {} bytes, gzipped: {} bytes",
+                System.currentTimeMillis() - ts,
+                response.getJson().length,
+                response.getGzippedJson().length);
+    }
+}
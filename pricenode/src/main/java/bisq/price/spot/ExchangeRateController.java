@@ -18,12 +18,16 @@
 package bisq.price.spot;
 
 import bisq.price.PriceController;
-import bisq.price.mining.FeeRateService;
 
 import bisq.common.config.Config;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletRequest;
 
 import java.util.Map;
 
@@ -31,23 +35,35 @@ import java.util.Map;
 class ExchangeRateController extends PriceController {
 
     private final ExchangeRateService exchangeRateService;
-    private final FeeRateService feeRateService;
+    private final AllMarketPricesPublisher allMarketPricesPublisher;
 
-    public ExchangeRateController(ExchangeRateService exchangeRateService, FeeRateService feeRateService) {
+    public ExchangeRateController(ExchangeRateService exchangeRateService,
+                                  AllMarketPricesPublisher allMarketPricesPublisher) {
         this.exchangeRateService = exchangeRateService;
-        this.feeRateService = feeRateService;
+        this.allMarketPricesPublisher = allMarketPricesPublisher;
     }
 
     @GetMapping(path = "/getAllMarketPrices")
-    public Map<String, Object> getAllMarketPrices() {
-        Map<String, Object> retVal = exchangeRateService.getAllMarketPrices();
+    public ResponseEntity<byte[]> getAllMarketPrices(HttpServletRequest request) {
+        return allMarketPricesPublisher.getResponse().toResponseEntity(request);
+    }
 
-        // add the fee info to results
-        feeRateService.getFees().forEach((key, value) -> {
-            retVal.put(translateFieldName(key), value);
-        });
+    /**
+     * Delivers only the rates which have changed since the snapshot version given by the
+     * client, or all rates if that version is unknown. The current snapshot version is
+     * used as ETag, so a client sending a matching If-None-Match header gets a 304.
+     */
+    @GetMapping(path = "/getMarketPriceUpdates")
+    public ResponseEntity<Map<String, Object>> getMarketPriceUpdates(
+            @RequestParam(name = "sinceVersion", defaultValue = "-1") long sinceVersion,
+            WebRequest request) {
+        MarketPriceSnapshot snapshot = exchangeRateService.getMarketPriceSnapshot();
+        if (request.checkNotModified(snapshot.getETag()))
+            return null;
 
-        return retVal;
+        return ResponseEntity.ok()
+                .eTag(snapshot.getETag())
+                .body(exchangeRateService.getMarketPriceUpdates(snapshot, sinceVersion));
     }
 
     static String translateFieldName(String name) {
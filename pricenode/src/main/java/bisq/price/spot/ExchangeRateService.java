@@ -21,9 +21,10 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -34,8 +35,6 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import static java.util.Arrays.asList;
-
 /**
  * High-level {@link ExchangeRate} data operations.
  */
@@ -43,8 +42,18 @@ import static java.util.Arrays.asList;
 class ExchangeRateService {
     protected final Logger log = LoggerFactory.getLogger(this.getClass());
 
+    // Number of past snapshots we keep for serving delta requests. Providers refresh
+    // about once a minute, so this covers clients which have been offline for a while.
+    private static final int MAX_SNAPSHOT_HISTORY = 100;
+
     private final List<ExchangeRateProvider> providers;
 
+    // Versions start at the startup time so that a client holding a version from a
+    // previous run of the pricenode does not get a delta against an unrelated snapshot
+    private long nextSnapshotVersion = System.currentTimeMillis();
+    private final Deque<MarketPriceSnapshot> snapshotHistory = new ArrayDeque<>();
+    private List<Set<ExchangeRate>> providerResultsOfLastSnapshot = new ArrayList<>();
+
     /**
      * Construct an {@link ExchangeRateService} with a list of all
      * {@link ExchangeRateProvider} implementations discovered via classpath scanning.
@@ -57,9 +66,58 @@ class ExchangeRateService {
     }
 
     public Map<String, Object> getAllMarketPrices() {
-        Map<String, Object> metadata = new LinkedHashMap<>();
-        Map<String, ExchangeRate> aggregateExchangeRates = getAggregateExchangeRates();
+        MarketPriceSnapshot snapshot = getMarketPriceSnapshot();
+        LinkedHashMap<String, Object> result = new LinkedHashMap<>(snapshot.getMetadata());
+        result.put("data", new ArrayList<>(snapshot.getRates().values()));
+        return result;
+    }
+
+    /**
+     * Returns the rates which have changed since the snapshot with the given version. If
+     * that version is not known anymore (too old or from a previous run of the
+     * pricenode) all rates are returned and {@code fullSnapshot} is set to true.
+     * Metadata is always delivered in full as it is small.
+     *
+     * @param sinceVersion the version of the last snapshot the client has applied
+     * @return the rates changed since {@code sinceVersion}, the currency codes removed
+     * since then and the new version
+     */
+    public Map<String, Object> getMarketPriceUpdates(long sinceVersion) {
+        return getMarketPriceUpdates(getMarketPriceSnapshot(), sinceVersion);
+    }
+
+    Map<String, Object> getMarketPriceUpdates(MarketPriceSnapshot snapshot, long sinceVersion) {
+        MarketPriceSnapshot base = findSnapshot(sinceVersion);
+
+        LinkedHashMap<String, Object> result = new LinkedHashMap<>(snapshot.getMetadata());
+        result.put("version", snapshot.getVersion());
+        if (base == null) {
+            result.put("fullSnapshot", true);
+            result.put("data", new ArrayList<>(snapshot.getRates().values()));
+            result.put("removed", new ArrayList<>());
+        } else {
+            result.put("fullSnapshot", false);
+            result.put("data", snapshot.getChangedRatesSince(base));
+            result.put("removed", snapshot.getRemovedCurrencyCodesSince(base));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the current snapshot of all aggregate rates. The aggregation is only
+     * re-run if at least one provider has delivered a new result since the last call,
+     * and a new version is only created if the content has actually changed.
+     */
+    synchronized MarketPriceSnapshot getMarketPriceSnapshot() {
+        List<Set<ExchangeRate>> providerResults = new ArrayList<>();
+        providers.forEach(p -> providerResults.add(p.get()));
+        MarketPriceSnapshot current = snapshotHistory.peekLast();
+        if (current != null && isSameProviderResults(providerResults))
+            return current;
 
+        providerResultsOfLastSnapshot = providerResults;
+        Map<String, ExchangeRate> aggregateExchangeRates = getAggregateExchangeRates();
+        Map<String, Object> metadata = new LinkedHashMap<>();
         providers.forEach(p -> {
             if (p.get() == null)
                 return;
@@ -72,15 +130,37 @@ class ExchangeRateService {
             metadata.putAll(getMetadata(p, exchangeRates));
         });
 
-        LinkedHashMap<String, Object> result = new LinkedHashMap<>();
-        result.putAll(metadata);
-        // Use a sorted list by currency code to make comparision of json data between
-        // different price nodes easier
-        List<ExchangeRate> values = new ArrayList<>(aggregateExchangeRates.values());
-        values.sort(Comparator.comparing(ExchangeRate::getCurrency));
-        result.put("data", values);
+        if (current != null && current.hasSameContent(aggregateExchangeRates, metadata))
+            return current;
 
-        return result;
+        MarketPriceSnapshot snapshot = new MarketPriceSnapshot(nextSnapshotVersion++,
+                aggregateExchangeRates,
+                metadata);
+        snapshotHistory.addLast(snapshot);
+        if (snapshotHistory.size() > MAX_SNAPSHOT_HISTORY)
+            snapshotHistory.removeFirst();
+        return snapshot;
+    }
+
+    private boolean isSameProviderResults(List<Set<ExchangeRate>> providerResults) {
+        if (providerResults.size() != providerResultsOfLastSnapshot.size())
+            return false;
+
+        // Providers replace their cached result on each refresh, so an identity check is
+        // sufficient to detect new data
+        for (int i = 0; i < providerResults.size(); i++) {
+            if (providerResults.get(i) != providerResultsOfLastSnapshot.get(i))
+                return false;
+        }
+        return true;
+    }
+
+    private synchronized MarketPriceSnapshot findSnapshot(long version) {
+        for (MarketPriceSnapshot snapshot : snapshotHistory) {
+            if (snapshot.getVersion() == version)
+                return snapshot;
+        }
+        return null;
     }
 
     /**
@@ -141,14 +221,8 @@ class ExchangeRateService {
             if (p.get() == null)
                 continue;
             for (ExchangeRate exchangeRate : p.get()) {
-                String currencyCode = exchangeRate.getCurrency();
-                if (currencyCodeToExchangeRates.containsKey(currencyCode)) {
-                    List<ExchangeRate> l = new ArrayList<>(currencyCodeToExchangeRates.get(currencyCode));
-                    l.add(exchangeRate);
-                    currencyCodeToExchangeRates.put(currencyCode, l);
-                } else {
-                    currencyCodeToExchangeRates.put(currencyCode, asList(exchangeRate));
-                }
+                currencyCodeToExchangeRates.computeIfAbsent(exchangeRate.getCurrency(), k -> new ArrayList<>())
+                        .add(exchangeRate);
             }
         }
         return currencyCodeToExchangeRates;
@@ -0,0 +1,91 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price.spot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable, versioned view of the aggregate {@link ExchangeRate}s and the provider
+ * metadata at a given point in time. A new version is only created if the rates or the
+ * metadata have changed since the previous snapshot, so the version can be used as an
+ * ETag and as the base for delta requests.
+ */
+class MarketPriceSnapshot {
+
+    private final long version;
+    // Sorted by currency code to make comparison of json data between different price
+    // nodes easier
+    private final Map<String, ExchangeRate> rates;
+    private final Map<String, Object> metadata;
+
+    MarketPriceSnapshot(long version, Map<String, ExchangeRate> rates, Map<String, Object> metadata) {
+        this.version = version;
+        this.rates = Collections.unmodifiableMap(new TreeMap<>(rates));
+        this.metadata = Collections.unmodifiableMap(new LinkedHashMap<>(metadata));
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    Map<String, ExchangeRate> getRates() {
+        return rates;
+    }
+
+    Map<String, Object> getMetadata() {
+        return metadata;
+    }
+
+    String getETag() {
+        return "\"" + version + "\"";
+    }
+
+    boolean hasSameContent(Map<String, ExchangeRate> rates, Map<String, Object> metadata) {
+        return this.rates.equals(rates) && this.metadata.equals(metadata);
+    }
+
+    /**
+     * @return All rates of this snapshot which are not contained with identical values
+     * in the given base snapshot, sorted by currency code
+     */
+    List<ExchangeRate> getChangedRatesSince(MarketPriceSnapshot base) {
+        List<ExchangeRate> changed = new ArrayList<>();
+        rates.forEach((currencyCode, exchangeRate) -> {
+            if (!exchangeRate.equals(base.rates.get(currencyCode)))
+                changed.add(exchangeRate);
+        });
+        return changed;
+    }
+
+    /**
+     * @return The currency codes contained in the given base snapshot but not in this one
+     */
+    List<String> getRemovedCurrencyCodesSince(MarketPriceSnapshot base) {
+        List<String> removed = new ArrayList<>();
+        base.rates.keySet().forEach(currencyCode -> {
+            if (!rates.containsKey(currencyCode))
+                removed.add(currencyCode);
+        });
+        return removed;
+    }
+}
@@ -0,0 +1,391 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package bisq.price.spot;
+
+import bisq.price.PriceController;
+import bisq.price.mining.FeeRateService;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.math.BigDecimal;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import java.time.Duration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the cost of serving /getAllMarketPrices from the pre-serialized response of
+ * {@link AllMarketPricesPublisher} with aggregating and serializing per request, as it
+ * was done before. Both paths are served by an embedded server with the compression
+ * settings of application.properties: the current one by {@link ExchangeRateController}
+ * and the previous one by {@link BaselineExchangeRateController}, which reproduces the
+ * former controller and aggregation. The providers fetch their rates from a local stub
+ * exchange API, so no external connection is needed.
+ *
+ * Excluded from the default test run as it takes a while and its numbers are only
+ * meaningful on an otherwise idle machine. Enable with:
+ * ./gradlew :pricenode:test -Dtest.pricenode.includeLoadTests=true
+ */
+public class AllMarketPricesLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AllMarketPricesLoadTest.class);
+
+    private static final int NUM_PROVIDERS = 10;
+    private static final int NUM_CURRENCIES = 300;
+    private static final int NUM_CLIENT_THREADS = 16;
+    private static final int NUM_REQUESTS_PER_THREAD = 2_000;
+
+    private static HttpServer stubExchangeApi;
+    private static List<ExchangeRateProvider> providers;
+    private static ConfigurableApplicationContext pricenode;
+    private static HttpClient httpClient;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void setup() throws Exception {
+        stubExchangeApi = startStubExchangeApi();
+        String tickerUrl = "http://localhost:" + stubExchangeApi.getAddress().getPort() + "/ticker";
+
+        providers = new ArrayList<>();
+        for (int i = 0; i < NUM_PROVIDERS; i++) {
+            providers.add(new StubExchangeRateProvider("StubExchange-" + i, "stub" + i, tickerUrl));
+        }
+        providers.forEach(ExchangeRateProvider::start);
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (providers.stream().anyMatch(p -> p.get() == null)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Stub providers did not refresh in time");
+            Thread.sleep(100);
+        }
+
+        pricenode = new SpringApplicationBuilder(LoadTestPricenode.class)
+                .properties("server.port=0",
+                        // Do not log each incoming request
+                        "logging.level.bisq.price=WARN")
+                .run();
+        baseUrl = "http://localhost:" + pricenode.getEnvironment().getRequiredProperty("local.server.port");
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (pricenode != null)
+            pricenode.close();
+        providers.forEach(ExchangeRateProvider::stop);
+        stubExchangeApi.stop(0);
+    }
+
+    @Test
+    public void compareAggregationPerRequestWithPreSerializedResponse() throws Exception {
+        String perRequestPath = "/baseline/getAllMarketPrices";
+        String preSerializedPath = "/getAllMarketPrices";
+
+        // Warm up both paths before measuring
+        runLoad(perRequestPath, NUM_REQUESTS_PER_THREAD / 10);
+        runLoad(preSerializedPath, NUM_REQUESTS_PER_THREAD / 10);
+
+        LoadResult perRequest = runLoad(perRequestPath, NUM_REQUESTS_PER_THREAD);
+        LoadResult preSerialized = runLoad(preSerializedPath, NUM_REQUESTS_PER_THREAD);
+
+        log.info("Aggregation and serialization per request: {}", perRequest);
+        log.info("Pre-serialized response:                   {}", preSerialized);
+
+        assertTrue(preSerialized.requestsPerSec > perRequest.requestsPerSec,
+                "Pre-serialized response should be served faster than per request aggregation");
+    }
+
+    private LoadResult runLoad(String path, int numRequestsPerThread) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_CLIENT_THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        AtomicLong numBytesReceived = new AtomicLong();
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < NUM_CLIENT_THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                long[] latencies = new long[numRequestsPerThread];
+                startSignal.await();
+                for (int i = 0; i < numRequestsPerThread; i++) {
+                    long ts = System.nanoTime();
+                    HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                    latencies[i] = System.nanoTime() - ts;
+                    assertEquals(200, response.statusCode());
+                    numBytesReceived.addAndGet(response.body().length);
+                }
+                return latencies;
+            }));
+        }
+
+        long ts = System.nanoTime();
+        startSignal.countDown();
+        long[] allLatencies = new long[NUM_CLIENT_THREADS * numRequestsPerThread];
+        int pos = 0;
+        for (Future<long[]> future : futures) {
+            long[] latencies = future.get();
+            System.arraycopy(latencies, 0, allLatencies, pos, latencies.length);
+            pos += latencies.length;
+        }
+        long durationNanos = System.nanoTime() - ts;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+
+        Arrays.sort(allLatencies);
+        LoadResult result = new LoadResult();
+        result.requestsPerSec = allLatencies.length / (durationNanos / 1e9);
+        result.p50Micros = allLatencies[allLatencies.length / 2] / 1000;
+        result.p99Micros = allLatencies[(int) (allLatencies.length * 0.99)] / 1000;
+        result.bytesPerResponse = numBytesReceived.get() / allLatencies.length;
+        return result;
+    }
+
+    private static class LoadResult {
+        double requestsPerSec;
+        long p50Micros;
+        long p99Micros;
+        long bytesPerResponse;
+
+        @Override
+        public String toString() {
+            return String.format("%.0f req/sec, p50 %d us, p99 %d us, %d bytes per response",
+                    requestsPerSec, p50Micros, p99Micros, bytesPerResponse);
+        }
+    }
+
+    /**
+     * The pricenode with only the market price endpoints and the beans they need, so no
+     * real providers are started.
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    static class LoadTestPricenode {
+        @Bean
+        ExchangeRateService exchangeRateService() {
+            return new ExchangeRateService(providers);
+        }
+
+        @Bean
+        FeeRateService feeRateService() {
+            return new FeeRateService(Collections.emptyList());
+        }
+
+        @Bean
+        AllMarketPricesPublisher allMarketPricesPublisher(ExchangeRateService exchangeRateService,
+                                                          FeeRateService feeRateService,
+                                                          ObjectMapper objectMapper) {
+            return new AllMarketPricesPublisher(exchangeRateService,
+                    feeRateService,
+                    providers,
+                    Collections.emptyList(),
+                    objectMapper);
+        }
+
+        @Bean
+        ExchangeRateController exchangeRateController(ExchangeRateService exchangeRateService,
+                                                      AllMarketPricesPublisher allMarketPricesPublisher) {
+            return new ExchangeRateController(exchangeRateService, allMarketPricesPublisher);
+        }
+
+        @Bean
+        BaselineExchangeRateController baselineExchangeRateController(FeeRateService feeRateService) {
+            return new BaselineExchangeRateController(feeRateService);
+        }
+    }
+
+    /**
+     * The /getAllMarketPrices endpoint as it was before the aggregation was moved to
+     * {@link AllMarketPricesPublisher}: the rates of all providers are aggregated on each
+     * request and the result is serialized and compressed by Spring.
+     */
+    @RestController
+    @RequestMapping("/baseline")
+    static class BaselineExchangeRateController extends PriceController {
+
+        private final FeeRateService feeRateService;
+
+        BaselineExchangeRateController(FeeRateService feeRateService) {
+            this.feeRateService = feeRateService;
+        }
+
+        @GetMapping(path = "/getAllMarketPrices")
+        public Map<String, Object> getAllMarketPrices() {
+            Map<String, Object> retVal = getAggregatedMarketPrices();
+
+            // add the fee info to results
+            feeRateService.getFees().forEach((key, value) -> {
+                retVal.put(ExchangeRateController.translateFieldName(key), value);
+            });
+
+            return retVal;
+        }
+
+        private static Map<String, Object> getAggregatedMarketPrices() {
+            Map<String, Object> metadata = new LinkedHashMap<>();
+            Map<String, ExchangeRate> aggregateExchangeRates = getAggregateExchangeRates();
+
+            providers.forEach(p -> {
+                if (p.get() == null)
+                    return;
+                Set<ExchangeRate> exchangeRates = p.get();
+                long timestamp = exchangeRates.stream()
+                        .filter(e -> p.getName().equals(e.getProvider()))
+                        .findFirst()
+                        .map(ExchangeRate::getTimestamp)
+                        .orElse(0L);
+                metadata.put(p.getPrefix() + "Ts", timestamp);
+                metadata.put(p.getPrefix() + "Count", exchangeRates.size());
+            });
+
+            LinkedHashMap<String, Object> result = new LinkedHashMap<>(metadata);
+            List<ExchangeRate> values = new ArrayList<>(aggregateExchangeRates.values());
+            values.sort(Comparator.comparing(ExchangeRate::getCurrency));
+            result.put("data", values);
+            return result;
+        }
+
+        private static Map<String, ExchangeRate> getAggregateExchangeRates() {
+            Map<String, List<ExchangeRate>> currencyCodeToExchangeRates = new HashMap<>();
+            for (ExchangeRateProvider p : providers) {
+                if (p.get() == null)
+                    continue;
+                for (ExchangeRate exchangeRate : p.get()) {
+                    currencyCodeToExchangeRates.computeIfAbsent(exchangeRate.getCurrency(), k -> new ArrayList<>())
+                            .add(exchangeRate);
+                }
+            }
+
+            Map<String, ExchangeRate> aggregateExchangeRates = new HashMap<>();
+            currencyCodeToExchangeRates.forEach((currencyCode, exchangeRateList) -> {
+                ExchangeRate aggregateExchangeRate;
+                if (exchangeRateList.size() == 1) {
+                    aggregateExchangeRate = exchangeRateList.get(0);
+                } else {
+                    double priceAvg = exchangeRateList.stream()
+                            .mapToDouble(ExchangeRate::getPrice)
+                            .average()
+                            .orElseThrow(IllegalStateException::new);
+                    aggregateExchangeRate = new ExchangeRate(currencyCode,
+                            BigDecimal.valueOf(priceAvg),
+                            new Date(),
+                            "Bisq-Aggregate");
+                }
+                aggregateExchangeRates.put(aggregateExchangeRate.getCurrency(), aggregateExchangeRate);
+            });
+            return aggregateExchangeRates;
+        }
+    }
+
+    /**
+     * Serves a plain text ticker with one "CODE=price" line per currency and slightly
+     * different prices on each call.
+     */
+    private static HttpServer startStubExchangeApi() throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        Random random = new Random(42);
+        server.createContext("/ticker", exchange -> {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < NUM_CURRENCIES; i++) {
+                sb.append("C").append(i).append('=').append(1000 + random.nextInt(100)).append('\n');
+            }
+            byte[] body = sb.toString().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private static class StubExchangeRateProvider extends ExchangeRateProvider {
+        private final HttpClient httpClient = HttpClient.newHttpClient();
+        private final String tickerUrl;
+
+        StubExchangeRateProvider(String name, String prefix, String tickerUrl) {
+            super(new StandardEnvironment(), name, prefix, Duration.ofSeconds(1));
+            this.tickerUrl = tickerUrl;
+        }
+
+        @Override
+        protected Set<ExchangeRate> doGet() {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(tickerUrl)).build();
+                String body = httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body();
+                Set<ExchangeRate> exchangeRates = new HashSet<>();
+                long now = System.currentTimeMillis();
+                for (String line : body.split("\n")) {
+                    String[] tokens = line.split("=");
+                    exchangeRates.add(new ExchangeRate(tokens[0], Double.parseDouble(tokens[1]), now, getName()));
+                }
+                return exchangeRates;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        protected void onRefresh() {
+        }
+    }
+}
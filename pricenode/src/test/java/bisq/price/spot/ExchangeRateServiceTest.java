@@ -160,6 +160,27 @@ public class ExchangeRateServiceTest {
         assertNotEquals(0L, retrievedData.get(dummyProvider2.getPrefix() + "Ts"));
     }
 
+    @Test
+    public void getMarketPriceUpdates_withUnchangedProviderData_returnsEmptyDelta() {
+        int numberOfCurrencyPairsOnExchange = 3;
+        ExchangeRateProvider dummyProvider = buildDummyExchangeRateProvider(numberOfCurrencyPairsOnExchange);
+        ExchangeRateService service = new ExchangeRateService(Collections.singletonList(dummyProvider));
+
+        // An unknown version results in a full snapshot
+        Map<String, Object> fullSnapshot = service.getMarketPriceUpdates(-1);
+        assertEquals(true, fullSnapshot.get("fullSnapshot"));
+        assertEquals(numberOfCurrencyPairsOnExchange, ((List<?>) fullSnapshot.get("data")).size());
+
+        // The provider has not refreshed in the meantime, so the version is unchanged
+        // and the delta is empty
+        long version = (long) fullSnapshot.get("version");
+        Map<String, Object> delta = service.getMarketPriceUpdates(version);
+        assertEquals(false, delta.get("fullSnapshot"));
+        assertEquals(version, delta.get("version"));
+        assertTrue(((List<?>) delta.get("data")).isEmpty());
+        assertTrue(((List<?>) delta.get("removed")).isEmpty());
+    }
+
     /**
      * Tests the scenario when currencies are excluded from the PriceNode feed via configuration settings
      */
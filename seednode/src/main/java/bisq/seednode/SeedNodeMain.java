@@ -40,6 +40,7 @@ import bisq.common.app.DevEnv;
 import bisq.common.config.BaseCurrencyNetwork;
 import bisq.common.config.Config;
 import bisq.common.handlers.ResultHandler;
+import bisq.common.metrics.MetricsHttpServer;
 
 import com.google.inject.Key;
 import com.google.inject.name.Names;
@@ -49,12 +50,16 @@ import java.util.List;
 
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
+
 @Slf4j
 public class SeedNodeMain extends ExecutableForAppWithP2p {
     private static final long CHECK_CONNECTION_LOSS_SEC = 30;
     private static final String VERSION = "1.7.5";
     private SeedNode seedNode;
     private Timer checkConnectionLossTime;
+    @Nullable
+    private MetricsHttpServer metricsHttpServer;
 
     public SeedNodeMain() {
         super("Bisq Seednode", "bisq-seednode", "bisq_seednode", VERSION);
@@ -149,6 +154,11 @@ public class SeedNodeMain extends ExecutableForAppWithP2p {
 
         seedNode.startApplication();
 
+        if (config.metricsPort != Config.UNSPECIFIED_PORT) {
+            metricsHttpServer = new MetricsHttpServer(config.metricsPort);
+            metricsHttpServer.start();
+        }
+
         injector.getInstance(P2PService.class).addP2PServiceListener(new P2PServiceListener() {
             @Override
             public void onDataReceived() {
@@ -227,6 +237,9 @@ public class SeedNodeMain extends ExecutableForAppWithP2p {
     @Override
     public void gracefulShutDown(ResultHandler resultHandler) {
         seedNode.shutDown();
+        if (metricsHttpServer != null) {
+            metricsHttpServer.shutDown();
+        }
         super.gracefulShutDown(resultHandler);
     }
 }